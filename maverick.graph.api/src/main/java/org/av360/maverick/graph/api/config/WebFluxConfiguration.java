@@ -1,14 +1,12 @@
 package org.av360.maverick.graph.api.config;
 
 
-import org.av360.maverick.graph.api.converter.decoder.BufferedStatementsDecoder;
 import org.av360.maverick.graph.api.converter.decoder.StreamingStatementsDecoder;
 import org.av360.maverick.graph.api.converter.encoder.BindingSetEncoder;
-import org.av360.maverick.graph.api.converter.encoder.BufferedStatementsEncoder;
+import org.av360.maverick.graph.api.converter.encoder.JsonLdStatementsEncoder;
 import org.av360.maverick.graph.api.converter.encoder.StatementsEncoder;
-import org.av360.maverick.graph.api.converter.encoder.TupleQueryResultsEncoder;
+import org.av360.maverick.graph.api.converter.encoder.TurtleStatementsEncoder;
 import org.av360.maverick.graph.model.enums.RepositoryType;
-import org.av360.maverick.graph.services.SchemaServices;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -30,11 +28,9 @@ public class WebFluxConfiguration implements WebFluxConfigurer {
                 .maxAge(3600);
     }
 
-    private final SchemaServices schemaServices;
     private final Environment environment;
 
-    public WebFluxConfiguration(@Autowired SchemaServices schemaServices, @Autowired Environment environment) {
-        this.schemaServices = schemaServices;
+    public WebFluxConfiguration(@Autowired Environment environment) {
         this.environment = environment;
     }
 
@@ -46,12 +42,11 @@ public class WebFluxConfiguration implements WebFluxConfigurer {
 
 
     public void configureHttpMessageCodecs(ServerCodecConfigurer configurer) {
-            configurer.customCodecs().register(new BufferedStatementsEncoder(this.schemaServices, environment));
-        configurer.customCodecs().register(new StatementsEncoder());
-        configurer.customCodecs().register(new TupleQueryResultsEncoder());
-        configurer.customCodecs().register(new BindingSetEncoder());
-        configurer.customCodecs().register(new BufferedStatementsDecoder());
-        configurer.customCodecs().register(new StreamingStatementsDecoder());
+        configurer.customCodecs().register(new TurtleStatementsEncoder(this.environment));
+        configurer.customCodecs().register(new JsonLdStatementsEncoder(this.environment));
+        configurer.customCodecs().register(new StatementsEncoder(this.environment));
+        configurer.customCodecs().register(new BindingSetEncoder(this.environment));
+        configurer.customCodecs().register(new StreamingStatementsDecoder(this.environment));
     }
 
 
@@ -53,6 +53,11 @@ import javax.annotation.Nullable;
         \s
         Every entity is **strongly typed**, ensuring adherence to a designated structure or category. In addition, every 
         entity gets assigned a unique identifier, the Entity Key. 
+        \s
+        JSON-LD responses with up to 10.000 statements (see `application.api.encoding.jsonld.hierarchicalLimit`) are 
+        compacted with nested nodes, larger responses are streamed as flat list of nodes. Request a fixed shape with 
+        the profile parameter, e.g. `application/ld+json;profile="http://www.w3.org/ns/json-ld#flattened"` (streamed) 
+        or `application/ld+json;profile="http://www.w3.org/ns/json-ld#compacted"`. 
         """,
         extensions = @Extension(name = "order", properties = {@ExtensionProperty(name = "position", value = "1")}))
 @RequestMapping(path = "/api")
@@ -81,7 +86,7 @@ public interface EntitiesAPI {
                                   @Parameter(description = "Prefixed property key like 'dc.identifier' pointing to a global external identifier, if the internal key is unknown.", required = false) @RequestParam(required = false) @Nullable String property);
 
     @GetMapping(value = "/entities/{key}",
-            produces = {RdfMimeTypes.JSONLD_VALUE, RdfMimeTypes.TURTLESTAR_VALUE})
+            produces = {RdfMimeTypes.JSONLD_VALUE, RdfMimeTypes.TURTLESTAR_VALUE, RdfMimeTypes.BINARY_VALUE})
     @ResponseStatus(HttpStatus.OK)
     Flux<AnnotatedStatement> readAsRDFStar(@Parameter(description = "Key of the entity to be fetched", required = true) @PathVariable String key,
                                        @Parameter(description = "Prefixed property key like 'dc.identifier' pointing to a global external identifier, if the internal key is unknown.", required = false) @RequestParam(required = false) @Nullable String property);
@@ -92,7 +97,7 @@ public interface EntitiesAPI {
     Mono<Responses.EntityResponse> readAsItem(@Parameter(description = "Key of the entity to be fetched", required = true) @PathVariable String key,
                                               @Parameter(description = "Prefixed property key like 'dc.identifier' pointing to a global external identifier, if the internal key is unknown.", required = false) @RequestParam(required = false) @Nullable String property);
 
-    @GetMapping(value = "/entities", produces = {RdfMimeTypes.JSONLD_VALUE, RdfMimeTypes.TURTLE_VALUE, RdfMimeTypes.N3_VALUE})
+    @GetMapping(value = "/entities", produces = {RdfMimeTypes.JSONLD_VALUE, RdfMimeTypes.TURTLE_VALUE, RdfMimeTypes.N3_VALUE, RdfMimeTypes.BINARY_VALUE})
     @ResponseStatus(HttpStatus.OK)
     @Operation(summary = "List Entities",
             description = """
@@ -117,14 +122,16 @@ public interface EntitiesAPI {
             @RequestParam(value = "offset", defaultValue = "0") Integer offset);
 
     @PostMapping(value = "/entities",
-            consumes = {RdfMimeTypes.JSONLD_VALUE, RdfMimeTypes.TURTLE_VALUE, RdfMimeTypes.N3_VALUE, RdfMimeTypes.NTRIPLES_VALUE},
-            produces = {RdfMimeTypes.JSONLD_VALUE, RdfMimeTypes.TURTLE_VALUE, RdfMimeTypes.N3_VALUE, RdfMimeTypes.NTRIPLES_VALUE})
+            consumes = {RdfMimeTypes.JSONLD_VALUE, RdfMimeTypes.TURTLE_VALUE, RdfMimeTypes.N3_VALUE, RdfMimeTypes.NTRIPLES_VALUE, RdfMimeTypes.BINARY_VALUE},
+            produces = {RdfMimeTypes.JSONLD_VALUE, RdfMimeTypes.TURTLE_VALUE, RdfMimeTypes.N3_VALUE, RdfMimeTypes.NTRIPLES_VALUE, RdfMimeTypes.BINARY_VALUE})
     @ResponseStatus(HttpStatus.ACCEPTED)
     @Operation(summary = "Create Entity",
             description = """
                     Creates an entity from a valid RDF document in the request body. The document can contain multiple 
                     linked data fragments (statements with a common subject as selector).
                     Type definitions are mandatory for all subjects.
+                    The document is created in one transaction and held in memory while it is processed, use the 
+                    import of the admin API for bulk loads.
                     """,
             responses = {
                     @ApiResponse(responseCode = "202", description = "Entity successfully created",
@@ -136,7 +143,7 @@ public interface EntitiesAPI {
 
 
     @DeleteMapping(value = "/entities/{key:[\\w|\\d|\\-|\\_]+}",
-            produces = {RdfMimeTypes.JSONLD_VALUE, RdfMimeTypes.TURTLE_VALUE, RdfMimeTypes.N3_VALUE})
+            produces = {RdfMimeTypes.JSONLD_VALUE, RdfMimeTypes.TURTLE_VALUE, RdfMimeTypes.N3_VALUE, RdfMimeTypes.BINARY_VALUE})
     @ResponseStatus(HttpStatus.OK)
     @Operation(
             summary = "Delete Entity by Key",
@@ -25,6 +25,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.av360.maverick.graph.model.enums.RdfMimeTypes;
 import org.av360.maverick.graph.model.enums.RepositoryType;
 import org.av360.maverick.graph.model.enums.SparqlMimeTypes;
 import org.av360.maverick.graph.model.rdf.AnnotatedStatement;
@@ -59,7 +60,7 @@ public interface QueryAPI {
             }
     )
     @PostMapping(value = "/select", consumes = {MediaType.TEXT_PLAIN_VALUE, SparqlMimeTypes.SPARQL_QUERY_VALUE},
-            produces = { SparqlMimeTypes.JSON_VALUE, "text/csv; charset=utf-8"})
+            produces = { SparqlMimeTypes.JSON_VALUE, "text/csv; charset=utf-8", SparqlMimeTypes.TSV_VALUE, SparqlMimeTypes.SPARQL_VALUE})
     @io.swagger.v3.oas.annotations.parameters.RequestBody(
             description = "Sparql Select Query",
             content = @Content(examples = {
@@ -100,7 +101,7 @@ public interface QueryAPI {
                     @ApiResponse(responseCode = "400", description = "Invalid request parameters", content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ErrorAttributes.class))})
             }
     )
-    @GetMapping(value = "/select", produces = {SparqlMimeTypes.CSV_VALUE, SparqlMimeTypes.JSON_VALUE})
+    @GetMapping(value = "/select", produces = {SparqlMimeTypes.CSV_VALUE, SparqlMimeTypes.JSON_VALUE, SparqlMimeTypes.TSV_VALUE, SparqlMimeTypes.SPARQL_VALUE})
     @ResponseStatus(HttpStatus.OK)
     Flux<BindingSet> queryBindingsGet(@RequestParam(required = true) String query,
                                       @RequestParam(required = false, defaultValue = "entities", value = "entities") @Parameter(name = "repository", description = "The repository type in which the query should search.")
@@ -117,7 +118,7 @@ public interface QueryAPI {
                     @ApiResponse(responseCode = "400", description = "Invalid request parameters", content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ErrorAttributes.class))})
             }
     )
-    @PostMapping(value = "/construct", consumes = "text/plain", produces = {"text/turtle", "application/ld+json"})
+    @PostMapping(value = "/construct", consumes = "text/plain", produces = {"text/turtle", "application/ld+json", RdfMimeTypes.BINARY_VALUE})
     @ResponseStatus(HttpStatus.OK)
     @io.swagger.v3.oas.annotations.parameters.RequestBody(
             description = "Sparql Construct Query",
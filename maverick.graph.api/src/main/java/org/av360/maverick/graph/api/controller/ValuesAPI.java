@@ -80,7 +80,7 @@ public interface ValuesAPI {
                     @ApiResponse(responseCode = "200", description = "Successfully retrieved list of values", content = @Content(mediaType = RdfMimeTypes.TURTLESTAR_VALUE, schema = @Schema(implementation = AnnotatedStatement.class)))
             }
     )
-    @GetMapping(value = "/entities/{key:[\\w|\\d|\\-|\\_]+}/values", produces = {RdfMimeTypes.TURTLESTAR_VALUE})
+    @GetMapping(value = "/entities/{key:[\\w|\\d|\\-|\\_]+}/values", produces = {RdfMimeTypes.TURTLESTAR_VALUE, RdfMimeTypes.BINARY_VALUE})
     @ResponseStatus(HttpStatus.OK)
     Flux<AnnotatedStatement> list(@PathVariable String key,
                                   @Nullable @RequestParam(required = false) String prefixedProperty);
@@ -128,7 +128,7 @@ public interface ValuesAPI {
     )
     @PostMapping(value = "/entities/{key:[\\w|\\d|\\-|\\_]+}/values/{prefixedProperty:[\\w|\\d]+\\.[\\w|\\d|\\-|\\_]+}",
             consumes = {MediaType.TEXT_PLAIN_VALUE},
-            produces = {RdfMimeTypes.TURTLE_VALUE, RdfMimeTypes.JSONLD_VALUE})
+            produces = {RdfMimeTypes.TURTLE_VALUE, RdfMimeTypes.JSONLD_VALUE, RdfMimeTypes.BINARY_VALUE})
     @ResponseStatus(HttpStatus.OK)
     Flux<AnnotatedStatement> insertAsRdf(@PathVariable String key,
                                          @PathVariable String prefixedProperty,
@@ -149,7 +149,7 @@ public interface ValuesAPI {
 
 
     @GetMapping(value = "/entities/{key:[\\w|\\d|\\-|\\_]+}/values/{prefixedProperty:[\\w|\\d]+\\.[\\w|\\d|\\-|\\_]+}",
-            produces = {RdfMimeTypes.TURTLE_VALUE, RdfMimeTypes.JSONLD_VALUE})
+            produces = {RdfMimeTypes.TURTLE_VALUE, RdfMimeTypes.JSONLD_VALUE, RdfMimeTypes.BINARY_VALUE})
     @ResponseStatus(HttpStatus.OK)
     Flux<AnnotatedStatement> getAsRdf(@PathVariable String key,
                                       @PathVariable String prefixedProperty,
@@ -193,7 +193,7 @@ public interface ValuesAPI {
             }
     )
     @DeleteMapping(value = "/entities/{key:[\\w|\\d|\\-|\\_]+}/values/{prefixedProperty:[\\w|\\d]+\\.[\\w|\\d]+}",
-            produces = {RdfMimeTypes.TURTLE_VALUE, RdfMimeTypes.JSONLD_VALUE})
+            produces = {RdfMimeTypes.TURTLE_VALUE, RdfMimeTypes.JSONLD_VALUE, RdfMimeTypes.BINARY_VALUE})
     @ResponseStatus(HttpStatus.OK)
     Flux<AnnotatedStatement> remove(@PathVariable String key,
                                     @PathVariable String prefixedProperty,
@@ -225,8 +225,8 @@ public interface ValuesAPI {
             }
     )
     @PostMapping(value = "/entities/{key:[\\w|\\d|\\-|\\_]+}/composites/{prefixedProperty:[\\w|\\d]+\\.[\\w|\\d]+}",
-            consumes = {RdfMimeTypes.JSONLD_VALUE, RdfMimeTypes.TURTLE_VALUE},
-            produces = {RdfMimeTypes.TURTLE_VALUE, RdfMimeTypes.JSONLD_VALUE})
+            consumes = {RdfMimeTypes.JSONLD_VALUE, RdfMimeTypes.TURTLE_VALUE, RdfMimeTypes.BINARY_VALUE},
+            produces = {RdfMimeTypes.TURTLE_VALUE, RdfMimeTypes.JSONLD_VALUE, RdfMimeTypes.BINARY_VALUE})
     @ResponseStatus(HttpStatus.CREATED)
     Flux<AnnotatedStatement> embed(@PathVariable String key, @PathVariable String prefixedProperty, @RequestBody Triples value);
 }
@@ -37,7 +37,7 @@ public class TransactionsController extends AbstractController {
     @GetMapping(value = "/{id:[\\w|\\d|\\-|\\_]+}", produces = {RdfMimeTypes.JSONLD_VALUE, RdfMimeTypes.TURTLE_VALUE, RdfMimeTypes.NQUADS_VALUE, RdfMimeTypes.N3_VALUE})
     @ResponseStatus(HttpStatus.OK)
     Flux<AnnotatedStatement> read(@PathVariable String id) {
-        Assert.isTrue(id.length() == LocalIdentifier.LENGTH, "Incorrect length for identifier.");
+        Assert.isTrue(LocalIdentifier.hasLength(id), "Incorrect length for identifier.");
 
         // FIXME: marker to use transactions repository
         return super.acquireContext()
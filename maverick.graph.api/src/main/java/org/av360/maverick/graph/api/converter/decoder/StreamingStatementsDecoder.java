@@ -2,37 +2,70 @@ package org.av360.maverick.graph.api.converter.decoder;
 
 import lombok.extern.slf4j.Slf4j;
 import org.av360.maverick.graph.model.rdf.Triples;
+import org.av360.maverick.graph.store.rdf.fragments.TripleBag;
+import org.av360.maverick.graph.store.rdf.helpers.DataBufferInputStream;
 import org.av360.maverick.graph.store.rdf.helpers.RdfUtils;
 import org.av360.maverick.graph.store.rdf.helpers.TriplesCollector;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Statement;
 import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.RDFHandlerException;
 import org.eclipse.rdf4j.rio.RDFParser;
+import org.eclipse.rdf4j.rio.helpers.AbstractRDFHandler;
 import org.reactivestreams.Publisher;
 import org.springframework.core.ResolvableType;
 import org.springframework.core.codec.Decoder;
+import org.springframework.core.env.Environment;
 import org.springframework.core.io.buffer.DataBuffer;
-import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.util.MimeType;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.io.InputStream;
-import java.io.StringReader;
-import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
+/**
+ * Parses request bodies while they are received: the parser reads from the buffers of the body on a worker thread, only
+ * a few buffers are requested ahead. The body itself is not copied (the JSON-LD parsers still read the complete
+ * document).
+ * <p>
+ * A single {@link Triples} (the request body of entity creation and embedded values) still holds the complete model of
+ * the body: these requests are validated, preprocessed and committed as one transaction. Large uploads go through the
+ * import endpoints, which stream the body into the store in chunks.
+ * <p>
+ * As a stream, the body is split into chunks with the configured number of statements. All chunks come from the same
+ * parser, blank nodes are scoped to the whole body.
+ */
 @Slf4j(topic = "graph.ctrl.io.decoder")
 public class StreamingStatementsDecoder implements Decoder<Triples> {
     private static final List<MimeType> mimeTypes;
 
+    // number of buffers of the request body requested ahead of the parser
+    private static final int PREFETCH = 4;
+
     static {
         mimeTypes = List.of(
+                MimeType.valueOf(RDFFormat.JSONLD.getDefaultMIMEType()),
+                MimeType.valueOf(RDFFormat.RDFJSON.getDefaultMIMEType()),
+                MimeType.valueOf(RDFFormat.TURTLE.getDefaultMIMEType()),
+                MimeType.valueOf(RDFFormat.TURTLESTAR.getDefaultMIMEType()),
                 MimeType.valueOf(RDFFormat.NTRIPLES.getDefaultMIMEType()),
                 MimeType.valueOf(RDFFormat.N3.getDefaultMIMEType()),
-                MimeType.valueOf(RDFFormat.NQUADS.getDefaultMIMEType())
+                MimeType.valueOf(RDFFormat.NQUADS.getDefaultMIMEType()),
+                MimeType.valueOf(RDFFormat.BINARY.getDefaultMIMEType())
         );
     }
 
+    private final int chunkSize;
+
+    public StreamingStatementsDecoder(Environment environment) {
+        this.chunkSize = environment.getProperty("application.api.decoding.chunkSize", Integer.class, 10000);
+    }
+
     @Override
     public List<MimeType> getDecodableMimeTypes() {
         return mimeTypes;
@@ -45,39 +78,116 @@ public class StreamingStatementsDecoder implements Decoder<Triples> {
 
     @Override
     public Flux<Triples> decode(Publisher<DataBuffer> inputStream, ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
-        return Flux.from(this.parse(inputStream, mimeType));
+        return Flux.<Triples>create(sink -> {
+                    Chunks chunks = new Chunks(sink, this.chunkSize);
+                    RDFParser parser = this.getParser(mimeType);
+                    parser.setRDFHandler(chunks);
+
+                    DataBufferInputStream in = new DataBufferInputStream(inputStream, PREFETCH);
+                    sink.onCancel(() -> {
+                        chunks.cancel();
+                        in.cancel();
+                    });
+
+                    try (in) {
+                        parser.parse(in);
+                        log.debug("Parsed payload of mimetype '{}' with {} statements", mimeType.toString(), chunks.count);
+                        sink.complete();
+                    } catch (Exception e) {
+                        if (sink.isCancelled()) return;
+
+                        log.warn("Failed to parse request of mimetype '{}'", mimeType);
+                        sink.error(e);
+                    }
+                })
+                // requests are not scheduled on the worker, it is busy with parsing
+                .subscribeOn(Schedulers.boundedElastic(), false);
     }
 
     @Override
     public Mono<Triples> decodeToMono(Publisher<DataBuffer> inputStream, ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
-        return this.parse(inputStream, mimeType);
-    }
-
-
-    private Mono<Triples> parse(Publisher<DataBuffer> publisher, MimeType mimeType) {
-
-
-        // FIXME: pipe databuffers in inputstream for parser
-
-        return DataBufferUtils.join(publisher)
-                .flatMap(dataBuffer -> {
-                    RDFParser parser = RdfUtils.getParserFactory(mimeType).orElseThrow().getParser();
+        return Mono.fromCallable(() -> {
+                    RDFParser parser = this.getParser(mimeType);
                     TriplesCollector handler = RdfUtils.getTriplesCollector();
+                    parser.setRDFHandler(handler);
 
-                    try (InputStream is = dataBuffer.asInputStream(false)) {
-                        var result = new String(is.readAllBytes(), StandardCharsets.UTF_8);
-
-
-                        parser.setRDFHandler(handler);
-                        parser.parse(new StringReader(result));
+                    try (InputStream in = new DataBufferInputStream(inputStream, PREFETCH)) {
+                        parser.parse(in);
                         log.debug("Parsed payload of mimetype '{}' with {} statements", mimeType.toString(), handler.getTriples().getModel().size());
-                        return Mono.just(handler.getTriples());
-                    } catch (Exception e) {
-                        log.warn("Failed to parse request of mimetype '{}'", mimeType);
-                        return Mono.error(e);
+                        return handler.getTriples();
                     }
-                });
+                })
+                .doOnError(e -> log.warn("Failed to parse request of mimetype '{}'", mimeType))
+                .subscribeOn(Schedulers.boundedElastic());
     }
 
+    private RDFParser getParser(MimeType mimeType) {
+        return RdfUtils.getParserFactory(new MimeType(mimeType.getType(), mimeType.getSubtype())).orElseThrow().getParser();
+    }
 
+    /**
+     * Collects the parsed statements in chunks and hands them out on demand, the parser waits until the next chunk has
+     * been requested. Every chunk knows all namespaces parsed so far.
+     */
+    private static class Chunks extends AbstractRDFHandler {
+        private final FluxSink<Triples> sink;
+        private final int size;
+        private final Map<String, String> namespaces = new LinkedHashMap<>();
+        private TripleBag chunk;
+        private Model model;
+        private long count;
+        private volatile boolean cancelled;
+
+        Chunks(FluxSink<Triples> sink, int size) {
+            this.sink = sink;
+            this.size = size;
+            this.sink.onRequest(n -> this.signal());
+            this.next();
+        }
+
+        @Override
+        public void handleNamespace(String prefix, String uri) {
+            this.namespaces.put(prefix, uri);
+            this.model.setNamespace(prefix, uri);
+        }
+
+        @Override
+        public void handleStatement(Statement st) {
+            this.model.add(st.getSubject(), st.getPredicate(), st.getObject());
+            if (++this.count % this.size == 0) this.emit();
+        }
+
+        @Override
+        public void endRDF() {
+            if (!this.model.isEmpty() || this.count == 0) this.emit();
+        }
+
+        void cancel() {
+            this.cancelled = true;
+            this.signal();
+        }
+
+        private synchronized void signal() {
+            this.notifyAll();
+        }
+
+        private synchronized void emit() {
+            try {
+                while (this.sink.requestedFromDownstream() == 0 && !this.cancelled) this.wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RDFHandlerException("Interrupted while waiting for demand", e);
+            }
+            if (this.cancelled) throw new RDFHandlerException("Parsing of request has been cancelled");
+
+            this.sink.next(this.chunk);
+            this.next();
+        }
+
+        private void next() {
+            this.chunk = new TripleBag();
+            this.model = this.chunk.getModel();
+            this.namespaces.forEach(this.model::setNamespace);
+        }
+    }
 }
@@ -1,16 +1,19 @@
 package org.av360.maverick.graph.api.converter.encoder;
 
 import lombok.extern.slf4j.Slf4j;
+import org.av360.maverick.graph.model.enums.SparqlMimeTypes;
+import org.av360.maverick.graph.model.rdf.QueryProjection;
 import org.eclipse.rdf4j.query.BindingSet;
 import org.eclipse.rdf4j.query.TupleQueryResultHandlerException;
-import org.eclipse.rdf4j.query.impl.TupleQueryResultBuilder;
-import org.eclipse.rdf4j.query.resultio.QueryResultFormat;
 import org.eclipse.rdf4j.query.resultio.QueryResultIO;
 import org.eclipse.rdf4j.query.resultio.TupleQueryResultFormat;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultWriter;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultWriterRegistry;
 import org.eclipse.rdf4j.query.resultio.UnsupportedQueryResultFormatException;
 import org.reactivestreams.Publisher;
 import org.springframework.core.ResolvableType;
 import org.springframework.core.codec.Encoder;
+import org.springframework.core.env.Environment;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DataBufferFactory;
 import org.springframework.http.HttpStatus;
@@ -18,11 +21,21 @@ import org.springframework.util.Assert;
 import org.springframework.util.MimeType;
 import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
-import java.io.ByteArrayOutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Streams the results of select queries (SPARQL/JSON, SPARQL/XML, CSV and TSV) with one writer for the whole response.
+ * The header is written with the projection reported by the store (or the binding names of the first result), the rows
+ * are handed out in chunks of the configured size and the next results are only requested when the chunks
+ * have been consumed.
+ */
 @Slf4j(topic = "graph.ctrl.io.encoder.bindings")
 public class BindingSetEncoder implements Encoder<BindingSet> {
     private static final List<MimeType> mimeTypes;
@@ -30,12 +43,17 @@ public class BindingSetEncoder implements Encoder<BindingSet> {
     static {
         mimeTypes = List.of(
                 MimeType.valueOf("text/csv; charset=utf-8"),
-                MimeType.valueOf(TupleQueryResultFormat.JSON.getDefaultMIMEType())
-                // MimeType.valueOf(TupleQueryResultFormat.CSV.getDefaultMIMEType())
-
+                MimeType.valueOf(SparqlMimeTypes.JSON_VALUE),
+                MimeType.valueOf("text/tab-separated-values; charset=utf-8"),
+                MimeType.valueOf(SparqlMimeTypes.SPARQL_VALUE)
         );
     }
 
+    private final int chunkSize;
+
+    public BindingSetEncoder(Environment environment) {
+        this.chunkSize = environment.getProperty("application.api.encoding.chunkSize", Integer.class, 8192);
+    }
 
     @Override
     public boolean canEncode(ResolvableType elementType, MimeType mimeType) {
@@ -52,42 +70,85 @@ public class BindingSetEncoder implements Encoder<BindingSet> {
 
     @Override
     public Flux<DataBuffer> encode(Publisher<? extends BindingSet> publisher, DataBufferFactory bufferFactory, ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
-
-
         Assert.notNull(mimeType, "No mimetype is set");
         Assert.isAssignable(BindingSet.class, elementType.toClass(), "Invalid object definition");
 
-        QueryResultFormat format = QueryResultIO.getParserFormatForMIMEType(mimeType.toString()).orElseThrow();
-
-        return Flux.from(publisher)
-                .collectList()
-                .flatMapMany(bindingSetList -> {
-                    try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-
-                        TupleQueryResultBuilder b = new TupleQueryResultBuilder();
-                        if (!bindingSetList.isEmpty()) {
-                            b.startQueryResult(bindingSetList.get(0).getBindingNames().stream().toList());
-                            bindingSetList.forEach(b::handleSolution);
-                        } else {
-                            b.startQueryResult(List.of("None"));
-
-                        }
-                        b.endQueryResult();
-                        QueryResultIO.writeTuple(b.getQueryResult(), format, baos);
-
-                        return Flux.just(bufferFactory.wrap(baos.toByteArray()));
-
-
-                    } catch (TupleQueryResultHandlerException | UnsupportedQueryResultFormatException e) {
-                        log.warn("Failed to write query response of mimetype '{}'", mimeType, e);
-                        return Flux.error(new ResponseStatusException(HttpStatus.CONFLICT, "Failed to handle query results"));
-                    } catch (Exception e) {
-                        log.error("Failed to write query response of mimetype '{}'", mimeType, e);
-                        return Flux.error(new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to write response"));
-                    }
+        Optional<TupleQueryResultFormat> format = TupleQueryResultWriterRegistry.getInstance().getFileFormatForMIMEType(mimeType.getType() + "/" + mimeType.getSubtype())
+                .map(TupleQueryResultFormat.class::cast);
+        if (format.isEmpty()) {
+            log.warn("No writer for query response of mimetype '{}'", mimeType);
+            return Flux.error(new ResponseStatusException(HttpStatus.CONFLICT, "Failed to handle query results"));
+        }
+
+        return Flux.defer(() -> {
+                    QueryProjection projection = new QueryProjection();
+                    Results results = new Results(format.get(), bufferFactory, projection);
+
+                    return Flux.from(publisher)
+                            .doOnSubscribe(subscription -> log.debug("Writing query results response with mimetype '{}'", mimeType))
+                            .<DataBuffer>handle((bindings, sink) -> {
+                                DataBuffer chunk = results.write(bindings);
+                                if (chunk != null) sink.next(chunk);
+                            })
+                            .concatWith(Mono.fromSupplier(results::end))
+                            .doFinally(signal -> results.release())
+                            .doOnComplete(() -> log.trace("Completed writing query results response with mimetype '{}'", mimeType))
+                            .contextWrite(context -> context.put(QueryProjection.CONTEXT_KEY, projection));
+                })
+                .onErrorMap(e -> e instanceof TupleQueryResultHandlerException || e instanceof UnsupportedQueryResultFormatException, e -> {
+                    log.warn("Failed to write query response of mimetype '{}'", mimeType, e);
+                    return new ResponseStatusException(HttpStatus.CONFLICT, "Failed to handle query results");
+                })
+                .onErrorMap(UncheckedIOException.class, e -> {
+                    log.error("Failed to write query response of mimetype '{}'", mimeType, e);
+                    return new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to write response");
                 });
-
-
     }
 
+    /**
+     * The query results of one response.
+     */
+    private class Results {
+        private final Chunk chunk;
+        private final TupleQueryResultWriter writer;
+        private final QueryProjection projection;
+        private boolean started;
+
+        Results(TupleQueryResultFormat format, DataBufferFactory bufferFactory, QueryProjection projection) {
+            this.projection = projection;
+            this.chunk = new Chunk(bufferFactory, chunkSize);
+            this.writer = QueryResultIO.createTupleWriter(format, this.chunk);
+        }
+
+        /**
+         * @return the next chunk of the results, if the chunk is full
+         */
+        DataBuffer write(BindingSet bindings) {
+            if (!this.started) this.start(Objects.requireNonNullElseGet(this.projection.getBindingNames(), () -> new ArrayList<>(bindings.getBindingNames())));
+
+            // the writers buffer their output, the chunk fills up without flushing them
+            this.writer.handleSolution(bindings);
+            return this.chunk.size() >= chunkSize ? this.chunk.drain() : null;
+        }
+
+        DataBuffer end() {
+            // without results, the header only has the projection if the store reported it
+            if (!this.started) this.start(Objects.requireNonNullElse(this.projection.getBindingNames(), List.of()));
+
+            this.writer.endQueryResult();
+            return this.chunk.drain();
+        }
+
+        void release() {
+            this.chunk.release();
+        }
+
+        private void start(List<String> bindingNames) {
+            this.writer.startDocument();
+            this.writer.startHeader();
+            this.writer.startQueryResult(bindingNames);
+            this.writer.endHeader();
+            this.started = true;
+        }
+    }
 }
@@ -0,0 +1,55 @@
+package org.av360.maverick.graph.api.converter.encoder;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+
+import java.io.OutputStream;
+
+/**
+ * Writes directly into buffers of the factory (pooled by the server), a buffer is handed out once it holds a chunk.
+ */
+class Chunk extends OutputStream {
+    private final DataBufferFactory bufferFactory;
+    private final int capacity;
+    private DataBuffer buffer;
+
+    Chunk(DataBufferFactory bufferFactory, int chunkSize) {
+        this.bufferFactory = bufferFactory;
+        // leaves room for the output completing the chunk
+        this.capacity = chunkSize * 2;
+    }
+
+    @Override
+    public void write(int b) {
+        this.buffer().write((byte) b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        this.buffer().write(b, off, len);
+    }
+
+    int size() {
+        return this.buffer == null ? 0 : this.buffer.readableByteCount();
+    }
+
+    /**
+     * @return the buffer with the written bytes (null, if nothing has been written since the last chunk)
+     */
+    DataBuffer drain() {
+        DataBuffer result = this.buffer;
+        this.buffer = null;
+        return result;
+    }
+
+    void release() {
+        if (this.buffer != null) DataBufferUtils.release(this.buffer);
+        this.buffer = null;
+    }
+
+    private DataBuffer buffer() {
+        if (this.buffer == null) this.buffer = this.bufferFactory.allocateBuffer(this.capacity);
+        return this.buffer;
+    }
+}
@@ -0,0 +1,165 @@
+package org.av360.maverick.graph.api.converter.encoder;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import org.eclipse.rdf4j.model.*;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.XSD;
+import org.eclipse.rdf4j.rio.RDFHandlerException;
+import org.eclipse.rdf4j.rio.helpers.AbstractRDFHandler;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.*;
+
+/**
+ * Streams statements as flattened JSON-LD: a context with the namespaces (as prefixes for compact IRIs), and a
+ * "@graph" array with one node object for every run of statements with the same subject. Values are written in
+ * expanded form. Only the statements of the current subject are kept in memory.
+ * <p>
+ * Namespaces are only considered before the first statement, named graphs are merged into the default graph.
+ */
+class FlatJsonLdWriter extends AbstractRDFHandler implements Flushable {
+    private static final JsonFactory jsonFactory = JsonFactory.builder().disable(StreamWriteFeature.AUTO_CLOSE_TARGET).build();
+    private static final String DELIMITERS = ":/?#[]@";
+
+    private final JsonGenerator generator;
+    private final Map<String, String> context = new LinkedHashMap<>();
+    private final Map<String, String> prefixes = new HashMap<>();
+    private final List<IRI> types = new ArrayList<>();
+    private final Map<IRI, List<Value>> properties = new LinkedHashMap<>();
+    private Resource subject;
+    private boolean started;
+
+    FlatJsonLdWriter(OutputStream out) {
+        try {
+            this.generator = jsonFactory.createGenerator(out, JsonEncoding.UTF8);
+        } catch (IOException e) {
+            throw new RDFHandlerException(e);
+        }
+    }
+
+    @Override
+    public void handleNamespace(String prefix, String uri) {
+        if (this.started || prefix.isEmpty() || prefix.equals("_") || prefix.contains(":")) return;
+        // only namespaces ending with a delimiter can serve as prefix of compact IRIs
+        if (uri.isEmpty() || DELIMITERS.indexOf(uri.charAt(uri.length() - 1)) < 0) return;
+
+        if (this.prefixes.putIfAbsent(uri, prefix) == null) this.context.put(prefix, uri);
+    }
+
+    @Override
+    public void handleStatement(Statement st) {
+        try {
+            if (!this.started) this.start();
+
+            if (!st.getSubject().equals(this.subject)) {
+                this.writeNode();
+                this.subject = st.getSubject();
+            }
+
+            if (st.getPredicate().equals(RDF.TYPE) && st.getObject() instanceof IRI type) {
+                this.types.add(type);
+            } else {
+                this.properties.computeIfAbsent(st.getPredicate(), p -> new ArrayList<>()).add(st.getObject());
+            }
+        } catch (IOException e) {
+            throw new RDFHandlerException(e);
+        }
+    }
+
+    @Override
+    public void endRDF() {
+        try {
+            if (!this.started) this.start();
+            this.writeNode();
+            this.generator.writeEndArray();
+            this.generator.writeEndObject();
+            this.generator.close();
+        } catch (IOException e) {
+            throw new RDFHandlerException(e);
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        this.generator.flush();
+    }
+
+    private void start() throws IOException {
+        this.started = true;
+        this.generator.writeStartObject();
+        if (!this.context.isEmpty()) {
+            this.generator.writeObjectFieldStart("@context");
+            for (Map.Entry<String, String> entry : this.context.entrySet()) {
+                this.generator.writeStringField(entry.getKey(), entry.getValue());
+            }
+            this.generator.writeEndObject();
+        }
+        this.generator.writeArrayFieldStart("@graph");
+    }
+
+    private void writeNode() throws IOException {
+        if (this.subject == null) return;
+
+        this.generator.writeStartObject();
+        this.writeId(this.subject);
+        if (!this.types.isEmpty()) {
+            this.generator.writeArrayFieldStart("@type");
+            for (IRI type : this.types) this.generator.writeString(this.compact(type));
+            this.generator.writeEndArray();
+        }
+        for (Map.Entry<IRI, List<Value>> property : this.properties.entrySet()) {
+            this.generator.writeArrayFieldStart(this.compact(property.getKey()));
+            for (Value value : property.getValue()) this.writeValue(value);
+            this.generator.writeEndArray();
+        }
+        this.generator.writeEndObject();
+
+        this.subject = null;
+        this.types.clear();
+        this.properties.clear();
+    }
+
+    private void writeValue(Value value) throws IOException {
+        this.generator.writeStartObject();
+        if (value instanceof Literal literal) {
+            this.generator.writeStringField("@value", literal.getLabel());
+            if (literal.getLanguage().isPresent()) {
+                this.generator.writeStringField("@language", literal.getLanguage().get());
+            } else if (!literal.getDatatype().equals(XSD.STRING)) {
+                this.generator.writeStringField("@type", this.compact(literal.getDatatype()));
+            }
+        } else {
+            this.writeId((Resource) value);
+        }
+        this.generator.writeEndObject();
+    }
+
+    /**
+     * Writes the identifier of a resource, quoted triples are written as embedded node (JSON-LD-star).
+     */
+    private void writeId(Resource resource) throws IOException {
+        if (resource instanceof Triple triple) {
+            this.generator.writeObjectFieldStart("@id");
+            this.writeId(triple.getSubject());
+            this.generator.writeArrayFieldStart(this.compact(triple.getPredicate()));
+            this.writeValue(triple.getObject());
+            this.generator.writeEndArray();
+            this.generator.writeEndObject();
+        } else if (resource instanceof BNode bnode) {
+            this.generator.writeStringField("@id", "_:" + bnode.getID());
+        } else {
+            this.generator.writeStringField("@id", this.compact((IRI) resource));
+        }
+    }
+
+    private String compact(IRI iri) {
+        String prefix = this.prefixes.get(iri.getNamespace());
+        if (prefix == null || iri.getLocalName().startsWith("//")) return iri.stringValue();
+        return prefix + ":" + iri.getLocalName();
+    }
+}
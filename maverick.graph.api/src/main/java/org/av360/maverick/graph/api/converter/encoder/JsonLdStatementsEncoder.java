@@ -0,0 +1,125 @@
+package org.av360.maverick.graph.api.converter.encoder;
+
+import org.av360.maverick.graph.store.rdf.helpers.RdfUtils;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.RDFHandler;
+import org.eclipse.rdf4j.rio.RDFWriter;
+import org.eclipse.rdf4j.rio.RDFWriterFactory;
+import org.eclipse.rdf4j.rio.helpers.AbstractRDFHandler;
+import org.eclipse.rdf4j.rio.helpers.JSONLDMode;
+import org.eclipse.rdf4j.rio.helpers.JSONLDSettings;
+import org.springframework.core.env.Environment;
+import org.springframework.util.MimeType;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Writes JSON-LD documents. The shape can be selected with the profile parameter of the JSON-LD media type:
+ * <ul>
+ *     <li>{@value #FLATTENED}: the statements are streamed as flat list of nodes, see {@link FlatJsonLdWriter}</li>
+ *     <li>{@value #COMPACTED}: the response is written as compacted hierarchical view, which requires the complete
+ *     model</li>
+ * </ul>
+ * Without a profile, responses with up to the configured number of statements are written as compacted hierarchical
+ * view, larger responses are streamed as flat list of nodes. Nothing is written before the limit has been exceeded (or
+ * the response is complete).
+ */
+public class JsonLdStatementsEncoder extends StreamingStatementsEncoder {
+    private static final MimeType jsonld = MimeType.valueOf(RDFFormat.JSONLD.getDefaultMIMEType());
+    private static final RDFWriterFactory factory = RdfUtils.getWriterFactory(jsonld).orElseThrow();
+    static final String FLATTENED = "http://www.w3.org/ns/json-ld#flattened";
+    static final String COMPACTED = "http://www.w3.org/ns/json-ld#compacted";
+
+    private final int hierarchicalLimit;
+
+    public JsonLdStatementsEncoder(Environment environment) {
+        super(environment);
+        this.hierarchicalLimit = environment.getProperty("application.api.encoding.jsonld.hierarchicalLimit", Integer.class, 10000);
+    }
+
+    @Override
+    protected RDFHandler getHandler(MimeType mimeType, OutputStream out) {
+        String profile = Objects.requireNonNullElse(mimeType.getParameter("profile"), "");
+        if (profile.contains(FLATTENED)) return new FlatJsonLdWriter(out);
+        if (profile.contains(COMPACTED)) return new BoundedHierarchicalHandler(out, Integer.MAX_VALUE);
+        return new BoundedHierarchicalHandler(out, this.hierarchicalLimit);
+    }
+
+    @Override
+    public List<MimeType> getEncodableMimeTypes() {
+        return List.of(jsonld);
+    }
+
+    /**
+     * Keeps the statements until the limit is exceeded, and switches to the flat list of nodes afterwards.
+     */
+    private static class BoundedHierarchicalHandler extends AbstractRDFHandler implements Flushable {
+        private final OutputStream out;
+        private final int limit;
+        private final Map<String, String> namespaces = new LinkedHashMap<>();
+        private List<Statement> statements = new ArrayList<>();
+        private FlatJsonLdWriter flat;
+
+        BoundedHierarchicalHandler(OutputStream out, int limit) {
+            this.out = out;
+            this.limit = limit;
+        }
+
+        @Override
+        public void handleNamespace(String prefix, String uri) {
+            if (this.flat != null) this.flat.handleNamespace(prefix, uri);
+            else this.namespaces.put(prefix, uri);
+        }
+
+        @Override
+        public void handleStatement(Statement st) {
+            if (this.flat != null) {
+                this.flat.handleStatement(st);
+                return;
+            }
+
+            this.statements.add(st);
+            if (this.statements.size() > this.limit) {
+                this.flat = new FlatJsonLdWriter(this.out);
+                this.write(this.flat);
+                this.statements = null;
+            }
+        }
+
+        @Override
+        public void endRDF() {
+            if (this.flat != null) {
+                this.flat.endRDF();
+                return;
+            }
+
+            RDFWriter writer = factory.getWriter(this.out);
+            writer.set(JSONLDSettings.HIERARCHICAL_VIEW, true);
+            writer.set(JSONLDSettings.COMPACT_ARRAYS, true);
+            writer.set(JSONLDSettings.OPTIMIZE, true);
+            writer.set(JSONLDSettings.USE_NATIVE_TYPES, true);
+            writer.set(JSONLDSettings.JSONLD_MODE, JSONLDMode.COMPACT);
+            this.write(writer);
+            writer.endRDF();
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (this.flat != null) this.flat.flush();
+        }
+
+        private void write(RDFHandler handler) {
+            handler.startRDF();
+            this.namespaces.forEach(handler::handleNamespace);
+            this.statements.forEach(handler::handleStatement);
+        }
+    }
+}
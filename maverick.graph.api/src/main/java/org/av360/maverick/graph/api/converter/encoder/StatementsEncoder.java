@@ -1,73 +1,65 @@
 package org.av360.maverick.graph.api.converter.encoder;
 
-import lombok.extern.slf4j.Slf4j;
-import org.av360.maverick.graph.model.rdf.AnnotatedStatement;
 import org.av360.maverick.graph.store.rdf.helpers.RdfUtils;
-import org.eclipse.rdf4j.model.Statement;
 import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.RDFHandler;
 import org.eclipse.rdf4j.rio.RDFWriter;
-import org.eclipse.rdf4j.rio.Rio;
-import org.reactivestreams.Publisher;
-import org.springframework.core.ResolvableType;
-import org.springframework.core.codec.Encoder;
-import org.springframework.core.io.buffer.DataBuffer;
-import org.springframework.core.io.buffer.DataBufferFactory;
-import org.springframework.http.HttpStatus;
+import org.eclipse.rdf4j.rio.RDFWriterFactory;
+import org.eclipse.rdf4j.rio.helpers.BasicWriterSettings;
+import org.springframework.core.env.Environment;
 import org.springframework.util.MimeType;
-import org.springframework.web.server.ResponseStatusException;
-import reactor.core.publisher.Flux;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
- * The buffered statements encoder is required by formats with a header (JSON-LD, Turtle) and a concise syntax. Here,
- * we need to collect all statements to print a completed document. For n-quads or similar formats, we simply dump the statements.
+ * Streams line based formats (n-triples, n-quads, n3) and binary RDF with one writer for the whole response. RDF/JSON
+ * is supported as well, but the writer keeps all statements until the end of the response.
+ * <p>
+ * All statements are written, including the internal ones.
  */
-@Slf4j(topic = "graph.ctrl.io.encoder.streaming")
-public class StatementsEncoder implements Encoder<AnnotatedStatement> {
+public class StatementsEncoder extends StreamingStatementsEncoder {
     private static final List<MimeType> mimeTypes;
 
+    private static final Map<MimeType, RDFWriterFactory> factories;
+
+    private static final MimeType n3 = MimeType.valueOf(RDFFormat.N3.getDefaultMIMEType());
+    private static final RDFWriterFactory turtle = RdfUtils.getWriterFactory(MimeType.valueOf(RDFFormat.TURTLE.getDefaultMIMEType())).orElseThrow();
 
     static {
         mimeTypes = List.of(
                 MimeType.valueOf(RDFFormat.RDFJSON.getDefaultMIMEType()),
                 MimeType.valueOf(RDFFormat.NTRIPLES.getDefaultMIMEType()),
-                MimeType.valueOf(RDFFormat.N3.getDefaultMIMEType()),
-                MimeType.valueOf(RDFFormat.NQUADS.getDefaultMIMEType())
+                n3,
+                MimeType.valueOf(RDFFormat.NQUADS.getDefaultMIMEType()),
+                MimeType.valueOf(RDFFormat.BINARY.getDefaultMIMEType())
         );
+
+        factories = mimeTypes.stream().collect(Collectors.toMap(Function.identity(), mimeType -> RdfUtils.getWriterFactory(mimeType).orElseThrow()));
     }
 
+    public StatementsEncoder(Environment environment) {
+        super(environment);
+    }
 
     @Override
-    public boolean canEncode(ResolvableType elementType, MimeType mimeType) {
-        return mimeType != null && Statement.class.isAssignableFrom(elementType.toClass()) && mimeType.isPresentIn(mimeTypes);
+    protected RDFHandler getHandler(MimeType mimeType, OutputStream out) {
+        MimeType type = withoutParameters(mimeType);
+        if (type.equals(n3)) {
+            // the n3 writer sorts the statements in batches (regardless of the settings), the turtle syntax is valid n3
+            RDFWriter writer = turtle.getWriter(out);
+            writer.set(BasicWriterSettings.PRETTY_PRINT, false);
+            return writer;
+        }
+        return factories.get(type).getWriter(out);
     }
 
     @Override
-    public Flux<DataBuffer> encode(Publisher<? extends AnnotatedStatement> inputStream, DataBufferFactory bufferFactory, ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
-
-
-        return Flux
-                .from(inputStream)
-                .doOnSubscribe(c -> log.debug("Trying to write statements stream response with mimetype '{}'", mimeType != null ? mimeType.toString() : "unset"))
-                .map(namespaceAwareStatement -> (Statement) namespaceAwareStatement)
-                .buffer(50)
-                .flatMap(statements -> {
-                    try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-                        RDFWriter writer = RdfUtils.getWriterFactory(mimeType).orElseThrow().getWriter(baos);
-                        Rio.write(statements, writer);
-                        return Flux.just(bufferFactory.wrap(baos.toByteArray()));
-                    } catch (IOException e) {
-                        log.error("Failed to write response of mimetype '{}'", mimeType.toString(), e);
-                        return Flux.error(new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to write response"));
-                    } finally {
-                        log.trace("Completed writing statements stream response with mimetype '{}'", mimeType != null ? mimeType.toString() : "unset");
-                    }
-
-                });
+    protected boolean includesInternalStatements() {
+        return true;
     }
 
     @Override
@@ -75,4 +67,3 @@ public class StatementsEncoder implements Encoder<AnnotatedStatement> {
         return mimeTypes;
     }
 }
-
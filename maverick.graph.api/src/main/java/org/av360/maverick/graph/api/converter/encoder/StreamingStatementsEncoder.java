@@ -0,0 +1,176 @@
+package org.av360.maverick.graph.api.converter.encoder;
+
+import lombok.extern.slf4j.Slf4j;
+import org.av360.maverick.graph.model.vocabulary.meg.Local;
+import org.eclipse.rdf4j.common.io.CharSink;
+import org.eclipse.rdf4j.model.Namespace;
+import org.eclipse.rdf4j.model.NamespaceAware;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.rio.RDFHandler;
+import org.eclipse.rdf4j.rio.RDFHandlerException;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.Encoder;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.MimeType;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Encoder writing the document for the whole response with one handler: the namespaces of the first statement are
+ * written up front, and the document is handed out in chunks whenever a subject is completed and the configured chunk
+ * size (in bytes) has been reached. Neither the statements nor the complete document are kept in memory, the next
+ * statements are only requested when the chunks have been consumed.
+ */
+@Slf4j(topic = "graph.ctrl.io.encoder.streaming")
+public abstract class StreamingStatementsEncoder implements Encoder<Statement> {
+
+    private final Environment environment;
+    private final int chunkSize;
+
+    protected StreamingStatementsEncoder(Environment environment) {
+        this.environment = environment;
+        this.chunkSize = environment.getProperty("application.api.encoding.chunkSize", Integer.class, 8192);
+    }
+
+    /**
+     * @return the handler writing the document for one response into the given stream
+     */
+    protected abstract RDFHandler getHandler(MimeType mimeType, OutputStream out);
+
+    @Override
+    public boolean canEncode(ResolvableType elementType, MimeType mimeType) {
+        return mimeType != null && Statement.class.isAssignableFrom(elementType.toClass()) && mimeType.isPresentIn(this.getEncodableMimeTypes());
+    }
+
+    @Override
+    public Flux<DataBuffer> encode(Publisher<? extends Statement> inputStream, DataBufferFactory bufferFactory, ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+        boolean includeInternal = this.includesInternalStatements();
+
+        return Flux.defer(() -> {
+                    Document document = new Document(mimeType, bufferFactory);
+
+                    return Flux.from(inputStream)
+                            .doOnSubscribe(c -> {
+                                if (log.isTraceEnabled()) {
+                                    log.trace("Setting up statements stream for response with mimetype '{}'", mimeType != null ? mimeType.toString() : "unset");
+                                }
+                            })
+                            .map(statement -> (Statement) statement)
+                            // we filter out any internal statements
+                            .filter(statement -> includeInternal || this.acceptStatement(statement))
+                            .<DataBuffer>handle((statement, sink) -> {
+                                DataBuffer chunk = document.write(statement);
+                                if (chunk != null) sink.next(chunk);
+                            })
+                            .concatWith(Mono.fromSupplier(document::end))
+                            .doFinally(signal -> document.release())
+                            .doOnComplete(() -> {
+                                if (log.isTraceEnabled()) {
+                                    log.trace("Completed writing statements response with mimetype '{}'", mimeType != null ? mimeType.toString() : "unset");
+                                }
+                            });
+                })
+                .onErrorMap(e -> e instanceof RDFHandlerException || e instanceof UncheckedIOException, e -> {
+                    log.error("Failed to write response of mimetype '{}'", mimeType != null ? mimeType.toString() : "unset", e);
+                    return new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to write response");
+                });
+    }
+
+    /**
+     * @return true, if statements about the internal types and original identifiers are part of the response
+     */
+    protected boolean includesInternalStatements() {
+        return this.environment.matchesProfiles("dev | persistent");
+    }
+
+    private boolean acceptStatement(Statement statement) {
+        if (statement.getObject().equals(Local.Entities.TYPE_INDIVIDUAL)) return false;
+        if (statement.getObject().equals(Local.Entities.TYPE_CLASSIFIER)) return false;
+        if (statement.getObject().equals(Local.Entities.TYPE_EMBEDDED)) return false;
+        if (statement.getPredicate().equals(Local.ORIGINAL_IDENTIFIER)) return false;
+
+        return true;
+    }
+
+    /**
+     * The document of one response.
+     */
+    private class Document {
+        private final Chunk chunk;
+        private final RDFHandler handler;
+        private Resource subject;
+
+        Document(MimeType mimeType, DataBufferFactory bufferFactory) {
+            this.chunk = new Chunk(bufferFactory, chunkSize);
+            this.handler = getHandler(mimeType, this.chunk);
+            this.handler.startRDF();
+        }
+
+        /**
+         * @return the next chunk of the document, if the statement starts a new subject and the chunk is full
+         */
+        DataBuffer write(Statement statement) {
+            DataBuffer result = null;
+            if (this.subject == null) {
+                this.handleNamespaces(statement);
+            } else if (!this.subject.equals(statement.getSubject())) {
+                this.flush();
+                if (this.chunk.size() >= chunkSize) result = this.chunk.drain();
+            }
+
+            this.handler.handleStatement(statement);
+            this.subject = statement.getSubject();
+            return result;
+        }
+
+        DataBuffer end() {
+            this.handler.endRDF();
+            return this.chunk.drain();
+        }
+
+        void release() {
+            this.chunk.release();
+        }
+
+        private void handleNamespaces(Statement statement) {
+            if (statement instanceof NamespaceAware namespaceAware) {
+                for (Namespace ns : namespaceAware.getNamespaces()) {
+                    // local URNs are ignored by default
+                    if (ns.getName().startsWith("urn:pwid:eg:")) continue;
+
+                    this.handler.handleNamespace(ns.getPrefix(), ns.getName());
+                }
+            }
+        }
+
+        private void flush() {
+            try {
+                if (this.handler instanceof CharSink sink) {
+                    sink.getWriter().flush();
+                } else if (this.handler instanceof Flushable flushable) {
+                    flushable.flush();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    protected static MimeType withoutParameters(MimeType mimeType) {
+        Objects.requireNonNull(mimeType);
+        return new MimeType(mimeType.getType(), mimeType.getSubtype());
+    }
+}
@@ -0,0 +1,48 @@
+package org.av360.maverick.graph.api.converter.encoder;
+
+import org.av360.maverick.graph.store.rdf.helpers.RdfUtils;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.RDFHandler;
+import org.eclipse.rdf4j.rio.RDFWriterFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.util.MimeType;
+
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streams Turtle (and Turtle-star) documents. The writer groups the statements by subject within its buffer of 1000
+ * statements, the chunks are handed out when a subject is completed.
+ */
+public class TurtleStatementsEncoder extends StreamingStatementsEncoder {
+    private static final List<MimeType> mimeTypes;
+
+    private static final Map<MimeType, RDFWriterFactory> factories;
+
+    static {
+        MimeType turtle = MimeType.valueOf(RDFFormat.TURTLE.getDefaultMIMEType());
+        MimeType turtlestar = MimeType.valueOf(RDFFormat.TURTLESTAR.getDefaultMIMEType());
+
+        mimeTypes = List.of(turtle, turtlestar);
+
+        factories = Map.of(
+                turtle, RdfUtils.getWriterFactory(turtle).orElseThrow(),
+                turtlestar, RdfUtils.getWriterFactory(turtlestar).orElseThrow()
+        );
+    }
+
+    public TurtleStatementsEncoder(Environment environment) {
+        super(environment);
+    }
+
+    @Override
+    protected RDFHandler getHandler(MimeType mimeType, OutputStream out) {
+        return factories.get(withoutParameters(mimeType)).getWriter(out);
+    }
+
+    @Override
+    public List<MimeType> getEncodableMimeTypes() {
+        return mimeTypes;
+    }
+}
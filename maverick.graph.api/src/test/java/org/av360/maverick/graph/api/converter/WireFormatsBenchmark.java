@@ -0,0 +1,115 @@
+package org.av360.maverick.graph.api.converter;
+
+import org.av360.maverick.graph.api.converter.decoder.StreamingStatementsDecoder;
+import org.av360.maverick.graph.api.converter.encoder.JsonLdStatementsEncoder;
+import org.av360.maverick.graph.api.converter.encoder.StatementsEncoder;
+import org.av360.maverick.graph.model.rdf.AnnotatedStatement;
+import org.av360.maverick.graph.model.rdf.Triples;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Namespace;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.util.Values;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.Encoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the wire formats for traffic between services: the size of a response with 500k statements, and the
+ * throughput (statements per second) of the streaming encoders and of the decoder (parsing the response in chunks) for
+ * N-Quads, JSON-LD and binary RDF.
+ */
+@Tag("benchmark")
+public class WireFormatsBenchmark {
+
+    private static final int STATEMENTS = 500_000;
+    private static final int ITERATIONS = 3;
+
+    private static final Set<Namespace> NAMESPACES = Set.of(
+            Values.namespace("sdo", "https://schema.org/"),
+            Values.namespace("ex", "http://example.org/"));
+    private static final IRI PERSON = Values.iri("https://schema.org/Person");
+    private static final IRI NAME = Values.iri("https://schema.org/name");
+    private static final IRI AGE = Values.iri("https://schema.org/age");
+    private static final IRI MEMBER_OF = Values.iri("https://schema.org/memberOf");
+
+    private final MockEnvironment environment = new MockEnvironment();
+
+    @Test
+    public void compareFormats() {
+        StatementsEncoder statementsEncoder = new StatementsEncoder(this.environment);
+        JsonLdStatementsEncoder jsonLdEncoder = new JsonLdStatementsEncoder(this.environment);
+        StreamingStatementsDecoder decoder = new StreamingStatementsDecoder(this.environment);
+
+        System.out.printf("%-12s %12s %18s %18s%n", "format", "size (MB)", "encoded (stmt/s)", "decoded (stmt/s)");
+
+        this.run(RDFFormat.NQUADS, statementsEncoder, decoder);
+        this.run(RDFFormat.JSONLD, jsonLdEncoder, decoder);
+        this.run(RDFFormat.BINARY, statementsEncoder, decoder);
+    }
+
+    private void run(RDFFormat format, Encoder<Statement> encoder, StreamingStatementsDecoder decoder) {
+        MimeType mimeType = MimeType.valueOf(format.getDefaultMIMEType());
+
+        double encoding = Double.MAX_VALUE;
+        List<DataBuffer> body = List.of();
+        for (int i = 0; i < ITERATIONS; i++) {
+            body.forEach(DataBufferUtils::release);
+
+            long start = System.nanoTime();
+            body = encoder.encode(this.statements(), DefaultDataBufferFactory.sharedInstance, ResolvableType.forClass(Statement.class), mimeType, Map.of())
+                    .collectList()
+                    .block();
+            encoding = Math.min(encoding, (System.nanoTime() - start) / 1_000_000_000d);
+        }
+        long size = body.stream().mapToLong(DataBuffer::readableByteCount).sum();
+
+        double decoding = Double.MAX_VALUE;
+        for (int i = 0; i < ITERATIONS; i++) {
+            // the buffers are read again in every iteration
+            Flux<DataBuffer> request = Flux.fromIterable(body).map(buffer -> {
+                ByteBuffer copy = ByteBuffer.allocate(buffer.readableByteCount());
+                buffer.toByteBuffer(copy);
+                return DefaultDataBufferFactory.sharedInstance.wrap(copy);
+            });
+
+            long start = System.nanoTime();
+            Long statements = decoder.decode(request, ResolvableType.forClass(Triples.class), mimeType, Map.of())
+                    .map(triples -> (long) triples.getModel().size())
+                    .reduce(0L, Long::sum)
+                    .block();
+            decoding = Math.min(decoding, (System.nanoTime() - start) / 1_000_000_000d);
+            assertEquals(STATEMENTS, statements);
+        }
+        body.forEach(DataBufferUtils::release);
+
+        System.out.printf("%-12s %12.1f %18.0f %18.0f%n", format.getName(), size / (1024 * 1024d), STATEMENTS / encoding, STATEMENTS / decoding);
+    }
+
+    private Flux<Statement> statements() {
+        return Flux.range(0, STATEMENTS / 4)
+                .concatMapIterable(i -> {
+                    IRI person = Values.iri("http://example.org/person" + i);
+                    return List.of(
+                            AnnotatedStatement.wrap(Values.getValueFactory().createStatement(person, RDF.TYPE, PERSON), NAMESPACES),
+                            AnnotatedStatement.wrap(Values.getValueFactory().createStatement(person, NAME, Values.literal("Person " + i)), NAMESPACES),
+                            AnnotatedStatement.wrap(Values.getValueFactory().createStatement(person, AGE, Values.literal(i % 100)), NAMESPACES),
+                            AnnotatedStatement.wrap(Values.getValueFactory().createStatement(person, MEMBER_OF, Values.iri("http://example.org/organization" + i % 100)), NAMESPACES));
+                });
+    }
+}
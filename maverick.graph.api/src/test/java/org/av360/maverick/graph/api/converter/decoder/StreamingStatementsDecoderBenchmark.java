@@ -0,0 +1,136 @@
+package org.av360.maverick.graph.api.converter.decoder;
+
+import org.av360.maverick.graph.model.rdf.Triples;
+import org.av360.maverick.graph.store.rdf.helpers.RdfUtils;
+import org.av360.maverick.graph.store.rdf.helpers.TriplesCollector;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.RDFParser;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Decodes Turtle and N-Triples bodies of 4 MB and 16 MB (generated while decoding, in buffers of 64 kb), and measures
+ * the total time and the peak heap usage (sum of the peaks of all heap pools) of joining the body into one string before
+ * parsing (as before), of parsing it into one model and of parsing it into chunks of triples.
+ */
+@Tag("benchmark")
+public class StreamingStatementsDecoderBenchmark {
+
+    private static final int[] SIZES_MB = {4, 16};
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final StreamingStatementsDecoder decoder = new StreamingStatementsDecoder(new MockEnvironment());
+
+    @Test
+    public void compareDecoders() {
+        // warm up
+        for (RDFFormat format : List.of(RDFFormat.TURTLE, RDFFormat.NTRIPLES)) {
+            this.joined(format, this.body(format, 1)).block();
+            this.streaming(format, this.body(format, 1)).block();
+            this.chunks(format, this.body(format, 1)).block();
+        }
+
+        System.out.printf("%-10s %-10s %10s %12s %12s %16s%n", "format", "decoder", "body (MB)", "statements", "total (ms)", "peak heap (MB)");
+
+        for (int size : SIZES_MB) {
+            for (RDFFormat format : List.of(RDFFormat.TURTLE, RDFFormat.NTRIPLES)) {
+                long statements = this.run(format, "joined", size, body -> this.joined(format, body));
+                assertEquals(statements, this.run(format, "streaming", size, body -> this.streaming(format, body)));
+                assertEquals(statements, this.run(format, "chunks", size, body -> this.chunks(format, body)));
+            }
+        }
+    }
+
+    private long run(RDFFormat format, String decoder, int size, Function<Flux<DataBuffer>, Mono<Long>> decode) {
+        List<MemoryPoolMXBean> pools = ManagementFactory.getMemoryPoolMXBeans().stream().filter(pool -> pool.getType() == MemoryType.HEAP).toList();
+        System.gc();
+        long baseline = pools.stream().mapToLong(pool -> pool.getUsage().getUsed()).sum();
+        pools.forEach(MemoryPoolMXBean::resetPeakUsage);
+
+        long start = System.nanoTime();
+        Long statements = decode.apply(this.body(format, size)).block();
+        long end = System.nanoTime();
+
+        long peak = pools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum() - baseline;
+        System.out.printf("%-10s %-10s %10d %12d %12.0f %16d%n", format.getName(), decoder, size, statements, (end - start) / 1_000_000d, peak / (1024 * 1024));
+        return statements;
+    }
+
+    private Mono<Long> streaming(RDFFormat format, Flux<DataBuffer> body) {
+        return this.decoder.decodeToMono(body, ResolvableType.forClass(Triples.class), MimeType.valueOf(format.getDefaultMIMEType()), null)
+                .map(triples -> (long) triples.getModel().size());
+    }
+
+    private Mono<Long> chunks(RDFFormat format, Flux<DataBuffer> body) {
+        return this.decoder.decode(body, ResolvableType.forClass(Triples.class), MimeType.valueOf(format.getDefaultMIMEType()), null)
+                .map(triples -> (long) triples.getModel().size())
+                .reduce(0L, Long::sum);
+    }
+
+    /**
+     * Joins the body and parses it from a string, as the decoder of line based formats did before.
+     */
+    private Mono<Long> joined(RDFFormat format, Flux<DataBuffer> body) {
+        return DataBufferUtils.join(body).map(buffer -> {
+            RDFParser parser = RdfUtils.getParserFactory(MimeType.valueOf(format.getDefaultMIMEType())).orElseThrow().getParser();
+            TriplesCollector handler = RdfUtils.getTriplesCollector();
+            try (InputStream is = buffer.asInputStream(true)) {
+                String result = new String(is.readAllBytes(), StandardCharsets.UTF_8);
+                parser.setRDFHandler(handler);
+                parser.parse(new StringReader(result));
+                return (long) handler.getTriples().getModel().size();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * @return a body of the given size, the buffers are generated on request
+     */
+    private Flux<DataBuffer> body(RDFFormat format, int megabytes) {
+        String header = format.equals(RDFFormat.TURTLE) ? "@prefix sdo: <https://schema.org/> .\n@prefix ex: <http://example.org/> .\n" : "";
+        long limit = megabytes * 1024L * 1024L;
+
+        return Flux.<DataBuffer, long[]>generate(() -> new long[]{0, 0}, (state, sink) -> {
+            StringBuilder text = new StringBuilder(BUFFER_SIZE + 256);
+            if (state[0] == 0) text.append(header);
+            while (text.length() < BUFFER_SIZE) {
+                long i = state[1]++;
+                if (format.equals(RDFFormat.TURTLE)) {
+                    text.append("ex:person").append(i).append(" a sdo:Person ; sdo:name \"Person ").append(i).append("\" ; sdo:memberOf [ sdo:name \"Team ").append(i % 100).append("\" ] .\n");
+                } else {
+                    text.append("<http://example.org/person").append(i).append("> <https://schema.org/name> \"Person ").append(i).append("\" .\n");
+                    text.append("<http://example.org/person").append(i).append("> <https://schema.org/memberOf> _:team").append(i).append(" .\n");
+                    text.append("_:team").append(i).append(" <https://schema.org/name> \"Team ").append(i % 100).append("\" .\n");
+                }
+            }
+            byte[] bytes = text.toString().getBytes(StandardCharsets.UTF_8);
+            state[0] += bytes.length;
+            sink.next(DefaultDataBufferFactory.sharedInstance.wrap(bytes));
+            if (state[0] >= limit) sink.complete();
+            return state;
+        });
+    }
+}
@@ -0,0 +1,145 @@
+package org.av360.maverick.graph.api.converter.decoder;
+
+import io.netty.buffer.UnpooledByteBufAllocator;
+import org.av360.maverick.graph.model.rdf.Triples;
+import org.eclipse.rdf4j.model.*;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.model.util.Models;
+import org.eclipse.rdf4j.model.util.Values;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.RDFParseException;
+import org.eclipse.rdf4j.rio.Rio;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.NettyDataBuffer;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingStatementsDecoderTest {
+
+    private final MockEnvironment environment = new MockEnvironment()
+            .withProperty("application.api.decoding.chunkSize", "100");
+
+    private final NettyDataBufferFactory bufferFactory = new NettyDataBufferFactory(UnpooledByteBufAllocator.DEFAULT);
+
+    @Test
+    void parsesBodyInSmallBuffers() throws IOException {
+        String body = turtle(1000);
+        List<DataBuffer> buffers = this.split(body, 64);
+
+        Triples triples = new StreamingStatementsDecoder(this.environment)
+                .decodeToMono(Flux.fromIterable(buffers), ResolvableType.forClass(Triples.class), MimeType.valueOf("text/turtle;charset=UTF-8"), null)
+                .block();
+
+        assertNotNull(triples);
+        assertTrue(Models.isomorphic(Rio.parse(new StringReader(body), RDFFormat.TURTLE), triples.getModel()));
+        assertEquals("https://schema.org/", triples.getModel().getNamespace("sdo").map(Namespace::getName).orElseThrow());
+        buffers.forEach(buffer -> assertEquals(0, ((NettyDataBuffer) buffer).getNativeBuffer().refCnt(), "Expected all buffers to be released"));
+    }
+
+    @Test
+    void keepsBlankNodesAcrossChunks() {
+        String body = turtle(1000) + """
+                _:shared sdo:name "Shared" .
+                ex:person0 sdo:knows _:shared .
+                """;
+        body = body.replace("@prefix ex: <http://example.org/> .\n", "@prefix ex: <http://example.org/> .\nex:first sdo:knows _:shared .\n");
+
+        List<Triples> chunks = new StreamingStatementsDecoder(this.environment)
+                .decode(Flux.fromIterable(this.split(body, 256)), ResolvableType.forClass(Triples.class), MimeType.valueOf(RDFFormat.TURTLE.getDefaultMIMEType()), null)
+                .collectList()
+                .block();
+
+        assertNotNull(chunks);
+        assertTrue(chunks.size() > 10, "Expected the statements in chunks");
+        assertTrue(chunks.stream().allMatch(chunk -> chunk.getModel().size() <= 100));
+        assertTrue(chunks.get(chunks.size() - 1).getModel().getNamespace("sdo").isPresent(), "Expected the namespaces in every chunk");
+
+        Set<Value> shared = new HashSet<>();
+        for (Triples chunk : chunks) {
+            chunk.getModel().filter(Values.iri("http://example.org/first"), null, null).objects().forEach(shared::add);
+            chunk.getModel().filter(null, Values.iri("https://schema.org/name"), Values.literal("Shared")).subjects().forEach(shared::add);
+            chunk.getModel().filter(Values.iri("http://example.org/person0"), Values.iri("https://schema.org/knows"), null).objects().stream().filter(Value::isBNode).forEach(shared::add);
+        }
+        assertEquals(1, shared.size(), "Expected one blank node in all chunks, found " + shared);
+    }
+
+    @Test
+    void readsBodyOnDemand() {
+        AtomicLong requested = new AtomicLong();
+        List<DataBuffer> buffers = this.split(turtle(5000), 64);
+        Flux<DataBuffer> body = Flux.fromIterable(buffers).doOnRequest(requested::addAndGet);
+
+        StepVerifier.create(new StreamingStatementsDecoder(this.environment).decode(body, ResolvableType.forClass(Triples.class), MimeType.valueOf(RDFFormat.TURTLE.getDefaultMIMEType()), null), 1)
+                .assertNext(chunk -> assertEquals(100, chunk.getModel().size()))
+                .thenCancel()
+                .verify();
+
+        assertTrue(requested.get() < buffers.size() / 10, "Requested %d of %d buffers for the first chunk".formatted(requested.get(), buffers.size()));
+    }
+
+    @Test
+    void failsWithInvalidBody() {
+        Flux<DataBuffer> body = Flux.fromIterable(this.split(turtle(10) + "ex:broken sdo:name .", 64));
+
+        StepVerifier.create(new StreamingStatementsDecoder(this.environment).decodeToMono(body, ResolvableType.forClass(Triples.class), MimeType.valueOf(RDFFormat.TURTLE.getDefaultMIMEType()), null))
+                .expectError(RDFParseException.class)
+                .verify();
+    }
+
+    @Test
+    void parsesLineBasedFormats() throws IOException {
+        Model expected = new LinkedHashModel();
+        for (int i = 0; i < 100; i++) {
+            expected.add(Values.iri("http://example.org/person" + i), Values.iri("https://schema.org/name"), Values.literal("Person " + i));
+            expected.add(Values.bnode("b" + i), Values.iri("https://schema.org/knows"), Values.iri("http://example.org/person" + i));
+        }
+        StringWriter body = new StringWriter();
+        Rio.write(expected, body, RDFFormat.NTRIPLES);
+
+        Triples triples = new StreamingStatementsDecoder(this.environment)
+                .decodeToMono(Flux.fromIterable(this.split(body.toString(), 100)), ResolvableType.forClass(Triples.class), MimeType.valueOf(RDFFormat.NTRIPLES.getDefaultMIMEType()), null)
+                .block();
+
+        assertNotNull(triples);
+        assertTrue(Models.isomorphic(expected, triples.getModel()));
+    }
+
+    private List<DataBuffer> split(String body, int size) {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        List<DataBuffer> buffers = new ArrayList<>();
+        for (int offset = 0; offset < bytes.length; offset += size) {
+            DataBuffer buffer = this.bufferFactory.allocateBuffer(size);
+            buffer.write(bytes, offset, Math.min(size, bytes.length - offset));
+            buffers.add(buffer);
+        }
+        return buffers;
+    }
+
+    static String turtle(int persons) {
+        StringBuilder body = new StringBuilder("""
+                @prefix sdo: <https://schema.org/> .
+                @prefix ex: <http://example.org/> .
+                """);
+        for (int i = 0; i < persons; i++) {
+            body.append("ex:person%d a sdo:Person ; sdo:name \"Person %d\" ; sdo:age %d .\n".formatted(i, i, i % 100));
+        }
+        return body.toString();
+    }
+}
@@ -0,0 +1,115 @@
+package org.av360.maverick.graph.api.converter.encoder;
+
+import org.eclipse.rdf4j.model.util.Values;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.impl.ListBindingSet;
+import org.eclipse.rdf4j.query.impl.TupleQueryResultBuilder;
+import org.eclipse.rdf4j.query.resultio.QueryResultIO;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultFormat;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Encodes select results with 100k and 1M rows (generated while encoding) in all supported formats, and measures the
+ * time to the first chunk, the total time and the peak heap usage (sum of the peaks of all heap pools) of the streaming
+ * encoder and of writing the collected results into one buffer (as before). The buffered encoder is not measured for
+ * 1M rows, it runs out of the default heap of the tests.
+ */
+@Tag("benchmark")
+public class BindingSetEncoderBenchmark {
+
+    private static final int[] SIZES = {100_000, 1_000_000};
+    private static final List<String> NAMES = List.of("entity", "name", "age");
+    private static final List<TupleQueryResultFormat> FORMATS = List.of(TupleQueryResultFormat.JSON, TupleQueryResultFormat.CSV, TupleQueryResultFormat.TSV, TupleQueryResultFormat.SPARQL);
+
+    private final BindingSetEncoder encoder = new BindingSetEncoder(new MockEnvironment());
+
+    @Test
+    public void compareEncoders() {
+        // warm up
+        for (TupleQueryResultFormat format : FORMATS) {
+            this.buffered(format, this.bindings(10_000)).blockLast();
+            this.streaming(format, this.bindings(10_000)).blockLast();
+        }
+
+        System.out.printf("%-12s %-10s %10s %12s %12s %16s %12s%n", "format", "encoder", "rows", "first (ms)", "total (ms)", "peak heap (MB)", "size (MB)");
+
+        for (int size : SIZES) {
+            for (TupleQueryResultFormat format : FORMATS) {
+                if (size <= 100_000) this.run(format, "buffered", size, input -> this.buffered(format, input));
+                this.run(format, "streaming", size, input -> this.streaming(format, input));
+            }
+        }
+    }
+
+    private void run(TupleQueryResultFormat format, String encoder, int size, Function<Flux<BindingSet>, Flux<DataBuffer>> encode) {
+        List<MemoryPoolMXBean> pools = ManagementFactory.getMemoryPoolMXBeans().stream().filter(pool -> pool.getType() == MemoryType.HEAP).toList();
+        System.gc();
+        long baseline = pools.stream().mapToLong(pool -> pool.getUsage().getUsed()).sum();
+        pools.forEach(MemoryPoolMXBean::resetPeakUsage);
+
+        AtomicLong first = new AtomicLong();
+        AtomicLong bytes = new AtomicLong();
+        long start = System.nanoTime();
+        encode.apply(this.bindings(size))
+                .doOnNext(buffer -> {
+                    first.compareAndSet(0, System.nanoTime());
+                    bytes.addAndGet(buffer.readableByteCount());
+                    DataBufferUtils.release(buffer);
+                })
+                .blockLast();
+        long end = System.nanoTime();
+
+        long peak = pools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum() - baseline;
+        assertTrue(bytes.get() > size * 10L);
+        System.out.printf("%-12s %-10s %10d %12.0f %12.0f %16d %12.1f%n", format.getName(), encoder, size,
+                (first.get() - start) / 1_000_000d, (end - start) / 1_000_000d, peak / (1024 * 1024), bytes.get() / (1024 * 1024d));
+    }
+
+    private Flux<DataBuffer> streaming(TupleQueryResultFormat format, Flux<BindingSet> input) {
+        return this.encoder.encode(input, DefaultDataBufferFactory.sharedInstance, ResolvableType.forClass(BindingSet.class), MimeType.valueOf(format.getDefaultMIMEType()), Map.of());
+    }
+
+    /**
+     * Collects all results and writes them into one buffer, as the encoder did before.
+     */
+    private Flux<DataBuffer> buffered(TupleQueryResultFormat format, Flux<BindingSet> input) {
+        return input.collectList().<DataBuffer>map(results -> {
+            try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
+                TupleQueryResultBuilder builder = new TupleQueryResultBuilder();
+                builder.startQueryResult(NAMES);
+                results.forEach(builder::handleSolution);
+                builder.endQueryResult();
+                QueryResultIO.writeTuple(builder.getQueryResult(), format, baos);
+                return DefaultDataBufferFactory.sharedInstance.wrap(baos.toByteArray());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }).flux();
+    }
+
+    private Flux<BindingSet> bindings(int size) {
+        return Flux.range(0, size)
+                .map(i -> new ListBindingSet(NAMES, Values.iri("http://example.org/person" + i), Values.literal("Person " + i), Values.literal(i % 100)));
+    }
+}
@@ -0,0 +1,123 @@
+package org.av360.maverick.graph.api.converter.encoder;
+
+import org.av360.maverick.graph.model.rdf.QueryProjection;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.util.Values;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.impl.IteratingTupleQueryResult;
+import org.eclipse.rdf4j.query.impl.ListBindingSet;
+import org.eclipse.rdf4j.query.resultio.QueryResultIO;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultFormat;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BindingSetEncoderTest {
+
+    private static final List<String> NAMES = List.of("entity", "name", "age");
+
+    private final MockEnvironment environment = new MockEnvironment()
+            .withProperty("application.api.encoding.chunkSize", "256");
+
+    @Test
+    void writesSameResultsAsWriter() throws IOException {
+        List<BindingSet> results = bindings(5000);
+
+        for (TupleQueryResultFormat format : List.of(TupleQueryResultFormat.JSON, TupleQueryResultFormat.CSV, TupleQueryResultFormat.TSV, TupleQueryResultFormat.SPARQL)) {
+            List<DataBuffer> chunks = this.encode(results, MimeType.valueOf(format.getDefaultMIMEType()));
+            assertTrue(chunks.size() > 10, "Expected the results of format %s in chunks".formatted(format.getName()));
+
+            ByteArrayOutputStream expected = new ByteArrayOutputStream();
+            QueryResultIO.writeTuple(new IteratingTupleQueryResult(NAMES, results), format, expected);
+            assertEquals(expected.toString(StandardCharsets.UTF_8), join(chunks), format.getName());
+        }
+    }
+
+    @Test
+    void writesHeaderWithUnboundVariables() {
+        List<BindingSet> results = List.of(
+                new ListBindingSet(NAMES, Values.iri("http://example.org/a"), null, Values.literal(1)),
+                new ListBindingSet(NAMES, Values.iri("http://example.org/b"), Values.literal("B"), null));
+
+        String csv = join(this.encode(results, MimeType.valueOf("text/csv; charset=utf-8")));
+        assertEquals("entity,name,age\r\nhttp://example.org/a,,1\r\nhttp://example.org/b,B,\r\n", csv);
+    }
+
+    @Test
+    void writesEmptyResults() throws IOException {
+        // the store reports the projection when evaluating the query
+        Flux<BindingSet> input = Flux.deferContextual(context -> {
+            QueryProjection.report(context, NAMES);
+            return Flux.empty();
+        });
+        String json = join(this.encode(input, MimeType.valueOf(TupleQueryResultFormat.JSON.getDefaultMIMEType())));
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        QueryResultIO.writeTuple(new IteratingTupleQueryResult(NAMES, List.of()), TupleQueryResultFormat.JSON, expected);
+        assertEquals(expected.toString(StandardCharsets.UTF_8), json);
+        assertEquals("entity,name,age\r\n", join(this.encode(input, MimeType.valueOf("text/csv; charset=utf-8"))));
+    }
+
+    @Test
+    void requestsResultsOnDemand() {
+        AtomicLong requested = new AtomicLong();
+        Flux<BindingSet> input = Flux.fromIterable(bindings(5000)).doOnRequest(requested::addAndGet);
+        MimeType mimeType = MimeType.valueOf(TupleQueryResultFormat.TSV.getDefaultMIMEType());
+
+        StepVerifier.create(new BindingSetEncoder(this.environment).encode(input, DefaultDataBufferFactory.sharedInstance, ResolvableType.forClass(BindingSet.class), mimeType, Map.of()), 1)
+                .consumeNextWith(DataBufferUtils::release)
+                .thenCancel()
+                .verify();
+
+        // the writer buffers up to 8 kb before the first chunk fills up
+        assertTrue(requested.get() < 1000, "Requested %d results for the first chunk".formatted(requested.get()));
+    }
+
+    private List<DataBuffer> encode(List<BindingSet> results, MimeType mimeType) {
+        return this.encode(Flux.fromIterable(results), mimeType);
+    }
+
+    private List<DataBuffer> encode(Flux<BindingSet> results, MimeType mimeType) {
+        BindingSetEncoder encoder = new BindingSetEncoder(this.environment);
+        assertTrue(encoder.canEncode(ResolvableType.forClass(ListBindingSet.class), mimeType));
+
+        return encoder.encode(results, DefaultDataBufferFactory.sharedInstance, ResolvableType.forClass(BindingSet.class), mimeType, Map.of())
+                .collectList()
+                .block();
+    }
+
+    private static String join(List<DataBuffer> chunks) {
+        StringBuilder result = new StringBuilder();
+        for (DataBuffer chunk : chunks) {
+            result.append(chunk.toString(StandardCharsets.UTF_8));
+            DataBufferUtils.release(chunk);
+        }
+        return result.toString();
+    }
+
+    static List<BindingSet> bindings(int rows) {
+        List<BindingSet> result = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            List<Value> values = Arrays.asList(Values.iri("http://example.org/person" + i), Values.literal("Person " + i), Values.literal(i));
+            result.add(new ListBindingSet(NAMES, values));
+        }
+        return result;
+    }
+}
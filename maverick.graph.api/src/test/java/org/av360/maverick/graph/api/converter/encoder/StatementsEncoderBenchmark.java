@@ -0,0 +1,123 @@
+package org.av360.maverick.graph.api.converter.encoder;
+
+import io.netty.buffer.PooledByteBufAllocator;
+import org.av360.maverick.graph.model.rdf.AnnotatedStatement;
+import org.av360.maverick.graph.store.rdf.helpers.RdfUtils;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Namespace;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.util.Values;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.RDFWriter;
+import org.eclipse.rdf4j.rio.Rio;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Measures the throughput (MB/s of the response) of the encoders with 1M statements for every format, and for the line
+ * based formats of writing batches of 50 statements with a new writer each (as before). The streaming encoders write
+ * into pooled buffers, as in the server.
+ */
+@Tag("benchmark")
+public class StatementsEncoderBenchmark {
+
+    private static final int STATEMENTS = 1_000_000;
+    private static final int ITERATIONS = 3;
+
+    private static final Set<Namespace> NAMESPACES = Set.of(
+            Values.namespace("sdo", "https://schema.org/"),
+            Values.namespace("ex", "http://example.org/"));
+    private static final IRI PERSON = Values.iri("https://schema.org/Person");
+    private static final IRI NAME = Values.iri("https://schema.org/name");
+    private static final IRI AGE = Values.iri("https://schema.org/age");
+    private static final IRI MEMBER_OF = Values.iri("https://schema.org/memberOf");
+
+    private final MockEnvironment environment = new MockEnvironment();
+    private final DataBufferFactory bufferFactory = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+
+    @Test
+    public void measureThroughput() {
+        System.out.printf("%-12s %-10s %12s %10s%n", "format", "encoder", "size (MB)", "MB/s");
+
+        long start = System.nanoTime();
+        this.statements().blockLast();
+        System.out.printf("generating the statements takes %.0f ms%n", (System.nanoTime() - start) / 1_000_000d);
+
+        for (RDFFormat format : List.of(RDFFormat.NTRIPLES, RDFFormat.NQUADS, RDFFormat.N3)) {
+            this.run(format, "batched", () -> this.batched(format));
+            this.run(format, "streaming", () -> this.streaming(new StatementsEncoder(this.environment), format));
+        }
+        this.run(RDFFormat.TURTLE, "streaming", () -> this.streaming(new TurtleStatementsEncoder(this.environment), RDFFormat.TURTLE));
+        this.run(RDFFormat.JSONLD, "streaming", () -> this.streaming(new JsonLdStatementsEncoder(this.environment), RDFFormat.JSONLD));
+    }
+
+    private void run(RDFFormat format, String encoder, Supplier<Flux<DataBuffer>> encode) {
+        double best = Double.MAX_VALUE;
+        long size = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            AtomicLong bytes = new AtomicLong();
+            long start = System.nanoTime();
+            encode.get()
+                    .doOnNext(buffer -> {
+                        bytes.addAndGet(buffer.readableByteCount());
+                        DataBufferUtils.release(buffer);
+                    })
+                    .blockLast();
+            best = Math.min(best, (System.nanoTime() - start) / 1_000_000_000d);
+
+            if (i > 0) assertEquals(size, bytes.get());
+            size = bytes.get();
+        }
+        double megabytes = size / (1024 * 1024d);
+        System.out.printf("%-12s %-10s %12.1f %10.1f%n", format.getName(), encoder, megabytes, megabytes / best);
+    }
+
+    private Flux<DataBuffer> streaming(StreamingStatementsEncoder encoder, RDFFormat format) {
+        return encoder.encode(this.statements(), this.bufferFactory, ResolvableType.forClass(Statement.class), MimeType.valueOf(format.getDefaultMIMEType()), Map.of());
+    }
+
+    /**
+     * Writes batches of 50 statements with a new writer, as the statements encoder did before.
+     */
+    private Flux<DataBuffer> batched(RDFFormat format) {
+        MimeType mimeType = MimeType.valueOf(format.getDefaultMIMEType());
+        return this.statements()
+                .buffer(50)
+                .map(statements -> {
+                    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+                    RDFWriter writer = RdfUtils.getWriterFactory(mimeType).orElseThrow().getWriter(baos);
+                    Rio.write(statements, writer);
+                    return this.bufferFactory.wrap(baos.toByteArray());
+                });
+    }
+
+    private Flux<Statement> statements() {
+        return Flux.range(0, STATEMENTS / 4)
+                .concatMapIterable(i -> {
+                    IRI person = Values.iri("http://example.org/person" + i);
+                    return List.of(
+                            AnnotatedStatement.wrap(Values.getValueFactory().createStatement(person, RDF.TYPE, PERSON), NAMESPACES),
+                            AnnotatedStatement.wrap(Values.getValueFactory().createStatement(person, NAME, Values.literal("Person " + i)), NAMESPACES),
+                            AnnotatedStatement.wrap(Values.getValueFactory().createStatement(person, AGE, Values.literal(i % 100)), NAMESPACES),
+                            AnnotatedStatement.wrap(Values.getValueFactory().createStatement(person, MEMBER_OF, Values.iri("http://example.org/organization" + i % 100)), NAMESPACES));
+                });
+    }
+}
@@ -0,0 +1,137 @@
+package org.av360.maverick.graph.api.converter.encoder;
+
+import org.av360.maverick.graph.model.rdf.AnnotatedStatement;
+import org.av360.maverick.graph.store.rdf.helpers.RdfUtils;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Namespace;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.util.Values;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.RDFWriter;
+import org.eclipse.rdf4j.rio.helpers.JSONLDMode;
+import org.eclipse.rdf4j.rio.helpers.JSONLDSettings;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Encodes results with 100k and 1M statements (generated while encoding) as Turtle and JSON-LD, and measures the time
+ * to the first chunk, the total time and the peak heap usage (sum of the peaks of all heap pools) of the streaming
+ * encoders and of writing the collected statements into one buffer (as before). The hierarchical JSON-LD view is not
+ * measured for 1M statements, it is limited to smaller results.
+ */
+@Tag("benchmark")
+public class StreamingStatementsEncoderBenchmark {
+
+    private static final int[] SIZES = {100_000, 1_000_000};
+
+    private static final Set<Namespace> NAMESPACES = Set.of(
+            Values.namespace("sdo", "https://schema.org/"),
+            Values.namespace("ex", "http://example.org/"));
+    private static final IRI PERSON = Values.iri("https://schema.org/Person");
+    private static final IRI NAME = Values.iri("https://schema.org/name");
+    private static final IRI AGE = Values.iri("https://schema.org/age");
+    private static final IRI MEMBER_OF = Values.iri("https://schema.org/memberOf");
+
+    private final MockEnvironment environment = new MockEnvironment();
+
+    @Test
+    public void compareEncoders() {
+        // warm up
+        for (RDFFormat format : List.of(RDFFormat.TURTLE, RDFFormat.JSONLD)) {
+            this.buffered(format, this.statements(10_000)).blockLast();
+        }
+        this.streaming(new TurtleStatementsEncoder(this.environment), RDFFormat.TURTLE, this.statements(10_000)).blockLast();
+        this.streaming(new JsonLdStatementsEncoder(this.environment), RDFFormat.JSONLD, this.statements(100_000)).blockLast();
+
+        System.out.printf("%-8s %-10s %10s %12s %12s %16s %12s%n", "format", "encoder", "statements", "first (ms)", "total (ms)", "peak heap (MB)", "size (MB)");
+
+        for (int size : SIZES) {
+            this.run(RDFFormat.TURTLE, "buffered", size, input -> this.buffered(RDFFormat.TURTLE, input));
+            this.run(RDFFormat.TURTLE, "streaming", size, input -> this.streaming(new TurtleStatementsEncoder(this.environment), RDFFormat.TURTLE, input));
+            if (size <= 100_000) this.run(RDFFormat.JSONLD, "buffered", size, input -> this.buffered(RDFFormat.JSONLD, input));
+            this.run(RDFFormat.JSONLD, "streaming", size, input -> this.streaming(new JsonLdStatementsEncoder(this.environment), RDFFormat.JSONLD, input));
+        }
+    }
+
+    private void run(RDFFormat format, String encoder, int size, Function<Flux<Statement>, Flux<DataBuffer>> encode) {
+        List<MemoryPoolMXBean> pools = ManagementFactory.getMemoryPoolMXBeans().stream().filter(pool -> pool.getType() == MemoryType.HEAP).toList();
+        System.gc();
+        long baseline = pools.stream().mapToLong(pool -> pool.getUsage().getUsed()).sum();
+        pools.forEach(MemoryPoolMXBean::resetPeakUsage);
+
+        AtomicLong first = new AtomicLong();
+        AtomicLong bytes = new AtomicLong();
+        long start = System.nanoTime();
+        encode.apply(this.statements(size))
+                .doOnNext(buffer -> {
+                    first.compareAndSet(0, System.nanoTime());
+                    bytes.addAndGet(buffer.readableByteCount());
+                    DataBufferUtils.release(buffer);
+                })
+                .blockLast();
+        long end = System.nanoTime();
+
+        long peak = pools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum() - baseline;
+        assertTrue(bytes.get() > size * 10L);
+        System.out.printf("%-8s %-10s %10d %12.0f %12.0f %16d %12.1f%n", format.getName(), encoder, size,
+                (first.get() - start) / 1_000_000d, (end - start) / 1_000_000d, peak / (1024 * 1024), bytes.get() / (1024 * 1024d));
+    }
+
+    private Flux<DataBuffer> streaming(StreamingStatementsEncoder encoder, RDFFormat format, Flux<Statement> input) {
+        return encoder.encode(input, DefaultDataBufferFactory.sharedInstance, ResolvableType.forClass(Statement.class), MimeType.valueOf(format.getDefaultMIMEType()), Map.of());
+    }
+
+    /**
+     * Collects all statements and writes them into one buffer, as the encoders did before.
+     */
+    private Flux<DataBuffer> buffered(RDFFormat format, Flux<Statement> input) {
+        return input.collectList().<DataBuffer>map(statements -> {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            RDFWriter writer = RdfUtils.getWriterFactory(MimeType.valueOf(format.getDefaultMIMEType())).orElseThrow().getWriter(baos);
+            if (format.equals(RDFFormat.JSONLD)) {
+                writer.set(JSONLDSettings.HIERARCHICAL_VIEW, true);
+                writer.set(JSONLDSettings.COMPACT_ARRAYS, true);
+                writer.set(JSONLDSettings.OPTIMIZE, true);
+                writer.set(JSONLDSettings.USE_NATIVE_TYPES, true);
+                writer.set(JSONLDSettings.JSONLD_MODE, JSONLDMode.COMPACT);
+            }
+            writer.startRDF();
+            NAMESPACES.forEach(ns -> writer.handleNamespace(ns.getPrefix(), ns.getName()));
+            statements.forEach(writer::handleStatement);
+            writer.endRDF();
+            return DefaultDataBufferFactory.sharedInstance.wrap(baos.toByteArray());
+        }).flux();
+    }
+
+    private Flux<Statement> statements(int size) {
+        return Flux.range(0, size / 4)
+                .concatMapIterable(i -> {
+                    IRI person = Values.iri("http://example.org/person" + i);
+                    return List.of(
+                            AnnotatedStatement.wrap(Values.getValueFactory().createStatement(person, RDF.TYPE, PERSON), NAMESPACES),
+                            AnnotatedStatement.wrap(Values.getValueFactory().createStatement(person, NAME, Values.literal("Person " + i)), NAMESPACES),
+                            AnnotatedStatement.wrap(Values.getValueFactory().createStatement(person, AGE, Values.literal(i % 100)), NAMESPACES),
+                            AnnotatedStatement.wrap(Values.getValueFactory().createStatement(person, MEMBER_OF, Values.iri("http://example.org/organization" + i % 100)), NAMESPACES));
+                });
+    }
+}
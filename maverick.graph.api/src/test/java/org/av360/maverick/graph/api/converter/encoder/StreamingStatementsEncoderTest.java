@@ -0,0 +1,218 @@
+package org.av360.maverick.graph.api.converter.encoder;
+
+import org.av360.maverick.graph.model.rdf.AnnotatedStatement;
+import org.av360.maverick.graph.model.vocabulary.meg.Local;
+import org.eclipse.rdf4j.model.*;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.model.util.Models;
+import org.eclipse.rdf4j.model.util.Values;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.XSD;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.RDFWriter;
+import org.eclipse.rdf4j.rio.Rio;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingStatementsEncoderTest {
+
+    private static final Set<Namespace> NAMESPACES = Set.of(
+            Values.namespace("sdo", "https://schema.org/"),
+            Values.namespace("ex", "http://example.org/"));
+
+    private final MockEnvironment environment = new MockEnvironment()
+            .withProperty("application.api.encoding.chunkSize", "256")
+            .withProperty("application.api.encoding.jsonld.hierarchicalLimit", "50");
+
+    @Test
+    void writesSameTurtleAsWriter() {
+        List<Statement> statements = statements(5000);
+
+        List<DataBuffer> chunks = this.encode(new TurtleStatementsEncoder(this.environment), statements, RDFFormat.TURTLE);
+        assertTrue(chunks.size() > 10, "Expected the document in chunks");
+
+        StringWriter expected = new StringWriter();
+        RDFWriter writer = Rio.createWriter(RDFFormat.TURTLE, expected);
+        writer.startRDF();
+        NAMESPACES.forEach(ns -> writer.handleNamespace(ns.getPrefix(), ns.getName()));
+        statements.forEach(writer::handleStatement);
+        writer.endRDF();
+
+        assertEquals(expected.toString(), join(chunks));
+    }
+
+    @Test
+    void writesHierarchicalJsonLdForSmallResults() throws IOException {
+        List<Statement> statements = statements(5);
+
+        String document = join(this.encode(new JsonLdStatementsEncoder(this.environment), statements, RDFFormat.JSONLD));
+        assertFalse(document.contains("@graph"));
+        assertTrue(Models.isomorphic(new LinkedHashModel(statements), parse(document)));
+    }
+
+    @Test
+    void streamsFlatJsonLdForLargeResults() throws IOException {
+        List<Statement> statements = statements(500);
+
+        List<DataBuffer> chunks = this.encode(new JsonLdStatementsEncoder(this.environment), statements, RDFFormat.JSONLD);
+        assertTrue(chunks.size() > 10, "Expected the document in chunks");
+
+        String document = join(chunks);
+        assertTrue(document.startsWith("{\"@context\":{"));
+        assertTrue(document.contains("\"sdo:name\""));
+        assertTrue(Models.isomorphic(new LinkedHashModel(statements), parse(document)));
+    }
+
+    @Test
+    void selectsJsonLdShapeWithProfile() throws IOException {
+        JsonLdStatementsEncoder encoder = new JsonLdStatementsEncoder(this.environment);
+
+        List<DataBuffer> chunks = this.encode(encoder, statements(5), MimeType.valueOf("application/ld+json;profile=\"%s\"".formatted(JsonLdStatementsEncoder.FLATTENED)));
+        String flat = join(chunks);
+        assertTrue(flat.startsWith("{\"@context\":{"));
+        assertTrue(Models.isomorphic(new LinkedHashModel(statements(5)), parse(flat)));
+
+        // above the configured limit of 50 statements
+        String compacted = join(this.encode(encoder, statements(20), MimeType.valueOf("application/ld+json;profile=\"%s\"".formatted(JsonLdStatementsEncoder.COMPACTED))));
+        assertFalse(compacted.contains("@graph"));
+        assertTrue(Models.isomorphic(new LinkedHashModel(statements(20)), parse(compacted)));
+    }
+
+    @Test
+    void streamsEmbeddedTriplesAndBlankNodes() {
+        BNode node = Values.bnode("b1");
+        Triple triple = Values.triple(Values.iri("http://example.org/a"), Values.iri("https://schema.org/knows"), Values.iri("http://example.org/b"));
+        List<Statement> statements = List.of(
+                Values.getValueFactory().createStatement(node, Values.iri("https://schema.org/name"), Values.literal("Blank", "en")),
+                Values.getValueFactory().createStatement(triple, Values.iri("https://schema.org/startDate"), Values.literal("2020-01-01", XSD.DATE)));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        FlatJsonLdWriter writer = new FlatJsonLdWriter(out);
+        writer.startRDF();
+        NAMESPACES.forEach(ns -> writer.handleNamespace(ns.getPrefix(), ns.getName()));
+        statements.forEach(writer::handleStatement);
+        writer.endRDF();
+
+        String document = out.toString(StandardCharsets.UTF_8);
+        assertTrue(document.contains("{\"@id\":\"_:b1\",\"sdo:name\":[{\"@value\":\"Blank\",\"@language\":\"en\"}]}"), document);
+        assertTrue(document.contains("{\"@id\":{\"@id\":\"ex:a\",\"sdo:knows\":[{\"@id\":\"ex:b\"}]},\"sdo:startDate\":[{\"@value\":\"2020-01-01\",\"@type\":\"http://www.w3.org/2001/XMLSchema#date\"}]}"), document);
+    }
+
+    @Test
+    void removesInternalStatements() {
+        IRI entity = Values.iri("http://example.org/entity");
+        List<Statement> statements = List.of(
+                annotated(entity, RDF.TYPE, Local.Entities.TYPE_INDIVIDUAL),
+                annotated(entity, RDF.TYPE, Values.iri("https://schema.org/Person")));
+
+        String document = join(this.encode(new TurtleStatementsEncoder(this.environment), statements, RDFFormat.TURTLE));
+        assertFalse(document.contains(Local.Entities.TYPE_INDIVIDUAL.getLocalName()));
+        assertTrue(document.contains("sdo:Person"));
+    }
+
+    @Test
+    void writesLinesWithOneWriter() {
+        List<Statement> statements = new ArrayList<>(statements(500));
+        statements.add(annotated(Values.iri("http://example.org/entity"), RDF.TYPE, Local.Entities.TYPE_INDIVIDUAL));
+
+        List<DataBuffer> chunks = this.encode(new StatementsEncoder(this.environment), statements, RDFFormat.NQUADS);
+        assertTrue(chunks.size() > 10, "Expected the document in chunks");
+
+        StringWriter expected = new StringWriter();
+        Rio.write(statements, expected, RDFFormat.NQUADS);
+        assertEquals(expected.toString(), join(chunks));
+    }
+
+    @Test
+    void streamsBinaryRdf() throws IOException {
+        List<Statement> statements = statements(5000);
+
+        List<DataBuffer> chunks = this.encode(new StatementsEncoder(this.environment), statements, RDFFormat.BINARY);
+        assertTrue(chunks.size() > 1, "Expected the document in chunks");
+
+        ByteArrayOutputStream document = new ByteArrayOutputStream();
+        for (DataBuffer chunk : chunks) {
+            byte[] bytes = new byte[chunk.readableByteCount()];
+            chunk.read(bytes);
+            document.write(bytes);
+            DataBufferUtils.release(chunk);
+        }
+        Model parsed = Rio.parse(new ByteArrayInputStream(document.toByteArray()), RDFFormat.BINARY);
+        assertTrue(Models.isomorphic(new LinkedHashModel(statements), parsed));
+    }
+
+    @Test
+    void requestsStatementsOnDemand() {
+        AtomicLong requested = new AtomicLong();
+        Flux<Statement> input = Flux.fromIterable(statements(5000)).doOnRequest(requested::addAndGet);
+        MimeType mimeType = MimeType.valueOf(RDFFormat.NTRIPLES.getDefaultMIMEType());
+
+        StepVerifier.create(new StatementsEncoder(this.environment).encode(input, DefaultDataBufferFactory.sharedInstance, ResolvableType.forClass(Statement.class), mimeType, Map.of()), 1)
+                .consumeNextWith(DataBufferUtils::release)
+                .thenCancel()
+                .verify();
+
+        assertTrue(requested.get() < 100, "Requested %d statements for the first chunk".formatted(requested.get()));
+    }
+
+    private List<DataBuffer> encode(StreamingStatementsEncoder encoder, List<Statement> statements, RDFFormat format) {
+        return this.encode(encoder, statements, MimeType.valueOf(format.getDefaultMIMEType()));
+    }
+
+    private List<DataBuffer> encode(StreamingStatementsEncoder encoder, List<Statement> statements, MimeType mimeType) {
+        assertTrue(encoder.canEncode(ResolvableType.forClass(AnnotatedStatement.class), mimeType));
+
+        return encoder.encode(Flux.fromIterable(statements), DefaultDataBufferFactory.sharedInstance, ResolvableType.forClass(Statement.class), mimeType, Map.of())
+                .collectList()
+                .block();
+    }
+
+    private static String join(List<DataBuffer> chunks) {
+        StringBuilder result = new StringBuilder();
+        for (DataBuffer chunk : chunks) {
+            result.append(chunk.toString(StandardCharsets.UTF_8));
+            DataBufferUtils.release(chunk);
+        }
+        return result.toString();
+    }
+
+    private static Model parse(String document) throws IOException {
+        return Rio.parse(new ByteArrayInputStream(document.getBytes(StandardCharsets.UTF_8)), RDFFormat.JSONLD);
+    }
+
+    static List<Statement> statements(int persons) {
+        List<Statement> statements = new ArrayList<>();
+        for (int i = 0; i < persons; i++) {
+            IRI person = Values.iri("http://example.org/person" + i);
+            statements.add(annotated(person, RDF.TYPE, Values.iri("https://schema.org/Person")));
+            statements.add(annotated(person, Values.iri("https://schema.org/name"), Values.literal("Person " + i)));
+            statements.add(annotated(person, Values.iri("https://schema.org/age"), Values.literal(i)));
+            statements.add(annotated(person, Values.iri("https://schema.org/knows"), Values.iri("http://example.org/person" + (i + 1) % persons)));
+        }
+        return statements;
+    }
+
+    private static Statement annotated(Resource subject, IRI predicate, Value object) {
+        return AnnotatedStatement.wrap(Values.getValueFactory().createStatement(subject, predicate, object), NAMESPACES);
+    }
+}
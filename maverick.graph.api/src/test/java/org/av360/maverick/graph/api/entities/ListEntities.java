@@ -1,13 +1,20 @@
 package org.av360.maverick.graph.api.entities;
 
+import org.av360.maverick.graph.model.context.Environment;
+import org.av360.maverick.graph.model.enums.RepositoryType;
+import org.av360.maverick.graph.model.vocabulary.meg.Local;
+import org.av360.maverick.graph.store.IndividualsStore;
 import org.av360.maverick.graph.tests.config.TestSecurityConfig;
 import org.av360.maverick.graph.tests.util.ApiTestsBase;
 import org.av360.maverick.graph.tests.util.RdfConsumer;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Statement;
 import org.eclipse.rdf4j.model.vocabulary.RDF;
 import org.eclipse.rdf4j.rio.RDFFormat;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
@@ -17,12 +24,17 @@ import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.event.RecordApplicationEvents;
 import org.springframework.web.reactive.function.BodyInserters;
 
+import java.util.List;
+import java.util.Set;
+
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @ContextConfiguration(classes = TestSecurityConfig.class)
 @RecordApplicationEvents
 @ActiveProfiles({"test", "api"})
 public class ListEntities extends ApiTestsBase {
 
+    @Autowired
+    IndividualsStore entityStore;
 
     @AfterEach
     public void resetRepository() {
@@ -58,4 +70,71 @@ public class ListEntities extends ApiTestsBase {
         // check if correct application events have been recorded
 
     }
+
+    @Test
+    public void listFragments() {
+        super.printStart("list fragments");
+        Resource file = new ClassPathResource("requests/create-valid_many.jsonld");
+        webClient.post()
+                .uri("/api/entities")
+                .contentType(MediaType.parseMediaType("application/ld+json"))
+                .body(BodyInserters.fromResource(file))
+                .exchange()
+                .expectStatus().isAccepted();
+
+        Environment environment = TestSecurityConfig.createTestContext().updateEnvironment(env -> {
+            env.setConfiguration(Environment.RepositoryConfigurationKey.FLAG_PERSISTENT, false);
+            env.setRepositoryType(RepositoryType.ENTITIES);
+        }).getEnvironment();
+
+        List<String> expected = entityStore.asStatementsAware().listStatements(null, RDF.TYPE, null, environment).block()
+                .stream()
+                .map(statement -> statement.getSubject().stringValue())
+                .distinct()
+                .sorted()
+                .toList();
+
+        super.printStep("Listing all %d fragments".formatted(expected.size()));
+        List<String> all = entityStore.asFragmentable().listFragments(environment)
+                .map(fragment -> fragment.getIdentifier().stringValue())
+                .collectList().block();
+        Assertions.assertNotNull(all);
+        Assertions.assertEquals(expected, all.stream().sorted().toList());
+
+        List<String> window = entityStore.asFragmentable().listFragments(null, 3, 2, environment)
+                .map(fragment -> fragment.getIdentifier().stringValue())
+                .collectList().block();
+        Assertions.assertEquals(expected.subList(2, 5), window);
+    }
+
+    @Test
+    public void countEntities() {
+        super.printStart("count Entities");
+        Resource file = new ClassPathResource("requests/create-valid_many.jsonld");
+        webClient.post()
+                .uri("/api/entities")
+                .contentType(MediaType.parseMediaType("application/ld+json"))
+                .body(BodyInserters.fromResource(file))
+                .exchange()
+                .expectStatus().isAccepted();
+
+        Environment environment = TestSecurityConfig.createTestContext().updateEnvironment(env -> {
+            env.setConfiguration(Environment.RepositoryConfigurationKey.FLAG_PERSISTENT, false);
+            env.setRepositoryType(RepositoryType.ENTITIES);
+        }).getEnvironment();
+
+        Set<Statement> individuals = entityStore.asStatementsAware().listStatements(null, RDF.TYPE, Local.Entities.TYPE_INDIVIDUAL, environment).block();
+        Assertions.assertNotNull(individuals);
+        Assertions.assertFalse(individuals.isEmpty());
+        Assertions.assertEquals(individuals.size(), entityStore.asFragmentable().countFragments(environment).block());
+
+        super.printStep("Deleting one entity");
+        IRI deleted = (IRI) individuals.iterator().next().getSubject();
+        webClient.delete()
+                .uri("/api/entities/{key}", deleted.getLocalName())
+                .exchange()
+                .expectStatus().isOk();
+
+        Assertions.assertEquals(individuals.size() - 1, entityStore.asFragmentable().countFragments(environment).block());
+    }
 }
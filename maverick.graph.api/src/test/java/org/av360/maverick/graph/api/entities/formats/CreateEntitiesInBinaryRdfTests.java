@@ -0,0 +1,90 @@
+package org.av360.maverick.graph.api.entities.formats;
+
+import org.av360.maverick.graph.model.enums.RdfMimeTypes;
+import org.av360.maverick.graph.model.vocabulary.SDO;
+import org.av360.maverick.graph.model.vocabulary.meg.Transactions;
+import org.av360.maverick.graph.tests.config.TestSecurityConfig;
+import org.av360.maverick.graph.tests.util.ApiTestsBase;
+import org.av360.maverick.graph.tests.util.RdfConsumer;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.Rio;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.BodyInserters;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ContextConfiguration(classes = TestSecurityConfig.class)
+@RecordApplicationEvents
+@ActiveProfiles({"test", "api"})
+public class CreateEntitiesInBinaryRdfTests extends ApiTestsBase {
+    @Autowired
+    private WebTestClient webClient;
+
+    @AfterEach
+    public void resetRepository() {
+        super.resetRepository();
+    }
+
+    @Test
+    public void createEntity() throws IOException {
+        super.printStart("Creating entity in binary rdf");
+
+        RdfConsumer rdfConsumer = this.create("requests/create-valid.ttl");
+        Assertions.assertTrue(rdfConsumer.hasStatement(null, Transactions.STATUS, Transactions.SUCCESS));
+    }
+
+    @Test
+    public void queryEntities() throws IOException {
+        this.create("requests/create-valid_multiple.ttl");
+
+        RdfConsumer rdfConsumer = new RdfConsumer(RDFFormat.BINARY);
+        webClient.post()
+                .uri("/api/query/construct")
+                .contentType(MediaType.TEXT_PLAIN)
+                .accept(RdfMimeTypes.BINARY)
+                .body(BodyInserters.fromValue("CONSTRUCT WHERE { ?s ?p ?o . } LIMIT 100"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(RdfMimeTypes.BINARY)
+                .expectBody()
+                .consumeWith(rdfConsumer);
+
+        Assertions.assertTrue(rdfConsumer.hasStatement(null, RDF.TYPE, SDO.VIDEO_OBJECT));
+    }
+
+    private RdfConsumer create(String path) throws IOException {
+        Model model;
+        try (InputStream in = new ClassPathResource(path).getInputStream()) {
+            model = Rio.parse(in, RDFFormat.TURTLE);
+        }
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        Rio.write(model, body, RDFFormat.BINARY);
+
+        RdfConsumer rdfConsumer = new RdfConsumer(RDFFormat.BINARY);
+        webClient.post()
+                .uri("/api/entities")
+                .contentType(RdfMimeTypes.BINARY)
+                .accept(RdfMimeTypes.BINARY)
+                .body(BodyInserters.fromValue(body.toByteArray()))
+                .exchange()
+                .expectStatus().isAccepted()
+                .expectBody()
+                .consumeWith(rdfConsumer);
+        return rdfConsumer;
+    }
+}
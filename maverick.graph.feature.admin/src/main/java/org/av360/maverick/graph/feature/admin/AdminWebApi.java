@@ -63,7 +63,9 @@ public interface AdminWebApi {
             RepositoryType repositoryType,
             @RequestHeader(HttpHeaders.CONTENT_TYPE)
             @Parameter(description = "The RDF format of the content", schema = @Schema(type = "string", allowableValues = {"text/turtle", "application/n3", "application/n-triples", "application/rdf+xml", "application/ld+json", "application/n-quads", "application/vnd.hdt"}))
-            String mimetype
+            String mimetype,
+            @RequestParam(required = false, defaultValue = "0") @Parameter(name = "resumeFrom", description = "Number of statements committed by a previous failed import of the same content (see logs). These statements are skipped.")
+            long resumeFrom
     );
 
     @PostMapping(value = "/import/endpoint", consumes = {MediaType.APPLICATION_JSON_VALUE})
@@ -101,7 +103,10 @@ public interface AdminWebApi {
             RepositoryType repositoryType,
             @RequestParam
             @Parameter(description = "The RDF format of the file", schema = @Schema(type = "string", allowableValues = {"text/turtle", "application/rdf+xml", "application/ld+json", "application/n-quads", "application/vnd.hdt"}))
-            String mimetype);
+            String mimetype,
+            @RequestParam(required = false, defaultValue = "0")
+            @Parameter(name = "resumeFrom", description = "Number of statements committed by a previous failed import of the same file (see logs). These statements are skipped.")
+            long resumeFrom);
 
     @PostMapping(value = "/import/package", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @Operation(summary = "Importing a zipped file. NOT IMPLEMENTED YET")
@@ -43,13 +43,14 @@ public class AdminRestController extends AbstractController implements org.av360
     public Mono<Void> importEntities(
             Flux<DataBuffer> bytes,
             RepositoryType repositoryType,
-            String mimetype
+            String mimetype,
+            long resumeFrom
     ) {
         Assert.isTrue(StringUtils.hasLength(mimetype), "Mimetype is a required parameter");
 
         return super.acquireContext()
                 .map(context -> context.updateEnvironment(env -> env.setRepositoryType(repositoryType)))
-                .flatMap(ctx -> adminServices.importEntities(bytes, mimetype, ctx))
+                .flatMap(ctx -> adminServices.importEntities(bytes, mimetype, resumeFrom, ctx))
                 .doOnError(throwable -> log.error("Error while importing to repository.", throwable))
                 .doOnSubscribe(s -> log.debug("Request to import a request of mimetype {}", mimetype));
     }
@@ -71,7 +72,8 @@ public class AdminRestController extends AbstractController implements org.av360
     public Mono<Void> importFile(
             Mono<FilePart> fileMono,
             RepositoryType repositoryType,
-            String mimetype) {
+            String mimetype,
+            long resumeFrom) {
         Assert.isTrue(StringUtils.hasLength(mimetype), "Mimetype is a required parameter");
 
         Optional<RDFParserFactory> parserFactory = RdfUtils.getParserFactory(MimeType.valueOf(mimetype));
@@ -80,7 +82,7 @@ public class AdminRestController extends AbstractController implements org.av360
         return super.acquireContext()
                 .map(context -> context.getEnvironment().withRepositoryType(repositoryType))
                 .flatMap(context -> Mono.zip(Mono.just(context), fileMono))
-                .flatMap(pair -> adminServices.importEntities(pair.getT2().content(), mimetype, pair.getT1()))
+                .flatMap(pair -> adminServices.importEntities(pair.getT2().content(), mimetype, resumeFrom, pair.getT1()))
                 .doOnError(throwable -> log.error("Error while importing to repository.", throwable))
                 .doOnSubscribe(s -> log.info("Request to import a file of mimetype {}", mimetype));
     }
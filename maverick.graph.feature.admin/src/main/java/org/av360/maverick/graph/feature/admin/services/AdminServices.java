@@ -81,11 +81,19 @@ public class AdminServices {
 
     @RequiresPrivilege(Authorities.MAINTAINER_VALUE)
     public Mono<Void> importEntities(Publisher<DataBuffer> bytes, String mimetype, SessionContext ctx) {
+        return this.importEntities(bytes, mimetype, 0, ctx);
+    }
+
+    /**
+     * @param resumeFrom number of statements committed by a previous failed import of the same content, these are skipped
+     */
+    @RequiresPrivilege(Authorities.MAINTAINER_VALUE)
+    public Mono<Void> importEntities(Publisher<DataBuffer> bytes, String mimetype, long resumeFrom, SessionContext ctx) {
         if (maintenanceActive) return Mono.error(new SchedulingException("Maintenance job still running."));
 
         this.stores.get(ctx.getEnvironment().getRepositoryType())
                 .asMaintainable()
-                .importStatements(bytes, mimetype, ctx.getEnvironment())
+                .importStatements(bytes, mimetype, resumeFrom, ctx.getEnvironment())
                 .doOnSubscribe(this::lock)
                 .doOnSubscribe(sub -> {
                     log.debug("Importing statements of type '{}' into repository {} through admin services", mimetype, ctx.getEnvironment());
@@ -94,6 +102,7 @@ public class AdminServices {
                     log.debug("Importing statements completed into repository {} through admin services", ctx.getEnvironment());
                 })
                 .doOnSuccess(this::release)
+                .doOnError(error -> this.release(null))
                 .subscribeOn(Schedulers.newSingle("import"))
                 .subscribe();
         return Mono.empty();
@@ -6,18 +6,16 @@ import org.av360.maverick.graph.feature.applications.services.ApplicationsServic
 import org.av360.maverick.graph.model.annotations.Job;
 import org.av360.maverick.graph.model.context.SessionContext;
 import org.av360.maverick.graph.model.entities.ScheduledJob;
-import org.av360.maverick.graph.model.enums.RepositoryType;
+import org.av360.maverick.graph.model.vocabulary.meg.Local;
+import org.av360.maverick.graph.services.EntityServices;
 import org.av360.maverick.graph.services.QueryServices;
 import org.av360.maverick.graph.services.TransactionsService;
 import org.av360.maverick.graph.services.preprocessors.types.AssignLocalTypes;
 import org.av360.maverick.graph.store.TransactionsStore;
-import org.eclipse.rdf4j.model.Literal;
-import org.eclipse.rdf4j.model.Value;
 import org.springframework.beans.factory.annotation.Autowired;
 import reactor.core.publisher.Mono;
 
 import javax.annotation.Nullable;
-import java.math.BigInteger;
 
 /**
  * <p>
@@ -41,15 +39,17 @@ public class ComputeStatisticsJob implements ScheduledJob {
     public static String NAME = "computeStatistics";
     private final ApplicationsService applicationsService;
     private final QueryServices queryServices;
+    private final EntityServices entityServices;
 
     private  final TransactionsService transactionsService;
 
     private final AssignLocalTypes localTypesTransformer;
     private final TransactionsStore transactionsStore;
 
-    public ComputeStatisticsJob(ApplicationsService applicationsService, QueryServices queryServices, TransactionsService transactionsService, @Autowired(required = false) @Nullable AssignLocalTypes localTypesTransformer, TransactionsStore transactionsStore) {
+    public ComputeStatisticsJob(ApplicationsService applicationsService, QueryServices queryServices, EntityServices entityServices, TransactionsService transactionsService, @Autowired(required = false) @Nullable AssignLocalTypes localTypesTransformer, TransactionsStore transactionsStore) {
         this.applicationsService = applicationsService;
         this.queryServices = queryServices;
+        this.entityServices = entityServices;
         this.transactionsService = transactionsService;
         this.localTypesTransformer = localTypesTransformer;
         this.transactionsStore = transactionsStore;
@@ -65,40 +65,28 @@ public class ComputeStatisticsJob implements ScheduledJob {
         return this.applicationsService.getApplicationByLabel(ctx.getEnvironment().getScope().label(), ctx)
                         .flatMap(application ->
                                 this.countIndividuals(ctx)
-                                .map(count -> this.applicationsService.setMetric(application, "count_individuals", count.intValue(), ctx))
+                                .flatMap(count -> this.applicationsService.setMetric(application, "count_individuals", count.intValue(), ctx))
                                 .then(Mono.just(application))
                         ).flatMap(application ->
-                        this.countIndividuals(ctx)
-                                .map(count -> this.applicationsService.setMetric(application, "count_individuals", count.intValue(), ctx))
+                        this.countClassifier(ctx)
+                                .flatMap(count -> this.applicationsService.setMetric(application, "count_classifier", count.intValue(), ctx))
                                 .then(Mono.just(application))
                         ).then();
 
 
     }
 
-    private Mono<BigInteger> countIndividuals(SessionContext ctx) {
-        String q = """
-                SELECT( COUNT(?entity ) as ?count) WHERE { ?entity a <urn:pwid:meg:e:Individual> }
-                """;
-        return this.count(q, ctx);
+    /**
+     * The counts are maintained by the store, no need to scan the repository here.
+     */
+    private Mono<Long> countIndividuals(SessionContext ctx) {
+        return this.entityServices.count(Local.Entities.TYPE_INDIVIDUAL, ctx)
+                .switchIfEmpty(Mono.just(0L));
     }
 
-    private Mono<BigInteger> countClassifier(SessionContext ctx) {
-        String q = """
-                SELECT( COUNT(?entity ) as ?count) WHERE { ?entity a <urn:pwid:meg:e:Classifier> }
-                """;
-        return this.count(q, ctx);
-    }
-
-
-    private Mono<BigInteger> count(String query, SessionContext ctx) {
-        return this.queryServices.queryValues(query, RepositoryType.ENTITIES, ctx)
-                .map(bindings -> bindings.getValue("count"))
-                .filter(Value::isLiteral)
-                .map(value -> (Literal)value)
-                .map(Literal::integerValue)
-                .next()
-                .switchIfEmpty(Mono.just(BigInteger.ZERO));
+    private Mono<Long> countClassifier(SessionContext ctx) {
+        return this.entityServices.count(Local.Entities.TYPE_CLASSIFIER, ctx)
+                .switchIfEmpty(Mono.just(0L));
     }
 
 }
@@ -10,6 +10,8 @@ import reactor.core.publisher.Mono;
 @Component
 public class ApplicationContextBuilder implements SessionContextBuilder {
 
+    public static final String CONFIG_KEY_STORAGE_PROFILE = "storage_profile";
+
     private final ApplicationsService applicationsService;
 
     public ApplicationContextBuilder(ApplicationsService applicationsService) {
@@ -37,6 +39,9 @@ public class ApplicationContextBuilder implements SessionContextBuilder {
                             env.setConfiguration(Environment.RepositoryConfigurationKey.FLAG_PERSISTENT, application.flags().isPersistent());
                             env.setConfiguration(Environment.RepositoryConfigurationKey.FLAG_PUBLIC, application.flags().isPublic());
                             env.setConfiguration(Environment.RepositoryConfigurationKey.KEY, application.key());
+                            if (application.configuration().containsKey(CONFIG_KEY_STORAGE_PROFILE)) {
+                                env.setConfiguration(Environment.RepositoryConfigurationKey.STORAGE_PROFILE, application.configuration().get(CONFIG_KEY_STORAGE_PROFILE).toString());
+                            }
                         })
                 );
 
@@ -21,7 +21,9 @@ import org.av360.maverick.graph.model.vocabulary.meg.Local;
 import org.av360.maverick.graph.services.IdentifierServices;
 import org.av360.maverick.graph.store.rdf.fragments.RdfTransaction;
 import org.av360.maverick.graph.store.rdf.helpers.BindingsAccessor;
+import org.av360.maverick.graph.store.rdf.helpers.QueryBindings;
 import org.eclipse.rdf4j.model.util.ModelBuilder;
+import org.eclipse.rdf4j.model.util.Values;
 import org.eclipse.rdf4j.model.vocabulary.RDF;
 import org.eclipse.rdf4j.sparqlbuilder.core.query.Queries;
 import org.eclipse.rdf4j.sparqlbuilder.core.query.SelectQuery;
@@ -60,8 +62,9 @@ public class SubscriptionsService {
     @OnRepositoryType(RepositoryType.APPLICATION)
     public Mono<Subscription> getSubscription(String subscriptionIdentifier, SessionContext ctx) {
 
+        // the key is bound, the query text is the same for all subscriptions
         SelectQuery q = Queries.SELECT()
-                .where(QueryVariables.varNodeSubscription.has(SubscriptionTerms.HAS_KEY, subscriptionIdentifier)
+                .where(QueryVariables.varNodeSubscription.has(SubscriptionTerms.HAS_KEY, QueryVariables.varSubKey)
                         .andHas(SubscriptionTerms.HAS_LABEL, QueryVariables.varSubLabel)
                         .andHas(SubscriptionTerms.HAS_ISSUE_DATE, QueryVariables.varSubIssued)
                         .andHas(SubscriptionTerms.IS_ACTIVE, QueryVariables.varSubActive)
@@ -72,7 +75,7 @@ public class SubscriptionsService {
                                 .andHas(ApplicationTerms.HAS_LABEL, QueryVariables.varAppLabel)
                         )
                 );
-        return this.applicationsStore.query(q, ctx.getEnvironment())
+        return this.applicationsStore.query(q, QueryBindings.of(QueryVariables.varSubKey, Values.literal(subscriptionIdentifier)), ctx.getEnvironment())
                 .singleOrEmpty()
                 .map(BindingsAccessor::new)
                 .flatMap(QueryVariables::buildSubscriptionFromBindings)
@@ -95,10 +98,10 @@ public class SubscriptionsService {
                                     .andHas(SubscriptionTerms.HAS_LABEL, QueryVariables.varSubLabel)
                                     .andHas(SubscriptionTerms.HAS_ISSUE_DATE, QueryVariables.varSubIssued)
                                     .andHas(SubscriptionTerms.IS_ACTIVE, QueryVariables.varSubActive)
-                                    .andHas(SubscriptionTerms.FOR_APPLICATION, app.key())
+                                    .andHas(SubscriptionTerms.FOR_APPLICATION, QueryVariables.varAppKey)
                             );
 
-                    return this.applicationsStore.query(q, ctx.getEnvironment())
+                    return this.applicationsStore.query(q, QueryBindings.of(QueryVariables.varAppKey, Values.literal(app.key())), ctx.getEnvironment())
                             .map(BindingsAccessor::new)
                             .flatMap(ba -> QueryVariables.buildSubscriptionFromBindings(ba, app));
                 })
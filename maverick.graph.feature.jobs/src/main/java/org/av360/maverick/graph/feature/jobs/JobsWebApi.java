@@ -60,6 +60,11 @@ public interface JobsWebApi {
     @ResponseStatus(HttpStatus.OK)
     Mono<Void> execCoercionJob();
 
+    @PostMapping(value = "/execute/migrate/details")
+    @Operation(summary = "Executes the job for converting the details of values into the configured form of storage (reification nodes or triple terms). Has to run once after changing the storage of details.")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    Mono<Void> execMigrateDetailsJob();
+
     @PostMapping(value = "/execute/export")
     @Operation(summary = "Executes the job for exporting the content of an repository to the file system.")
     @ResponseStatus(HttpStatus.ACCEPTED)
@@ -66,6 +66,16 @@ public class JobsCtrl extends AbstractController implements org.av360.maverick.g
 
     }
 
+    @Override
+    @PostMapping(value = "/execute/migrate/details")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public Mono<Void> execMigrateDetailsJob() {
+        return super.acquireContext()
+                .flatMap(ctx -> this.jobsService.scheduleJob(MigrateDetailsJob.NAME, ctx))
+                .doOnSubscribe(subscription -> log.info("Request to execute job: Migrate details"));
+
+    }
+
     @Override
     @PostMapping(value = "/execute/export")
     @ResponseStatus(HttpStatus.ACCEPTED)
@@ -93,7 +93,7 @@ public class AssignInternalTypesJob implements ScheduledJob {
                 .flatMap(fragment -> this.localTypesTransformer.handle(fragment, ctx.getEnvironment()))
                 .collect(new MergingModelCollector())
                 .doOnNext(model -> log.trace("Collected {} statements for new types", model.size()))
-                .map(model -> new RdfTransaction().forInsert(model))
+                .map(model -> new RdfTransaction().withoutEnrichment().forInsert(model))
                 .flatMapMany(trx -> this.entityServices.getStore(ctx).asCommitable().commit(trx, ctx.getEnvironment()))
                 .doOnNext(transaction -> Assert.isTrue(transaction.getModel().contains(null, Transactions.STATUS, Transactions.SUCCESS), "Failed transaction: \n" + transaction))
                 .buffer(100)
@@ -24,6 +24,7 @@ import org.av360.maverick.graph.model.entities.Transaction;
 import org.av360.maverick.graph.model.enums.RepositoryType;
 import org.av360.maverick.graph.services.EntityServices;
 import org.av360.maverick.graph.services.QueryServices;
+import org.av360.maverick.graph.store.rdf.helpers.QueryBindings;
 import org.av360.maverick.graph.services.ValueServices;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Value;
@@ -213,9 +214,7 @@ public class MergeDuplicatesJob implements ScheduledJob {
 
     }
 
-    private Flux<Duplicates> findCandidates(SessionContext ctx) {
-
-        String query = """
+    private static final String CANDIDATES_QUERY = """
                 SELECT ?propertyValue ?type (GROUP_CONCAT(DISTINCT ?entity; separator=",") AS ?duplicates)
                 WHERE {
                   ?entity rdf:type ?type .
@@ -238,15 +237,16 @@ public class MergeDuplicatesJob implements ScheduledJob {
                 }
                 GROUP BY ?propertyValue ?type
                 HAVING (COUNT(?entity) > 1)
-                LIMIT %s
+                LIMIT $limit
                                 
-                """.formatted(limit);
+                """;
 
+    private Flux<Duplicates> findCandidates(SessionContext ctx) {
         Variable entitiesVariable = SparqlBuilder.var("duplicates");
         Variable propertyValueVariable = SparqlBuilder.var("propertyValue");
         Variable typeVariable = SparqlBuilder.var("type");
 
-        return queryServices.queryValues(query, RepositoryType.ENTITIES, ctx)
+        return queryServices.queryValues(CANDIDATES_QUERY, QueryBindings.slice(limit, -1), RepositoryType.ENTITIES, ctx)
                 .map(binding -> {
                     String sharedValueVal = binding.getValue(propertyValueVariable.getVarName()).stringValue();
                     IRI typeVal = (IRI) binding.getValue(typeVariable.getVarName());
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2024.
+ *
+ *  Licensed under the EUPL, Version 1.2 or – as soon they will be approved by the
+ *  European Commission - subsequent versions of the EUPL (the "Licence");
+ *
+ *  You may not use this work except in compliance with the Licence.
+ *  You may obtain a copy of the Licence at:
+ *
+ *  https://joinup.ec.europa.eu/software/page/eupl5
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the Licence is distributed on an "AS IS" basis,  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the Licence for the specific language governing permissions and limitations under the Licence.
+ *
+ */
+
+package org.av360.maverick.graph.feature.jobs.jobs;
+
+import lombok.extern.slf4j.Slf4j;
+import org.av360.maverick.graph.model.annotations.Job;
+import org.av360.maverick.graph.model.context.SessionContext;
+import org.av360.maverick.graph.model.entities.ScheduledJob;
+import org.av360.maverick.graph.model.enums.RepositoryType;
+import org.av360.maverick.graph.services.EntityServices;
+import reactor.core.publisher.Mono;
+
+/**
+ * Converts the details (statements about values) in the entities repository into the configured form of storage
+ * (application.storage.details.mode). Has to run once after switching from reification nodes to native storage of the
+ * details (or back), details stored in the other form are not found until then.
+ */
+@Job
+@Slf4j(topic = "graph.jobs.details")
+public class MigrateDetailsJob implements ScheduledJob {
+
+    public static String NAME = "migrateDetails";
+
+    private final EntityServices entityServices;
+
+    public MigrateDetailsJob(EntityServices entityServices) {
+        this.entityServices = entityServices;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Mono<Void> run(SessionContext ctx) {
+        return Mono.defer(() -> {
+                    ctx.updateEnvironment(env -> env.setRepositoryType(RepositoryType.ENTITIES));
+                    return this.entityServices.getStore(ctx).asMaintainable().migrateDetails(ctx.getEnvironment());
+                })
+                .doOnSubscribe(sub -> log.trace("Converting details into the configured form of storage."))
+                .doOnNext(count -> log.debug("Completed converting {} details into the configured form of storage.", count))
+                .doOnError(throwable -> log.error("Exception while converting details: {}", throwable.getMessage()))
+                .then();
+    }
+}
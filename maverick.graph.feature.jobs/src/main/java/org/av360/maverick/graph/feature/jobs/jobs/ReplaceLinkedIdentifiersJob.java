@@ -185,7 +185,7 @@ public class ReplaceLinkedIdentifiersJob implements ScheduledJob {
                                         .filter(s -> ! s.getPredicate().equals(Local.ORIGINAL_IDENTIFIER))
                                         .filter(s -> ! s.getPredicate().equals(OWL.SAMEAS))
                                         .collect(Collectors.toSet()))
-                                .map(statements -> new StatementsBag((Resource) st.getObject(), new HashSet<>(statements), new LinkedHashModel(), st, new RdfTransaction()))
+                                .map(statements -> new StatementsBag((Resource) st.getObject(), new HashSet<>(statements), new LinkedHashModel(), st, new RdfTransaction().withoutEnrichment()))
                 );
     }
 
@@ -212,7 +212,7 @@ public class ReplaceLinkedIdentifiersJob implements ScheduledJob {
                                         .filter(s -> ! s.getPredicate().equals(Local.ORIGINAL_IDENTIFIER))
                                         .filter(s -> ! s.getPredicate().equals(OWL.SAMEAS))
                                         .collect(Collectors.toSet()))
-                                .map(statements -> new StatementsBag((Resource) st.getObject(), new HashSet<>(statements), new LinkedHashModel(), st, new RdfTransaction()))
+                                .map(statements -> new StatementsBag((Resource) st.getObject(), new HashSet<>(statements), new LinkedHashModel(), st, new RdfTransaction().withoutEnrichment()))
                 );
     }
 
@@ -231,7 +231,7 @@ public class ReplaceSubjectIdentifiersJob implements ScheduledJob {
 
     public Mono<StatementsBag> loadFragment(Resource candidate, SessionContext ctx) {
         return this.entityServices.getStore(ctx).asFragmentable().getFragment(candidate, ctx.getEnvironment())
-                .map(fragment -> new StatementsBag(candidate, Collections.synchronizedSet(fragment.getModel()), new LinkedHashModel(), null, new RdfTransaction()));
+                .map(fragment -> new StatementsBag(candidate, Collections.synchronizedSet(fragment.getModel()), new LinkedHashModel(), null, new RdfTransaction().withoutEnrichment()));
 
     }
 
@@ -68,6 +68,7 @@ public class EntityStoreImpl implements IndividualsStore, Fragmentable {
     }
 
 
+
     @Override
     public Mono<Transaction> insertFragment(RdfFragment fragment, Environment environment) {
 
@@ -123,7 +124,7 @@ public class EntityStoreImpl implements IndividualsStore, Fragmentable {
     }
 
     @Override
-    public Mono<Long> countFragments(Environment environment) {
+    public Mono<Long> countFragments(IRI type, Environment environment) {
         return null;
     }
 
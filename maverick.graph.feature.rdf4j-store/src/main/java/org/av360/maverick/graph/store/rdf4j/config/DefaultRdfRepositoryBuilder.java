@@ -1,5 +1,7 @@
 package org.av360.maverick.graph.store.rdf4j.config;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tags;
@@ -12,30 +14,39 @@ import org.av360.maverick.graph.model.enums.RepositoryType;
 import org.av360.maverick.graph.model.errors.store.InvalidStoreConfiguration;
 import org.av360.maverick.graph.store.FragmentsStore;
 import org.av360.maverick.graph.store.RepositoryBuilder;
+import org.av360.maverick.graph.store.rdf.ConnectionPool;
 import org.av360.maverick.graph.store.rdf.LabeledRepository;
 import org.av360.maverick.graph.store.rdf4j.repository.util.AbstractRdfRepository;
+import org.eclipse.rdf4j.repository.Repository;
 import org.eclipse.rdf4j.repository.RepositoryException;
 import org.eclipse.rdf4j.repository.RepositoryLockedException;
 import org.eclipse.rdf4j.repository.sail.SailRepository;
 import org.eclipse.rdf4j.sail.lmdb.LmdbStore;
-import org.eclipse.rdf4j.sail.lmdb.config.LmdbStoreConfig;
 import org.eclipse.rdf4j.sail.memory.MemoryStore;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.event.EventListener;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import javax.annotation.Nullable;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.Duration;
-import java.time.temporal.ChronoUnit;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Component
@@ -46,42 +57,142 @@ public class DefaultRdfRepositoryBuilder implements RepositoryBuilder {
 
     private RepositoryCache cache;
     protected MeterRegistry meterRegistry;
+    private LmdbProfiles lmdbProfiles;
+
+    /**
+     * Repositories which are currently being opened, concurrent requests for the same label share the initialization.
+     */
+    private final Map<String, Mono<LabeledRepository>> initializing;
+    private final RecentRepositories recentRepositories;
+
+    @org.springframework.beans.factory.annotation.Value("${application.storage.connections.read:16}")
+    private int readConnections;
+
+    @org.springframework.beans.factory.annotation.Value("${application.storage.connections.write:4}")
+    private int writeConnections;
+
+    @org.springframework.beans.factory.annotation.Value("${application.storage.connections.maxWait:250}")
+    private long connectionsMaxWait;
+
+    @org.springframework.beans.factory.annotation.Value("${application.storage.cache.timeToLive:PT15M}")
+    private Duration cacheTimeToLive;
+
+    @org.springframework.beans.factory.annotation.Value("${application.storage.cache.maxOpen:0}")
+    private int cacheMaxOpen;
+
+    @org.springframework.beans.factory.annotation.Value("${application.storage.prewarm.limit:0}")
+    private int prewarmLimit;
+
+    @org.springframework.beans.factory.annotation.Value("${application.storage.prewarm.file:#{null}}")
+    @Nullable
+    private String prewarmFile;
 
     @PreDestroy
     public void shutdownRepositories() {
+        if (this.prewarmLimit > 0 && StringUtils.hasLength(this.prewarmFile)) {
+            this.recentRepositories.save(Paths.get(this.prewarmFile), this.prewarmLimit);
+        }
         cache.shutdown();
     }
 
+    /**
+     * Opens the most recently used persistent repositories of the last run in the background.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void prewarmRepositories() {
+        if (this.prewarmLimit <= 0 || !StringUtils.hasLength(this.prewarmFile)) return;
+
+        this.recentRepositories.load(Paths.get(this.prewarmFile));
+        Flux.fromIterable(this.recentRepositories.mostRecent(this.prewarmLimit))
+                .flatMap(entry -> this.initializeOnce(entry.label(), label -> this.initializePersistentRepository(entry.path(), label, this.lmdbProfiles.resolve(entry.repositoryType(), entry.profile())))
+                        .doOnNext(repository -> log.debug("Pre-warmed repository '{}'", repository))
+                        .onErrorResume(error -> {
+                            log.warn("Failed to pre-warm repository '{}', reason: {}", entry.label(), error.getMessage());
+                            return Mono.empty();
+                        }), 2)
+                .subscribe();
+    }
+
 
     @Autowired
     public void setMeterRegistry(MeterRegistry meterRegistry) {
         this.meterRegistry = meterRegistry;
     }
 
+    @Autowired
+    public void setLmdbProfiles(LmdbProfiles lmdbProfiles) {
+        this.lmdbProfiles = lmdbProfiles;
+    }
+
 
     @PostConstruct
     private void registerCacheGauges() {
-        this.cache.init();
+        this.cache.init(this.cacheTimeToLive, this.cacheMaxOpen);
 
         if (Objects.nonNull(this.meterRegistry)) {
             Gauge.builder("graph.store.repository.cache_size", this.cache.items(), Collection::size)
                     .register(this.meterRegistry);
+            Gauge.builder("graph.store.repository.cache_open", this.cache, RepositoryCache::getOpen)
+                    .register(this.meterRegistry);
+            FunctionCounter.builder("graph.store.repository.cache", this.cache, RepositoryCache::getHits)
+                    .tags("result", "hit")
+                    .register(this.meterRegistry);
+            FunctionCounter.builder("graph.store.repository.cache", this.cache, RepositoryCache::getMisses)
+                    .tags("result", "miss")
+                    .register(this.meterRegistry);
+            FunctionCounter.builder("graph.store.repository.cache_evictions", this.cache, RepositoryCache::getEvictions)
+                    .register(this.meterRegistry);
 
         }
     }
 
 
-    private synchronized Mono<LabeledRepository> getCached(String label, Function<String, LabeledRepository> mappingFunction) {
+    private Mono<LabeledRepository> getCached(String label, Function<String, LabeledRepository> mappingFunction) {
+        Optional<LabeledRepository> cached = this.cache.lookup(label);
+        if (cached.isPresent()) return Mono.just(cached.get());
+
         if (this.cache.contains(label)) {
-            return Mono.just(this.cache.get(label));
+            LabeledRepository repository = this.cache.get(label);
+
+            // the repository has been shut down after being idle, we open it again
+            return this.initializeOnce(label, l -> {
+                if (!repository.isInitialized()) {
+                    repository.init();
+                    this.cache.opened(l);
+                }
+                return repository;
+            });
         } else {
-            return Mono.just(mappingFunction.apply(label)).cache(Duration.of(10, ChronoUnit.SECONDS));
+            return this.initializeOnce(label, mappingFunction);
         }
     }
 
+    /**
+     * Opening a repository (especially a persistent one) is slow. It runs on a worker, only once per label: all callers
+     * for the same label wait for the same initialization, while requests for other labels are not blocked.
+     * <p>
+     * The pending initialization is removed before the repository is handed out (it is in the cache by then). Otherwise
+     * a caller could get the repository from here after it has already been closed (e.g. purged).
+     */
+    private Mono<LabeledRepository> initializeOnce(String label, Function<String, LabeledRepository> initializer) {
+        return this.initializing.computeIfAbsent(label, l ->
+                Mono.fromCallable(() -> {
+                            try {
+                                return initializer.apply(l);
+                            } finally {
+                                this.initializing.remove(l);
+                            }
+                        })
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .cache()
+        );
+    }
+
 
     public DefaultRdfRepositoryBuilder() {
         this.cache = new RepositoryCache();
+        this.initializing = new ConcurrentHashMap<>();
+        this.recentRepositories = new RecentRepositories();
     }
 
 
@@ -109,20 +220,14 @@ public class DefaultRdfRepositoryBuilder implements RepositoryBuilder {
 
     @Override
     public Mono<Void> shutdownRepository(FragmentsStore store, Environment environment) {
-        String key = formatRepositoryLabel(environment);
-        this.cache.shutdown(key);
-        return Mono.empty();
+        // deferred, callers chain the shutdown after the last operation on the repository (e.g. clearing it)
+        return Mono.fromRunnable(() -> this.cache.shutdown(formatRepositoryLabel(environment)));
     }
 
     protected Mono<LabeledRepository> validateRepository(@Nullable LabeledRepository repository, FragmentsStore store, Environment environment) {
         return Mono.create(sink -> {
             if (!Objects.isNull(repository)) {
-                if (!repository.isInitialized() && repository.getConnectionsCount() == 0) {
-                    repository.init();
-                    sink.success(repository);
-                } else {
-                    sink.success(repository);
-                }
+                sink.success(repository);
             } else {
                 sink.error(new IOException(String.format("Cannot resolve repository of type '%s' for environment '%s'", environment.getRepositoryType(), environment)));
             }
@@ -149,6 +254,9 @@ public class DefaultRdfRepositoryBuilder implements RepositoryBuilder {
 
         log.trace("Resolving repository for environment: {}", environment);
 
+        // the label is taken from the environment now (callers may change it later), while the repository is looked up on
+        // subscription: a chain assembled before the repository has been closed (e.g. purged) gets the new one
+
         String label = formatRepositoryLabel(environment);
         if (Objects.nonNull(this.meterRegistry)) {
             meterRegistry.counter("graph.store.repository", "method", "access", "label", label).increment();
@@ -163,27 +271,25 @@ public class DefaultRdfRepositoryBuilder implements RepositoryBuilder {
                 path = Paths.get(store.getDirectory());
             }
 
-            return getCached(label, s -> initializePersistentRepository(path, label));
+            String profileName = environment.getConfiguration(Environment.RepositoryConfigurationKey.STORAGE_PROFILE).orElse(null);
+            LmdbProfile profile = this.lmdbProfiles.resolve(environment.getRepositoryType(), profileName);
+            this.recentRepositories.accessed(label, path, environment.getRepositoryType(), profileName);
+            return Mono.defer(() -> getCached(label, s -> initializePersistentRepository(path, label, profile)));
         } else {
-            return getCached(label, s -> initializeVolatileRepository(label));
+            return Mono.defer(() -> getCached(label, s -> initializeVolatileRepository(label)));
         }
     }
 
 
-    protected synchronized LabeledRepository initializePersistentRepository(Path path, String label) {
+    protected LabeledRepository initializePersistentRepository(Path path, String label, LmdbProfile profile) {
         try {
             if(this.cache.contains(label)) {
                 return this.cache.get(label);
             }
 
-            log.debug("Initializing persistent repository in path '{}' for label '{}'", path, label);
+            log.debug("Initializing persistent repository in path '{}' for label '{}' with profile {}", path, label, profile);
 
             Resource file = new FileSystemResource(path);
-            LmdbStoreConfig config = new LmdbStoreConfig();
-
-            config.setTripleIndexes("spoc,ospc,psoc");
-            config.setForceSync(false);
-            
 
 
             if (!file.exists() && !file.getFile().mkdirs())
@@ -191,12 +297,12 @@ public class DefaultRdfRepositoryBuilder implements RepositoryBuilder {
 
             try {
 
-                LabeledRepository labeledRepository = new LabeledRepository(label, new SailRepository(new LmdbStore(file.getFile(), config)));
+                LabeledRepository labeledRepository = this.createLabeledRepository(label, new SailRepository(new LmdbStore(file.getFile(), profile.toConfig())));
                 labeledRepository.init();
-                this.registerMetrics(label, labeledRepository);
+                this.registerMetrics(label, labeledRepository, true);
+
+                this.cache.register(label, labeledRepository, true);
 
-                this.cache.register(label, labeledRepository);
-                
                 return this.cache.get(label);
             } catch (RepositoryLockedException lockedException) {
                 log.warn("Failed to init persistent repository, it is locked");
@@ -221,23 +327,48 @@ public class DefaultRdfRepositoryBuilder implements RepositoryBuilder {
     }
 
 
-    private void registerMetrics(String label, LabeledRepository labeledRepository) {
+    private LabeledRepository createLabeledRepository(String label, Repository repository) {
+        return new LabeledRepository(label, repository, this.readConnections, this.writeConnections, Duration.ofMillis(this.connectionsMaxWait));
+    }
+
+    private void registerMetrics(String label, LabeledRepository labeledRepository, boolean persistent) {
         if (Objects.nonNull(this.meterRegistry)) {
-            meterRegistry.counter("graph.store.repository", "method", "init", "mode", "persistent", "label", label).increment();
+            // the repository might have been closed and built again, the gauges of the previous instance are replaced
+            List.of("graph.store.repository.connections", "graph.store.repository.pool.saturation", "graph.store.repository.pool.idle", "graph.store.repository.pool.wait", "graph.store.repository.pool.rejections")
+                    .forEach(name -> this.meterRegistry.find(name).tag("label", label).meters().forEach(this.meterRegistry::remove));
+
+            meterRegistry.counter("graph.store.repository", "method", "init", "mode", persistent ? "persistent" : "volatile", "label", label).increment();
             meterRegistry.gauge("graph.store.repository.connections", Tags.of("label", label), labeledRepository, LabeledRepository::getConnectionsCount);
+            this.registerPoolMetrics(label, "read", labeledRepository.getReadPool());
+            this.registerPoolMetrics(label, "write", labeledRepository.getWritePool());
         }
     }
 
-    protected synchronized LabeledRepository initializeVolatileRepository(String label) {
-        log.debug("Initializing in-memory repository for label '{}'", label);
+    private void registerPoolMetrics(String label, String lane, ConnectionPool pool) {
+        Tags tags = Tags.of("label", label, "lane", lane);
+        Gauge.builder("graph.store.repository.pool.saturation", pool, ConnectionPool::getSaturation)
+                .tags(tags)
+                .register(this.meterRegistry);
+        Gauge.builder("graph.store.repository.pool.idle", pool, ConnectionPool::getIdle)
+                .tags(tags)
+                .register(this.meterRegistry);
+        FunctionTimer.builder("graph.store.repository.pool.wait", pool, ConnectionPool::getAcquisitions, ConnectionPool::getWaitTime, TimeUnit.NANOSECONDS)
+                .tags(tags)
+                .register(this.meterRegistry);
+        FunctionCounter.builder("graph.store.repository.pool.rejections", pool, ConnectionPool::getRejections)
+                .tags(tags)
+                .register(this.meterRegistry);
+    }
 
+    protected LabeledRepository initializeVolatileRepository(String label) {
+        log.debug("Initializing in-memory repository for label '{}'", label);
 
-        LabeledRepository labeledRepository = new LabeledRepository(label, new SailRepository(new MemoryStore()));
-        this.cache.register(label, labeledRepository);
 
+        LabeledRepository labeledRepository = this.createLabeledRepository(label, new SailRepository(new MemoryStore()));
         labeledRepository.init();
+        this.cache.register(label, labeledRepository, false);
 
-        this.registerMetrics(label, labeledRepository);
+        this.registerMetrics(label, labeledRepository, false);
 
         return this.cache.get(label);
     }
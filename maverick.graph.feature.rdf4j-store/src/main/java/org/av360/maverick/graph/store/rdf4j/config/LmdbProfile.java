@@ -0,0 +1,107 @@
+package org.av360.maverick.graph.store.rdf4j.config;
+
+import org.av360.maverick.graph.model.enums.RepositoryType;
+import org.eclipse.rdf4j.sail.lmdb.config.LmdbStoreConfig;
+import org.springframework.util.unit.DataSize;
+
+import javax.annotation.Nullable;
+import java.util.Objects;
+
+/**
+ * Tuning of a persistent (LMDB) repository: indexes, caches, initial map sizes and sync policy.
+ * <p>
+ * Values which are not set (null) are taken from the profile this one is merged into, see {@link #merge(LmdbProfile)}.
+ *
+ * @param tripleIndexes        the triple indexes, e.g. "spoc,ospc". Changing the indexes of an existing store rebuilds them on startup.
+ * @param forceSync            true, if every commit is synced to disk
+ * @param valueCacheSize       number of values kept in memory
+ * @param valueIdCacheSize     number of value ids kept in memory
+ * @param namespaceCacheSize   number of namespaces kept in memory
+ * @param namespaceIdCacheSize number of namespace ids kept in memory
+ * @param tripleDbSize         initial map size of the triple database
+ * @param valueDbSize          initial map size of the value database
+ * @param autoGrow             true, if the map sizes should grow automatically
+ */
+public record LmdbProfile(@Nullable String tripleIndexes,
+                          @Nullable Boolean forceSync,
+                          @Nullable Integer valueCacheSize,
+                          @Nullable Integer valueIdCacheSize,
+                          @Nullable Integer namespaceCacheSize,
+                          @Nullable Integer namespaceIdCacheSize,
+                          @Nullable DataSize tripleDbSize,
+                          @Nullable DataSize valueDbSize,
+                          @Nullable Boolean autoGrow) {
+
+    /**
+     * The triple indexes of all stores created before the profiles were introduced. Every built-in profile keeps them,
+     * a store opened with other indexes is reindexed on startup (which reads and writes every statement once).
+     */
+    public static final String DEFAULT_INDEXES = "spoc,ospc,psoc";
+
+    /**
+     * Read-heavy, lookups by subject and by object (links between entities), large working set.
+     */
+    public static final LmdbProfile ENTITIES = new LmdbProfile(DEFAULT_INDEXES, false, 8192, 4096, 64, 32, DataSize.ofMegabytes(256), DataSize.ofMegabytes(256), true);
+
+    /**
+     * Append-only, lookups by subject (the transaction) or by type and time. New stores can drop the unused object index
+     * with "spoc,posc" (configured as override for the repository type).
+     */
+    public static final LmdbProfile TRANSACTIONS = new LmdbProfile(DEFAULT_INDEXES, false, 1024, 512, 32, 16, DataSize.ofMegabytes(128), DataSize.ofMegabytes(128), true);
+
+    /**
+     * Small and read-mostly. New stores can look up by predicate and object with "spoc,posc,ospc".
+     */
+    public static final LmdbProfile SCHEMA = new LmdbProfile(DEFAULT_INDEXES, false, 2048, 1024, 128, 64, DataSize.ofMegabytes(32), DataSize.ofMegabytes(32), true);
+
+    /**
+     * Tiny and rarely written. Syncing every write (e.g. a new application) to survive a crash has to be enabled with
+     * forceSync, it is off by default as before.
+     */
+    public static final LmdbProfile APPLICATION = new LmdbProfile(DEFAULT_INDEXES, false, 512, 128, 32, 16, DataSize.ofMegabytes(16), DataSize.ofMegabytes(16), true);
+
+
+    public static LmdbProfile defaults(RepositoryType repositoryType) {
+        return switch (repositoryType) {
+            case ENTITIES, CLASSIFIER -> ENTITIES;
+            case TRANSACTIONS -> TRANSACTIONS;
+            case SCHEMA -> SCHEMA;
+            case APPLICATION -> APPLICATION;
+            default -> ENTITIES;
+        };
+    }
+
+    /**
+     * @param overrides the profile with the values which replace the values of this profile
+     * @return a new profile, with the values of the overrides (if set) or this profile
+     */
+    public LmdbProfile merge(@Nullable LmdbProfile overrides) {
+        if (Objects.isNull(overrides)) return this;
+
+        return new LmdbProfile(
+                Objects.requireNonNullElse(overrides.tripleIndexes(), this.tripleIndexes()),
+                Objects.requireNonNullElse(overrides.forceSync(), this.forceSync()),
+                Objects.requireNonNullElse(overrides.valueCacheSize(), this.valueCacheSize()),
+                Objects.requireNonNullElse(overrides.valueIdCacheSize(), this.valueIdCacheSize()),
+                Objects.requireNonNullElse(overrides.namespaceCacheSize(), this.namespaceCacheSize()),
+                Objects.requireNonNullElse(overrides.namespaceIdCacheSize(), this.namespaceIdCacheSize()),
+                Objects.requireNonNullElse(overrides.tripleDbSize(), this.tripleDbSize()),
+                Objects.requireNonNullElse(overrides.valueDbSize(), this.valueDbSize()),
+                Objects.requireNonNullElse(overrides.autoGrow(), this.autoGrow())
+        );
+    }
+
+    public LmdbStoreConfig toConfig() {
+        LmdbStoreConfig config = new LmdbStoreConfig();
+        if (Objects.nonNull(this.tripleIndexes)) config.setTripleIndexes(this.tripleIndexes);
+        if (Objects.nonNull(this.forceSync)) config.setForceSync(this.forceSync);
+        if (Objects.nonNull(this.valueCacheSize)) config.setValueCacheSize(this.valueCacheSize);
+        if (Objects.nonNull(this.valueIdCacheSize)) config.setValueIDCacheSize(this.valueIdCacheSize);
+        if (Objects.nonNull(this.namespaceCacheSize)) config.setNamespaceCacheSize(this.namespaceCacheSize);
+        if (Objects.nonNull(this.namespaceIdCacheSize)) config.setNamespaceIDCacheSize(this.namespaceIdCacheSize);
+        if (Objects.nonNull(this.tripleDbSize)) config.setTripleDBSize(this.tripleDbSize.toBytes());
+        if (Objects.nonNull(this.valueDbSize)) config.setValueDBSize(this.valueDbSize.toBytes());
+        if (Objects.nonNull(this.autoGrow)) config.setAutoGrow(this.autoGrow);
+        return config;
+    }
+}
@@ -0,0 +1,57 @@
+package org.av360.maverick.graph.store.rdf4j.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.av360.maverick.graph.model.enums.RepositoryType;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The configured storage profiles for persistent repositories, e.g.
+ * <pre>
+ * application:
+ *   storage:
+ *     lmdb:
+ *       profiles:
+ *         transactions:          # overrides the defaults for a repository type
+ *           forceSync: true
+ *         large:                 # named profile, selected through the configuration of an application
+ *           valueCacheSize: 65536
+ *           tripleDbSize: 4GB
+ * </pre>
+ * A profile is resolved from the built-in defaults of the repository type, overridden by the profile configured for the
+ * repository type, overridden by the named profile of the application (if any).
+ */
+@Component
+@Slf4j(topic = "graph.repo.cfg.builder")
+@ConfigurationProperties(prefix = "application.storage.lmdb")
+public class LmdbProfiles {
+
+    private Map<String, LmdbProfile> profiles = new HashMap<>();
+
+    public Map<String, LmdbProfile> getProfiles() {
+        return profiles;
+    }
+
+    public void setProfiles(Map<String, LmdbProfile> profiles) {
+        this.profiles = profiles;
+    }
+
+    public LmdbProfile resolve(RepositoryType repositoryType, @Nullable String profileName) {
+        LmdbProfile profile = LmdbProfile.defaults(repositoryType).merge(this.profiles.get(repositoryType.toString()));
+
+        if (StringUtils.hasLength(profileName)) {
+            LmdbProfile named = this.profiles.get(profileName);
+            if (Objects.isNull(named)) {
+                log.warn("Storage profile '{}' is not configured, using the defaults for repositories of type '{}'", profileName, repositoryType);
+            }
+            profile = profile.merge(named);
+        }
+        return profile;
+    }
+}
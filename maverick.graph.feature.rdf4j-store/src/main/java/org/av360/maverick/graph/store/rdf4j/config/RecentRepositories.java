@@ -0,0 +1,82 @@
+package org.av360.maverick.graph.store.rdf4j.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.av360.maverick.graph.model.enums.RepositoryType;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers the persistent repositories which have been used recently, to open them again on the next startup (before
+ * the first request for them arrives).
+ * <p>
+ * The list is kept in memory and written to a file on shutdown, one repository per line.
+ */
+@Slf4j(topic = "graph.repo.cfg.builder")
+class RecentRepositories {
+
+    record Entry(String label, Path path, RepositoryType repositoryType, @Nullable String profile, Instant lastAccess) {
+
+        String format() {
+            return String.join("\t", this.label, this.path.toString(), this.repositoryType.name(), Objects.requireNonNullElse(this.profile, ""), this.lastAccess.toString());
+        }
+
+        static Entry parse(String line) {
+            String[] parts = line.split("\t", -1);
+            return new Entry(parts[0], Paths.get(parts[1]), RepositoryType.valueOf(parts[2]), parts[3].isEmpty() ? null : parts[3], Instant.parse(parts[4]));
+        }
+    }
+
+    private final Map<String, Entry> entries;
+
+    RecentRepositories() {
+        this.entries = new ConcurrentHashMap<>();
+    }
+
+    void accessed(String label, Path path, RepositoryType repositoryType, @Nullable String profile) {
+        this.entries.put(label, new Entry(label, path, repositoryType, profile, Instant.now()));
+    }
+
+    /**
+     * @return the most recently used repositories, most recent first
+     */
+    List<Entry> mostRecent(int limit) {
+        return this.entries.values().stream()
+                .sorted(Comparator.comparing(Entry::lastAccess).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    void save(Path file, int limit) {
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Files.write(file, this.mostRecent(limit).stream().map(Entry::format).toList(), StandardCharsets.UTF_8);
+            log.debug("Stored list of recently used repositories in file '{}'", file);
+        } catch (IOException e) {
+            log.warn("Failed to store list of recently used repositories in file '{}', reason: {}", file, e.getMessage());
+        }
+    }
+
+    void load(Path file) {
+        if (!Files.exists(file)) return;
+
+        try {
+            Files.readAllLines(file, StandardCharsets.UTF_8).stream()
+                    .filter(line -> !line.isBlank())
+                    .map(Entry::parse)
+                    .forEach(entry -> this.entries.putIfAbsent(entry.label(), entry));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to read list of recently used repositories from file '{}', reason: {}", file, e.getMessage());
+        }
+    }
+}
@@ -17,71 +17,75 @@ package org.av360.maverick.graph.store.rdf4j.config;
 
 import lombok.extern.slf4j.Slf4j;
 import org.av360.maverick.graph.store.rdf.LabeledRepository;
-import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 
 /**
  * Our own Cache implementation, since the eviction policies in Caffeine are not straightforward to use (with pinning for repositories which still have open connections).
+ * <p>
+ * The cache is driven by the connection events of the repositories: when the last connection of a persistent repository
+ * is closed, an expiry is scheduled; when a new connection is opened before it is due, the expiry is cancelled. Nothing
+ * is polled, the cost of an idle repository is a pending entry in the expiry queue.
+ * <p>
+ * The number of open persistent repositories (each holds an LMDB environment with its file handles and memory maps) can
+ * be limited. If a repository is opened beyond the limit, the least recently used idle repositories are shut down. They
+ * are opened again on the next access. In-memory repositories are neither expired nor counted, shutting them down would
+ * drop their content.
  */
 @Slf4j(topic = "graph.repo.cfg.builder")
-final class RepositoryCache {
+final class RepositoryCache implements LabeledRepository.ActivityListener {
 
+    // time to wait for open connections, before a repository is closed for good
+    private static final Duration CLOSE_TIMEOUT = Duration.ofSeconds(10);
 
-    private Map<String, ManagedRepositoryItem> cache;
-    public static int TIME_TO_IDLE = 300;
-    public static int TIME_TO_EVICT = 600;
+    private final Map<String, ManagedRepositoryItem> cache;
+    private final ScheduledThreadPoolExecutor expiries;
+    private Duration timeToLive;
+    private int maxOpen;
+
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+    private final AtomicLong evictions;
 
     public RepositoryCache() {
         this.cache = new ConcurrentHashMap<>();
+        this.timeToLive = Duration.ofMinutes(15);
+        this.maxOpen = 0;
+        this.hits = new AtomicLong();
+        this.misses = new AtomicLong();
+        this.evictions = new AtomicLong();
+
+        this.expiries = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "repository-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.expiries.setRemoveOnCancelPolicy(true);
     }
 
-    public void init() {
-        Executors.newSingleThreadScheduledExecutor().scheduleAtFixedRate(() -> {
-            cache.forEach((key, repo) -> {
-                if(repo.getRepository().isInitialized() && repo.hasConnections()) {
-                    repo.setActive();
-                }
-                else if(repo.isActive() && ! repo.hasConnections()) {
-                    if(repo.getInitDate().plusSeconds(TIME_TO_IDLE).isBefore(Instant.now())) {
-                        log.info("Pausing repository: {}", key);
-                        repo.setIdle();
-                    }
-                }
-                else if(repo.isIdle() && repo.hasConnections()) {
-                    log.info("Reactivating idle repository with {} connections : {}", key, repo.getRepository().getConnectionsCount());
-                    repo.setActive();
-                }
-                else if(repo.isIdle() && !repo.hasConnections()) {
-                    if(repo.getIdleDate().plusSeconds(TIME_TO_EVICT).isBefore(Instant.now())) {
-                        log.info("Evicting repository: {}", key);
-                        repo.setStale();
-                    }
-                } else if(repo.isStale() && repo.hasConnections()) {
-                    log.info("Reactivating stale repository with {} connections : {}", key, repo.getRepository().getConnectionsCount());
-                    repo.setActive();
-                } else if(repo.isStale() && ! repo.hasConnections()) {
-                    if(repo.getRepository().isInitialized()) {
-                        log.info("Shutting down repository: {}", key);
-                        repo.getRepository().shutDown();
-                    }
-
-                }
-
-            });
-
-            // we scan through all repositories, if there are not active connections we invalidate the entry
-        }, 1000, 500, TimeUnit.MILLISECONDS);
+    /**
+     * @param timeToLive time after which a persistent repository without open connections is shut down
+     * @param maxOpen    maximum number of open persistent repositories, 0 for no limit
+     */
+    public void init(Duration timeToLive, int maxOpen) {
+        this.timeToLive = timeToLive;
+        this.maxOpen = maxOpen;
     }
 
     public void shutdown() {
+        this.expiries.shutdownNow();
         cache.values().forEach(managedRepository -> {
             log.debug("Shutting down repository: {}", managedRepository.getRepository().toString());
             managedRepository.getRepository().shutDown();
@@ -96,10 +100,27 @@ final class RepositoryCache {
         return this.cache;
     }
 
-    public void shutdown(String key) {
-        if(this.cache.containsKey(key)) {
-            this.cache.get(key).getRepository().shutDown();
+    /**
+     * Closes the repository for good (e.g. after it has been purged) and removes it from the cache, the next access
+     * builds it again. Open connections are not closed, we wait a bounded time for them to be returned. If the repository
+     * is still in use afterwards, it is kept open (and in the cache).
+     *
+     * @return true, if the repository has been closed
+     */
+    public boolean shutdown(String key) {
+        ManagedRepositoryItem item = this.cache.get(key);
+        if (Objects.isNull(item)) return true;
+
+        // removed first, a repository which is about to be closed is not handed out anymore
+        this.cache.remove(key, item);
+        if (item.close(CLOSE_TIMEOUT)) {
+            log.debug("Closed repository '{}'", key);
+            return true;
         }
+
+        log.warn("Repository '{}' still has {} open connections after {}, it is kept open", key, item.getRepository().getConnectionsCount(), CLOSE_TIMEOUT);
+        this.cache.putIfAbsent(key, item);
+        return false;
     }
 
     public boolean contains(String label) {
@@ -110,51 +131,204 @@ final class RepositoryCache {
         return this.cache.get(label).getRepository();
     }
 
-    public void register(String label, LabeledRepository labeledRepository) {
-        this.cache.put(label, new ManagedRepositoryItem(labeledRepository));
+    /**
+     * @return the repository, if it is cached and open. Counts as hit or miss.
+     */
+    public Optional<LabeledRepository> lookup(String label) {
+        ManagedRepositoryItem item = this.cache.get(label);
+        if (Objects.nonNull(item) && item.getRepository().isInitialized()) {
+            this.hits.incrementAndGet();
+            return Optional.of(item.getRepository());
+        }
+        this.misses.incrementAndGet();
+        return Optional.empty();
+    }
+
+    public void register(String label, LabeledRepository labeledRepository, boolean persistent) {
+        ManagedRepositoryItem item = new ManagedRepositoryItem(labeledRepository, persistent);
+        this.cache.put(label, item);
+        labeledRepository.setActivityListener(this);
+        this.opened(label);
+    }
+
+    /**
+     * Called whenever a repository has been opened (for the first time or again after it has been shut down). The repository
+     * is idle until the first connection is opened, we schedule the expiry and enforce the limit of open repositories.
+     */
+    public void opened(String label) {
+        ManagedRepositoryItem item = this.cache.get(label);
+        if (Objects.isNull(item) || !item.isPersistent()) return;
+
+        if (item.getRepository().getConnectionsCount() == 0) this.onIdle(item.getRepository());
+        if (this.maxOpen > 0) this.enforceLimit(item);
+    }
+
+    @Override
+    public void onReopened(LabeledRepository repository) {
+        this.opened(repository.getLabel());
+    }
+
+    @Override
+    public void onActive(LabeledRepository repository) {
+        ManagedRepositoryItem item = this.cache.get(repository.getLabel());
+        if (Objects.nonNull(item)) item.setActive();
+    }
+
+    @Override
+    public void onIdle(LabeledRepository repository) {
+        ManagedRepositoryItem item = this.cache.get(repository.getLabel());
+        if (Objects.isNull(item) || !item.isPersistent()) return;
+
+        long generation = item.setIdle();
+        item.scheduleExpiry(this.expiries.schedule(() -> this.expire(item, generation), this.timeToLive.toMillis(), TimeUnit.MILLISECONDS));
+    }
+
+    private void expire(ManagedRepositoryItem item, long generation) {
+        if (item.evict(generation)) {
+            log.info("Shutting down repository '{}' after being idle for {}", item.getRepository().getLabel(), this.timeToLive);
+            this.evictions.incrementAndGet();
+        }
+    }
+
+    private void enforceLimit(ManagedRepositoryItem opened) {
+        long open = this.cache.values().stream().filter(item -> item.isPersistent() && item.getRepository().isInitialized()).count();
+
+        while (open > this.maxOpen) {
+            Optional<ManagedRepositoryItem> candidate = this.cache.values().stream()
+                    .filter(item -> item != opened && item.isPersistent() && item.isIdle() && item.getRepository().isInitialized())
+                    .min(Comparator.comparing(ManagedRepositoryItem::getIdleDate));
+
+            if (candidate.isEmpty()) {
+                log.warn("{} persistent repositories are open, exceeding the limit of {}, but none of them is idle.", open, this.maxOpen);
+                return;
+            }
+
+            if (candidate.get().evict(candidate.get().getGeneration())) {
+                log.info("Shutting down least recently used repository '{}', limit of {} open repositories reached", candidate.get().getRepository().getLabel(), this.maxOpen);
+                this.evictions.incrementAndGet();
+                open--;
+            }
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public long getOpen() {
+        return this.cache.values().stream().filter(item -> item.getRepository().isInitialized()).count();
     }
 
 
     static class ManagedRepositoryItem {
 
         private final LabeledRepository labeledRepository;
+        private final boolean persistent;
         private Instant activeDate;
         private Instant idleDate;
         private ManagedRepositoryStatus status;
+        private long generation;
+        private ScheduledFuture<?> expiry;
 
-        ManagedRepositoryItem(LabeledRepository labeledRepository) {
+        ManagedRepositoryItem(LabeledRepository labeledRepository, boolean persistent) {
             this.labeledRepository = labeledRepository;
+            this.persistent = persistent;
             this.activeDate = Instant.now();
             this.status = ManagedRepositoryStatus.ACTIVE;
         }
 
-        public void setActive() {
+        public synchronized void setActive() {
+            this.cancelExpiry();
+            this.generation++;
             this.status = ManagedRepositoryStatus.ACTIVE;
             this.idleDate = null;
             this.activeDate = Instant.now();
         }
 
-        public void setStale() {
-            this.status = ManagedRepositoryStatus.EVICT;
-        }
-
-        public void setIdle() {
+        /**
+         * @return the generation of this idle period, an expiry is only valid for the same period
+         */
+        public synchronized long setIdle() {
+            this.cancelExpiry();
+            this.generation++;
             this.status = ManagedRepositoryStatus.IDLE;
             this.idleDate = Instant.now();
+            return this.generation;
+        }
+
+        synchronized void scheduleExpiry(ScheduledFuture<?> expiry) {
+            this.cancelExpiry();
+            this.expiry = expiry;
+        }
+
+        synchronized void cancelExpiry() {
+            if (Objects.nonNull(this.expiry)) {
+                this.expiry.cancel(false);
+                this.expiry = null;
+            }
+        }
+
+        /**
+         * Shuts down the repository, if it is still in the given idle period. A repository handed out before is not
+         * pinned, it is opened again by the next connection request (see {@link LabeledRepository#shutDownIfIdle()}).
+         *
+         * @return true, if the repository has been shut down
+         */
+        synchronized boolean evict(long generation) {
+            if (this.generation != generation || !this.isIdle()) return false;
+
+            if (this.labeledRepository.shutDownIfIdle()) {
+                this.cancelExpiry();
+                this.status = ManagedRepositoryStatus.CLOSED;
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Closes the repository for good, after waiting up to the given time for its connections to be returned.
+         *
+         * @return true, if the repository has been closed
+         */
+        boolean close(Duration timeout) {
+            this.cancelExpiry();
+            if (!this.labeledRepository.closeWhenIdle(timeout)) return false;
+
+            synchronized (this) {
+                this.cancelExpiry();
+                this.status = ManagedRepositoryStatus.CLOSED;
+            }
+            return true;
+        }
+
+        public synchronized long getGeneration() {
+            return generation;
         }
 
         public boolean isIdle() {
             return ManagedRepositoryStatus.IDLE == this.status;
         }
 
-        public boolean isStale() {
-            return ManagedRepositoryStatus.EVICT == this.status;
+        public boolean isClosed() {
+            return ManagedRepositoryStatus.CLOSED == this.status;
         }
 
         public boolean isActive() {
             return ManagedRepositoryStatus.ACTIVE == this.status;
         }
 
+        public boolean isPersistent() {
+            return persistent;
+        }
+
         public boolean hasConnections() {
             return this.labeledRepository.getConnectionsCount() > 0;
 
@@ -164,20 +338,11 @@ final class RepositoryCache {
             return this.activeDate;
         }
 
-        public ManagedRepositoryItem activate() {
-            this.setActive();
-            return this;
-        }
-
-        public Mono<LabeledRepository> getRepositoryMono() {
-            return Mono.just(this.getRepository());
-        }
-
 
         enum ManagedRepositoryStatus {
             ACTIVE,
             IDLE,
-            EVICT
+            CLOSED
         }
 
 
@@ -191,31 +356,13 @@ final class RepositoryCache {
         }
 
         public Instant getIdleDate() {
-            return idleDate;
+            return Objects.requireNonNullElse(idleDate, Instant.MAX);
         }
 
         public ManagedRepositoryStatus status() {
             return status;
         }
 
-        @Override
-        public boolean equals(Object obj) {
-            if (obj == this) return true;
-            if (obj == null || obj.getClass() != this.getClass()) return false;
-            var that = (ManagedRepositoryItem) obj;
-            return
-                    Objects.equals(this.labeledRepository, that.labeledRepository) &&
-                    Objects.equals(this.activeDate, that.activeDate) &&
-                    Objects.equals(this.idleDate, that.idleDate) &&
-                    Objects.equals(this.status, that.status);
-        }
-
-        @Override
-        public int hashCode() {
-            return Objects.hash(labeledRepository, activeDate, idleDate, status);
-        }
-
-
     }
 
-}
\ No newline at end of file
+}
@@ -26,7 +26,7 @@ public class TransactionsStoreImpl extends AbstractRdfRepository implements Tran
 
     @Override
     public Flux<Transaction> store(Collection<Transaction> transactions, Environment environment) {
-        return this.applyManyWithConnection(environment, connection -> {
+        return this.applyManyWithWriteConnection(environment, connection -> {
             transactions.forEach(trx -> {
                 try {
                     connection.begin();
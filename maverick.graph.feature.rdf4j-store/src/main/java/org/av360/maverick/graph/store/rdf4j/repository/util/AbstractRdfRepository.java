@@ -1,43 +1,59 @@
 package org.av360.maverick.graph.store.rdf4j.repository.util;
 
-import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
-import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import org.av360.maverick.graph.model.context.Environment;
 import org.av360.maverick.graph.model.context.SessionContext;
 import org.av360.maverick.graph.model.entities.Transaction;
 import org.av360.maverick.graph.model.errors.InsufficientPrivilegeException;
+import org.av360.maverick.graph.model.errors.requests.QueryTimeout;
+import org.av360.maverick.graph.model.errors.requests.RepositoryBusy;
 import org.av360.maverick.graph.model.errors.store.InvalidStoreConfiguration;
 import org.av360.maverick.graph.model.rdf.AnnotatedStatement;
+import org.av360.maverick.graph.model.rdf.QueryProjection;
 import org.av360.maverick.graph.model.security.Authorities;
-import org.av360.maverick.graph.model.vocabulary.meg.Local;
 import org.av360.maverick.graph.model.vocabulary.meg.Transactions;
 import org.av360.maverick.graph.store.FragmentsStore;
 import org.av360.maverick.graph.store.RepositoryBuilder;
+import org.av360.maverick.graph.store.TransactionEnricher;
 import org.av360.maverick.graph.store.behaviours.*;
+import org.av360.maverick.graph.store.rdf.LabeledConnectionWrapper;
+import org.av360.maverick.graph.store.rdf.LabeledRepository;
+import org.av360.maverick.graph.store.rdf.PoolExhaustedException;
+import org.av360.maverick.graph.store.rdf.RepositoryClosedException;
 import org.av360.maverick.graph.store.rdf.fragments.RdfFragment;
 import org.av360.maverick.graph.store.rdf.fragments.RdfTransaction;
-import org.av360.maverick.graph.store.rdf.fragments.TripleModel;
+import org.av360.maverick.graph.store.rdf.helpers.DataBufferInputStream;
+import org.av360.maverick.graph.store.rdf.helpers.ParsedQueryCache;
+import org.av360.maverick.graph.store.rdf.helpers.QueryBindings;
 import org.av360.maverick.graph.store.rdf.helpers.RdfUtils;
+import org.av360.maverick.graph.store.rdf4j.repository.util.StoreMetrics.Operation;
 import org.eclipse.rdf4j.model.*;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
 import org.eclipse.rdf4j.model.impl.SimpleNamespace;
-import org.eclipse.rdf4j.model.util.ModelCollector;
-import org.eclipse.rdf4j.model.util.Models;
 import org.eclipse.rdf4j.model.util.Values;
 import org.eclipse.rdf4j.model.vocabulary.RDF;
 import org.eclipse.rdf4j.query.*;
+import org.eclipse.rdf4j.query.impl.ListBindingSet;
 import org.eclipse.rdf4j.repository.RepositoryConnection;
 import org.eclipse.rdf4j.repository.RepositoryException;
+import org.eclipse.rdf4j.repository.RepositoryReadOnlyException;
 import org.eclipse.rdf4j.repository.RepositoryResult;
 import org.eclipse.rdf4j.repository.base.RepositoryConnectionWrapper;
-import org.eclipse.rdf4j.repository.util.RDFInserter;
+import org.eclipse.rdf4j.repository.sail.SailGraphQuery;
+import org.eclipse.rdf4j.repository.sail.SailRepositoryConnection;
+import org.eclipse.rdf4j.repository.sail.SailTupleQuery;
+import org.eclipse.rdf4j.repository.sail.SailUpdate;
 import org.eclipse.rdf4j.rio.RDFParser;
 import org.eclipse.rdf4j.rio.RDFParserFactory;
 import org.reactivestreams.Publisher;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.PropertyResolver;
 import org.springframework.core.io.buffer.DataBuffer;
-import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.util.Assert;
 import org.springframework.util.MimeType;
@@ -46,16 +62,16 @@ import org.springframework.util.function.ThrowingFunction;
 import org.springframework.web.client.HttpClientErrorException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
 import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
 
 import javax.annotation.Nullable;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.PipedInputStream;
-import java.io.PipedOutputStream;
 import java.time.Duration;
 import java.util.*;
-import java.util.concurrent.TimeoutException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToLongFunction;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -64,10 +80,56 @@ public abstract class AbstractRdfRepository implements Searchable, Maintainable,
 
     private RepositoryBuilder repositoryConfiguration;
     private MeterRegistry meterRegistry;
-    private Counter transactionsMonoCounter;
-    private Counter transactionsFluxCounter;
-    private Timer transactionsMonoTimer;
-    private Timer transactionsFluxTimer;
+    private ParsedQueryCache parsedQueryCache;
+    @Nullable
+    private FragmentCache fragmentCache;
+    private StoreMetrics metrics = new StoreMetrics(null);
+    private List<TransactionEnricher> transactionEnrichers = List.of();
+
+    @org.springframework.beans.factory.annotation.Value("${application.storage.commits.grouping.enabled:false}")
+    private boolean groupCommitEnabled;
+
+    @org.springframework.beans.factory.annotation.Value("${application.storage.commits.grouping.window:20}")
+    private long groupCommitWindow;
+
+    @org.springframework.beans.factory.annotation.Value("${application.storage.commits.grouping.maxStatements:10000}")
+    private int groupCommitMaxStatements;
+
+    private final Map<String, GroupCommitter> groupCommitters = new ConcurrentHashMap<>();
+
+    private final Map<String, FragmentCounters> fragmentCounters = new ConcurrentHashMap<>();
+
+    // a repository resolved right before it has been closed (e.g. purged) refuses connections, we resolve it again once
+    private static final Retry REOPEN = Retry.max(1).filter(RepositoryClosedException.class::isInstance);
+
+    @org.springframework.beans.factory.annotation.Value("${application.storage.queries.timeouts.select:PT30S}")
+    private Duration selectTimeout;
+
+    @org.springframework.beans.factory.annotation.Value("${application.storage.queries.timeouts.construct:PT30S}")
+    private Duration constructTimeout;
+
+    @org.springframework.beans.factory.annotation.Value("${application.storage.queries.timeouts.update:PT30S}")
+    private Duration updateTimeout;
+
+    @org.springframework.beans.factory.annotation.Value("${application.storage.queries.timeouts.scheduled:PT0S}")
+    private Duration scheduledTimeout;
+
+    private final Map<String, Duration> scopedTimeouts = new ConcurrentHashMap<>();
+
+    @Nullable
+    private PropertyResolver properties;
+
+    @org.springframework.beans.factory.annotation.Value("${application.storage.imports.chunkSize:50000}")
+    private int importChunkSize;
+
+    @org.springframework.beans.factory.annotation.Value("${application.storage.imports.prefetch:16}")
+    private int importPrefetch;
+
+    @org.springframework.beans.factory.annotation.Value("${application.storage.details.mode:reification}")
+    private DetailsStorage detailsStorage = DetailsStorage.REIFICATION;
+
+    @org.springframework.beans.factory.annotation.Value("${application.storage.details.migrationBatchSize:1000}")
+    private int detailsMigrationBatchSize;
 
     public AbstractRdfRepository() {
 
@@ -84,31 +146,149 @@ public abstract class AbstractRdfRepository implements Searchable, Maintainable,
         this.repositoryConfiguration = repositoryConfiguration;
     }
 
+    @Autowired(required = false)
+    private void setProperties(PropertyResolver properties) {
+        this.properties = properties;
+    }
+
     @Autowired
     private void setMeterRegistry(@Nullable MeterRegistry meterRegistry) {
         if (Objects.nonNull(meterRegistry)) {
             this.meterRegistry = meterRegistry;
-            this.transactionsMonoCounter = meterRegistry.counter("graph.store.transactions", "cardinality", "single");
-            this.transactionsMonoTimer = meterRegistry.timer("graph.store.timer", "cardinality", "single");
-            this.transactionsFluxCounter = meterRegistry.counter("graph.store.transactions", "cardinality", "multiple");
-            this.transactionsFluxTimer = meterRegistry.timer("graph.store.timer", "cardinality", "multiple");
+            this.metrics = new StoreMetrics(meterRegistry);
         }
 
     }
 
+    @Autowired
+    private void setFragmentCache(@Nullable FragmentCache fragmentCache) {
+        this.fragmentCache = fragmentCache;
+    }
+
+    @Autowired(required = false)
+    private void setTransactionEnrichers(List<TransactionEnricher> transactionEnrichers) {
+        this.transactionEnrichers = transactionEnrichers;
+    }
 
-    public Flux<AnnotatedStatement> construct(String query, Environment environment) {
-        return this.applyManyWithConnection(environment, connection -> {
+    @Autowired
+    private void setParsedQueryCache(ParsedQueryCache parsedQueryCache, @Nullable MeterRegistry meterRegistry) {
+        this.parsedQueryCache = parsedQueryCache;
+        if (Objects.nonNull(meterRegistry)) {
+            // shared by all stores, registering the same meter again returns the existing one
+            FunctionCounter.builder("graph.store.queries.cache", parsedQueryCache, ParsedQueryCache::getHits).tag("result", "hit").register(meterRegistry);
+            FunctionCounter.builder("graph.store.queries.cache", parsedQueryCache, ParsedQueryCache::getMisses).tag("result", "miss").register(meterRegistry);
+            Gauge.builder("graph.store.queries.cache_size", parsedQueryCache, ParsedQueryCache::getSize).register(meterRegistry);
+        }
+    }
+
+    /**
+     * Prepares the query from the cached algebra, if we talk to a sail. Otherwise the connection parses the query, with
+     * the bound limit and offset written into the query text.
+     */
+    private TupleQuery prepareTupleQuery(RepositoryConnection connection, String query, QueryBindings bindings) {
+        SailRepositoryConnection sailConnection = unwrap(connection);
+        TupleQuery q = Objects.nonNull(sailConnection)
+                ? new SailTupleQuery(this.parsedQueryCache.parseTupleQuery(query, bindings), sailConnection)
+                : connection.prepareTupleQuery(QueryLanguage.SPARQL, bindings.expand(query));
+        bindings.values().forEach(q::setBinding);
+        return q;
+    }
+
+    private GraphQuery prepareGraphQuery(RepositoryConnection connection, String query, QueryBindings bindings) {
+        SailRepositoryConnection sailConnection = unwrap(connection);
+        GraphQuery q = Objects.nonNull(sailConnection)
+                ? new SailGraphQuery(this.parsedQueryCache.parseGraphQuery(query, bindings), sailConnection) {}
+                : connection.prepareGraphQuery(QueryLanguage.SPARQL, bindings.expand(query));
+        bindings.values().forEach(q::setBinding);
+        return q;
+    }
+
+    private Update prepareUpdate(RepositoryConnection connection, String query, QueryBindings bindings) {
+        // the sail update is prepared on the unwrapped connection, which wouldn't reject it anymore
+        if (connection instanceof LabeledConnectionWrapper wrapper && wrapper.isReadOnly()) {
+            throw new RepositoryReadOnlyException("Connection to repository '%s' is read-only".formatted(connection.getRepository()));
+        }
+        SailRepositoryConnection sailConnection = unwrap(connection);
+        Update q = Objects.nonNull(sailConnection)
+                ? new SailUpdate(this.parsedQueryCache.parseUpdate(query), sailConnection) {}
+                : connection.prepareUpdate(QueryLanguage.SPARQL, query);
+        bindings.values().forEach(q::setBinding);
+        return q;
+    }
+
+    /**
+     * @return the maximum execution time in seconds (as expected by RDF4J, 0 for no limit). Scheduled jobs have their own
+     * limit, since they are expected to run longer queries than requests. Every limit can be overridden for the scope
+     * (the application) of the environment.
+     */
+    private int maxExecutionTime(Operation operation, Environment environment) {
+        String key;
+        Duration fallback;
+        if (environment.getSessionContext().isScheduled()) {
+            key = "scheduled";
+            fallback = this.scheduledTimeout;
+        } else {
+            switch (operation) {
+                case QUERY -> { key = "select"; fallback = this.selectTimeout; }
+                case CONSTRUCT -> { key = "construct"; fallback = this.constructTimeout; }
+                case UPDATE -> { key = "update"; fallback = this.updateTimeout; }
+                default -> { return 0; }
+            }
+        }
+
+        Duration limit = Objects.isNull(this.properties) ? fallback : this.scopedTimeouts.computeIfAbsent(environment.getScope().label() + "." + key,
+                scoped -> this.properties.getProperty("application.storage.queries.timeouts.scopes." + scoped, Duration.class, fallback));
+        if (limit.isZero() || limit.isNegative()) return 0;
+        return (int) Math.max(1, (limit.toMillis() + 999) / 1000);
+    }
+
+    /**
+     * Queries exceeding their maximum execution time are interrupted by RDF4J, we report them as timeout to the client.
+     * If no pooled connection has been available in time, we report the repository as busy (the client may retry).
+     */
+    private Throwable handleTimeout(Throwable error, StoreMetrics.Meters meters, Operation operation, Environment environment) {
+        for (Throwable cause = error; Objects.nonNull(cause); cause = cause.getCause()) {
+            if (cause instanceof QueryInterruptedException) {
+                meters.timedOut();
+                getLogger().warn("Operation on repository of type '{}' has been cancelled after exceeding its maximum execution time.", environment.getRepositoryType());
+                return new QueryTimeout(Duration.ofSeconds(this.maxExecutionTime(operation, environment)));
+            }
+            if (cause instanceof PoolExhaustedException) {
+                getLogger().warn("Operation on repository of type '{}' failed, no connection available. Reason: {}", environment.getRepositoryType(), cause.getMessage());
+                return new RepositoryBusy(environment.getRepositoryType().toString());
+            }
+        }
+        return error;
+    }
+
+    @Nullable
+    private static SailRepositoryConnection unwrap(RepositoryConnection connection) {
+        RepositoryConnection delegate = connection;
+        while (delegate instanceof RepositoryConnectionWrapper wrapper) {
+            delegate = wrapper.getDelegate();
+        }
+        return delegate instanceof SailRepositoryConnection sailConnection ? sailConnection : null;
+    }
+
+
+    @Override
+    public Flux<AnnotatedStatement> construct(String query, QueryBindings bindings, Environment environment) {
+        return this.applyManyWithConnection(Operation.CONSTRUCT, environment, connection -> {
             try {
                 getLogger().debug("Running construct query in repository: {}", connection.getRepository());
                 getLogger().trace("Query: {}", query.replace('\n', ' ').trim());
-                GraphQuery q = connection.prepareGraphQuery(QueryLanguage.SPARQL, query);
-                try (GraphQueryResult result = q.evaluate()) {
+                GraphQuery q = this.prepareGraphQuery(connection, query, bindings);
+                q.setMaxExecutionTime(this.maxExecutionTime(Operation.CONSTRUCT, environment));
+
+                // the stream closes the query result, when the flux completes or is cancelled
+                GraphQueryResult result = q.evaluate();
+                try {
                     Set<Namespace> namespaces = result.getNamespaces().entrySet().stream()
                             .map(entry -> new SimpleNamespace(entry.getKey(), entry.getValue()))
                             .collect(Collectors.toSet());
                     return result.stream().map(statement -> AnnotatedStatement.wrap(statement, namespaces));
                 } catch (Exception e) {
+                    result.close();
                     getLogger().warn("Error while running value query.", e);
                     throw e;
                 }
@@ -123,11 +303,18 @@ public abstract class AbstractRdfRepository implements Searchable, Maintainable,
     }
 
     @Override
-    public Mono<Long> countFragments(Environment environment) {
+    public Mono<Long> countFragments(IRI type, Environment environment) {
+        if (FragmentCounters.isCounted(type)) {
+            return this.verifyValidAndAuthorized(environment)
+                    .then(this.getBuilder().getRepository(this, environment))
+                    // stale counters are reconciled with a scan of the repository
+                    .publishOn(Schedulers.boundedElastic())
+                    .map(repository -> this.getCounters(repository).get(type));
+        }
+
         return this.applyWithConnection(environment, connection -> {
             try {
-                long count = connection.getStatements(null, null, Local.Entities.TYPE_INDIVIDUAL).stream().count();
-                return count;
+                return connection.getStatements(null, RDF.TYPE, type, false).stream().count();
             } catch (Exception e) {
                 getLogger().error("Unknown error while running query", e);
                 throw e;
@@ -135,19 +322,62 @@ public abstract class AbstractRdfRepository implements Searchable, Maintainable,
         });
     }
 
+    private FragmentCounters getCounters(LabeledRepository repository) {
+        return this.fragmentCounters.compute(repository.toString(), (label, existing) -> {
+            // the repository might have been shut down and built again since we have seen it
+            if (Objects.nonNull(existing) && existing.isCounting(repository)) return existing;
+
+            if (Objects.nonNull(this.meterRegistry)) {
+                FragmentCounters.TYPES.forEach(type ->
+                        Gauge.builder("graph.store.fragments.count", this.fragmentCounters, counters -> Optional.ofNullable(counters.get(label)).map(c -> (double) c.peek(type)).orElse(Double.NaN))
+                                .tag("label", label)
+                                .tag("type", type.getLocalName())
+                                .register(this.meterRegistry));
+            }
+            return new FragmentCounters(repository);
+        });
+    }
+
+    /**
+     * Marks the counters and cached fragments of a repository as stale, required if statements were changed without a commit.
+     */
+    private void invalidateCaches(String label) {
+        Optional.ofNullable(this.fragmentCounters.get(label)).ifPresent(FragmentCounters::invalidate);
+        if (Objects.nonNull(this.fragmentCache)) this.fragmentCache.invalidate(label);
+    }
 
-    public Flux<BindingSet> query(String query, Environment environment) {
-        return this.applyManyWithConnection(environment, connection -> {
+    @Scheduled(initialDelayString = "${application.storage.fragments.counters.reconcile:PT15M}", fixedDelayString = "${application.storage.fragments.counters.reconcile:PT15M}")
+    public void reconcileCounters() {
+        this.fragmentCounters.forEach((label, counters) -> {
+            try {
+                counters.reconcile();
+                getLogger().trace("Reconciled fragment counters for repository '{}'", label);
+            } catch (Exception e) {
+                getLogger().debug("Dropping fragment counters for repository '{}', reason: {}", label, e.getMessage());
+                this.fragmentCounters.remove(label, counters);
+            }
+        });
+    }
+
+
+    @Override
+    public Flux<BindingSet> query(String query, QueryBindings bindings, Environment environment) {
+        return Flux.deferContextual(context -> this.applyManyWithConnection(Operation.QUERY, environment, connection -> {
             try {
 
                 getLogger().debug("Running select query in repository: {}", connection.getRepository());
                 getLogger().trace("Query: {} ", query.replace('\n', ' ').trim());
 
-                TupleQuery q = connection.prepareTupleQuery(QueryLanguage.SPARQL, query);
+                TupleQuery q = this.prepareTupleQuery(connection, query, bindings);
+                q.setMaxExecutionTime(this.maxExecutionTime(Operation.QUERY, environment));
 
-                // iterator -> stream -> flux: when the flux completes, the stream closes and as such also the query result
+                // iterator -> stream -> flux: when the flux completes (or is cancelled), the stream closes and as such also the query result
                 TupleQueryResult result = q.evaluate();
-                Stream<BindingSet> stream = result.stream();
+                // the rows only report the bound variables, unbound ones are added to keep the projection (e.g. for the header of a response)
+                List<String> bindingNames = result.getBindingNames();
+                QueryProjection.report(context, bindingNames);
+                Stream<BindingSet> stream = result.stream()
+                        .map(row -> row.size() < bindingNames.size() ? new ListBindingSet(bindingNames, bindingNames.stream().map(row::getValue).toList()) : row);
                 if (getLogger().isTraceEnabled())
                     getLogger().trace("Query resulted in bindings [{}] in repository '{}'", result.getBindingNames(), connection.getRepository());
                 return stream;
@@ -159,20 +389,22 @@ public abstract class AbstractRdfRepository implements Searchable, Maintainable,
                 getLogger().error("Unknown error while running query", e);
                 throw e;
             }
-        });
+        }));
     }
 
 
-    public Mono<Void> update(String query, Environment environment) {
-        return this.consumeWithConnection(environment, connection -> {
+    @Override
+    public Mono<Void> update(String query, QueryBindings bindings, Environment environment) {
+        return this.consumeWithConnection(Operation.UPDATE, environment, connection -> {
             try {
 
                 getLogger().debug("Running update query in repository: {}", connection.getRepository());
                 getLogger().trace("Query: {} ", query.replace('\n', ' ').trim());
 
-                Update q = connection.prepareUpdate(QueryLanguage.SPARQL, query);
-                q.setMaxExecutionTime(30);
+                Update q = this.prepareUpdate(connection, query, bindings);
+                q.setMaxExecutionTime(this.maxExecutionTime(Operation.UPDATE, environment));
                 q.execute();
+                this.invalidateCaches(connection.getRepository().toString());
 
                 if (getLogger().isInfoEnabled())
                     getLogger().info("Update query executed");
@@ -199,6 +431,7 @@ public abstract class AbstractRdfRepository implements Searchable, Maintainable,
                 }
 
                 connection.clear();
+                this.invalidateCaches(connection.getRepository().toString());
 
                 if (!connection.isEmpty())
                     throw new RepositoryException("Repository not empty after clearing");
@@ -211,66 +444,84 @@ public abstract class AbstractRdfRepository implements Searchable, Maintainable,
     }
 
 
-    private InputStream getInputStreamFromFluxDataBuffer(Publisher<DataBuffer> data) throws IOException {
-        PipedOutputStream osPipe = new PipedOutputStream();
-        PipedInputStream isPipe = new PipedInputStream(osPipe);
-
-        DataBufferUtils.write(data, osPipe)
-                .subscribeOn(Schedulers.boundedElastic())
-                .doOnComplete(() -> {
-                    try {
-                        getLogger().trace("Finished reading data buffers from publisher during import of data.");
-                        osPipe.close();   // the piped input stream has to be closed by its consumer
-
-                    } catch (IOException ignored) {
-                        getLogger().error("Failed to close output stream");
-                    }
-                })
-                .doOnSubscribe(subscription -> getLogger().trace("Starting reading data buffers from publisher during import of data."))
-                .subscribe(DataBufferUtils.releaseConsumer());
-        return isPipe;
+    @Override
+    public Mono<Long> migrateDetails(Environment environment) {
+        long[] migrated = {0};
+        return this.consumeWithConnection(Operation.WRITE, environment, connection -> {
+            getLogger().debug("Converting details in repository '{}' into storage form '{}'", connection.getRepository(), this.detailsStorage);
+            migrated[0] = this.detailsStorage.migrate(connection, this.detailsMigrationBatchSize);
+            if (migrated[0] > 0) this.invalidateCaches(connection.getRepository().toString());
+            getLogger().info("Converted {} details in repository '{}' into storage form '{}'", migrated[0], connection.getRepository(), this.detailsStorage);
+        }).then(Mono.fromSupplier(() -> migrated[0]));
     }
 
     @Override
-    public Mono<Void> importStatements(Publisher<DataBuffer> bytesPublisher, String mimetype, Environment environment) {
+    public Mono<Void> importStatements(Publisher<DataBuffer> bytesPublisher, String mimetype, long resumeFrom, Environment environment) {
 
         Optional<RDFParserFactory> parserFactory = RdfUtils.getParserFactory(MimeType.valueOf(mimetype));
         Assert.isTrue(parserFactory.isPresent(), "Unsupported mimetype for parsing the file.");
 
         RDFParser parser = parserFactory.orElseThrow().getParser();
 
-        return this.consumeWithConnection(environment, connection -> {
-            try {
-                // example: https://www.baeldung.com/spring-reactive-read-flux-into-inputstream
-                // solution: https://manhtai.github.io/posts/flux-databuffer-to-inputstream/
-                getLogger().trace("Starting to parse input stream with mimetype {}", mimetype);
-
-                RDFInserter rdfInserter = new RDFInserter(connection);
-                parser.setRDFHandler(rdfInserter);
-
-                try (InputStream stream = getInputStreamFromFluxDataBuffer(bytesPublisher)) {
-                    parser.parse(stream);
-                }
-
-                getLogger().trace("Parsing completed into repository '{}'", connection.getRepository().toString());
-
-
-            } catch (Exception exception) {
-                getLogger().error("Failed to import statements with mimetype {} with reason: ", mimetype, exception);
-                throw exception;
-            }
-        });
+        // the parser pulls from the publisher, it has to run on a thread which allows blocking
+        return this.verifyValidAndAuthorized(environment)
+                .then(this.getBuilder().getRepository(this, environment))
+                .publishOn(Schedulers.boundedElastic())
+                .flatMap(repository -> {
+                    getLogger().trace("Starting to parse input stream with mimetype {} into repository '{}'", mimetype, repository);
+                    StoreMetrics.ImportCounters counters = this.metrics.imports(repository.toString());
+                    StoreMetrics.Meters meters = this.metrics.get(Operation.IMPORT, repository.toString());
+                    long start = System.nanoTime();
+
+                    try (RepositoryConnection connection = repository.getConnection(false);
+                         DataBufferInputStream stream = new DataBufferInputStream(bytesPublisher, importPrefetch)) {
+
+                        long[] reported = {resumeFrom, 0};
+                        ChunkedImporter importer = new ChunkedImporter(connection, importChunkSize, resumeFrom, progress -> {
+                            counters.progress(progress.getCommitted() - reported[0], stream.getBytesRead() - reported[1]);
+                            reported[0] = progress.getCommitted();
+                            reported[1] = stream.getBytesRead();
+                            getLogger().debug("Imported {} statements ({} statements/s, {} bytes read) into repository '{}'", progress.getCommitted(), Math.round(progress.getRate()), stream.getBytesRead(), repository);
+                        });
+                        parser.setRDFHandler(importer);
+
+                        try {
+                            parser.parse(stream);
+                            meters.record(start, importer.getCommitted() - resumeFrom, false);
+                        } catch (Exception exception) {
+                            meters.record(start, importer.getCommitted() - resumeFrom, true);
+                            getLogger().error("Failed to import statements with mimetype {} into repository '{}' after {} committed statements, resume the import from there. Reason: {}", mimetype, repository, importer.getCommitted(), exception.getMessage());
+                            throw exception;
+                        } finally {
+                            this.invalidateCaches(repository.toString());
+                        }
 
+                        getLogger().debug("Import of {} statements ({} bytes) completed in repository '{}'", importer.getCommitted(), stream.getBytesRead(), repository);
+                        return Mono.<Void>empty();
+                    } catch (Exception exception) {
+                        return Mono.error(exception);
+                    }
+                });
     }
 
 
+    /**
+     * Streams the typed subjects straight from the index, in no particular order and without holding them in memory. A
+     * subject with more than one matching type statement is only returned for the first of them (looked up by subject).
+     */
     public Flux<IRI> subjects(@Nullable IRI type, Environment environment) {
-        return this.applyManyWithConnection(environment, connection ->
-                connection.getStatements(null, RDF.TYPE, type, false).stream()
-                        .map(Statement::getSubject)
-                        .filter(Value::isIRI)
-                        .map(value -> (IRI) value)
-        );
+        return this.applyManyWithConnection(environment, connection -> this.subjects(connection, type));
+    }
+
+    private Stream<IRI> subjects(RepositoryConnection connection, @Nullable IRI type) {
+        return connection.getStatements(null, RDF.TYPE, type, false).stream()
+                .filter(statement -> statement.getSubject().isIRI())
+                .filter(statement -> {
+                    try (RepositoryResult<Statement> types = connection.getStatements(statement.getSubject(), RDF.TYPE, type, false)) {
+                        return types.hasNext() && types.next().equals(statement);
+                    }
+                })
+                .map(statement -> (IRI) statement.getSubject());
     }
 
 
@@ -286,57 +537,55 @@ public abstract class AbstractRdfRepository implements Searchable, Maintainable,
 
     @Override
     public Flux<Transaction> commit(final Collection<Transaction> transactions, Environment environment, boolean merge) {
-        return this.applyManyWithConnection(environment, connection -> {
-
-            if (merge) {
-                RdfTransaction merged = new RdfTransaction();
-                transactions.forEach(rdfTransaction -> {
-                    merged.getModel().addAll(rdfTransaction.getModel());
-                });
-                transactions.clear();
-                transactions.add(merged);
-            }
+        if (merge) {
+            // transactions excluded from the enrichers are merged separately, the others are still enriched
+            RdfTransaction enrichable = new RdfTransaction();
+            RdfTransaction notEnrichable = new RdfTransaction().withoutEnrichment();
+            transactions.forEach(transaction -> {
+                boolean enrich = !(transaction instanceof RdfTransaction trx) || trx.isEnrichable();
+                (enrich ? enrichable : notEnrichable).getModel().addAll(transaction.getModel());
+            });
+            transactions.clear();
+            if (!enrichable.getModel().isEmpty() || notEnrichable.getModel().isEmpty()) transactions.add(enrichable);
+            if (!notEnrichable.getModel().isEmpty()) transactions.add(notEnrichable);
+        }
 
+        if (groupCommitEnabled) {
+            return this.verifyValidAndAuthorized(environment)
+                    .then(this.getBuilder().getRepository(this, environment))
+                    .flatMapMany(repository -> {
+                        // includes the time waiting for the group to be written
+                        StoreMetrics.Meters meters = this.metrics.get(Operation.COMMIT, repository.toString());
+                        long start = System.nanoTime();
+                        return this.getGroupCommitter(repository).submit(transactions)
+                                .doFinally(signalType -> meters.record(start, statements(transactions), signalType == SignalType.ON_ERROR));
+                    });
+        }
 
+        return this.applyManyWithConnection(Operation.COMMIT, false, environment, trx -> trx.getModel().size(), connection -> {
             Stream<Transaction> result = transactions.stream().peek(trx -> {
                 synchronized (connection) {
                     getLogger().trace("Committing transaction '{}' to repository '{}'", trx.getIdentifier().getLocalName(), connection.getRepository().toString());
-                    // FIXME: the approach based on the context works only as long as the statements in the graph are all within the global context only
-                    // with this approach, we cannot insert a statement to a context (since it is already in GRAPH_CREATED), every st can only be in one context
-                    ValueFactory vf = connection.getValueFactory();
-                    Model insertStatements = trx.getModel(Transactions.GRAPH_CREATED);
-                    Model updateStatements = trx.getModel(Transactions.GRAPH_UPDATED);
-                    Model removeStatements = trx.getModel(Transactions.GRAPH_DELETED);
-
-
-                    // FIXME: Reification
-                    insertStatements = Models.convertRDFStarToReification(connection.getValueFactory(), insertStatements);
-                    updateStatements = Models.convertRDFStarToReification(connection.getValueFactory(), updateStatements);
-                    removeStatements = Models.convertRDFStarToReification(connection.getValueFactory(), removeStatements);
+                    Changeset changeset = this.changeset(connection, trx);
 
                     try {
-                        if (removeStatements.size() > 0) {
-                            connection.remove(removeStatements);
-                        }
-                        if (insertStatements.size() > 0) {
-                            connection.add(insertStatements);
-                        }
-                        if (updateStatements.size() > 0) {
-                            connection.add(updateStatements);
-                        }
+                        this.committing(connection, () -> {
+                            Runnable onCommit = this.write(connection, changeset);
 
-                        if (insertStatements.size() > 0 || removeStatements.size() > 0) {
-                            connection.prepare();
-                            connection.commit();
-                            getLogger().debug("Transaction '{}' completed with {} inserted statements and {} removed statements in repository '{}'.", trx.getIdentifier().getLocalName(), insertStatements.size(), removeStatements.size(), connection.getRepository());
+                            if (changeset.inserts().size() > 0 || changeset.removals().size() > 0) {
+                                connection.prepare();
+                                connection.commit();
+                                getLogger().debug("Transaction '{}' completed with {} inserted statements and {} removed statements in repository '{}'.", trx.getIdentifier().getLocalName(), changeset.inserts().size(), changeset.removals().size(), connection.getRepository());
 
-                        }
+                            }
 
+                            onCommit.run();
+                        });
                         trx.setCompleted();
                     } catch (Exception e) {
                         getLogger().error("Failed to complete transaction for repository '{}'.", connection.getRepository(), e);
-                        getLogger().trace("Insert Statements in this transaction: \n {}", insertStatements);
-                        getLogger().trace("Remove Statements in this transaction: \n {}", removeStatements);
+                        getLogger().trace("Insert Statements in this transaction: \n {}", changeset.inserts());
+                        getLogger().trace("Remove Statements in this transaction: \n {}", changeset.removals());
                         connection.rollback();
                         trx.setFailed(e.getMessage());
                     }
@@ -349,146 +598,224 @@ public abstract class AbstractRdfRepository implements Searchable, Maintainable,
 
     }
 
-    @Override
-    public Mono<RdfFragment> getFragment(Resource id, int includeNeighborsLevel, boolean includeDetails, Environment environment) {
-        return this.applyWithConnection(environment, connection -> {
-            getLogger().trace("Loading fragment with id '{}' from repository {}", id, connection.getRepository().toString());
-
-            try (RepositoryResult<Statement> statements = connection.getStatements(id, null, null)) {
-                if (!statements.hasNext()) {
-                    if (getLogger().isDebugEnabled()) getLogger().debug("Found no statements for IRI: <{}>.", id);
-                    return null;
-                }
+    private static long statements(Collection<Transaction> transactions) {
+        return transactions.stream().mapToLong(trx -> trx.getModel().size()).sum();
+    }
 
-                RdfFragment entity = new RdfFragment(id).withResult(statements);
+    private GroupCommitter getGroupCommitter(LabeledRepository repository) {
+        GroupCommitter[] stale = {null};
+        GroupCommitter committer = this.groupCommitters.compute(repository.toString(), (label, existing) -> {
+            // the repository might have been closed and built again since we have seen it
+            if (Objects.nonNull(existing) && existing.isCommitting(repository)) return existing;
 
-                Model embeds = loadEmbeds(connection, entity);
-                entity.getModel().addAll(embeds);
-                if (includeDetails) {
-                    Model details = loadDetailsWithReification(connection, entity);
-                    entity.getModel().addAll(details);
-                }
+            stale[0] = existing;
+            return new GroupCommitter(repository, Duration.ofMillis(groupCommitWindow), groupCommitMaxStatements,
+                    (connection, trx) -> this.write(connection, this.changeset(connection, trx)),
+                    commit -> this.getCounters(repository).committing(commit));
+        });
 
+        // pending commits of the previous repository are completed (or failed) outside of the map
+        if (Objects.nonNull(stale[0])) stale[0].shutdown();
+        return committer;
+    }
 
+    @PreDestroy
+    private void shutdownGroupCommitters() {
+        this.groupCommitters.values().forEach(GroupCommitter::shutdown);
+    }
 
-                if (includeNeighborsLevel == 1) {
-                    Model neighbours = loadNeighbours(connection, entity);
-                    entity.getModel().addAll(neighbours);
-                }
+    private Changeset changeset(RepositoryConnection connection, Transaction trx) {
+        if (!(trx instanceof RdfTransaction rdfTransaction) || rdfTransaction.isEnrichable()) {
+            this.transactionEnrichers.stream()
+                    .filter(enricher -> enricher.supports(this.getRepositoryType()))
+                    .forEach(enricher -> enricher.enrich(trx, connection));
+        }
 
+        // FIXME: the approach based on the context works only as long as the statements in the graph are all within the global context only
+        // with this approach, we cannot insert a statement to a context (since it is already in GRAPH_CREATED), every st can only be in one context
+        Model insertStatements = trx.getModel(Transactions.GRAPH_CREATED);
+        Model updateStatements = trx.getModel(Transactions.GRAPH_UPDATED);
+        Model removeStatements = trx.getModel(Transactions.GRAPH_DELETED);
+
+        return new Changeset(
+                this.detailsStorage.encode(connection.getValueFactory(), insertStatements),
+                this.detailsStorage.encode(connection.getValueFactory(), updateStatements),
+                this.detailsStorage.encodeRemovals(connection, removeStatements),
+                trx
+        );
+    }
 
-                if (getLogger().isTraceEnabled())
-                    getLogger().trace("Loaded {} statements for entity with IRI: <{}>.", entity.getModel().size(), id);
-                return entity;
-            } catch (Exception e) {
-                getLogger().error("Unknown error while collection statements for entity '{}' ", id, e);
-                throw e;
-            }
-        });
+    /**
+     * Runs the commit guarded by the fragment counters of the repository, see {@link FragmentCounters#committing(Runnable)}.
+     */
+    private void committing(RepositoryConnection connection, Runnable commit) {
+        if (connection.getRepository() instanceof LabeledRepository repository) this.getCounters(repository).committing(commit);
+        else commit.run();
     }
 
+    /**
+     * @return the action updating the fragment counters and invalidating the cached fragments, to be run once the changes have been committed
+     */
+    private Runnable write(RepositoryConnection connection, Changeset changeset) {
+        Map<IRI, Long> removed = Map.of();
+        Map<IRI, Long> added = Map.of();
 
+        if (changeset.removals().size() > 0) {
+            removed = FragmentCounters.removed(connection, changeset.removals());
+            connection.remove(changeset.removals());
+        }
+        if (changeset.inserts().size() > 0 || changeset.updates().size() > 0) {
+            Model additions = new LinkedHashModel(changeset.inserts());
+            additions.addAll(changeset.updates());
+            added = FragmentCounters.added(connection, additions);
+        }
+        if (changeset.inserts().size() > 0) {
+            connection.add(changeset.inserts());
+        }
+        if (changeset.updates().size() > 0) {
+            connection.add(changeset.updates());
+        }
 
-    @Override
-    public Flux<RdfFragment> listFragments(IRI type, int limit, int offset, Environment environment) {
-        return this.subjects(type, environment).flatMap(subject -> this.getFragment(subject, environment));
+        Runnable invalidateFragments = Objects.nonNull(this.fragmentCache) ? () -> this.fragmentCache.invalidate(changeset.transaction()) : () -> {};
+        if (added.isEmpty() && removed.isEmpty() || !(connection.getRepository() instanceof LabeledRepository repository)) {
+            return invalidateFragments;
+        }
+        FragmentCounters counters = this.getCounters(repository);
+        Map<IRI, Long> finalAdded = added;
+        Map<IRI, Long> finalRemoved = removed;
+        return () -> {
+            counters.apply(finalAdded, finalRemoved);
+            invalidateFragments.run();
+        };
     }
 
+    private record Changeset(Model inserts, Model updates, Model removals, Transaction transaction) {
+    }
 
     @Override
-    public Mono<Transaction> insertFragment(RdfFragment fragment, Environment environment) {
-        Transaction trx = new RdfTransaction().forInsert(fragment.listStatements());
-        return this.commit(trx, environment);
-    }
+    public Mono<RdfFragment> getFragment(Resource id, int includeNeighborsLevel, boolean includeDetails, Environment environment) {
+        if (Objects.isNull(this.fragmentCache) || !this.fragmentCache.isEnabled()) {
+            return this.loadFragment(id, includeNeighborsLevel, includeDetails, environment);
+        }
 
-    /**
-     * @param connection
-     * @param triples
-     * @return
-     */
-    private Model loadDetails(RepositoryConnection connection, TripleModel triples) {
-        Model collect = triples.getModel().stream()
-                .filter(statement -> (statement.getObject().isLiteral() || statement.getObject().isIRI()) && statement.getSubject().isIRI())
-                .map(Values::triple)
-                .flatMap(triple -> connection.getStatements(triple, null, null).stream())
-                .collect(new ModelCollector());
-        return Models.convertReificationToRDFStar(collect);
+        return this.verifyValidAndAuthorized(environment)
+                .then(this.getBuilder().getRepository(this, environment))
+                .flatMap(repository -> {
+                    FragmentCache.Key key = new FragmentCache.Key(repository.toString(), id, includeNeighborsLevel, includeDetails);
+                    RdfFragment cached = this.fragmentCache.get(key);
+                    if (Objects.nonNull(cached)) return Mono.just(cached);
+
+                    long[] snapshot = this.fragmentCache.snapshot(key.label());
+                    return this.loadFragment(id, includeNeighborsLevel, includeDetails, environment)
+                            .doOnNext(fragment -> this.fragmentCache.put(key, fragment, snapshot));
+                });
     }
 
     /**
-     * @param connection
-     * @param triples
-     * @return
-     * @deprecated Required as long as we don't have native RDF star in the LMDB repository. See https://github.com/eclipse-rdf4j/rdf4j/issues/3723
-     * <p>
-     * <<ex:bob foaf:age 23>> ex:certainty 0.9 .
-     * becomes
-     * _:node1 a rdf:Statement;
-     * rdf:subject ex:bob ;
-     * rdf:predicate foaf:age ;
-     * rdf:object 23 ;
-     * ex:certainty 0.9 .
+     * Loads the fragment with the given connection, e.g. while listing fragments. The cache is used as in {@link #getFragment(Resource, int, boolean, Environment)}.
      */
-    @Deprecated
-    private Model loadDetailsWithReification(RepositoryConnection connection, TripleModel triples) {
-        Model md = triples.getModel().stream()
-                .filter(statement -> (statement.getObject().isLiteral() || statement.getObject().isIRI()) && statement.getSubject().isIRI())
-                .flatMap(statement -> connection.getStatements(null, RDF.SUBJECT, statement.getSubject()).stream())
-                .flatMap(reification_subject_statement -> connection.getStatements(reification_subject_statement.getSubject(), null, null).stream())
-                .collect(new ModelCollector());
-        return Models.convertReificationToRDFStar(md);
+    @Nullable
+    private RdfFragment loadFragment(RepositoryConnection connection, Resource id) {
+        FragmentLoader loader = new FragmentLoader(connection, this.detailsStorage);
+        if (Objects.isNull(this.fragmentCache) || !this.fragmentCache.isEnabled()) {
+            return loader.load(id, 0, false);
+        }
 
+        FragmentCache.Key key = new FragmentCache.Key(connection.getRepository().toString(), id, 0, false);
+        RdfFragment cached = this.fragmentCache.get(key);
+        if (Objects.nonNull(cached)) return cached;
+
+        long[] snapshot = this.fragmentCache.snapshot(key.label());
+        RdfFragment fragment = loader.load(id, 0, false);
+        if (Objects.nonNull(fragment)) this.fragmentCache.put(key, fragment, snapshot);
+        return fragment;
     }
 
-    private Model loadEmbeds(RepositoryConnection connection, RdfFragment entity) {
-        HashSet<Value> objects = new HashSet<>(entity.getModel().objects());
+    private Mono<RdfFragment> loadFragment(Resource id, int includeNeighborsLevel, boolean includeDetails, Environment environment) {
+        return this.applyWithConnection(Operation.GET_FRAGMENT, environment, fragment -> fragment.getModel().size(), connection -> {
+            getLogger().trace("Loading fragment with id '{}' from repository {}", id, connection.getRepository().toString());
 
-        Set<Resource> embedsSubjects = objects.stream()
-                .filter(Value::isIRI)
-                .flatMap(value -> connection.getStatements((IRI) value, RDF.TYPE, Local.Entities.TYPE_EMBEDDED).stream())
-                .map(Statement::getSubject)
-                .collect(Collectors.toSet());
+            try {
+                RdfFragment entity = new FragmentLoader(connection, this.detailsStorage).load(id, includeNeighborsLevel, includeDetails);
+                if (Objects.isNull(entity)) {
+                    if (getLogger().isDebugEnabled()) getLogger().debug("Found no statements for IRI: <{}>.", id);
+                    return null;
+                }
 
-        Model result = embedsSubjects.stream()
-                .flatMap(resource -> connection.getStatements(resource, null, null).stream())
-                .collect(new ModelCollector());
-        return result;
+                if (getLogger().isTraceEnabled())
+                    getLogger().trace("Loaded {} statements for entity with IRI: <{}>.", entity.getModel().size(), id);
+                return entity;
+            } catch (Exception e) {
+                getLogger().error("Unknown error while collection statements for entity '{}' ", id, e);
+                throw e;
+            }
+        });
     }
 
-    private Model loadNeighbours(RepositoryConnection connection, RdfFragment entity) {
-        HashSet<Value> objects = new HashSet<>(entity.getModel().objects());
-        /*Stream<RepositoryResult<Statement>> repositoryResultStream = objects.stream()
-                .filter(Value::isIRI)
-                .map(value -> connection.getStatements((IRI) value, null, null));*/
 
-        return objects.stream()
-                .filter(Value::isIRI)
-                .flatMap(value -> connection.getStatements((IRI) value, null, null).stream())
-                .filter(sts -> this.isLiteralStatement(sts) || this.isTypeStatement(sts))
-                .collect(new ModelCollector());
 
-        // ModelCollector
+    @Override
+    public Flux<RdfFragment> listFragments(IRI type, int limit, int offset, Environment environment) {
+        // the fragments are loaded one after another with the connection of the listing, a listing never holds more than
+        // one connection of the pool (concurrent listings would otherwise exhaust it)
+        if (limit == Integer.MAX_VALUE && offset == 0) {
+            // without limit (e.g. for exports), the subjects are streamed from the index
+            return this.applyManyWithConnection(Operation.READ, true, environment, fragment -> fragment.getModel().size(), connection ->
+                    this.subjects(connection, type)
+                            .map(subject -> this.loadFragment(connection, subject))
+                            .filter(Objects::nonNull));
+        }
 
+        // the window is collected first, the query releases its connection before the fragments are loaded
+        return this.orderedSubjects(type, limit, offset, environment)
+                .collectList()
+                .flatMapMany(subjects -> this.applyManyWithConnection(Operation.READ, true, environment, fragment -> fragment.getModel().size(), connection ->
+                        subjects.stream()
+                                .map(subject -> this.loadFragment(connection, subject))
+                                .filter(Objects::nonNull)));
     }
 
-    private boolean isLiteralStatement(Statement statement) {
-        return statement.getObject().isLiteral() && statement.getObject().stringValue().length() < 128;
-    }
+    /**
+     * The typed subjects, ordered by their IRI. The store collects and sorts all typed subjects before the requested
+     * window is returned, every call costs time and memory linear in the number of typed subjects (independent of the
+     * limit). Walking through all subjects window by window is quadratic, use the unbounded listing instead.
+     */
+    private Flux<IRI> orderedSubjects(@Nullable IRI type, int limit, int offset, Environment environment) {
+        // the values are bound, the query is parsed only once
+        String query = "SELECT DISTINCT ?s WHERE { ?s <%s> ?type . FILTER(isIRI(?s)) } ORDER BY ?s LIMIT $limit OFFSET $offset".formatted(RDF.TYPE);
 
-    private boolean isTypeStatement(Statement statement) {
-        return statement.getPredicate().equals(RDF.TYPE);
+        QueryBindings bindings = QueryBindings.slice(limit < Integer.MAX_VALUE ? limit : -1, offset);
+        if (Objects.nonNull(type)) bindings = bindings.bind("type", type);
+
+        return this.query(query, bindings, environment)
+                .map(b -> (IRI) b.getValue("s"));
     }
 
 
+    @Override
+    public Mono<Transaction> insertFragment(RdfFragment fragment, Environment environment) {
+        Transaction trx = new RdfTransaction().forInsert(fragment.listStatements());
+        return this.commit(trx, environment);
+    }
+
     @Override
     public Mono<Set<Statement>> listStatements(Resource value, IRI predicate, Value object, Environment environment) {
-        return this.applyWithConnection(environment, connection -> {
+        return this.applyWithConnection(Operation.LIST_STATEMENTS, environment, Set::size, connection -> {
             if (getLogger().isTraceEnabled()) {
                 getLogger().trace("Listing all statements with pattern [{},{},{}] from repository '{}'", value, predicate, object, connection.getRepository().toString());
             }
 
-            Set<Statement> statements = connection.getStatements(value, predicate, object).stream().collect(Collectors.toUnmodifiableSet());
-            return statements;
+            // details are looked up by the annotated statement, independent of how they are stored
+            if (value instanceof Triple triple) {
+                return this.detailsStorage.details(connection, triple).stream()
+                        .filter(statement -> Objects.isNull(predicate) || statement.getPredicate().equals(predicate))
+                        .filter(statement -> Objects.isNull(object) || statement.getObject().equals(object))
+                        .collect(Collectors.toUnmodifiableSet());
+            }
+
+            return connection.getStatements(value, predicate, object).stream()
+                    .map(this.detailsStorage::decode)
+                    .collect(Collectors.toUnmodifiableSet());
         });
 
     }
@@ -507,41 +834,56 @@ public abstract class AbstractRdfRepository implements Searchable, Maintainable,
 
 
     protected <T> Mono<T> applyWithConnection(Environment environment, ThrowingFunction<RepositoryConnection, T> fun) {
-        return transactionsMonoTimer.record(() ->
-                this.verifyValidAndAuthorized(environment)
-                        .then(this.getBuilder().getRepository(this, environment))
-                        .flatMap(repository -> {
-                            try {
-                                RepositoryConnection connection = repository.getConnection();
-                                T result = fun.applyWithException(new RepositoryConnectionWrapper(repository, connection));
-                                connection.close();
-                                if (Objects.isNull(result)) return Mono.empty();
-                                else return Mono.just(result);
-                            } catch (Exception e) {
-                                return Mono.error(e);
-                            } finally {
-                                transactionsMonoCounter.increment();
-                            }
-                        }));
+        return this.applyWithConnection(Operation.READ, environment, result -> -1, fun);
+    }
+
+    /**
+     * @param statements the number of statements in the result, recorded with the execution time of the operation (negative if unknown)
+     */
+    protected <T> Mono<T> applyWithConnection(Operation operation, Environment environment, ToLongFunction<T> statements, ThrowingFunction<RepositoryConnection, T> fun) {
+        return this.verifyValidAndAuthorized(environment)
+                .then(this.getBuilder().getRepository(this, environment))
+                // waiting for a pooled connection blocks, as does the operation itself
+                .publishOn(Schedulers.boundedElastic())
+                .flatMap(repository -> {
+                    StoreMetrics.Meters meters = this.metrics.get(operation, repository.toString());
+                    long start = System.nanoTime();
+                    try (RepositoryConnection connection = repository.getConnection(true)) {
+                        T result = fun.applyWithException(connection);
+                        meters.record(start, Objects.isNull(result) ? 0 : statements.applyAsLong(result), false);
+                        if (Objects.isNull(result)) return Mono.empty();
+                        else return Mono.just(result);
+                    } catch (Exception e) {
+                        meters.record(start, -1, true);
+                        return Mono.error(this.handleTimeout(e, meters, operation, environment));
+                    }
+                })
+                .retryWhen(REOPEN);
     }
 
 
     protected Mono<Void> consumeWithConnection(Environment environment, ThrowingConsumer<RepositoryConnection> fun) {
-        return transactionsMonoTimer.record(() ->
-                this.verifyValidAndAuthorized(environment)
-                        .flatMap(env -> this.getBuilder().getRepository(this, env))
-                        .switchIfEmpty(Mono.error(new IOException("Failed to build repository for repository of type: " + environment.getRepositoryType())))
-                        .flatMap(repository -> {
-                            try (RepositoryConnection connection = repository.getConnection()) {
-
-                                fun.acceptWithException(new RepositoryConnectionWrapper(repository, connection));
-                                return Mono.empty();
-                            } catch (Exception e) {
-                                return Mono.error(e);
-                            } finally {
-                                transactionsMonoCounter.increment();
-                            }
-                        }));
+        return this.consumeWithConnection(Operation.WRITE, environment, fun);
+    }
+
+    protected Mono<Void> consumeWithConnection(Operation operation, Environment environment, ThrowingConsumer<RepositoryConnection> fun) {
+        return this.verifyValidAndAuthorized(environment)
+                .flatMap(env -> this.getBuilder().getRepository(this, env))
+                .switchIfEmpty(Mono.error(new IOException("Failed to build repository for repository of type: " + environment.getRepositoryType())))
+                .publishOn(Schedulers.boundedElastic())
+                .<Void>flatMap(repository -> {
+                    StoreMetrics.Meters meters = this.metrics.get(operation, repository.toString());
+                    long start = System.nanoTime();
+                    try (RepositoryConnection connection = repository.getConnection(false)) {
+                        fun.acceptWithException(connection);
+                        meters.record(start, -1, false);
+                        return Mono.empty();
+                    } catch (Exception e) {
+                        meters.record(start, -1, true);
+                        return Mono.error(this.handleTimeout(e, meters, operation, environment));
+                    }
+                })
+                .retryWhen(REOPEN);
     }
 
     private Mono<Environment> verifyValidAndAuthorized(Environment environment) {
@@ -564,40 +906,59 @@ public abstract class AbstractRdfRepository implements Searchable, Maintainable,
 
 
     protected <E, T extends Stream<E>> Flux<E> applyManyWithConnection(Environment environment, ThrowingFunction<RepositoryConnection, T> fun) {
+        return this.applyManyWithConnection(Operation.READ, true, environment, element -> 1, fun);
+    }
 
-        Flux<E> result =
-                this.verifyValidAndAuthorized(environment)
-                        // .then(this.assertPrivilege(environment, requiredAuthority))
-                        .then(this.getBuilder().getRepository(this, environment))
-                        .flatMapMany(repository -> {
-                            try {
-                                RepositoryConnection connection = repository.getConnection();
-                                Stream<E> stream = fun.apply(connection);
-                                return Flux.fromStream(stream).doOnComplete(connection::close);
-                            } catch (Exception e) {
-                                this.meterRegistry.counter("graph.store.operations", "cardinality", "multiple", "state", "failure").increment();
-                                getLogger().warn("Error while applying function to repository '{}' with message '{}'. Active connections for repository: {}", repository, e.getMessage(), repository.getConnectionsCount());
-                                return Mono.error(e);
-                            } finally {
-                                this.meterRegistry.counter("graph.store.operations", "cardinality", "multiple", "state", "complete").increment();
-                            }
-                        });
-        // .doOnSubscribe(subscription -> getLogger().trace("Applying function with many results."));
+    protected <E, T extends Stream<E>> Flux<E> applyManyWithConnection(Operation operation, Environment environment, ThrowingFunction<RepositoryConnection, T> fun) {
+        return this.applyManyWithConnection(operation, true, environment, element -> 1, fun);
+    }
 
-        // FIXME: should check whether we are called from a scheduler
-        if (environment.getSessionContext().isScheduled()) {
-            result.timeout(Duration.ofMillis(10000))
-                    .onErrorResume(throwable -> {
-                        if (throwable instanceof TimeoutException te) {
-                            getLogger().warn("Long-running operation on repository of type '{}' has been canceled.", environment.getRepositoryType());
-                            return Flux.error(new TimeoutException("Timeout while applying operation to repository:" + environment.getRepositoryType().toString()));
-                        } else {
-                            return Flux.error(throwable);
-                        }
-                    });
-        }
-        return result;
+    protected <E, T extends Stream<E>> Flux<E> applyManyWithWriteConnection(Environment environment, ThrowingFunction<RepositoryConnection, T> fun) {
+        return this.applyManyWithConnection(Operation.WRITE, false, environment, element -> 1, fun);
+    }
 
+    /**
+     * The execution time is measured until the stream has been consumed (or cancelled), since the results are read from
+     * the repository while they are consumed.
+     *
+     * @param statements the number of statements (or results) per element, summed up and recorded with the execution time
+     */
+    private <E, T extends Stream<E>> Flux<E> applyManyWithConnection(Operation operation, boolean readOnly, Environment environment, ToLongFunction<E> statements, ThrowingFunction<RepositoryConnection, T> fun) {
+        return this.verifyValidAndAuthorized(environment)
+                // .then(this.assertPrivilege(environment, requiredAuthority))
+                .then(this.getBuilder().getRepository(this, environment))
+                .publishOn(Schedulers.boundedElastic())
+                .flatMapMany(repository -> {
+                    StoreMetrics.Meters meters = this.metrics.get(operation, repository.toString());
+                    long start = System.nanoTime();
+                    RepositoryConnection connection;
+                    try {
+                        connection = repository.getConnection(readOnly);
+                    } catch (RepositoryException e) {
+                        meters.record(start, -1, true);
+                        return Mono.error(this.handleTimeout(e, meters, operation, environment));
+                    }
+                    try {
+                        Stream<E> stream = fun.apply(connection);
+                        long[] count = {0};
+                        // cancelling the flux (e.g. if the client disconnects) closes the stream, the query result and the connection
+                        return Flux.fromStream(stream)
+                                .doOnNext(element -> count[0] += statements.applyAsLong(element))
+                                .onErrorMap(error -> this.handleTimeout(error, meters, operation, environment))
+                                .doFinally(signalType -> {
+                                    connection.close();
+                                    if (signalType == SignalType.CANCEL) meters.cancelled();
+                                    meters.record(start, count[0], signalType == SignalType.ON_ERROR);
+                                });
+                    } catch (Exception e) {
+                        connection.close();
+                        meters.record(start, -1, true);
+                        getLogger().warn("Error while applying function to repository '{}' with message '{}'. Active connections for repository: {}", repository, e.getMessage(), repository.getConnectionsCount());
+                        return Mono.error(this.handleTimeout(e, meters, operation, environment));
+                    }
+                })
+                // only refused connections are retried, nothing has been emitted before
+                .retryWhen(REOPEN);
     }
 
     @Deprecated
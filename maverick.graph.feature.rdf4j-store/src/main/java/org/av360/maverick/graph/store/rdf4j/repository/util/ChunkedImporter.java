@@ -0,0 +1,103 @@
+package org.av360.maverick.graph.store.rdf4j.repository.util;
+
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.rio.RDFHandlerException;
+import org.eclipse.rdf4j.rio.helpers.AbstractRDFHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Writes the statements of a parser into the repository, committing one RDF4J transaction per chunk of statements (instead
+ * of one transaction for the whole import).
+ * <p>
+ * An import which failed can be resumed: the statements of the chunks which have been committed before are skipped, if
+ * the same content is imported again with the number of committed statements. Blank nodes which are used across the
+ * resume point are not joined.
+ */
+public class ChunkedImporter extends AbstractRDFHandler {
+
+    private final RepositoryConnection connection;
+    private final int chunkSize;
+    private final long resumeFrom;
+    private final Consumer<ChunkedImporter> onChunk;
+    private final List<Statement> chunk;
+    private final long started;
+
+    private long parsed;
+    private long committed;
+
+    /**
+     * @param connection the connection to write to
+     * @param chunkSize  the number of statements per transaction
+     * @param resumeFrom the number of statements which have been committed by an earlier attempt (and are skipped)
+     * @param onChunk    called after each committed chunk, e.g. to report the progress
+     */
+    public ChunkedImporter(RepositoryConnection connection, int chunkSize, long resumeFrom, Consumer<ChunkedImporter> onChunk) {
+        this.connection = connection;
+        this.chunkSize = chunkSize;
+        this.resumeFrom = resumeFrom;
+        this.onChunk = onChunk;
+        this.chunk = new ArrayList<>(chunkSize);
+        this.started = System.nanoTime();
+        this.committed = resumeFrom;
+    }
+
+    @Override
+    public void handleNamespace(String prefix, String uri) throws RDFHandlerException {
+        if (Objects.isNull(this.connection.getNamespace(prefix))) {
+            this.connection.setNamespace(prefix, uri);
+        }
+    }
+
+    @Override
+    public void handleStatement(Statement st) throws RDFHandlerException {
+        this.parsed++;
+        if (this.parsed <= this.resumeFrom) return;
+
+        this.chunk.add(st);
+        if (this.chunk.size() >= this.chunkSize) {
+            this.flush();
+        }
+    }
+
+    @Override
+    public void endRDF() throws RDFHandlerException {
+        this.flush();
+    }
+
+    private void flush() {
+        if (this.chunk.isEmpty()) return;
+
+        try {
+            this.connection.begin();
+            this.connection.add(this.chunk);
+            this.connection.commit();
+        } catch (Exception e) {
+            if (this.connection.isActive()) this.connection.rollback();
+            throw new RDFHandlerException("Failed to commit chunk after %d committed statements".formatted(this.committed), e);
+        }
+
+        this.committed += this.chunk.size();
+        this.chunk.clear();
+        this.onChunk.accept(this);
+    }
+
+    /**
+     * @return the number of statements in the repository from this import, including the statements of an earlier attempt
+     */
+    public long getCommitted() {
+        return committed;
+    }
+
+    /**
+     * @return the number of statements committed per second by this attempt
+     */
+    public double getRate() {
+        double seconds = (System.nanoTime() - this.started) / 1_000_000_000d;
+        return seconds > 0 ? (this.committed - this.resumeFrom) / seconds : 0;
+    }
+}
@@ -0,0 +1,233 @@
+package org.av360.maverick.graph.store.rdf4j.repository.util;
+
+import org.eclipse.rdf4j.model.*;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.model.util.ModelCollector;
+import org.eclipse.rdf4j.model.util.Models;
+import org.eclipse.rdf4j.model.util.Statements;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.query.QueryResults;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.RepositoryResult;
+import org.eclipse.rdf4j.rio.helpers.RDFStarUtil;
+
+import java.util.*;
+
+/**
+ * How details (statements about statements) are stored in a repository, e.g.
+ * <pre>
+ * &lt;&lt;ex:bob foaf:age 23&gt;&gt; ex:certainty 0.9 .
+ * </pre>
+ * The services always work with RDF-star statements, the repository converts them when writing and reading.
+ */
+public enum DetailsStorage {
+
+    /**
+     * Every annotated statement is stored as reification node:
+     * <pre>
+     * _:node1 a rdf:Statement ; rdf:subject ex:bob ; rdf:predicate foaf:age ; rdf:object 23 ; ex:certainty 0.9 .
+     * </pre>
+     * Costs four extra statements per annotated statement, and reading the details requires a lookup by object and
+     * another lookup per node.
+     */
+    REIFICATION {
+        @Override
+        public Model encode(ValueFactory vf, Model model) {
+            return Models.convertRDFStarToReification(vf, model);
+        }
+
+        /**
+         * The conversion derives the identifier of the node from the annotated statement, the removals match the stored
+         * nodes.
+         */
+        @Override
+        public Model encodeRemovals(RepositoryConnection connection, Model model) {
+            return this.encode(connection.getValueFactory(), model);
+        }
+
+        @Override
+        public List<Statement> details(RepositoryConnection connection, Triple triple) {
+            List<Statement> result = new ArrayList<>();
+            for (Resource node : nodesOf(connection, triple)) {
+                try (RepositoryResult<Statement> statements = connection.getStatements(node, null, null)) {
+                    statements.stream()
+                            .filter(statement -> !isReification(statement))
+                            .map(statement -> Statements.statement(triple, statement.getPredicate(), statement.getObject(), null))
+                            .forEach(result::add);
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public Statement decode(Statement statement) {
+            return statement;
+        }
+
+        /**
+         * Converts triple terms, e.g. written while the details have been stored natively. The statements are read from a
+         * second connection, every batch is committed as soon as it is complete.
+         */
+        @Override
+        public long migrate(RepositoryConnection connection, int batchSize) {
+            long migrated = 0;
+            List<Statement> batch = new ArrayList<>(batchSize);
+            try (RepositoryConnection reading = connection.getRepository().getConnection();
+                 RepositoryResult<Statement> statements = reading.getStatements(null, null, null)) {
+                for (Statement statement : statements) {
+                    if (!RDFStarUtil.isEncodedTriple(statement.getSubject()) && !RDFStarUtil.isEncodedTriple(statement.getObject())) continue;
+
+                    batch.add(statement);
+                    if (batch.size() >= batchSize) {
+                        migrated += this.migrate(connection, batch);
+                        batch.clear();
+                    }
+                }
+            }
+            return migrated + this.migrate(connection, batch);
+        }
+
+        private int migrate(RepositoryConnection connection, List<Statement> batch) {
+            if (batch.isEmpty()) return 0;
+
+            Model decoded = batch.stream().map(NATIVE::decode).collect(new ModelCollector());
+            connection.begin();
+            connection.remove(batch);
+            connection.add(this.encode(connection.getValueFactory(), decoded));
+            connection.commit();
+            return batch.size();
+        }
+    },
+
+    /**
+     * The annotated statement is stored as triple term. The LMDB store has no triple values yet (see
+     * https://github.com/eclipse-rdf4j/rdf4j/issues/3723), we store the triple in its RDF4J encoding as IRI:
+     * <pre>
+     * &lt;urn:rdf4j:triple:PDxodHRwOi8v...&gt; ex:certainty 0.9 .
+     * </pre>
+     * The encoding is deterministic, the details of a statement are a single lookup by subject.
+     */
+    NATIVE {
+        @Override
+        public Model encode(ValueFactory vf, Model model) {
+            if (model.stream().noneMatch(DetailsStorage::hasTriple)) return model;
+            return model.stream().map(DetailsStorage::encode).collect(new ModelCollector());
+        }
+
+        @Override
+        public Model encodeRemovals(RepositoryConnection connection, Model model) {
+            return this.encode(connection.getValueFactory(), model);
+        }
+
+        @Override
+        public List<Statement> details(RepositoryConnection connection, Triple triple) {
+            try (RepositoryResult<Statement> statements = connection.getStatements(RDFStarUtil.toRDFEncodedValue(triple), null, null)) {
+                return statements.stream().map(statement -> Statements.statement(triple, statement.getPredicate(), statement.getObject(), null)).toList();
+            }
+        }
+
+        @Override
+        public Statement decode(Statement statement) {
+            if (!RDFStarUtil.isEncodedTriple(statement.getSubject()) && !RDFStarUtil.isEncodedTriple(statement.getObject())) return statement;
+            return Statements.statement(RDFStarUtil.fromRDFEncodedValue(statement.getSubject()), statement.getPredicate(), RDFStarUtil.fromRDFEncodedValue(statement.getObject()), statement.getContext());
+        }
+
+        /**
+         * Converts the reification nodes, e.g. written before switching to the native storage. Incomplete nodes (without
+         * subject, predicate or object) are kept. The nodes are read from a second connection, every batch is committed
+         * as soon as it is complete.
+         */
+        @Override
+        public long migrate(RepositoryConnection connection, int batchSize) {
+            long migrated = 0;
+            Set<Resource> batch = new LinkedHashSet<>(batchSize);
+            try (RepositoryConnection reading = connection.getRepository().getConnection();
+                 RepositoryResult<Statement> statements = reading.getStatements(null, RDF.TYPE, RDF.STATEMENT)) {
+                for (Statement statement : statements) {
+                    batch.add(statement.getSubject());
+                    if (batch.size() >= batchSize) {
+                        migrated += this.migrate(connection, batch);
+                        batch.clear();
+                    }
+                }
+            }
+            return migrated + this.migrate(connection, batch);
+        }
+
+        /**
+         * A node typed in several contexts can show up again in a later batch, it has been converted already (and is
+         * not counted again).
+         */
+        private int migrate(RepositoryConnection connection, Collection<Resource> nodes) {
+            int migrated = 0;
+            Model reified = new LinkedHashModel();
+            for (Resource node : nodes) {
+                List<Statement> statements = QueryResults.asList(connection.getStatements(node, null, null));
+                if (statements.isEmpty()) continue;
+
+                reified.addAll(statements);
+                migrated++;
+            }
+            if (reified.isEmpty()) return 0;
+
+            connection.begin();
+            connection.remove(reified);
+            connection.add(this.encode(connection.getValueFactory(), Models.convertReificationToRDFStar(reified)));
+            connection.commit();
+            return migrated;
+        }
+    };
+
+    /**
+     * Converts the RDF-star statements of a model into the stored form.
+     */
+    public abstract Model encode(ValueFactory vf, Model model);
+
+    /**
+     * Converts the RDF-star statements of a model into the stored form, which has to match the statements in the repository.
+     */
+    public abstract Model encodeRemovals(RepositoryConnection connection, Model model);
+
+    /**
+     * @return all statements about the given statement, with the triple as subject
+     */
+    public abstract List<Statement> details(RepositoryConnection connection, Triple triple);
+
+    /**
+     * @return the statement as read from the repository, with triple terms instead of their stored form
+     */
+    public abstract Statement decode(Statement statement);
+
+    /**
+     * Converts all details in the repository stored in the other form into this form, committed in batches.
+     *
+     * @return the number of converted annotated statements (or statements, if converting into reification nodes)
+     */
+    public abstract long migrate(RepositoryConnection connection, int batchSize);
+
+    private static Collection<Resource> nodesOf(RepositoryConnection connection, Triple triple) {
+        try (RepositoryResult<Statement> statements = connection.getStatements(null, RDF.SUBJECT, triple.getSubject())) {
+            return statements.stream()
+                    .map(Statement::getSubject)
+                    .filter(node -> connection.hasStatement(node, RDF.PREDICATE, triple.getPredicate(), false)
+                            && connection.hasStatement(node, RDF.OBJECT, triple.getObject(), false))
+                    .distinct()
+                    .toList();
+        }
+    }
+
+    private static boolean isReification(Statement statement) {
+        IRI predicate = statement.getPredicate();
+        return predicate.equals(RDF.SUBJECT) || predicate.equals(RDF.PREDICATE) || predicate.equals(RDF.OBJECT)
+                || (predicate.equals(RDF.TYPE) && statement.getObject().equals(RDF.STATEMENT));
+    }
+
+    private static boolean hasTriple(Statement statement) {
+        return statement.getSubject().isTriple() || statement.getObject().isTriple();
+    }
+
+    private static Statement encode(Statement statement) {
+        if (!hasTriple(statement)) return statement;
+        return Statements.statement(RDFStarUtil.toRDFEncodedValue(statement.getSubject()), statement.getPredicate(), RDFStarUtil.toRDFEncodedValue(statement.getObject()), statement.getContext());
+    }
+}
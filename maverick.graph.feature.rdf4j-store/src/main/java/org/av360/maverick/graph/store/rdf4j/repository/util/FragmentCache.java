@@ -0,0 +1,287 @@
+package org.av360.maverick.graph.store.rdf4j.repository.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.av360.maverick.graph.model.entities.Transaction;
+import org.av360.maverick.graph.model.enums.Activity;
+import org.av360.maverick.graph.model.events.EntityEvent;
+import org.av360.maverick.graph.model.vocabulary.meg.Transactions;
+import org.av360.maverick.graph.store.rdf.fragments.RdfFragment;
+import org.av360.maverick.graph.store.rdf.fragments.RdfTransaction;
+import org.eclipse.rdf4j.model.*;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Keeps recently loaded fragments, keyed by repository label, subject and the options of the fragment. The size of the
+ * cache is limited by the number of statements in all fragments.
+ * <p>
+ * Every fragment depends on the resources it has been loaded from: the subjects of its statements and the linked
+ * resources (which might be embedded objects or neighbours). A fragment is invalidated as soon as one of them is
+ * affected by a committed transaction (or an entity event), details count for the subject of the annotated statement.
+ * <p>
+ * A fragment loaded while one of its resources is invalidated might already be stale. We remember the invalidations
+ * (per stripe of resources, and of the whole repository) when starting to load, and drop the fragment if one of its
+ * resources or its repository has been invalidated in the meantime. Callers always get a copy of the cached fragment.
+ */
+@Component
+@Slf4j(topic = "graph.repo.fragments.cache")
+public class FragmentCache {
+
+    public record Key(String label, Resource id, int neighbours, boolean details) {
+    }
+
+    /**
+     * Compared by identity: a dependency refers to one cached fragment, not to another fragment loaded for the same key.
+     */
+    private static final class Entry {
+        private final Key key;
+        private final Model model;
+        private final Set<Resource> resources;
+
+        private Entry(Key key, Model model, Set<Resource> resources) {
+            this.key = key;
+            this.model = model;
+            this.resources = resources;
+        }
+    }
+
+    private static final class Stats {
+        private final AtomicLong hits = new AtomicLong();
+        private final AtomicLong misses = new AtomicLong();
+
+        double ratio() {
+            long hits = this.hits.get();
+            long total = hits + this.misses.get();
+            return total == 0 ? 0 : (double) hits / total;
+        }
+    }
+
+    private static final int STRIPES = 64;
+
+    private final boolean enabled;
+    private final int maxFragmentSize;
+    private final Cache<Key, Entry> cache;
+    private final Map<Resource, Set<Entry>> dependents;
+    private final AtomicLongArray invalidations;
+    private final Map<String, AtomicLong> repositoryInvalidations;
+    private final Map<String, Stats> stats;
+    @Nullable
+    private final MeterRegistry meterRegistry;
+
+    public FragmentCache(@org.springframework.beans.factory.annotation.Value("${application.storage.fragments.cache.maxStatements:200000}") long maxStatements,
+                         @org.springframework.beans.factory.annotation.Value("${application.storage.fragments.cache.maxFragmentSize:5000}") int maxFragmentSize,
+                         @org.springframework.beans.factory.annotation.Value("${application.storage.fragments.cache.timeToLive:PT10M}") Duration timeToLive,
+                         @Nullable MeterRegistry meterRegistry) {
+        this.enabled = maxStatements > 0;
+        this.maxFragmentSize = maxFragmentSize;
+        this.meterRegistry = meterRegistry;
+        this.dependents = new ConcurrentHashMap<>();
+        this.invalidations = new AtomicLongArray(STRIPES);
+        this.repositoryInvalidations = new ConcurrentHashMap<>();
+        this.stats = new ConcurrentHashMap<>();
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(Math.max(maxStatements, 1))
+                .weigher((Key key, Entry entry) -> entry.model.size())
+                .expireAfterWrite(timeToLive)
+                .executor(Runnable::run)
+                .removalListener(this::removed)
+                .build();
+
+        if (Objects.nonNull(meterRegistry) && this.enabled) {
+            Gauge.builder("graph.store.fragments.cache_size", this.cache, Cache::estimatedSize).register(meterRegistry);
+            Gauge.builder("graph.store.fragments.cache_weight", this, FragmentCache::getWeight).register(meterRegistry);
+        }
+    }
+
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    /**
+     * @return a copy of the cached fragment, or null if it has not been cached (or caching is disabled)
+     */
+    @Nullable
+    public RdfFragment get(Key key) {
+        if (!this.enabled) return null;
+
+        Entry entry = this.cache.getIfPresent(key);
+        Stats stats = this.stats(key.label());
+        if (Objects.isNull(entry)) {
+            stats.misses.incrementAndGet();
+            return null;
+        }
+        stats.hits.incrementAndGet();
+        return new RdfFragment(key.id()).withModel(entry.model);
+    }
+
+    /**
+     * @return the state of invalidations for the repository with the given label, to be taken before loading a fragment
+     * which is put into the cache
+     */
+    public long[] snapshot(String label) {
+        long[] snapshot = new long[STRIPES + 1];
+        for (int i = 0; i < STRIPES; i++) snapshot[i] = this.invalidations.get(i);
+        snapshot[STRIPES] = this.repositoryInvalidations(label).get();
+        return snapshot;
+    }
+
+    /**
+     * Caches a copy of the fragment, unless one of its resources has been invalidated since the snapshot has been taken.
+     */
+    public void put(Key key, RdfFragment fragment, long[] snapshot) {
+        if (!this.enabled) return;
+
+        Model model = fragment.getModel();
+        if (model.size() > this.maxFragmentSize) return;
+
+        Set<Resource> resources = Stream.concat(
+                        Stream.concat(Stream.of(key.id()), model.subjects().stream()),
+                        model.objects().stream().filter(Value::isIRI).map(value -> (Resource) value))
+                .map(FragmentCache::resourceOf)
+                .collect(Collectors.toSet());
+
+        // registered before checking the snapshot: a concurrent invalidation either finds the entry, or we see the invalidation
+        Entry entry = new Entry(key, new LinkedHashModel(model), resources);
+        resources.forEach(resource -> this.dependents.computeIfAbsent(resource, r -> ConcurrentHashMap.newKeySet()).add(entry));
+        this.cache.put(key, entry);
+
+        if (this.repositoryInvalidations(key.label()).get() != snapshot[STRIPES]) {
+            this.cache.asMap().remove(key, entry);
+            return;
+        }
+        for (Resource resource : resources) {
+            if (this.invalidations.get(stripe(resource)) != snapshot[stripe(resource)]) {
+                this.cache.asMap().remove(key, entry);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Invalidates all fragments depending on the given resources (details count for the subject of the annotated statement).
+     */
+    public void invalidate(Collection<? extends Value> values) {
+        if (!this.enabled) return;
+
+        for (Value value : values) {
+            if (!value.isResource()) continue;
+            Resource resource = resourceOf((Resource) value);
+
+            this.invalidations.incrementAndGet(stripe(resource));
+            Set<Entry> entries = this.dependents.remove(resource);
+            if (Objects.nonNull(entries)) entries.forEach(entry -> this.cache.asMap().remove(entry.key, entry));
+        }
+    }
+
+    /**
+     * Invalidates all fragments of a repository, e.g. after an update query or an import (where we don't know which
+     * resources have been affected).
+     */
+    public void invalidate(String label) {
+        if (!this.enabled) return;
+
+        this.repositoryInvalidations(label).incrementAndGet();
+        this.cache.asMap().keySet().removeIf(key -> key.label().equals(label));
+        log.debug("Invalidated all cached fragments of repository '{}'", label);
+    }
+
+    public void invalidate(Transaction transaction) {
+        this.invalidate(affectedResources(transaction));
+    }
+
+    /**
+     * Transactions are committed through the stores, which invalidate the fragments themselves. Entity events cover
+     * changes committed in other ways within this instance. Spring events are not delivered to other instances, fragments
+     * changed by another instance sharing the repository are only dropped when their time to live expires.
+     */
+    @EventListener
+    public void handleEntityEvent(EntityEvent event) {
+        this.invalidate(event.getTransaction());
+    }
+
+    public long getHits() {
+        return this.stats.values().stream().mapToLong(stats -> stats.hits.get()).sum();
+    }
+
+    public long getMisses() {
+        return this.stats.values().stream().mapToLong(stats -> stats.misses.get()).sum();
+    }
+
+    public long getSize() {
+        return this.cache.estimatedSize();
+    }
+
+    /**
+     * @return number of statements in all cached fragments
+     */
+    public long getWeight() {
+        return this.cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L);
+    }
+
+    private static Set<Resource> affectedResources(Transaction transaction) {
+        if (transaction instanceof RdfTransaction rdfTransaction) {
+            return rdfTransaction.affectedSubjects(Activity.values()).stream()
+                    .filter(Value::isResource)
+                    .map(value -> (Resource) value)
+                    .collect(Collectors.toSet());
+        }
+        return Stream.of(Transactions.GRAPH_CREATED, Transactions.GRAPH_UPDATED, Transactions.GRAPH_DELETED)
+                .flatMap(context -> transaction.getModel(context).subjects().stream())
+                .collect(Collectors.toSet());
+    }
+
+    private static Resource resourceOf(Resource resource) {
+        while (resource instanceof Triple triple) resource = triple.getSubject();
+        return resource;
+    }
+
+    private static int stripe(Resource resource) {
+        return Math.floorMod(resource.hashCode(), STRIPES);
+    }
+
+    private void removed(@Nullable Key key, @Nullable Entry entry, RemovalCause cause) {
+        if (Objects.isNull(entry)) return;
+
+        for (Resource resource : entry.resources) {
+            this.dependents.computeIfPresent(resource, (r, entries) -> {
+                entries.remove(entry);
+                return entries.isEmpty() ? null : entries;
+            });
+        }
+    }
+
+    private AtomicLong repositoryInvalidations(String label) {
+        return this.repositoryInvalidations.computeIfAbsent(label, l -> new AtomicLong());
+    }
+
+    private Stats stats(String label) {
+        Stats stats = this.stats.get(label);
+        if (Objects.nonNull(stats)) return stats;
+
+        return this.stats.computeIfAbsent(label, l -> {
+            Stats created = new Stats();
+            if (Objects.nonNull(this.meterRegistry)) {
+                FunctionCounter.builder("graph.store.fragments.cache", created, s -> s.hits.get()).tag("label", l).tag("result", "hit").register(this.meterRegistry);
+                FunctionCounter.builder("graph.store.fragments.cache", created, s -> s.misses.get()).tag("label", l).tag("result", "miss").register(this.meterRegistry);
+                Gauge.builder("graph.store.fragments.cache_hit_ratio", created, Stats::ratio).tag("label", l).register(this.meterRegistry);
+            }
+            return created;
+        });
+    }
+}
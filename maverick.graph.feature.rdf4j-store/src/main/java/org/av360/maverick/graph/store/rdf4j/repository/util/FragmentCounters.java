@@ -0,0 +1,146 @@
+package org.av360.maverick.graph.store.rdf4j.repository.util;
+
+import org.av360.maverick.graph.model.vocabulary.meg.Local;
+import org.av360.maverick.graph.store.rdf.LabeledRepository;
+import org.eclipse.rdf4j.common.transaction.IsolationLevels;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Number of fragments per internal type (individuals, classifiers and embedded objects) in one repository.
+ * <p>
+ * The counters are initialized with a scan over the type index, updated with the changes of every committed transaction
+ * and reconciled periodically (or after changes which bypass the commit, like imports or update queries).
+ * <p>
+ * The scan reads all types from one snapshot, which is taken in between commits (see {@link #committing(Runnable)}).
+ * Every commit is either visible to the scan or applied to the counters afterwards, never both.
+ */
+public class FragmentCounters {
+
+    public static final List<IRI> TYPES = List.of(Local.Entities.TYPE_INDIVIDUAL, Local.Entities.TYPE_CLASSIFIER, Local.Entities.TYPE_EMBEDDED);
+
+    private final LabeledRepository repository;
+    private final Map<IRI, AtomicLong> counts;
+    // shared by the commits (until their changes have been applied), exclusive while the scan takes its snapshot
+    private final ReentrantReadWriteLock commits;
+    private volatile boolean stale;
+
+    public FragmentCounters(LabeledRepository repository) {
+        this.repository = repository;
+        this.counts = new HashMap<>();
+        TYPES.forEach(type -> this.counts.put(type, new AtomicLong()));
+        this.commits = new ReentrantReadWriteLock();
+        this.stale = true;
+    }
+
+    public boolean isCounting(LabeledRepository repository) {
+        return this.repository == repository;
+    }
+
+    public static boolean isCounted(IRI type) {
+        return TYPES.contains(type);
+    }
+
+    /**
+     * @return the number of fragments with the given type, reconciles the counter first if it is stale
+     */
+    public long get(IRI type) {
+        if (this.stale) this.reconcile();
+        return this.counts.get(type).get();
+    }
+
+    /**
+     * @return the last known number of fragments with the given type (without reconciling)
+     */
+    public long peek(IRI type) {
+        return this.counts.get(type).get();
+    }
+
+    public void invalidate() {
+        this.stale = true;
+    }
+
+    /**
+     * Runs a commit of the repository, from its first change until its changes have been applied to the counters.
+     * Commits run concurrently, only the snapshot of a reconciling scan is taken in between them.
+     */
+    public void committing(Runnable commit) {
+        this.commits.readLock().lock();
+        try {
+            commit.run();
+        } finally {
+            this.commits.readLock().unlock();
+        }
+    }
+
+    public synchronized void reconcile() {
+        try (RepositoryConnection connection = this.repository.getConnection(true)) {
+            Map<IRI, Long> base = new HashMap<>();
+            connection.begin(IsolationLevels.SNAPSHOT);
+            try {
+                this.commits.writeLock().lock();
+                try {
+                    // the first read takes the snapshot, the changes of all commits visible to it have been applied
+                    connection.hasStatement(null, RDF.TYPE, null, false);
+                    this.stale = false;
+                    TYPES.forEach(type -> base.put(type, this.counts.get(type).get()));
+                } finally {
+                    this.commits.writeLock().unlock();
+                }
+
+                // commits completing during the scan are not visible to it, their changes are kept on top of the scanned counts
+                for (IRI type : TYPES) {
+                    long scanned = connection.getStatements(null, RDF.TYPE, type, false).stream().count();
+                    this.counts.get(type).addAndGet(scanned - base.get(type));
+                }
+            } finally {
+                connection.rollback();
+            }
+        } catch (RuntimeException e) {
+            this.stale = true;
+            throw e;
+        }
+    }
+
+    /**
+     * Counts the type statements which are actually removed from the repository. Has to be called with the connection of
+     * the transaction, before the statements are removed.
+     */
+    public static Map<IRI, Long> removed(RepositoryConnection connection, Model statements) {
+        return changed(connection, statements, true);
+    }
+
+    /**
+     * Counts the type statements which are actually added to the repository. Has to be called with the connection of
+     * the transaction, before the statements are added.
+     */
+    public static Map<IRI, Long> added(RepositoryConnection connection, Model statements) {
+        return changed(connection, statements, false);
+    }
+
+    public void apply(Map<IRI, Long> added, Map<IRI, Long> removed) {
+        added.forEach((type, count) -> this.counts.get(type).addAndGet(count));
+        removed.forEach((type, count) -> this.counts.get(type).addAndGet(-count));
+    }
+
+    private static Map<IRI, Long> changed(RepositoryConnection connection, Model statements, boolean existing) {
+        Map<IRI, Long> result = new HashMap<>();
+        if (statements.isEmpty()) return result;
+
+        for (IRI type : TYPES) {
+            long count = statements.filter(null, RDF.TYPE, type).subjects().stream()
+                    .filter(subject -> connection.hasStatement(subject, RDF.TYPE, type, false) == existing)
+                    .count();
+            if (count > 0) result.put(type, count);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,158 @@
+package org.av360.maverick.graph.store.rdf4j.repository.util;
+
+import org.av360.maverick.graph.model.vocabulary.meg.Local;
+import org.av360.maverick.graph.store.rdf.fragments.RdfFragment;
+import org.eclipse.rdf4j.model.*;
+import org.eclipse.rdf4j.model.util.ModelCollector;
+import org.eclipse.rdf4j.model.util.Models;
+import org.eclipse.rdf4j.model.util.Values;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.query.QueryResults;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Loads a fragment (all statements of a subject, its embedded objects and optionally its details and direct neighbours)
+ * with point lookups on the indexes: one lookup by subject for the fragment, one per distinct linked resource (a type
+ * check, or all its statements if the neighbours are included) and one per embedded object.
+ * <p>
+ * Every resource is looked up at most once per fragment: the lookups are shared between the detection of embedded
+ * objects, the embedded objects themselves and the neighbours. Details are resolved once per subject instead of once per
+ * statement. The loader is bound to one connection and should not be reused across requests.
+ * <p>
+ * We don't load the neighbourhood with a single query (a union over the subject, its embedded objects and the
+ * reification nodes): in our measurements, parsing and evaluating the query took longer than the point lookups for
+ * fragments of up to a thousand statements, with in-memory and LMDB stores. The lookups also keep the context of every
+ * statement, which the query would have to recover.
+ * <p>
+ * Details stored as triple terms are a single lookup per statement, details stored as reification nodes a lookup by
+ * object per subject and another lookup per node (see {@link DetailsStorage}).
+ */
+public class FragmentLoader {
+
+    private final RepositoryConnection connection;
+    private final DetailsStorage detailsStorage;
+    private final Map<Resource, List<Statement>> statementsBySubject;
+
+    public FragmentLoader(RepositoryConnection connection) {
+        this(connection, DetailsStorage.REIFICATION);
+    }
+
+    public FragmentLoader(RepositoryConnection connection, DetailsStorage detailsStorage) {
+        this.connection = connection;
+        this.detailsStorage = detailsStorage;
+        this.statementsBySubject = new HashMap<>();
+    }
+
+    /**
+     * @param id                    the subject of the fragment
+     * @param includeNeighborsLevel 1, if the type and short literals of linked resources should be included
+     * @param includeDetails        true, if the details (statements about statements) should be included
+     * @return the fragment, or null if there are no statements for the subject
+     */
+    @Nullable
+    public RdfFragment load(Resource id, int includeNeighborsLevel, boolean includeDetails) {
+        List<Statement> statements = this.statementsOf(id);
+        if (statements.isEmpty()) return null;
+
+        boolean includeNeighbours = includeNeighborsLevel == 1;
+        RdfFragment entity = new RdfFragment(id).withStatements(statements);
+
+        entity.getModel().addAll(this.loadEmbeds(entity, includeNeighbours));
+        if (includeDetails) {
+            entity.getModel().addAll(switch (this.detailsStorage) {
+                case REIFICATION -> this.loadDetailsWithReification(entity);
+                case NATIVE -> this.loadDetails(entity);
+            });
+        }
+        if (includeNeighbours) {
+            entity.getModel().addAll(this.loadNeighbours(entity));
+        }
+        return entity;
+    }
+
+    private Model loadEmbeds(RdfFragment entity, boolean prefetch) {
+        return entity.getModel().objects().stream()
+                .filter(Value::isIRI)
+                .map(value -> (IRI) value)
+                .distinct()
+                .filter(value -> this.isEmbedded(value, prefetch))
+                .flatMap(value -> this.statementsOf(value).stream())
+                .collect(new ModelCollector());
+    }
+
+    private Model loadDetails(RdfFragment entity) {
+        return entity.getModel().stream()
+                .filter(FragmentLoader::isAnnotatable)
+                .map(Values::triple)
+                .flatMap(triple -> this.detailsStorage.details(this.connection, triple).stream())
+                .collect(new ModelCollector());
+    }
+
+    /**
+     * Required as long as details are stored as reification nodes.
+     * <p>
+     * <<ex:bob foaf:age 23>> ex:certainty 0.9 .
+     * becomes
+     * _:node1 a rdf:Statement;
+     * rdf:subject ex:bob ;
+     * rdf:predicate foaf:age ;
+     * rdf:object 23 ;
+     * ex:certainty 0.9 .
+     */
+    private Model loadDetailsWithReification(RdfFragment entity) {
+        Set<Resource> subjects = entity.getModel().stream()
+                .filter(FragmentLoader::isAnnotatable)
+                .map(Statement::getSubject)
+                .collect(Collectors.toSet());
+
+        Model md = subjects.stream()
+                .flatMap(subject -> QueryResults.asList(this.connection.getStatements(null, RDF.SUBJECT, subject)).stream())
+                .map(Statement::getSubject)
+                .distinct()
+                .flatMap(node -> this.statementsOf(node).stream())
+                .collect(new ModelCollector());
+        return Models.convertReificationToRDFStar(md);
+    }
+
+    private Model loadNeighbours(RdfFragment entity) {
+        return entity.getModel().objects().stream()
+                .filter(Value::isIRI)
+                .map(value -> (IRI) value)
+                .distinct()
+                .flatMap(value -> this.statementsOf(value).stream())
+                .filter(statement -> isLiteralStatement(statement) || isTypeStatement(statement))
+                .collect(new ModelCollector());
+    }
+
+    /**
+     * If we need the neighbours anyway, we load all statements of the object (and reuse them later). Otherwise, we only
+     * check the type.
+     */
+    private boolean isEmbedded(IRI value, boolean prefetch) {
+        if (prefetch || this.statementsBySubject.containsKey(value)) {
+            return this.statementsOf(value).stream().anyMatch(statement -> isTypeStatement(statement) && statement.getObject().equals(Local.Entities.TYPE_EMBEDDED));
+        } else {
+            return this.connection.hasStatement(value, RDF.TYPE, Local.Entities.TYPE_EMBEDDED, true);
+        }
+    }
+
+    private List<Statement> statementsOf(Resource subject) {
+        return this.statementsBySubject.computeIfAbsent(subject, s -> QueryResults.asList(this.connection.getStatements(s, null, null)));
+    }
+
+    private static boolean isAnnotatable(Statement statement) {
+        return (statement.getObject().isLiteral() || statement.getObject().isIRI()) && statement.getSubject().isIRI();
+    }
+
+    private static boolean isLiteralStatement(Statement statement) {
+        return statement.getObject().isLiteral() && statement.getObject().stringValue().length() < 128;
+    }
+
+    private static boolean isTypeStatement(Statement statement) {
+        return statement.getPredicate().equals(RDF.TYPE);
+    }
+}
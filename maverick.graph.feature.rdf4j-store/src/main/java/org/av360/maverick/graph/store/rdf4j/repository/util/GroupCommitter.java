@@ -0,0 +1,183 @@
+package org.av360.maverick.graph.store.rdf4j.repository.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.av360.maverick.graph.model.entities.Transaction;
+import org.av360.maverick.graph.store.rdf.LabeledRepository;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * Merges concurrent commits to the same repository into one RDF4J transaction (group commit).
+ * <p>
+ * Commits arriving within the configured window are collected and written with a single begin/commit cycle. The group is
+ * flushed early as soon as the pending transactions exceed the maximum number of statements. If writing the group fails,
+ * every transaction of the group is replayed in its own RDF4J transaction, so that each transaction still reports its own
+ * success or failure status.
+ * <p>
+ * All flushes of one repository run sequentially on a single worker. After {@link #shutdown()}, new commits are rejected.
+ */
+@Slf4j(topic = "graph.repo.commit")
+public class GroupCommitter {
+
+    private final LabeledRepository repository;
+    private final BiFunction<RepositoryConnection, Transaction, Runnable> writer;
+    private final Consumer<Runnable> guard;
+    private final Duration window;
+    private final int maxStatements;
+    private final Scheduler.Worker worker;
+
+    private final List<PendingCommit> pending;
+    // held while a group is written, flushes of the worker and of the shutdown never overlap
+    private final Object flushing = new Object();
+    private long pendingStatements;
+    private boolean flushScheduled;
+    private boolean closed;
+
+
+    /**
+     * @param writer writes one transaction with the given connection, the returned action is run once the write has been committed
+     */
+    public GroupCommitter(LabeledRepository repository, Duration window, int maxStatements, BiFunction<RepositoryConnection, Transaction, Runnable> writer) {
+        this(repository, window, maxStatements, writer, Runnable::run);
+    }
+
+    /**
+     * @param guard runs every write (of a group or a single transaction), from its begin until the returned actions have been run
+     */
+    public GroupCommitter(LabeledRepository repository, Duration window, int maxStatements, BiFunction<RepositoryConnection, Transaction, Runnable> writer, Consumer<Runnable> guard) {
+        this.repository = repository;
+        this.writer = writer;
+        this.guard = guard;
+        this.window = window;
+        this.maxStatements = maxStatements;
+        this.worker = Schedulers.boundedElastic().createWorker();
+        this.pending = new ArrayList<>();
+    }
+
+    public boolean isCommitting(LabeledRepository repository) {
+        return this.repository == repository;
+    }
+
+    /**
+     * Queues the transactions for the next group commit.
+     *
+     * @param transactions the transactions to commit
+     * @return the transactions (marked as completed or failed), once the group they are part of has been written
+     */
+    public Flux<Transaction> submit(Collection<Transaction> transactions) {
+        if (transactions.isEmpty()) return Flux.empty();
+
+        return Mono.<Collection<Transaction>>create(sink -> this.enqueue(new PendingCommit(transactions, sink)))
+                .flatMapMany(Flux::fromIterable);
+    }
+
+    /**
+     * Rejects new commits and writes the pending ones on the calling thread, every pending commit is completed (or
+     * failed) before the worker is disposed.
+     */
+    public void shutdown() {
+        synchronized (this.pending) {
+            this.closed = true;
+        }
+        this.flush();
+        this.worker.dispose();
+    }
+
+    private void enqueue(PendingCommit commit) {
+        synchronized (this.pending) {
+            if (this.closed) {
+                commit.sink().error(new IllegalStateException("Group commits for repository '%s' have been shut down".formatted(this.repository)));
+                return;
+            }
+
+            this.pending.add(commit);
+            this.pendingStatements += commit.statements();
+
+            if (this.pendingStatements >= this.maxStatements) {
+                this.flushScheduled = true;
+                this.worker.schedule(this::flush);
+            } else if (!this.flushScheduled) {
+                this.flushScheduled = true;
+                this.worker.schedule(this::flush, this.window.toMillis(), TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private void flush() {
+        synchronized (this.flushing) {
+            this.flushPending();
+        }
+    }
+
+    private void flushPending() {
+        List<PendingCommit> group;
+        synchronized (this.pending) {
+            if (this.pending.isEmpty()) return;
+
+            group = new ArrayList<>(this.pending);
+            this.pending.clear();
+            this.pendingStatements = 0;
+            this.flushScheduled = false;
+        }
+
+        List<Transaction> transactions = group.stream().flatMap(commit -> commit.transactions().stream()).toList();
+
+        try (RepositoryConnection connection = this.repository.getConnection()) {
+            try {
+                this.guard.accept(() -> {
+                    connection.begin();
+                    List<Runnable> onCommit = transactions.stream().map(trx -> this.writer.apply(connection, trx)).toList();
+                    connection.commit();
+                    onCommit.forEach(Runnable::run);
+                });
+
+                transactions.forEach(Transaction::setCompleted);
+                log.debug("Group commit of {} transactions completed in repository '{}'.", transactions.size(), this.repository);
+            } catch (Exception e) {
+                log.warn("Group commit of {} transactions failed in repository '{}', committing transactions individually. Reason: {}", transactions.size(), this.repository, e.getMessage());
+                if (connection.isActive()) connection.rollback();
+                transactions.forEach(trx -> this.commitSingle(connection, trx));
+            }
+
+            group.forEach(commit -> commit.sink().success(commit.transactions()));
+        } catch (Exception e) {
+            log.error("Failed to acquire connection for group commit in repository '{}'.", this.repository, e);
+            group.forEach(commit -> commit.sink().error(e));
+        }
+    }
+
+    private void commitSingle(RepositoryConnection connection, Transaction trx) {
+        try {
+            this.guard.accept(() -> {
+                connection.begin();
+                Runnable onCommit = this.writer.apply(connection, trx);
+                connection.commit();
+                onCommit.run();
+            });
+            trx.setCompleted();
+        } catch (Exception e) {
+            log.error("Failed to complete transaction '{}' for repository '{}'.", trx.getIdentifier().getLocalName(), this.repository, e);
+            if (connection.isActive()) connection.rollback();
+            trx.setFailed(e.getMessage());
+        }
+    }
+
+    private record PendingCommit(Collection<Transaction> transactions, MonoSink<Collection<Transaction>> sink) {
+
+        long statements() {
+            return this.transactions.stream().mapToLong(trx -> trx.getModel().size()).sum();
+        }
+    }
+}
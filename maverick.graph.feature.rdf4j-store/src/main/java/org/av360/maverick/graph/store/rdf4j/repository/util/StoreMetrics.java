@@ -0,0 +1,181 @@
+package org.av360.maverick.graph.store.rdf4j.repository.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import javax.annotation.Nullable;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Execution time and size of the operations on the repositories of a store, per operation and repository label, and
+ * the progress of imports per repository label.
+ * <p>
+ * The meters of all operations are registered when a repository is used for the first time. Afterwards, recording an
+ * operation is a map lookup by label and an array lookup by operation, without asking the registry.
+ */
+public class StoreMetrics {
+
+    public enum Operation {
+        GET_FRAGMENT("getFragment"),
+        COMMIT("commit"),
+        QUERY("query"),
+        CONSTRUCT("construct"),
+        UPDATE("update"),
+        LIST_STATEMENTS("listStatements"),
+        IMPORT("import"),
+        READ("read"),
+        WRITE("write");
+
+        private final String tag;
+
+        Operation(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    /**
+     * The meters of one operation in one repository.
+     */
+    public static final class Meters {
+        private static final Meters NONE = new Meters(null, null, null, null, null);
+
+        @Nullable private final Timer timer;
+        @Nullable private final DistributionSummary statements;
+        @Nullable private final Counter failures;
+        @Nullable private final Counter timeouts;
+        @Nullable private final Counter cancellations;
+
+        private Meters(@Nullable Timer timer, @Nullable DistributionSummary statements, @Nullable Counter failures, @Nullable Counter timeouts, @Nullable Counter cancellations) {
+            this.timer = timer;
+            this.statements = statements;
+            this.failures = failures;
+            this.timeouts = timeouts;
+            this.cancellations = cancellations;
+        }
+
+        /**
+         * @param startNanos the start of the operation, from {@link System#nanoTime()}
+         * @param statements number of statements (or results) read or written, negative if unknown
+         * @param failed     true, if the operation failed
+         */
+        public void record(long startNanos, long statements, boolean failed) {
+            if (Objects.isNull(this.timer)) return;
+
+            this.timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            if (statements >= 0) this.statements.record(statements);
+            if (failed) this.failures.increment();
+        }
+
+        /**
+         * The operation has been interrupted, since it exceeded its maximum execution time.
+         */
+        public void timedOut() {
+            if (Objects.nonNull(this.timeouts)) this.timeouts.increment();
+        }
+
+        /**
+         * The consumer cancelled the operation before all results have been read (e.g. the client disconnected).
+         */
+        public void cancelled() {
+            if (Objects.nonNull(this.cancellations)) this.cancellations.increment();
+        }
+    }
+
+    /**
+     * The statements committed and bytes read by imports into one repository.
+     */
+    public static final class ImportCounters {
+        private static final ImportCounters NONE = new ImportCounters(null, null);
+
+        @Nullable private final Counter statements;
+        @Nullable private final Counter bytes;
+
+        private ImportCounters(@Nullable Counter statements, @Nullable Counter bytes) {
+            this.statements = statements;
+            this.bytes = bytes;
+        }
+
+        /**
+         * @param statements number of statements committed since the last progress
+         * @param bytes      number of bytes read since the last progress
+         */
+        public void progress(long statements, long bytes) {
+            if (Objects.isNull(this.statements)) return;
+
+            this.statements.increment(statements);
+            this.bytes.increment(bytes);
+        }
+    }
+
+    private record Registered(Meters[] operations, ImportCounters imports) {
+    }
+
+    @Nullable
+    private final MeterRegistry registry;
+    private final Map<String, Registered> meters;
+
+    public StoreMetrics(@Nullable MeterRegistry registry) {
+        this.registry = registry;
+        this.meters = new ConcurrentHashMap<>();
+    }
+
+    public Meters get(Operation operation, String label) {
+        if (Objects.isNull(this.registry)) return Meters.NONE;
+
+        return this.registered(label).operations()[operation.ordinal()];
+    }
+
+    public ImportCounters imports(String label) {
+        if (Objects.isNull(this.registry)) return ImportCounters.NONE;
+
+        return this.registered(label).imports();
+    }
+
+    private Registered registered(String label) {
+        Registered registered = this.meters.get(label);
+        if (Objects.isNull(registered)) registered = this.meters.computeIfAbsent(label, this::register);
+        return registered;
+    }
+
+    private Registered register(String label) {
+        Operation[] operations = Operation.values();
+        Meters[] result = new Meters[operations.length];
+        for (Operation operation : operations) {
+            Timer timer = Timer.builder("graph.store.operation")
+                    .description("Execution time of operations in the repository, until the last result has been consumed")
+                    .tag("operation", operation.tag)
+                    .tag("label", label)
+                    .publishPercentileHistogram()
+                    .register(this.registry);
+            DistributionSummary statements = DistributionSummary.builder("graph.store.operation.statements")
+                    .description("Number of statements (or results) read or written by an operation in the repository")
+                    .tag("operation", operation.tag)
+                    .tag("label", label)
+                    .publishPercentileHistogram()
+                    .register(this.registry);
+            Counter failures = Counter.builder("graph.store.operation.failures")
+                    .tag("operation", operation.tag)
+                    .tag("label", label)
+                    .register(this.registry);
+            Counter timeouts = Counter.builder("graph.store.operation.timeouts")
+                    .tag("operation", operation.tag)
+                    .tag("label", label)
+                    .register(this.registry);
+            Counter cancellations = Counter.builder("graph.store.operation.cancellations")
+                    .tag("operation", operation.tag)
+                    .tag("label", label)
+                    .register(this.registry);
+            result[operation.ordinal()] = new Meters(timer, statements, failures, timeouts, cancellations);
+        }
+
+        ImportCounters imports = new ImportCounters(
+                Counter.builder("graph.store.import.statements").tag("label", label).register(this.registry),
+                Counter.builder("graph.store.import.bytes").tag("label", label).register(this.registry));
+        return new Registered(result, imports);
+    }
+}
@@ -23,7 +23,8 @@ public class Environment implements  Serializable{
         LABEL,
         KEY,
         FLAG_PUBLIC,
-        FLAG_PERSISTENT
+        FLAG_PERSISTENT,
+        STORAGE_PROFILE
     }
 
 
@@ -0,0 +1,24 @@
+package org.av360.maverick.graph.model.errors.requests;
+
+import org.av360.maverick.graph.model.errors.InvalidRequest;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+
+public class QueryTimeout extends InvalidRequest {
+    private final Duration timeout;
+
+    public QueryTimeout(Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    @Override
+    public String getMessage() {
+        return "Query has been cancelled after exceeding the maximum execution time of %s seconds".formatted(this.timeout.toSeconds());
+    }
+
+    @Override
+    public HttpStatus getStatusCode() {
+        return HttpStatus.SERVICE_UNAVAILABLE;
+    }
+}
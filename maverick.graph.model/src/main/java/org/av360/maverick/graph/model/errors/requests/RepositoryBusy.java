@@ -0,0 +1,22 @@
+package org.av360.maverick.graph.model.errors.requests;
+
+import org.av360.maverick.graph.model.errors.InvalidRequest;
+import org.springframework.http.HttpStatus;
+
+public class RepositoryBusy extends InvalidRequest {
+    private final String repository;
+
+    public RepositoryBusy(String repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    public String getMessage() {
+        return "All connections to repository '%s' are in use, please retry later".formatted(this.repository);
+    }
+
+    @Override
+    public HttpStatus getStatusCode() {
+        return HttpStatus.SERVICE_UNAVAILABLE;
+    }
+}
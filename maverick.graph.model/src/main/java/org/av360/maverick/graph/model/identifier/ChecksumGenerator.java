@@ -1,57 +1,84 @@
 package org.av360.maverick.graph.model.identifier;
 
-import java.math.BigInteger;
-import java.util.Stack;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.zip.CRC32C;
-import java.util.zip.Checksum;
 
+/**
+ * Generates reproducible identifiers from a string, encoded with a fixed alphabet (most significant digit first).
+ * <p>
+ * Identifiers of up to {@link LocalIdentifier#LENGTH} characters are derived from a 32 bit CRC32C checksum, as they
+ * have always been (existing identifiers stay stable). Longer identifiers (up to {@link #MAX_LENGTH} characters) are
+ * derived from a 128 bit Murmur3 hash and always have exactly the requested length.
+ * <p>
+ * The generator is thread-safe without locks: every thread uses its own checksum, the hash function has no state.
+ */
 public class ChecksumGenerator {
 
-    private static final Checksum checksum = new CRC32C();
+    public static final int MAX_LENGTH = 25;
+
+    private static final ThreadLocal<CRC32C> checksums = ThreadLocal.withInitial(CRC32C::new);
+    private static final HashFunction hashFunction = Hashing.murmur3_128();
     private static final char[] alphabet = "abcdefghijklmnopqrstuvwyz0123456789_".toCharArray();
 
 
     public static String generateChecksum(String val, int length, char paddingChar) {
-        checksum.reset();
-        checksum.update(val.getBytes(), 0, val.length());
-
-        return dec2Base(BigInteger.valueOf(checksum.getValue()), length, paddingChar);
+        if (length <= LocalIdentifier.LENGTH) {
+            CRC32C checksum = checksums.get();
+            checksum.reset();
+            checksum.update(val.getBytes(), 0, val.length());
+            return encode(checksum.getValue(), length, paddingChar);
+        }
 
+        if (length > MAX_LENGTH) throw new IllegalArgumentException("Identifiers are limited to %d characters, requested: %d".formatted(MAX_LENGTH, length));
+        return encode(hashFunction.hashString(val, StandardCharsets.UTF_8).asBytes(), length);
     }
 
 
-    private static String dec2Base(BigInteger number, int length, char paddingChar) {
-        Stack<Integer> stack = new Stack<>();
-
+    /**
+     * Encodes the checksum, cut (to one character less than the length) or padded to the given length.
+     */
+    private static String encode(long number, int length, char paddingChar) {
+        char[] digits = new char[Math.max(13, length)];
+        int start = digits.length;
         do {
-            BigInteger[] divisionResultAndReminder = number.divideAndRemainder( BigInteger.valueOf(alphabet.length) );
-            stack.push(divisionResultAndReminder[1].intValue());
-            number = divisionResultAndReminder[0];
-        } while(!number.equals(BigInteger.ZERO));
-
-        StringBuilder result = new StringBuilder();
-        while(! stack.empty()) {
-            result.append(alphabet[stack.pop()]);
+            digits[--start] = alphabet[(int) (number % alphabet.length)];
+            number = number / alphabet.length;
+        } while (number != 0);
+
+        int size = digits.length - start;
+        if (size > length) return new String(digits, start, length - 1);
+        if (size < length) {
+            System.arraycopy(digits, start, digits, 0, size);
+            Arrays.fill(digits, size, length, paddingChar);
+            return new String(digits, 0, length);
         }
-        String ser = result.toString();
-        if(ser.length() > length) return ser.substring(0, length-1);
-        if(ser.length() < length) return normalize(ser, length, paddingChar);
-        else return ser;
-
-
+        return new String(digits, start, size);
     }
 
-    private static String normalize(String str, int length, char paddingChar) {
-        if (str.length() >= length) {
-            return str;
+    /**
+     * Encodes the lowest digits of the hash (an unsigned big-endian number) with exactly the given length.
+     */
+    private static String encode(byte[] hash, int length) {
+        long[] limbs = new long[hash.length / 4];
+        for (int i = 0; i < limbs.length; i++) {
+            limbs[i] = ((hash[4 * i] & 0xffL) << 24) | ((hash[4 * i + 1] & 0xffL) << 16) | ((hash[4 * i + 2] & 0xffL) << 8) | (hash[4 * i + 3] & 0xffL);
         }
 
-        StringBuilder sb = new StringBuilder(str);
-        while (sb.length() < length) {
-            sb.append(paddingChar);
+        char[] digits = new char[length];
+        for (int position = length - 1; position >= 0; position--) {
+            long remainder = 0;
+            for (int i = 0; i < limbs.length; i++) {
+                long current = (remainder << 32) | limbs[i];
+                limbs[i] = current / alphabet.length;
+                remainder = current % alphabet.length;
+            }
+            digits[position] = alphabet[(int) remainder];
         }
-
-        return sb.toString();
+        return new String(digits);
     }
 
 }
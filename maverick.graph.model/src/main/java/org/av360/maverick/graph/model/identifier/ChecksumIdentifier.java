@@ -8,8 +8,6 @@ import java.io.Serializable;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.stream.Collectors;
-import java.util.zip.CRC32C;
-import java.util.zip.Checksum;
 
 /**
  * The generated entity identifier needs to resolve, it should be in the form
@@ -24,8 +22,6 @@ import java.util.zip.Checksum;
 public class ChecksumIdentifier extends LocalIRI implements LocalIdentifier  {
     private static final char[][] range = {{'a', 'z'}, {'0', '9'}};
 
-    private static final Checksum checksum = new CRC32C();
-
 
     /**
      * Generates a new and reproducible identifier from the old resource identifier (its namespace) and a characteristic property
@@ -38,7 +34,7 @@ public class ChecksumIdentifier extends LocalIRI implements LocalIdentifier  {
 
         String collect = Arrays.stream(parts).map(Object::toString).collect(Collectors.joining());
         Assert.hasLength(collect, "No content to generate reproducible identifier.");
-        super.setLocalName(ChecksumGenerator.generateChecksum(collect, LENGTH, PADDING_CHAR));
+        super.setLocalName(ChecksumGenerator.generateChecksum(collect, LocalIdentifier.length(), PADDING_CHAR));
     }
 
 
@@ -47,7 +43,7 @@ public class ChecksumIdentifier extends LocalIRI implements LocalIdentifier  {
 
         String collect = parts.stream().map(Object::toString).collect(Collectors.joining());
         Assert.hasLength(collect, "No content to generate reproducible identifier.");
-        super.setLocalName(ChecksumGenerator.generateChecksum(collect, LENGTH, PADDING_CHAR));
+        super.setLocalName(ChecksumGenerator.generateChecksum(collect, LocalIdentifier.length(), PADDING_CHAR));
 
     }
 }
@@ -1,6 +1,7 @@
 package org.av360.maverick.graph.model.identifier;
 
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.io.Serializable;
@@ -12,6 +13,14 @@ public class DefaultIdentifierFactory implements IdentifierFactory  {
         return sharedInstance;
     }
 
+    /**
+     * Identifiers longer than the default length are derived from a wider hash, existing identifiers remain valid.
+     */
+    @Value("${application.identifiers.length:8}")
+    private void setLength(int length) {
+        IdentifierLength.set(length);
+    }
+
 
     @Override
     public LocalIdentifier createRandomIdentifier(String namespace) {
@@ -0,0 +1,24 @@
+package org.av360.maverick.graph.model.identifier;
+
+import org.springframework.util.Assert;
+
+/**
+ * Holds the configured length of generated identifiers, which are created without access to the application context.
+ */
+final class IdentifierLength {
+
+    private static volatile int length = LocalIdentifier.LENGTH;
+
+    private IdentifierLength() {
+    }
+
+    static int get() {
+        return length;
+    }
+
+    static void set(int length) {
+        Assert.isTrue(length >= LocalIdentifier.LENGTH && length <= ChecksumGenerator.MAX_LENGTH,
+                "The length of identifiers has to be between %d and %d, configured: %d".formatted(LocalIdentifier.LENGTH, ChecksumGenerator.MAX_LENGTH, length));
+        IdentifierLength.length = length;
+    }
+}
@@ -3,10 +3,27 @@ package org.av360.maverick.graph.model.identifier;
 import org.eclipse.rdf4j.model.IRI;
 
 public interface LocalIdentifier extends IRI {
+    /**
+     * The default length of generated identifiers (and the length of all identifiers generated before it became configurable)
+     */
     public static int LENGTH = 8;
 
     public static char PADDING_CHAR = 'x';
 
+    /**
+     * @return the length of newly generated identifiers, configured with 'application.identifiers.length'
+     */
+    public static int length() {
+        return IdentifierLength.get();
+    }
+
+    /**
+     * @return true, if the local name has the default or the configured length
+     */
+    public static boolean hasLength(String localName) {
+        return localName.length() == LENGTH || localName.length() == length();
+    }
+
     /**
      * @param obj, the IRI to check
      * @return true, if the given resource conforms to a local identifier
@@ -14,7 +31,7 @@ public interface LocalIdentifier extends IRI {
     public static boolean is(IRI obj, String ns) {
         return (obj instanceof LocalIdentifier)
                 ||
-                (obj.getNamespace().equalsIgnoreCase(ns)) && (obj.getLocalName().length() == LENGTH);
+                (obj.getNamespace().equalsIgnoreCase(ns)) && hasLength(obj.getLocalName());
     }
 
 }
@@ -1,13 +1,11 @@
 package org.av360.maverick.graph.model.identifier;
 
 import com.google.common.hash.Hashing;
-import org.apache.commons.text.RandomStringGenerator;
 import org.av360.maverick.graph.model.rdf.LocalIRI;
 import org.eclipse.rdf4j.model.IRI;
 
 import java.nio.charset.StandardCharsets;
-import java.security.SecureRandom;
-import java.util.Base64;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * The generated entity identifier needs to resolve, it should be in the form
@@ -17,19 +15,11 @@ import java.util.Base64;
  * <p>
  * FIXME: should require the current id (either bnode or externally set) to create reproducible ids
  * FIXME: should also keep track of the original id (we should store this in the provenance)
+ * <p>
+ * The keys are drawn from the random generator of the current thread, generating them never blocks.
  */
 public class RandomIdentifier extends LocalIRI implements LocalIdentifier {
-    private static final SecureRandom secureRandom;
-    private static final RandomStringGenerator randomStringGenerator;
-    private static final char[][] range = {{'a', 'z'}, {'0', '9'}};
-
-
-    static {
-        secureRandom = new SecureRandom();
-        randomStringGenerator = new RandomStringGenerator.Builder()
-                .withinRange(range)
-                .build();
-    }
+    private static final char[] characters = "abcdefghijklmnopqrstuvwxyz0123456789".toCharArray();
 
     public RandomIdentifier(String namespace) {
         super(namespace);
@@ -45,29 +35,34 @@ public class RandomIdentifier extends LocalIRI implements LocalIdentifier {
     public static boolean is(IRI obj, String ns) {
         return (obj instanceof RandomIdentifier)
                 ||
-                (obj.getNamespace().equalsIgnoreCase(ns)) && (obj.getLocalName().length() == LENGTH);
+                (obj.getNamespace().equalsIgnoreCase(ns)) && LocalIdentifier.hasLength(obj.getLocalName());
     }
 
 
-    private String generateSecureRandom() {
-        byte[] token = new byte[LENGTH];
-        secureRandom.nextBytes(token);
-        return Base64.getUrlEncoder().withoutPadding().encodeToString(token); //base64 encoding
+    public static String generateRandomKey() {
+        return generateRandomKey(LocalIdentifier.length());
     }
 
-    public synchronized static String generateRandomKey() {
-        return randomStringGenerator.generate(LENGTH);
+    public static String generateRandomKey(int length) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        char[] key = new char[length];
+        for (int i = 0; i < length; i++) {
+            key[i] = characters[random.nextInt(characters.length)];
+        }
+        return new String(key);
     }
 
-    public synchronized static String generateRandomKey(int length) {
-        return randomStringGenerator.generate(length);
-    }
+    /**
+     * Identifiers with up to {@link LocalIdentifier#LENGTH} characters are derived from the fingerprint (as they have
+     * always been), longer ones from the wide hash of the {@link ChecksumGenerator}.
+     */
+    public static String generateDerivedIdentifier(String localName) {
+        int length = LocalIdentifier.length();
+        if (length > LENGTH) return ChecksumGenerator.generateChecksum(localName, length, PADDING_CHAR);
 
-    public synchronized static String generateDerivedIdentifier(String localName) {
         String s = Hashing.fingerprint2011().hashString(localName, StandardCharsets.UTF_8).toString();
-
-        if (s.length() < LENGTH) s = s.concat(s);
-        return s.substring(0, LENGTH);
+        if (s.length() < length) s = s.concat(s);
+        return s.substring(0, length);
     }
 
 
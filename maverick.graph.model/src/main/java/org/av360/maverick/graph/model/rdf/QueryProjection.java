@@ -0,0 +1,27 @@
+package org.av360.maverick.graph.model.rdf;
+
+import reactor.util.context.ContextView;
+
+import java.util.List;
+
+/**
+ * The variables of a select query. The rows of a result only carry their bindings, a consumer which needs the
+ * projection also for empty results (e.g. for the header of a response) puts a projection into the subscriber context.
+ * The store reports the variables when it evaluates the query.
+ */
+public class QueryProjection {
+    public static final String CONTEXT_KEY = "query.projection";
+
+    private volatile List<String> bindingNames;
+
+    public static void report(ContextView context, List<String> bindingNames) {
+        context.<QueryProjection>getOrEmpty(CONTEXT_KEY).ifPresent(projection -> projection.bindingNames = List.copyOf(bindingNames));
+    }
+
+    /**
+     * @return the variables of the query, null if the query has not been evaluated (yet)
+     */
+    public List<String> getBindingNames() {
+        return bindingNames;
+    }
+}
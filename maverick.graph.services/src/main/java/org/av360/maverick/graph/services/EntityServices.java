@@ -124,4 +124,13 @@ public interface EntityServices {
      */
     Mono<Long> count(SessionContext ctx);
 
+    /**
+     * Counts the number of fragments with the given type in the repository
+     *
+     * @param type the type, e.g. individual or classifier
+     * @param ctx
+     * @return
+     */
+    Mono<Long> count(IRI type, SessionContext ctx);
+
 }
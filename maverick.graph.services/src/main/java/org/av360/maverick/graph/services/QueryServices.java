@@ -4,6 +4,7 @@ import org.apache.commons.lang3.Validate;
 import org.av360.maverick.graph.model.context.SessionContext;
 import org.av360.maverick.graph.model.enums.RepositoryType;
 import org.av360.maverick.graph.model.rdf.AnnotatedStatement;
+import org.av360.maverick.graph.store.rdf.helpers.QueryBindings;
 import org.eclipse.rdf4j.query.BindingSet;
 import org.eclipse.rdf4j.sparqlbuilder.core.query.ConstructQuery;
 import org.eclipse.rdf4j.sparqlbuilder.core.query.SelectQuery;
@@ -23,6 +24,18 @@ public interface QueryServices {
      */
     Flux<BindingSet> queryValues(String query, RepositoryType entities, SessionContext ctx);
 
+    /**
+     * Running a select query with bound values against the repository within the repository type. The query text should
+     * not change between calls (it is parsed only once), the changing values are passed as bindings.
+     *
+     * @param query, the query
+     * @param bindings, values for variables, limit and offset
+     * @param entities, the repository to search in. Is required, since it might differ from the one in the session context.
+     * @param ctx, current cession context
+     * @return Bindings
+     */
+    Flux<BindingSet> queryValues(String query, QueryBindings bindings, RepositoryType entities, SessionContext ctx);
+
     /**
      * Running a select query against the repository within the repository type
      *
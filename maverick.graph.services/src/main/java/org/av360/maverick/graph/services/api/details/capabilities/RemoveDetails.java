@@ -15,7 +15,6 @@
 
 package org.av360.maverick.graph.services.api.details.capabilities;
 
-import com.apicatalog.jsonld.StringUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.av360.maverick.graph.model.context.SessionContext;
 import org.av360.maverick.graph.model.entities.Transaction;
@@ -24,21 +23,16 @@ import org.av360.maverick.graph.model.errors.requests.InvalidEntityUpdate;
 import org.av360.maverick.graph.model.errors.store.InvalidEntityModelException;
 import org.av360.maverick.graph.model.events.DetailRemovedEvent;
 import org.av360.maverick.graph.services.api.Api;
-import org.av360.maverick.graph.services.api.values.ValuesUtils;
 import org.av360.maverick.graph.store.rdf.fragments.RdfFragment;
 import org.av360.maverick.graph.store.rdf.fragments.RdfTransaction;
 import org.eclipse.rdf4j.model.IRI;
-import org.eclipse.rdf4j.model.Literal;
-import org.eclipse.rdf4j.model.Statement;
 import org.eclipse.rdf4j.model.Triple;
-import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.util.Values;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.Objects;
 import java.util.Optional;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 @Slf4j(topic = "graph.svc.detail.del")
 public class RemoveDetails {
@@ -49,14 +43,16 @@ public class RemoveDetails {
     }
 
 
-    public Mono<Transaction> removeAllDetails(IRI entityIdentifier, IRI predicate, String languageTag, String valueIdentifier, Transaction trx, SessionContext ctx) {
-        if(StringUtils.isNotBlank(valueIdentifier)) {
-            return removeAllDetailsUsingValueIdentifier(entityIdentifier, predicate, valueIdentifier, trx, ctx);
-        } else if (StringUtils.isNotBlank(languageTag)) {
-            return removeAllDetailsUsingLanguageTag(entityIdentifier, predicate, valueIdentifier, trx, ctx);
-        } else {
-            return removeAllDetailsWithoutQualifier(entityIdentifier, predicate, trx, ctx);
-        }
+    /**
+     * Adds the details of all values removed in the given transaction to the transaction. The details are looked up by
+     * the removed statements, which is a single lookup per value in the store (independent of how details are stored).
+     */
+    public Mono<Transaction> removeAllDetails(IRI entityIdentifier, IRI predicate, Transaction trx, SessionContext ctx) {
+        return Flux.fromIterable(trx.getRemovedStatements().filter(entityIdentifier, predicate, null))
+                .flatMap(statement -> this.api.entities().getStore().asStatementsAware().listStatements(Values.triple(statement), null, null, ctx.getEnvironment()))
+                .flatMapIterable(set -> set)
+                .collectList()
+                .map(trx::removes);
     }
 
     /**
@@ -96,33 +92,6 @@ public class RemoveDetails {
     }
 
 
-    private Mono<Transaction> removeAllDetailsWithoutQualifier(IRI entityIdentifier, IRI predicate,  Transaction trx, SessionContext ctx) {
-        return this.api.entities().getStore().asStatementsAware().listStatements(null, RDF.SUBJECT, entityIdentifier, ctx.getEnvironment()) // returns all details for all values of the current entity
-                .flatMapMany(Flux::fromIterable)
-                .filterWhen(detailsStatement -> this.api.entities().getStore().asStatementsAware().hasStatement(detailsStatement.getSubject(), RDF.PREDICATE, predicate, ctx.getEnvironment()))
-                .flatMap(detailsStatement -> this.api.entities().getStore().asStatementsAware().listStatements(detailsStatement.getSubject(), null, null, ctx.getEnvironment()))
-                .flatMapIterable(set -> set)
-                .collectList()
-                .map(trx::removes);
-    }
-
-    private Mono<Transaction> removeAllDetailsUsingValueIdentifier(IRI entityIdentifier, IRI predicate, String valueIdentifier, Transaction trx, SessionContext ctx) {
-        return this.api.entities().getStore().asStatementsAware().listStatements(null, RDF.SUBJECT, entityIdentifier, ctx.getEnvironment()) // returns all details for all values of the current entity
-                .flatMapMany(Flux::fromIterable)
-                .flatMap(detailsStatement ->
-                        this.api.entities().getStore().asStatementsAware().listStatements(detailsStatement.getSubject(), RDF.OBJECT, null, ctx.getEnvironment()) // returns only details affecting the value property (can still be multiple)
-                                .map(statements -> statements.stream()
-                                        .filter(statement -> ValuesUtils.generateHashForValue(predicate, statement.getObject()).equalsIgnoreCase(valueIdentifier))
-                                        .collect(Collectors.toSet())
-                                        .stream()
-                                        .findFirst())  // compute value identifier and compare with parameter value
-                                .map(optionalStatement -> optionalStatement.map(Statement::getSubject))
-                                .flatMap(optionalSubject -> optionalSubject.map(resource -> this.api.entities().getStore().asStatementsAware().listStatements(resource, null, null, ctx.getEnvironment())).orElseGet(() -> Mono.just(Set.of()))))
-                .flatMapIterable(set -> set)
-                .collectList()
-                .map(trx::removes);
-    }
-
     private Mono<Transaction> remove(RdfFragment entity, IRI valuePredicate, IRI detailPredicate, SessionContext ctx) {
         try {
             Optional<Triple> requestedTriple = this.api.values().read().findSingleValueTriple(entity, valuePredicate);
@@ -150,25 +119,4 @@ public class RemoveDetails {
     }
 
 
-    private Mono<Transaction> removeAllDetailsUsingLanguageTag(IRI entityIdentifier, IRI predicate, String languageTag, Transaction trx, SessionContext ctx) {
-        return this.api.entities().getStore().asStatementsAware().listStatements(null, RDF.SUBJECT, entityIdentifier, ctx.getEnvironment()) // returns all details for all values of the current entity
-                .flatMapMany(Flux::fromIterable)
-                .filterWhen(detailsStatement -> this.api.entities().getStore().asStatementsAware().hasStatement(detailsStatement.getSubject(), RDF.PREDICATE, predicate, ctx.getEnvironment()))
-                .flatMap(detailsStatement ->
-                        this.api.entities().getStore().asStatementsAware().listStatements(detailsStatement.getSubject(), RDF.OBJECT, null, ctx.getEnvironment()) // returns only details affecting the value property (can still be multiple)
-                                .map(statements -> statements.stream()
-                                        .filter(statement -> statement.getObject().isLiteral()
-                                                && ((Literal) statement.getObject()).getLanguage().isPresent()
-                                                && ((Literal) statement.getObject()).getLanguage().get().equalsIgnoreCase(languageTag)
-                                        )
-                                        .collect(Collectors.toSet())
-                                        .stream()
-                                        .findFirst())  // compute value identifier and compare with parameter value
-                                .map(optionalStatement -> optionalStatement.map(Statement::getSubject))
-                                .flatMap(optionalSubject -> optionalSubject.map(resource -> this.api.entities().getStore().asStatementsAware().listStatements(resource, null, null, ctx.getEnvironment())).orElseGet(() -> Mono.just(Set.of()))))
-                .flatMapIterable(set -> set)
-                .collectList()
-                .map(trx::removes);
-    }
-
 }
@@ -22,6 +22,7 @@ import org.av360.maverick.graph.services.api.Api;
 import org.av360.maverick.graph.store.IndividualsStore;
 import org.av360.maverick.graph.store.rdf.fragments.RdfFragment;
 import org.av360.maverick.graph.store.rdf.helpers.BindingsAccessor;
+import org.av360.maverick.graph.store.rdf.helpers.QueryBindings;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Literal;
 import org.eclipse.rdf4j.model.Resource;
@@ -43,18 +44,7 @@ import reactor.core.publisher.Mono;
 
 public class FindEntities {
 
-    private final Api api;
-    private final IndividualsStore individualsStore;
-
-    public FindEntities(Api api, IndividualsStore individualsStore) {
-        this.api = api;
-        this.individualsStore = individualsStore;
-    }
-
-    public Flux<RdfFragment> list(int limit, int offset, SessionContext ctx, String query) {
-
-        if(! StringUtils.hasLength(query)) {
-            query = """
+    private static final String LIST_QUERY = """
                         
                     PREFIX rdfs: <http://www.w3.org/2000/01/rdf-schema#>
                     PREFIX skos: <http://www.w3.org/2004/02/skos/core#>
@@ -83,10 +73,22 @@ public class FindEntities {
                     }
                     GROUP BY ?id  ?sct ?dct ?rdt ?skt
                 """;
-        }
-        query = query.replace("$limit", limit + "").replace("$offset", offset + "");
 
-        return individualsStore.asSearchable().query(query, ctx.getEnvironment())
+    private final Api api;
+    private final IndividualsStore individualsStore;
+
+    public FindEntities(Api api, IndividualsStore individualsStore) {
+        this.api = api;
+        this.individualsStore = individualsStore;
+    }
+
+    /**
+     * @param query a custom query, with the clauses <code>LIMIT $limit</code> and <code>OFFSET $offset</code>. If missing, the default query is used.
+     */
+    public Flux<RdfFragment> list(int limit, int offset, SessionContext ctx, String query) {
+        if(! StringUtils.hasLength(query)) query = LIST_QUERY;
+
+        return individualsStore.asSearchable().query(query, QueryBindings.slice(query, limit, offset), ctx.getEnvironment())
                 .map(BindingsAccessor::new)
                 .flatMap(bnd -> {
                     try {
@@ -140,4 +142,8 @@ public class FindEntities {
     public Mono<Long> count(SessionContext ctx) {
         return this.individualsStore.asFragmentable().countFragments(ctx.getEnvironment());
     }
+
+    public Mono<Long> count(IRI type, SessionContext ctx) {
+        return this.individualsStore.asFragmentable().countFragments(type, ctx.getEnvironment());
+    }
 }
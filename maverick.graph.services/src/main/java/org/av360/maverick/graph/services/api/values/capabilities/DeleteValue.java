@@ -56,7 +56,7 @@ public class DeleteValue {
     public Mono<Transaction> remove(IRI entityIdentifier, IRI predicate, String languageTag, String valueIdentifier, SessionContext ctx) {
 
         return this.removeValueStatements(entityIdentifier, predicate, languageTag, valueIdentifier, new RdfTransaction(), ctx)
-                .flatMap(trx -> api.details().removes().removeAllDetails(entityIdentifier, predicate, languageTag, valueIdentifier, trx, ctx))
+                .flatMap(trx -> api.details().removes().removeAllDetails(entityIdentifier, predicate, trx, ctx))
                 .flatMap(trx -> api.entities().getStore().asCommitable().commit(trx, ctx.getEnvironment()))
                 //.flatMap(trx -> ser.entityServices.getStore(ctx).asCommitable().commit(trx, ctx.getEnvironment()))
                 .doOnSuccess(trx -> {
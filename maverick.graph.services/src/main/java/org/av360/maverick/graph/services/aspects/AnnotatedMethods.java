@@ -0,0 +1,68 @@
+package org.av360.maverick.graph.services.aspects;
+
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.av360.maverick.graph.model.context.SessionContext;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Resolves the annotation value and the position of the session context once per method, instead of reading them by
+ * reflection for every call of an advised method.
+ */
+final class AnnotatedMethods<A extends Annotation, V> {
+
+    private final Class<A> annotationType;
+    private final Function<A, V> value;
+    private final Map<Method, Metadata<V>> methods = new ConcurrentHashMap<>();
+
+    AnnotatedMethods(Class<A> annotationType, Function<A, V> value) {
+        this.annotationType = annotationType;
+        this.value = value;
+    }
+
+    Metadata<V> get(JoinPoint joinPoint) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        return this.methods.computeIfAbsent(method, this::resolve);
+    }
+
+    private Metadata<V> resolve(Method method) {
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        int sessionContextIndex = -1;
+        for (int i = 0; i < parameterTypes.length; i++) {
+            if (SessionContext.class.isAssignableFrom(parameterTypes[i])) {
+                sessionContextIndex = i;
+                break;
+            }
+        }
+
+        A annotation = method.getAnnotation(this.annotationType);
+        return new Metadata<>(annotation == null ? null : this.value.apply(annotation), sessionContextIndex);
+    }
+
+    /**
+     * @param value               the value of the annotation (null, if the method is not annotated)
+     * @param sessionContextIndex the position of the session context in the parameters (negative if no parameter is declared as one)
+     */
+    record Metadata<V>(V value, int sessionContextIndex) {
+
+        /**
+         * Falls back to searching all arguments, if the session context is passed as a parameter of another type.
+         */
+        Optional<SessionContext> sessionContext(Object[] args) {
+            if (this.sessionContextIndex >= 0 && args[this.sessionContextIndex] instanceof SessionContext ctx) {
+                return Optional.of(ctx);
+            }
+
+            for (Object arg : args) {
+                if (arg instanceof SessionContext ctx) return Optional.of(ctx);
+            }
+            return Optional.empty();
+        }
+    }
+}
@@ -4,7 +4,6 @@ import org.apache.commons.lang3.StringUtils;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
-import org.aspectj.lang.reflect.MethodSignature;
 import org.av360.maverick.graph.model.annotations.RequiresPrivilege;
 import org.av360.maverick.graph.model.context.SessionContext;
 import org.av360.maverick.graph.model.errors.InsufficientPrivilegeException;
@@ -14,8 +13,6 @@ import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
 
-import java.util.Arrays;
-import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -23,18 +20,19 @@ import java.util.stream.Collectors;
 @Component
 public class AuthorizesRequiredPrivilege {
 
+    private final AnnotatedMethods<RequiresPrivilege, String> methods = new AnnotatedMethods<>(RequiresPrivilege.class, RequiresPrivilege::value);
 
     @Around("@annotation(org.av360.maverick.graph.model.annotations.RequiresPrivilege)")
     public Object authorize(ProceedingJoinPoint joinPoint) throws Throwable {
+        AnnotatedMethods.Metadata<String> method = this.methods.get(joinPoint);
+        SessionContext ctx = method.sessionContext(joinPoint.getArgs())
+                .orElseThrow(() -> new IllegalArgumentException("Missing Session Context while running authorization"));
 
-        Optional<SessionContext> sessionContextOptional = Arrays.stream(joinPoint.getArgs()).filter(o -> o instanceof SessionContext).findFirst().map(obk -> (SessionContext) obk);
-        if(sessionContextOptional.isEmpty()) throw new IllegalArgumentException("Missing Session Context while running authorization");
-        SessionContext ctx = sessionContextOptional.get();
-
-
-        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
-        String requiredAuthority = signature.getMethod().getAnnotation(RequiresPrivilege.class).value();
+        this.authorize(ctx, method.value());
+        return joinPoint.proceed();
+    }
 
+    void authorize(SessionContext ctx, String requiredAuthority) {
         if (StringUtils.isEmpty(requiredAuthority)) {
             ctx.withAuthorization(new AuthorizationDecision(false));
             throw new UnsupportedOperationException("Missing required authority while access a repository.");
@@ -58,8 +56,6 @@ public class AuthorizesRequiredPrivilege {
             ctx.withAuthorization(new AuthorizationDecision(false));
             throw new UnsupportedOperationException("Missing required authentication in session context for authorization .");
         }
-
-        return joinPoint.proceed();
     }
 
 
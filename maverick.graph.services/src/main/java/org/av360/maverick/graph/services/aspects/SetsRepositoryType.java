@@ -18,7 +18,6 @@ package org.av360.maverick.graph.services.aspects;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
-import org.aspectj.lang.reflect.MethodSignature;
 import org.av360.maverick.graph.model.annotations.OnRepositoryType;
 import org.av360.maverick.graph.model.context.Environment;
 import org.av360.maverick.graph.model.context.SessionContext;
@@ -27,9 +26,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
-import java.util.Arrays;
 import java.util.Objects;
-import java.util.Optional;
 
 @Aspect
 @Component
@@ -64,17 +61,19 @@ public class SetsRepositoryType {
     @Value("${application.storage.system.persistent:false}")
     boolean system_persistence;
 
+    private final AnnotatedMethods<OnRepositoryType, RepositoryType> methods = new AnnotatedMethods<>(OnRepositoryType.class, OnRepositoryType::value);
+
     @Around("@annotation(org.av360.maverick.graph.model.annotations.OnRepositoryType)")
     public Object addRepositoryTypeToEnvironment(ProceedingJoinPoint joinPoint) throws Throwable {
+        AnnotatedMethods.Metadata<RepositoryType> method = this.methods.get(joinPoint);
+        SessionContext ctx = method.sessionContext(joinPoint.getArgs())
+                .orElseThrow(() -> new IllegalArgumentException("Missing Session Context while resolving environment"));
 
-        Optional<SessionContext> sessionContextOptional = Arrays.stream(joinPoint.getArgs()).filter(o -> o instanceof SessionContext).findFirst().map(obk -> (SessionContext) obk);
-        if(sessionContextOptional.isEmpty()) throw new IllegalArgumentException("Missing Session Context while resolving environment");
-        SessionContext ctx = sessionContextOptional.get();
-
-
-        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
-        RepositoryType onRepositoryType = signature.getMethod().getAnnotation(OnRepositoryType.class).value();
+        this.setRepositoryType(ctx, method.value());
+        return joinPoint.proceed();
+    }
 
+    void setRepositoryType(SessionContext ctx, RepositoryType onRepositoryType) {
         if (Objects.isNull(onRepositoryType)) {
             throw new UnsupportedOperationException("Missing target repository type while accessing a repository.");
         }
@@ -87,8 +86,6 @@ public class SetsRepositoryType {
 
         // add default configurations
         this.setDefaultConfigurations(ctx.getEnvironment());
-
-        return joinPoint.proceed();
     }
 
     private void setDefaultConfigurations(Environment environment) {
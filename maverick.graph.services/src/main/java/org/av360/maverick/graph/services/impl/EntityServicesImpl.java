@@ -177,6 +177,13 @@ public class EntityServicesImpl implements EntityServices {
        return api.entities().find().count(ctx);
     }
 
+    @Override
+    @RequiresPrivilege(Authorities.READER_VALUE)
+    @OnRepositoryType(RepositoryType.ENTITIES)
+    public Mono<Long> count(IRI type, SessionContext ctx) {
+        return api.entities().find().count(type, ctx);
+    }
+
 
     @Override
     @RequiresPrivilege(Authorities.MAINTAINER_VALUE)
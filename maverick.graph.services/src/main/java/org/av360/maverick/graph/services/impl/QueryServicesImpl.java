@@ -9,8 +9,9 @@ import org.av360.maverick.graph.model.rdf.AnnotatedStatement;
 import org.av360.maverick.graph.model.security.Authorities;
 import org.av360.maverick.graph.services.QueryServices;
 import org.av360.maverick.graph.store.FragmentsStore;
+import org.av360.maverick.graph.store.rdf.helpers.ParsedQueryCache;
+import org.av360.maverick.graph.store.rdf.helpers.QueryBindings;
 import org.eclipse.rdf4j.query.BindingSet;
-import org.eclipse.rdf4j.query.QueryLanguage;
 import org.eclipse.rdf4j.query.parser.*;
 import org.eclipse.rdf4j.sparqlbuilder.core.query.ConstructQuery;
 import org.eclipse.rdf4j.sparqlbuilder.core.query.SelectQuery;
@@ -29,9 +30,9 @@ import java.util.Set;
 public class QueryServicesImpl implements QueryServices {
 
     private final Map<RepositoryType, FragmentsStore> stores;
-    private final QueryParser queryParser;
+    private final ParsedQueryCache parsedQueryCache;
 
-    public QueryServicesImpl(Set<FragmentsStore> storesSet) {
+    public QueryServicesImpl(Set<FragmentsStore> storesSet, ParsedQueryCache parsedQueryCache) {
         this.stores = new HashMap<>();
 
         storesSet.forEach(store -> {
@@ -40,18 +41,24 @@ public class QueryServicesImpl implements QueryServices {
             }
         });
 
-        queryParser = QueryParserUtil.createParser(QueryLanguage.SPARQL);
+        this.parsedQueryCache = parsedQueryCache;
     }
 
 
     @Override
     @RequiresPrivilege(Authorities.CONTRIBUTOR_VALUE)
     public Flux<BindingSet> queryValues(String query, RepositoryType repositoryType, SessionContext ctx) {
+        return this.queryValues(query, QueryBindings.NONE, repositoryType, ctx);
+    }
+
+    @Override
+    @RequiresPrivilege(Authorities.CONTRIBUTOR_VALUE)
+    public Flux<BindingSet> queryValues(String query, QueryBindings bindings, RepositoryType repositoryType, SessionContext ctx) {
         try {
             ctx.getEnvironment().withRepositoryType(repositoryType);
-            ParsedQuery parsedQuery = queryParser.parseQuery(query, null);
+            ParsedOperation parsedQuery = parsedQueryCache.parse(query);
             if(parsedQuery instanceof  ParsedTupleQuery) {
-                return this.queryValuesTrusted(query, repositoryType, ctx);
+                return this.queryValuesTrusted(query, bindings, repositoryType, ctx);
             } else throw new InvalidQuery(query);
         } catch (Exception | InvalidQuery e) {
             return Flux.error(e);
@@ -68,7 +75,7 @@ public class QueryServicesImpl implements QueryServices {
     @RequiresPrivilege(Authorities.READER_VALUE)
     public Flux<AnnotatedStatement> queryGraph(String queryStr, RepositoryType repositoryType, SessionContext ctx) {
         try {
-            ParsedQuery parsedQuery = queryParser.parseQuery(queryStr, null);
+            ParsedOperation parsedQuery = parsedQueryCache.parse(queryStr);
             if(parsedQuery instanceof ParsedGraphQuery) {
                 return this.queryGraphTrusted(queryStr, repositoryType, ctx);
             } else throw new InvalidQuery(queryStr);
@@ -82,8 +89,8 @@ public class QueryServicesImpl implements QueryServices {
     public Mono<Void> update(String query, RepositoryType repositoryType, SessionContext ctx) {
         try {
             ctx.getEnvironment().withRepositoryType(repositoryType);
-            ParsedUpdate parsedQuery = QueryParserUtil.parseUpdate(QueryLanguage.SPARQL, query, null);
-            if(parsedQuery != null) {
+            ParsedOperation parsedQuery = parsedQueryCache.parse(query);
+            if(parsedQuery instanceof ParsedUpdate) {
                 return this.updateTrusted(query, repositoryType, ctx);
             } else throw new InvalidQuery(query);
         } catch (Exception | InvalidQuery e) {
@@ -134,10 +141,14 @@ public class QueryServicesImpl implements QueryServices {
 
     @Override
     public Flux<BindingSet> queryValuesTrusted(String query, RepositoryType repositoryType, SessionContext ctx) {
+        return this.queryValuesTrusted(query, QueryBindings.NONE, repositoryType, ctx);
+    }
+
+    private Flux<BindingSet> queryValuesTrusted(String query, QueryBindings bindings, RepositoryType repositoryType, SessionContext ctx) {
         try {
             if(Objects.isNull(ctx.getEnvironment().getRepositoryType())) ctx.updateEnvironment(env -> env.setRepositoryType(repositoryType));
 
-            return this.stores.get(repositoryType).asSearchable().query(query, ctx.getEnvironment())
+            return this.stores.get(repositoryType).asSearchable().query(query, bindings, ctx.getEnvironment())
                     .doOnSubscribe(subscription -> {
                         if (log.isTraceEnabled())
                             log.trace("Running select query in [{}]: {}", ctx.getEnvironment(), query.replace('\n', ' ').trim());
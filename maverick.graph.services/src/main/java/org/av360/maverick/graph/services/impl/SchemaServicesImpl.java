@@ -3,7 +3,6 @@ package org.av360.maverick.graph.services.impl;
 import lombok.extern.slf4j.Slf4j;
 import org.av360.maverick.graph.model.errors.requests.UnknownPrefix;
 import org.av360.maverick.graph.model.rdf.LocalIRI;
-import org.av360.maverick.graph.model.vocabulary.*;
 import org.av360.maverick.graph.services.SchemaServices;
 import org.av360.maverick.graph.store.SchemaStore;
 import org.eclipse.rdf4j.model.IRI;
@@ -18,8 +17,16 @@ import reactor.core.publisher.Mono;
 public class SchemaServicesImpl implements SchemaServices {
     private final SchemaStore schemaStore;
 
+    /**
+     * The classification only depends on the supported vocabularies (not on the statements in the schema repository),
+     * the index is built once.
+     */
+    private final VocabularyIndex vocabularies;
+
     public SchemaServicesImpl(SchemaStore schemaStore) {
         this.schemaStore = schemaStore;
+        this.vocabularies = VocabularyIndex.build();
+        log.debug("Indexed {} terms of the supported vocabularies", this.vocabularies.size());
     }
 
     @Override
@@ -44,50 +51,22 @@ public class SchemaServicesImpl implements SchemaServices {
 
     @Override
     public boolean isIndividualType(IRI iri) {
-        boolean res =
-                SDO.getIndividualTypes().contains(iri)
-                        || SCHEMA.getIndividualTypes().contains(iri)
-                        || RDFS.getIndividualTypes().contains(iri)
-                        || DC.getIndividualTypes().contains(iri)
-                        || DCTERMS.getIndividualTypes().contains(iri)
-                        || SKOS.getIndividualTypes().contains(iri)
-                        || ICAL.getIndividualTypes().contains(iri)
-                        || ESCO.getIndividualTypes().contains(iri)
-                        || FOAF.getIndividualTypes().contains(iri)
-                ;
-        return res;
-
+        return this.vocabularies.is(iri, VocabularyIndex.Classification.INDIVIDUAL_TYPE);
     }
 
     @Override
     public boolean isClassifierType(IRI iri) {
-        return
-                SDO.getClassifierTypes().contains(iri)
-                        || SCHEMA.getClassifierTypes().contains(iri)
-                        || RDFS.getClassifierTypes().contains(iri)
-                        || DC.getClassifierTypes().contains(iri)
-                        || DCTERMS.getClassifierTypes().contains(iri)
-                        || SKOS.getClassifierTypes().contains(iri)
-                        || SKOSXL.getClassifierTypes().contains(iri)
-                        || ICAL.getClassifierTypes().contains(iri)
-                        || ESCO.getClassifierTypes().contains(iri)
-                        || FOAF.getClassifierTypes().contains(iri)
-                ;
+        return this.vocabularies.is(iri, VocabularyIndex.Classification.CLASSIFIER_TYPE);
     }
 
     @Override
     public boolean isCharacteristicProperty(IRI iri) {
-        return
-                SDO.getCharacteristicProperties().contains(iri)
-                        || SCHEMA.getCharacteristicProperties().contains(iri)
-                        || RDFS.getCharacteristicProperties().contains(iri)
-                        || DC.getCharacteristicProperties().contains(iri)
-                        || DCTERMS.getCharacteristicProperties().contains(iri)
-                        || SKOS.getCharacteristicProperties().contains(iri)
-                        || ICAL.getCharacteristicProperties().contains(iri)
-                        || ESCO.getCharacteristicProperties().contains(iri)
-                        || FOAF.getCharacteristicProperties().contains(iri)
-        ;
+        return this.vocabularies.is(iri, VocabularyIndex.Classification.CHARACTERISTIC_PROPERTY);
+    }
+
+    @Override
+    public boolean isPotentialCharacteristicProperty(IRI iri) {
+        return this.vocabularies.isNamingProperty(iri);
     }
 
     @Deprecated(forRemoval = true)
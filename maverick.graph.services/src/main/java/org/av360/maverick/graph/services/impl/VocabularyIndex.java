@@ -0,0 +1,82 @@
+package org.av360.maverick.graph.services.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.av360.maverick.graph.model.vocabulary.*;
+import org.eclipse.rdf4j.model.IRI;
+
+import java.util.*;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Immutable index of the terms in the supported vocabularies by their classification, a term is classified with a
+ * single lookup (instead of checking the sets of all vocabularies).
+ * <p>
+ * Properties with a local name hinting at a characteristic property (e.g. "id" or "code") are matched once per property,
+ * the result is memoized.
+ */
+public final class VocabularyIndex {
+
+    public enum Classification {
+        INDIVIDUAL_TYPE,
+        CLASSIFIER_TYPE,
+        CHARACTERISTIC_PROPERTY
+    }
+
+    private static final Pattern NAMING_PROPERTY = Pattern.compile("(?i).*(id|key|code).*");
+
+    private final Map<IRI, Set<Classification>> index;
+    private final Cache<IRI, Boolean> namingProperties;
+
+    private VocabularyIndex(Map<IRI, Set<Classification>> index) {
+        this.index = index;
+        this.namingProperties = Caffeine.newBuilder().maximumSize(10000).build();
+    }
+
+    public static VocabularyIndex build() {
+        Map<IRI, EnumSet<Classification>> index = new HashMap<>();
+
+        Stream.of(SDO.getIndividualTypes(), SCHEMA.getIndividualTypes(), RDFS.getIndividualTypes(), DC.getIndividualTypes(),
+                        DCTERMS.getIndividualTypes(), SKOS.getIndividualTypes(), ICAL.getIndividualTypes(), ESCO.getIndividualTypes(),
+                        FOAF.getIndividualTypes())
+                .flatMap(Set::stream)
+                .forEach(iri -> add(index, iri, Classification.INDIVIDUAL_TYPE));
+
+        Stream.of(SDO.getClassifierTypes(), SCHEMA.getClassifierTypes(), RDFS.getClassifierTypes(), DC.getClassifierTypes(),
+                        DCTERMS.getClassifierTypes(), SKOS.getClassifierTypes(), SKOSXL.getClassifierTypes(), ICAL.getClassifierTypes(),
+                        ESCO.getClassifierTypes(), FOAF.getClassifierTypes())
+                .flatMap(Set::stream)
+                .forEach(iri -> add(index, iri, Classification.CLASSIFIER_TYPE));
+
+        Stream.of(SDO.getCharacteristicProperties(), SCHEMA.getCharacteristicProperties(), RDFS.getCharacteristicProperties(),
+                        DC.getCharacteristicProperties(), DCTERMS.getCharacteristicProperties(), SKOS.getCharacteristicProperties(),
+                        ICAL.getCharacteristicProperties(), ESCO.getCharacteristicProperties(), FOAF.getCharacteristicProperties())
+                .flatMap(Set::stream)
+                .forEach(iri -> add(index, iri, Classification.CHARACTERISTIC_PROPERTY));
+
+        Map<IRI, Set<Classification>> immutable = new HashMap<>();
+        index.forEach((iri, classifications) -> immutable.put(iri, Collections.unmodifiableSet(classifications)));
+        return new VocabularyIndex(Map.copyOf(immutable));
+    }
+
+    public boolean is(IRI iri, Classification classification) {
+        Set<Classification> classifications = this.index.get(iri);
+        return classifications != null && classifications.contains(classification);
+    }
+
+    /**
+     * @return true, if the local name of the property hints at a characteristic property (e.g. an identifier or code)
+     */
+    public boolean isNamingProperty(IRI iri) {
+        return this.namingProperties.get(iri, property -> NAMING_PROPERTY.matcher(property.getLocalName()).matches());
+    }
+
+    public int size() {
+        return this.index.size();
+    }
+
+    private static void add(Map<IRI, EnumSet<Classification>> index, IRI iri, Classification classification) {
+        index.computeIfAbsent(iri, i -> EnumSet.noneOf(Classification.class)).add(classification);
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2024.
+ *
+ *  Licensed under the EUPL, Version 1.2 or – as soon they will be approved by the
+ *  European Commission - subsequent versions of the EUPL (the "Licence");
+ *
+ *  You may not use this work except in compliance with the Licence.
+ *  You may obtain a copy of the Licence at:
+ *
+ *  https://joinup.ec.europa.eu/software/page/eupl5
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the Licence is distributed on an "AS IS" basis,  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the Licence for the specific language governing permissions and limitations under the Licence.
+ *
+ */
+
+package org.av360.maverick.graph.services.postprocessors;
+
+import jakarta.annotation.Nullable;
+import org.av360.maverick.graph.model.entities.Transaction;
+import org.av360.maverick.graph.model.vocabulary.meg.Local;
+import org.av360.maverick.graph.model.vocabulary.meg.Transactions;
+import org.eclipse.rdf4j.model.*;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.model.util.Values;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.query.QueryResults;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Lookups shared by the transaction enrichers, on the statements added by a transaction and the state in the store.
+ */
+final class Enrichments {
+
+    private Enrichments() {
+    }
+
+    /**
+     * @return the statements inserted or updated by the transaction
+     */
+    static Model additions(Transaction transaction) {
+        Model additions = new LinkedHashModel(transaction.getInsertedStatements());
+        additions.addAll(transaction.getModel(Transactions.GRAPH_UPDATED));
+        return additions;
+    }
+
+    /**
+     * @return true, if the resource is an individual or classifier in the store
+     */
+    static boolean isStoredEntity(Resource resource, RepositoryConnection connection) {
+        return connection.hasStatement(resource, RDF.TYPE, Local.Entities.TYPE_INDIVIDUAL, false)
+                || connection.hasStatement(resource, RDF.TYPE, Local.Entities.TYPE_CLASSIFIER, false);
+    }
+
+    /**
+     * @return true, if the resource is an individual or classifier in the store or in the given statements
+     */
+    static boolean isEntity(Resource resource, Model additions, RepositoryConnection connection) {
+        return additions.contains(resource, RDF.TYPE, Local.Entities.TYPE_INDIVIDUAL)
+                || additions.contains(resource, RDF.TYPE, Local.Entities.TYPE_CLASSIFIER)
+                || isStoredEntity(resource, connection);
+    }
+
+    /**
+     * @return the matching statements in the store (without the inferred ones)
+     */
+    static List<Statement> stored(Resource subject, @Nullable IRI predicate, @Nullable Value object, RepositoryConnection connection) {
+        return QueryResults.asList(connection.getStatements(subject, predicate, object, false));
+    }
+
+    static Value now() {
+        return Values.literal(ZonedDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.SECONDS).format(DateTimeFormatter.ISO_OFFSET_DATE_TIME));
+    }
+}
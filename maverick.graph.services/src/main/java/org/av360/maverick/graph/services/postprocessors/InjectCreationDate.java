@@ -16,64 +16,39 @@
 package org.av360.maverick.graph.services.postprocessors;
 
 import lombok.extern.slf4j.Slf4j;
-import org.av360.maverick.graph.model.context.Environment;
-import org.av360.maverick.graph.model.events.EntityCreatedEvent;
+import org.av360.maverick.graph.model.entities.Transaction;
 import org.av360.maverick.graph.model.vocabulary.meg.Metadata;
-import org.av360.maverick.graph.services.EntityServices;
-import org.av360.maverick.graph.store.IndividualsStore;
-import org.av360.maverick.graph.store.rdf.fragments.RdfTransaction;
-import org.eclipse.rdf4j.model.Resource;
-import org.eclipse.rdf4j.model.util.Values;
-import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
+import org.av360.maverick.graph.store.TransactionEnricher;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.util.Statements;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
 import org.springframework.stereotype.Component;
-import reactor.core.publisher.Flux;
-import reactor.core.publisher.Mono;
-
-import java.time.ZoneOffset;
-import java.time.ZonedDateTime;
-import java.time.format.DateTimeFormatter;
-import java.time.temporal.ChronoUnit;
 
+import java.util.List;
 
+/**
+ * Sets the creation date of entities created with the transaction (if not yet present).
+ */
 @Component
 @Slf4j
-public class InjectCreationDate {
-
-    private final IndividualsStore entityStore;
-
-    public InjectCreationDate(EntityServices entityServices, IndividualsStore entityStore) {
-        this.entityStore = entityStore;
-
-    }
-
-    @Async
-    @EventListener
-    void handleEntitiesCreatedForInjectCreateDate(EntityCreatedEvent event) {
-        Flux.fromIterable(event.listInsertedFragmentSubjects())
-                .flatMap(iri -> handleEntityCreated(iri, event.getEnvironment()))
-                .doOnSubscribe(subscription -> log.info("Postprocessing: Injecting creation date (if not yet present)"))
-                .subscribe();
-    }
-
-    Mono<Void> handleEntityCreated(Resource entityIdentifier, Environment environment) {
-        return this.entityStore.asFragmentable().getFragment(entityIdentifier, environment)
-                .filter(rdfFragment -> rdfFragment.isIndividual() || rdfFragment.isClassifier())
-                .filter(rdfFragment -> !rdfFragment.hasStatement(rdfFragment.getIdentifier(), Metadata.CREATED, null))
-                .flatMap(rdfFragment -> {
-                    String date = ZonedDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.SECONDS).format(DateTimeFormatter.ISO_OFFSET_DATE_TIME);
-                    log.info("Postprocessing: Setting creation date to {}", date);
-                    return this.entityStore.asCommitable().commit(
-
-                            new RdfTransaction().inserts(
-                                    rdfFragment.getIdentifier(),
-                                    Metadata.CREATED,
-                                    Values.literal(date)
-                            ),
-                            environment
-                    );
-                })
-                .then();
-
+public class InjectCreationDate implements TransactionEnricher {
+
+    @Override
+    public void enrich(Transaction transaction, RepositoryConnection connection) {
+        Model inserted = transaction.getInsertedStatements();
+
+        List<Statement> creationDates = inserted.filter(null, RDF.TYPE, null).subjects().stream()
+                .filter(subject -> !inserted.contains(subject, Metadata.CREATED, null))
+                .filter(subject -> Enrichments.isEntity(subject, inserted, connection))
+                .filter(subject -> !connection.hasStatement(subject, Metadata.CREATED, null, false))
+                .map(subject -> Statements.statement(subject, Metadata.CREATED, Enrichments.now(), null))
+                .toList();
+
+        if (!creationDates.isEmpty()) {
+            log.debug("Enriching: Setting creation date of {} entities to {}", creationDates.size(), creationDates.get(0).getObject().stringValue());
+            transaction.inserts(creationDates);
+        }
     }
 }
@@ -16,112 +16,106 @@
 package org.av360.maverick.graph.services.postprocessors;
 
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.tuple.Pair;
-import org.av360.maverick.graph.model.context.Environment;
 import org.av360.maverick.graph.model.entities.Transaction;
-import org.av360.maverick.graph.model.events.EntityCreatedEvent;
-import org.av360.maverick.graph.model.events.EntityUpdatedEvent;
 import org.av360.maverick.graph.model.vocabulary.meg.Local;
-import org.av360.maverick.graph.store.IndividualsStore;
-import org.av360.maverick.graph.store.rdf.fragments.RdfFragment;
-import org.av360.maverick.graph.store.rdf.fragments.RdfTransaction;
+import org.av360.maverick.graph.model.vocabulary.meg.Transactions;
+import org.av360.maverick.graph.store.TransactionEnricher;
 import org.eclipse.rdf4j.model.*;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
 import org.eclipse.rdf4j.model.vocabulary.RDF;
 import org.eclipse.rdf4j.model.vocabulary.XSD;
-import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
 import org.springframework.stereotype.Component;
-import reactor.core.publisher.Flux;
-import reactor.core.publisher.Mono;
 
 import javax.xml.datatype.XMLGregorianCalendar;
 import java.util.*;
 import java.util.stream.Collectors;
 
+/**
+ * Removes embedded objects of an entity, which duplicate another embedded object of the same entity (all values are
+ * equal), if the entity gets new statements with the transaction.
+ */
 @Component
 @Slf4j
-public class MergeDuplicateEmbeddedObjects {
-
-    private final IndividualsStore entityStore;
+public class MergeDuplicateEmbeddedObjects implements TransactionEnricher {
 
-    public MergeDuplicateEmbeddedObjects(IndividualsStore entityStore) {
-        this.entityStore = entityStore;
-    }
+    @Override
+    public void enrich(Transaction transaction, RepositoryConnection connection) {
+        Model additions = Enrichments.additions(transaction);
+        Model removals = transaction.getRemovedStatements();
 
-    @Async
-    @EventListener
-    void handleEntitiesUpdatedForDuplicateMerge(EntityUpdatedEvent event) {
-        Flux.fromIterable(event.listUpdatedEntityIdentifiers())
-                .flatMap(iri -> handleEntityCreated(iri, event.getEnvironment()))
-                .doOnSubscribe(subscription -> log.debug("Postprocessing: Merge duplicate embedded objects"))
-                .subscribe();
+        additions.subjects().stream()
+                .filter(subject -> Enrichments.isEntity(subject, additions, connection))
+                .toList()
+                .forEach(entityIdentifier -> this.handleEntity(entityIdentifier, transaction, additions, removals, connection));
     }
 
-    @Async
-    @EventListener
-    void handleEntitiesCreatedForDuplicateMerge(EntityCreatedEvent event) {
-        Flux.fromIterable(event.listInsertedFragmentSubjects())
-                .flatMap(iri -> handleEntityCreated(iri, event.getEnvironment()))
-                .doOnSubscribe(subscription -> log.debug("Postprocessing: Merge duplicate embedded objects"))
-                .subscribe();
-    }
+    /* Fetches all embedded objects of the entity (as they are after the transaction) and removes the duplicates */
+    private void handleEntity(Resource entityIdentifier, Transaction transaction, Model additions, Model removals, RepositoryConnection connection) {
+        Map<IRI, Map<IRI, Set<ComparableValue>>> embeds = new LinkedHashMap<>();
+        for (Statement statement : this.statements(entityIdentifier, additions, removals, connection)) {
+            if (!(statement.getObject() instanceof IRI embedIri) || embeds.containsKey(embedIri)) continue;
+
+            Model embedded = this.statements(embedIri, additions, removals, connection);
+            if (!embedded.contains(embedIri, RDF.TYPE, Local.Entities.TYPE_EMBEDDED)) continue;
+
+            Map<IRI, Set<ComparableValue>> values = embedded.stream()
+                    .collect(Collectors.groupingBy(Statement::getPredicate,
+                            Collectors.mapping(
+                                    embeddedStatement -> new ComparableValue(embeddedStatement.getObject()),
+                                    Collectors.toSet())));
+            embeds.put(embedIri, values);
+        }
 
+        Set<IRI> duplicates = this.findDuplicates(embeds);
+        if (duplicates.isEmpty()) return;
 
-    /* collects the fragment for the created entity from store and forwards it */
-    Mono<Void> handleEntityCreated(Resource entityIdentifier, Environment environment) {
-        return this.entityStore.asFragmentable().getFragment(entityIdentifier, environment)
-                .filter(rdfFragment -> rdfFragment.isIndividual() || rdfFragment.isClassifier())
-                .flatMap(rdfFragment -> handleFragment(entityIdentifier, rdfFragment, environment))
-                .then();
+        log.debug("Enriching: Removing {} duplicate embedded objects of entity '{}'", duplicates.size(), entityIdentifier);
+        List<Statement> statementsToRemove = new ArrayList<>();
+        duplicates.forEach(iri -> {
+            statementsToRemove.addAll(this.statements(iri, additions, removals, connection));
+            statementsToRemove.addAll(this.statements(entityIdentifier, additions, removals, connection).filter(entityIdentifier, null, iri));
+        });
+        this.remove(statementsToRemove, transaction, connection);
+    }
 
+    /* the statements about the resource, as they are after the transaction has been written */
+    private Model statements(Resource subject, Model additions, Model removals, RepositoryConnection connection) {
+        Model result = new LinkedHashModel(Enrichments.stored(subject, null, null, connection));
+        result.removeAll(removals.filter(subject, null, null));
+        result.addAll(additions.filter(subject, null, null));
+        return result;
     }
 
-    /* Fetches all embedded objects in the current fragment and forwards it */
-    private Mono<Void> handleFragment(Resource entityIdentifier, RdfFragment rdfFragment, Environment environment) {
-        return Flux.fromStream(rdfFragment.streamStatements(entityIdentifier, null, null))
-                .filter(statement -> statement.getObject().isIRI() && rdfFragment.hasStatement((IRI) statement.getObject(), RDF.TYPE, Local.Entities.TYPE_EMBEDDED))
-                .map(statement -> (IRI) statement.getObject())
-                .map(embedIri -> {
-                            Map<IRI, Set<ComparableValue>> values = rdfFragment.listStatements(embedIri, null, null)
-                                    .stream()
-                                    .collect(Collectors.groupingBy(Statement::getPredicate,
-                                            Collectors.mapping(
-                                                    statement -> new ComparableValue(statement.getObject()),
-                                                    Collectors.toSet())));
-                            return Pair.of(embedIri, values);
-                        }
-
-                )
-                .collectList()
-                .flatMap(list -> findDuplicates(list, entityIdentifier, rdfFragment, environment))
-                .then();
-        //.flatMap(embedsIdentifiers -> )
+    /* statements added by the transaction are dropped from it, stored statements are removed with it */
+    private void remove(List<Statement> statements, Transaction transaction, RepositoryConnection connection) {
+        List<Statement> stored = new ArrayList<>();
+        for (Statement statement : statements) {
+            transaction.getModel().remove(statement.getSubject(), statement.getPredicate(), statement.getObject(), Transactions.GRAPH_CREATED, Transactions.GRAPH_UPDATED);
+            if (connection.hasStatement(statement, false)) stored.add(statement);
+        }
+        if (!stored.isEmpty()) transaction.removes(stored);
     }
 
-    /* identifies duplicate embeds in the list and forwards them
-    * Pair<IRI, Map<IRI, List<Value>>> -> Pair< Subject, Map< Predicate, List<Value>>>
-    * */
-    private Mono<Void> findDuplicates(List<Pair<IRI, Map<IRI, Set<ComparableValue>>>> pairs, Resource entityIdentifier, RdfFragment rdfFragment, Environment environment) {
+    /* identifies duplicate embeds
+     * Map<IRI, Map<IRI, Set<Value>>> -> Map< Subject, Map< Predicate, Set<Value>>>
+     * */
+    private Set<IRI> findDuplicates(Map<IRI, Map<IRI, Set<ComparableValue>>> embeds) {
         Set<IRI> duplicates = new HashSet<>();
         Set<IRI> locked = new HashSet<>();
-        pairs.forEach(pair -> {
-            pairs.forEach(candidate -> {
-                if(pair.getKey().equals(candidate.getKey())) return;
-
-                if(isEqual(candidate.getValue(), pair.getValue())) {
-                    if(! locked.contains(candidate.getKey())) {
-                        duplicates.add(candidate.getKey());
-                        locked.add(pair.getKey());
+        embeds.forEach((embedIri, values) -> {
+            embeds.forEach((candidateIri, candidateValues) -> {
+                if(embedIri.equals(candidateIri)) return;
+
+                if(isEqual(candidateValues, values)) {
+                    if(! locked.contains(candidateIri)) {
+                        duplicates.add(candidateIri);
+                        locked.add(embedIri);
                     }
                 }
             });
         });
-
-        if(duplicates.isEmpty()) {
-            return Mono.empty();
-        } else {
-            return this.deleteDuplicates(duplicates, entityIdentifier, rdfFragment, environment);
-        }
+        return duplicates;
     }
 
     private boolean isEqual(Map<IRI, Set<ComparableValue>> left, Map<IRI, Set<ComparableValue>> right) {
@@ -153,23 +147,6 @@ public class MergeDuplicateEmbeddedObjects {
         return leftValues.equals(rightValues);
     }
 
-    /* collects all statements from the fragment where the iris are the subject and deletes them */
-    private Mono<Void> deleteDuplicates(Set<IRI> duplicates, Resource entityIdentifier, RdfFragment rdfFragment, Environment environment) {
-        List<Statement> statementsToRemove = duplicates.stream()
-                .flatMap(iri -> rdfFragment.listStatements(iri, null, null).stream())
-                .toList();
-        List<Statement> linkingStatementsToRemove = duplicates.stream()
-                .flatMap(iri -> rdfFragment.listStatements(entityIdentifier, null, iri).stream())
-                .toList();
-
-        Transaction trx = new RdfTransaction()
-                .removes(statementsToRemove)
-                .removes(linkingStatementsToRemove);
-
-        return this.entityStore.asCommitable().commit(trx, environment)
-                .then();
-    }
-
     private class ComparableValue {
         private final Value value;
 
@@ -181,7 +158,8 @@ public class MergeDuplicateEmbeddedObjects {
             if (this == o) return true;
             if (!(o instanceof ComparableValue ov)) return false;
 
-            if(value.getClass() != ov.value.getClass()) return false;
+            // compares the kind of value, stored and new values are of different classes
+            if(value.isIRI() != ov.value.isIRI() || value.isBNode() != ov.value.isBNode() || value.isTriple() != ov.value.isTriple() || value.isLiteral() != ov.value.isLiteral()) return false;
             if(value.isIRI() || value.isBNode() || value.isTriple() || value.isResource()) {
                 return value.stringValue().equals(ov.value.stringValue());
             }
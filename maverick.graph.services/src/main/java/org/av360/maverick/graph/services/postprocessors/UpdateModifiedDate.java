@@ -15,62 +15,46 @@
 
 package org.av360.maverick.graph.services.postprocessors;
 
-import org.av360.maverick.graph.model.context.Environment;
-import org.av360.maverick.graph.model.events.EntityUpdatedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.av360.maverick.graph.model.entities.Transaction;
 import org.av360.maverick.graph.model.vocabulary.meg.Metadata;
-import org.av360.maverick.graph.store.IndividualsStore;
-import org.av360.maverick.graph.store.rdf.fragments.RdfTransaction;
+import org.av360.maverick.graph.store.TransactionEnricher;
+import org.eclipse.rdf4j.model.Model;
 import org.eclipse.rdf4j.model.Resource;
-import org.eclipse.rdf4j.model.util.Values;
-import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.util.Statements;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
 import org.springframework.stereotype.Component;
-import reactor.core.publisher.Flux;
-import reactor.core.publisher.Mono;
 
-import java.time.ZoneOffset;
-import java.time.ZonedDateTime;
-import java.time.format.DateTimeFormatter;
-import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
+/**
+ * Replaces the modification date of existing entities, which get new statements with the transaction.
+ */
 @Component
-public class UpdateModifiedDate {
-    private final IndividualsStore entityStore;
-
-    public UpdateModifiedDate(IndividualsStore entityStore) {
-        this.entityStore = entityStore;
-    }
-
-    @Async
-    @EventListener
-    void handleEntitiesCreated(EntityUpdatedEvent event) {
-        Flux.fromIterable(event.listUpdatedEntityIdentifiers())
-                .flatMap(iri -> handleEntityUpdated(iri, event.getEnvironment()))
-                .subscribe();
-    }
-
-    Mono<Void> handleEntityUpdated(Resource entityIdentifier, Environment environment) {
-        return this.entityStore.asFragmentable().getFragment(entityIdentifier, environment)
-                .filter(rdfFragment -> rdfFragment.isIndividual() || rdfFragment.isClassifier())
-                .flatMap(rdfFragment -> {
-                        RdfTransaction trx = new RdfTransaction();
-
-                        // remove old modified date statements
-                        rdfFragment.streamStatements(rdfFragment.getIdentifier(), Metadata.MODIFIED, null)
-                                .forEach(trx::removes);
-
-                        // insert current date as last modification date
-                        trx.inserts(
-                                rdfFragment.getIdentifier(),
-                                Metadata.MODIFIED,
-                                Values.literal(ZonedDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.SECONDS).format(DateTimeFormatter.ISO_OFFSET_DATE_TIME))
-                        );
-
-                        return this.entityStore.asCommitable().commit(
-                                trx,
-                                environment
-                        );
-                }).then();
-
+@Slf4j
+public class UpdateModifiedDate implements TransactionEnricher {
+
+    @Override
+    public void enrich(Transaction transaction, RepositoryConnection connection) {
+        Model inserted = transaction.getInsertedStatements();
+
+        Set<Resource> modified = inserted.subjects().stream()
+                .filter(subject -> !inserted.contains(subject, Metadata.MODIFIED, null))
+                .filter(subject -> Enrichments.isStoredEntity(subject, connection))
+                .collect(Collectors.toSet());
+        if (modified.isEmpty()) return;
+
+        Value date = Enrichments.now();
+        List<Statement> previousDates = modified.stream()
+                .flatMap(subject -> Enrichments.stored(subject, Metadata.MODIFIED, null, connection).stream())
+                .toList();
+
+        log.debug("Enriching: Setting modification date of {} entities to {}", modified.size(), date.stringValue());
+        if (!previousDates.isEmpty()) transaction.removes(previousDates);
+        transaction.inserts(modified.stream().map(subject -> Statements.statement(subject, Metadata.MODIFIED, date, null)).toList());
     }
 }
@@ -12,7 +12,7 @@
  *  Unless required by applicable law or agreed to in writing, software distributed under the Licence is distributed on an "AS IS" basis,  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the Licence for the specific language governing permissions and limitations under the Licence.
  *
  *
- *  A collection of listeners, which perform reconciliation tasks.
+ *  A collection of transaction enrichers, which perform reconciliation tasks within the transaction being committed.
  */
 
 package org.av360.maverick.graph.services.postprocessors;
\ No newline at end of file
@@ -2,28 +2,58 @@ package org.av360.maverick.graph.services.preprocessors;
 
 import lombok.extern.slf4j.Slf4j;
 import org.av360.maverick.graph.model.context.Environment;
+import org.av360.maverick.graph.model.errors.InvalidRequest;
 import org.av360.maverick.graph.services.EntityServices;
 import org.av360.maverick.graph.services.IdentifierServices;
 import org.av360.maverick.graph.services.QueryServices;
 import org.av360.maverick.graph.services.SchemaServices;
 import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
-import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.*;
 
+/**
+ * Runs all registered preprocessors (ordered by {@link ModelPreprocessor#getOrder()}) over a single copy of the incoming
+ * model, which is indexed by subject, predicate and object. The preprocessors modify this copy in place.
+ * <p>
+ * Consecutive {@link SubjectPreprocessor}s are fused into one pass over the subjects, all of them handle a
+ * subject before the next subject is handled. Only assigning the local types and checking the required types are fused,
+ * the other preprocessors still run their own pass over the (shared) model: replacing anonymous or external identifiers
+ * generates the identifiers asynchronously and rewrites every statement referring to a replaced identifier, and merging
+ * duplicates compares entities across subjects (and with the repository).
+ */
 @Component
 @Slf4j(topic = "graph.srvc.transformers.delegator")
 public class DelegatingPreprocessor implements ModelPreprocessor {
 
     private Set<ModelPreprocessor> transformers;
 
+    /**
+     * The preprocessors grouped into passes over the model
+     */
+    private List<List<ModelPreprocessor>> passes;
+
     @Autowired(required = false)
     public void setRegisteredBeans(List<ModelPreprocessor> transformers) {
         this.transformers = new TreeSet<>(Comparator.comparingInt(ModelPreprocessor::getOrder));
         this.transformers.addAll(transformers);
+
+        this.passes = new ArrayList<>();
+        List<ModelPreprocessor> current = null;
+        for (ModelPreprocessor transformer : this.transformers) {
+            if (transformer instanceof SubjectPreprocessor && Objects.nonNull(current) && current.get(0) instanceof SubjectPreprocessor) {
+                current.add(transformer);
+            } else {
+                current = new ArrayList<>(List.of(transformer));
+                this.passes.add(current);
+            }
+        }
+        log.debug("Running {} preprocessors in {} passes: {}", this.transformers.size(), this.passes.size(),
+                this.passes.stream().map(pass -> pass.stream().map(transformer -> transformer.getClass().getSimpleName()).toList()).toList());
     }
 
 
@@ -66,8 +96,29 @@ public class DelegatingPreprocessor implements ModelPreprocessor {
             return Mono.just(triples);
         }
 
-        return Flux.fromIterable(transformers)
-                .reduce(Mono.just(triples), (modelMono, transformer) -> modelMono.map(model -> transformer.handle(model, parameters, environment))
-                        .flatMap(mono -> mono)).flatMap(mono -> mono);
+        Mono<Model> result = Mono.just(new LinkedHashModel(triples));
+        for (List<ModelPreprocessor> pass : this.passes) {
+            result = result.flatMap(model -> this.handlePass(pass, model, parameters, environment));
+        }
+        return result;
+    }
+
+    private Mono<Model> handlePass(List<ModelPreprocessor> pass, Model model, Map<String, String> parameters, Environment environment) {
+        if (!(pass.get(0) instanceof SubjectPreprocessor)) {
+            return pass.get(0).handle(model, parameters, environment).map(handled -> (Model) handled);
+        }
+
+        return Mono.defer(() -> {
+            try {
+                for (Resource subject : List.copyOf(model.subjects())) {
+                    for (ModelPreprocessor transformer : pass) {
+                        ((SubjectPreprocessor) transformer).handleSubject(subject, model, parameters, environment);
+                    }
+                }
+                return Mono.just(model);
+            } catch (InvalidRequest e) {
+                return Mono.error(e);
+            }
+        });
     }
 }
@@ -11,7 +11,8 @@ import reactor.core.publisher.Mono;
 import java.util.Map;
 
 /**
- * Preprocessing steps before committing the statements to the graph.
+ * Preprocessing steps before committing the statements to the graph. Preprocessors which only need to see one subject
+ * at a time implement {@link SubjectPreprocessor}.
  */
 public interface ModelPreprocessor {
 
@@ -0,0 +1,23 @@
+package org.av360.maverick.graph.services.preprocessors;
+
+import org.av360.maverick.graph.model.context.Environment;
+import org.av360.maverick.graph.model.errors.InvalidRequest;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Resource;
+
+import java.util.Map;
+
+/**
+ * Preprocessor which only needs to see the statements of one subject at a time. Consecutive subject preprocessors are
+ * run together in a single pass over the subjects (see {@link DelegatingPreprocessor}).
+ * <p>
+ * Handling a subject is synchronous and may only change the statements of this subject (or add new ones), preprocessors
+ * which resolve values asynchronously or rewrite statements of other subjects remain a {@link ModelPreprocessor}.
+ */
+public interface SubjectPreprocessor extends ModelPreprocessor {
+
+    /**
+     * Handles the statements of the given subject, the model is modified in place.
+     */
+    void handleSubject(Resource subject, Model model, Map<String, String> parameters, Environment environment) throws InvalidRequest;
+}
@@ -1,7 +1,6 @@
 package org.av360.maverick.graph.services.preprocessors.mergeDuplicates;
 
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.tuple.Triple;
 import org.av360.maverick.graph.model.context.Environment;
 import org.av360.maverick.graph.model.identifier.ChecksumIdentifier;
 import org.av360.maverick.graph.services.preprocessors.ModelPreprocessor;
@@ -9,7 +8,6 @@ import org.eclipse.rdf4j.model.Model;
 import org.eclipse.rdf4j.model.Resource;
 import org.eclipse.rdf4j.model.Statement;
 import org.eclipse.rdf4j.model.Value;
-import org.eclipse.rdf4j.model.impl.LinkedHashModel;
 import org.eclipse.rdf4j.model.vocabulary.RDF;
 import org.eclipse.rdf4j.model.vocabulary.RDFS;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -51,6 +49,12 @@ public class MergeDuplicates implements ModelPreprocessor {
     private record ResolvedDuplicate(LocalEntity duplicate, Value origin) {
     }
 
+    /**
+     * Anonymous entities with the same type and label are duplicates
+     */
+    private record Signature(Value type, Value label) {
+    }
+
 
     @Override
     public Mono<? extends Model> handle(Model model, Map<String, String> parameters, Environment environment) {
@@ -80,16 +84,17 @@ public class MergeDuplicates implements ModelPreprocessor {
                 .anyMatch(object -> object.isIRI() && (!(object instanceof ChecksumIdentifier)));
     }
 
+    /**
+     * @return the subjects of the first statement (other than a type definition) linking to each object in the model
+     */
     private Set<Resource> referencedResourcesInModel(Model model) {
         Set<Resource> result = new HashSet<>();
-        model.unmodifiable().objects().forEach(object -> {
-                    model.stream()
-                            .filter(statement -> statement.getObject().equals(object))
-                            .filter(statement -> !statement.getPredicate().equals(RDF.TYPE))
-                            .findFirst()
-                            .ifPresent(statement -> result.add(statement.getSubject()));
-                }
-        );
+        Set<Value> objects = new HashSet<>();
+        for (Statement statement : model) {
+            if (!statement.getPredicate().equals(RDF.TYPE) && objects.add(statement.getObject())) {
+                result.add(statement.getSubject());
+            }
+        }
         return result;
     }
 
@@ -116,13 +121,14 @@ public class MergeDuplicates implements ModelPreprocessor {
      * Scenario: Request contains multiple entities, each with share embedded and anonymous entities
      * <p>
      * If duplicates exist in the model, they are converged (the duplicate is removed)
+     * <p>
+     * The anonymous entities are grouped by their signature (type and label) in a single pass, rerouting a duplicate
+     * only looks up the statements about and linking to it.
      *
      * @param triples
      */
     public Mono<Model> mergeDuplicatedWithinModel(Model triples) {
 
-        Model unmodifiable = new LinkedHashModel(triples).unmodifiable();
-
         /*
             if ?obj <> ?anon
             and ?anon RDFS.label ?label
@@ -131,44 +137,41 @@ public class MergeDuplicates implements ModelPreprocessor {
 
          */
 
-        Set<Resource> anonymousObjects = unmodifiable.objects().stream()
+        Set<Resource> anonymousObjects = triples.objects().stream()
                 .filter(Value::isResource)
                 .filter(this::isResourceAnonymous)
                 .map(value -> (Resource) value)
                 .collect(Collectors.toSet());
 
-
-        // stores triple: identifier, type, label
-        Set<Triple<Resource, Value, Value>> foundTypeAndLabel = new HashSet<>();
-
-        int count = 0;
+        // the signatures are taken from the model before rerouting any duplicate
+        Map<Resource, Signature> signatures = new LinkedHashMap<>();
         for (Resource anonymous : anonymousObjects) {
-            Iterator<Statement> typeStatement = unmodifiable.getStatements(anonymous, RDF.TYPE, null).iterator();
+            Iterator<Statement> typeStatement = triples.getStatements(anonymous, RDF.TYPE, null).iterator();
             if (!typeStatement.hasNext()) {
                 log.error("Missing type definition for node with id: "+anonymous);
                 continue;
             }
             Value typeValue = typeStatement.next().getObject();
 
-            Iterator<Statement> labelStatement = unmodifiable.getStatements(anonymous, RDFS.LABEL, null).iterator();
+            Iterator<Statement> labelStatement = triples.getStatements(anonymous, RDFS.LABEL, null).iterator();
             if (!labelStatement.hasNext()) continue;
             Value labelValue = labelStatement.next().getObject();
 
+            signatures.put(anonymous, new Signature(typeValue, labelValue));
+        }
 
-            Triple<Resource, Value, Value> possibleDuplicate = Triple.of(anonymous, typeValue, labelValue);
-            Optional<Triple<Resource, Value, Value>> original = foundTypeAndLabel.stream()
-                    .filter(triple -> triple.getMiddle().equals(possibleDuplicate.getMiddle()) && triple.getRight().equals(possibleDuplicate.getRight())).findAny();
+        // the first anonymous entity with a signature is the origin for all others sharing it
+        Map<Signature, Resource> origins = new HashMap<>();
+        int count = 0;
+        for (Map.Entry<Resource, Signature> entry : signatures.entrySet()) {
+            Resource original = origins.putIfAbsent(entry.getValue(), entry.getKey());
 
-            if (original.isPresent()) {
+            if (Objects.nonNull(original)) {
                 log.debug("Duplicate '{}'  with shared type '{}' and label '{}' identified, removing it and rerouting all links to origin '{}' ",
-                        possibleDuplicate.getLeft(), possibleDuplicate.getMiddle().stringValue(), possibleDuplicate.getRight().stringValue(),
-                        original.get().getLeft());
-                this.reroute(triples, possibleDuplicate.getLeft(), original.get().getLeft());
+                        entry.getKey(), entry.getValue().type().stringValue(), entry.getValue().label().stringValue(), original);
+                this.reroute(triples, entry.getKey(), original);
                 count++;
-            } else {
-                foundTypeAndLabel.add(possibleDuplicate);
             }
-
         }
         if(count == 0 && log.isTraceEnabled()) {
             log.trace("{} anonymous embedded entities merged in model with {} statements", count, triples.size());
@@ -183,13 +186,14 @@ public class MergeDuplicates implements ModelPreprocessor {
 
     public void reroute(Model triples, Resource duplicateIdentifier, Resource originalIdentifier) {
 
-        Model unmodifiable = new LinkedHashModel(triples).unmodifiable();
+        List<Statement> statements = List.copyOf(triples.filter(duplicateIdentifier, null, null));
+        List<Statement> links = List.copyOf(triples.filter(null, null, duplicateIdentifier));
 
         // remove all statement from the possibleDuplicate (since we keep the original)
-        unmodifiable.getStatements(duplicateIdentifier, null, null).forEach(triples::remove);
+        statements.forEach(triples::remove);
 
         // change link to from possibleDuplicate to original
-        unmodifiable.getStatements(null, null, duplicateIdentifier).forEach(statement -> {
+        links.forEach(statement -> {
             triples.remove(statement);
             triples.add(statement.getSubject(), statement.getPredicate(), originalIdentifier);
         });
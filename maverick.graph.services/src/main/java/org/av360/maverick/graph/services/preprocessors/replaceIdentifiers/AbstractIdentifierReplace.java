@@ -2,11 +2,12 @@ package org.av360.maverick.graph.services.preprocessors.replaceIdentifiers;
 
 import org.eclipse.rdf4j.model.Model;
 import org.eclipse.rdf4j.model.Resource;
-import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.model.Statement;
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
 import org.eclipse.rdf4j.model.vocabulary.OWL;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
 import java.util.Set;
 
 
@@ -16,31 +17,27 @@ public class AbstractIdentifierReplace  {
 
     public record IdentifierMapping(Resource oldIdentifier, Resource newIdentifier) {}
 
+    /**
+     * Replaces the identifiers in place, first as subjects and then as objects. The model is looked up by the old
+     * identifiers, replaced statements are appended to the model.
+     */
     protected Mono<Set<IdentifierMapping>> replaceIdentifiers(Set<IdentifierMapping> mappings, Model model) {
-        Model res = new LinkedHashModel(model);
-
         mappings.forEach(mapping -> {
-            model.filter(mapping.oldIdentifier, null, null)
-                    .forEach(statement -> {
-                        res.remove(statement);
-                        res.add(mapping.newIdentifier(), statement.getPredicate(), statement.getObject());
-                    });
+            List<Statement> statements = List.copyOf(model.filter(mapping.oldIdentifier, null, null));
+            statements.forEach(statement -> {
+                model.remove(statement);
+                model.add(mapping.newIdentifier(), statement.getPredicate(), statement.getObject());
+            });
         });
 
-        model.clear();
-        model.addAll(res);
-
         mappings.forEach(mapping -> {
-            model.filter(null, null, mapping.oldIdentifier)
-                    .forEach(statement -> {
-                        res.remove(statement);
-                        res.add(statement.getSubject(), statement.getPredicate(), mapping.newIdentifier());
-                    });
+            List<Statement> statements = List.copyOf(model.filter(null, null, mapping.oldIdentifier));
+            statements.forEach(statement -> {
+                model.remove(statement);
+                model.add(statement.getSubject(), statement.getPredicate(), mapping.newIdentifier());
+            });
         });
 
-        model.clear();
-        model.addAll(res);
-
         return Mono.just(mappings);
     }
 
@@ -4,17 +4,16 @@ import lombok.extern.slf4j.Slf4j;
 import org.av360.maverick.graph.model.context.Environment;
 import org.av360.maverick.graph.model.vocabulary.meg.Local;
 import org.av360.maverick.graph.services.SchemaServices;
-import org.av360.maverick.graph.services.preprocessors.ModelPreprocessor;
+import org.av360.maverick.graph.services.preprocessors.SubjectPreprocessor;
 import org.eclipse.rdf4j.model.*;
 import org.eclipse.rdf4j.model.impl.LinkedHashModel;
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
 import org.eclipse.rdf4j.model.vocabulary.RDF;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
-import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.stream.StreamSupport;
@@ -22,7 +21,7 @@ import java.util.stream.StreamSupport;
 @Slf4j(topic = "graph.srvc.trans.types")
 @Component
 @ConditionalOnProperty(name = "application.features.transformers.typeCoercion", havingValue = "true")
-public class AssignLocalTypes implements ModelPreprocessor {
+public class AssignLocalTypes implements SubjectPreprocessor {
 
 
     private SchemaServices schemaServices;
@@ -43,37 +42,22 @@ public class AssignLocalTypes implements ModelPreprocessor {
     @Override
     public Mono<? extends Model> handle(Model model, Map<String, String> parameters, Environment environment) {
         Model result = new LinkedHashModel(model);
-
-        return Flux.fromIterable(Collections.unmodifiableSet(model.subjects()))
-                .filter(sub -> ! sub.isTriple())
-                .filter(sub -> assignIndividualsType(sub, model, result))
-                .filter(sub -> assignClassifierType(sub, model, result))
-                .filter(sub -> assignCompositeType(sub, model, result))
-                .doOnNext(sub -> {
-                    log.warn("Subject with the following statements could not be identified for local type: \n {}", model.stream().toList());
-                })
-                .then(Mono.just(result));
-                //.doOnSubscribe(c -> log.trace("Checking if internal types have to be added."))
-                //.doFinally(signalType -> log.trace("Finished checks for internal types."));
-    }
-
-
-
-    private boolean assignCompositeType(Resource subject, Model fragment, Model model) {
-        Optional<Statement> statement = this.handleEmbedded(subject, fragment);
-        return statement.map(model::add).isEmpty();
+        for (Resource subject : List.copyOf(result.subjects())) {
+            this.handleSubject(subject, result, parameters, environment);
+        }
+        return Mono.just(result);
     }
 
+    @Override
+    public void handleSubject(Resource subject, Model model, Map<String, String> parameters, Environment environment) {
+        if (subject.isTriple()) return;
 
-    private boolean assignIndividualsType(Resource subject, Model source, Model model) {
-        Optional<Statement> statement = this.handleIndividual(subject, source);
-        return statement.map(model::add).isEmpty();
+        this.handleIndividual(subject, model)
+                .or(() -> this.handleClassifier(subject, model))
+                .or(() -> this.handleEmbedded(subject, model))
+                .ifPresentOrElse(model::add, () -> log.warn("Subject with the following statements could not be identified for local type: \n {}", model.filter(subject, null, null).stream().toList()));
     }
 
-    private boolean assignClassifierType(Resource subject, Model fragment, Model model) {
-        Optional<Statement> statement = this.handleClassifier(subject, fragment);
-        return statement.map(model::add).isEmpty();
-    }
 
     private Optional<Statement> handleEmbedded(Resource subject, Model fragment) {
         // Check 1: check if subject is an object
@@ -93,15 +77,13 @@ public class AssignLocalTypes implements ModelPreprocessor {
 
 
         // Check 1: check if this fragment has a type definition known to be an individual
-        boolean hasIndividualsType = hasIndividualsType(subject, fragment);
-
         // Check 2: check if this fragment has at least one known characteristic y (but is not a classifier)
-        boolean hasCharacteristicProperty = hasKnownCharacteristicProperty(subject, fragment) && ! hasClassifierType(subject, fragment);
-
         // Check 3: check if this fragment has a property matching a specific pattern (denoting a characteristic property)
-        boolean hasNamingProperty = hasPotentialCharacteristicProperty(subject, fragment) && ! hasClassifierType(subject, fragment);
+        // (evaluated lazily, a subject is only checked for classifier types if required)
+        boolean isIndividual = hasIndividualsType(subject, fragment)
+                || ((hasKnownCharacteristicProperty(subject, fragment) || hasPotentialCharacteristicProperty(subject, fragment)) && ! hasClassifierType(subject, fragment));
 
-        if (hasIndividualsType || hasCharacteristicProperty || hasNamingProperty) {
+        if (isIndividual) {
             Statement statement = valueFactory.createStatement(subject, RDF.TYPE, Local.Entities.TYPE_INDIVIDUAL);
             log.trace("Fragment for subject '{}' typed as Individual.", subject);
             return Optional.of(statement);
@@ -127,11 +109,11 @@ public class AssignLocalTypes implements ModelPreprocessor {
     }
 
     private boolean hasPotentialCharacteristicProperty(Resource subject, Model fragment) {
-        return fragment.filter(subject, null, null).predicates().stream().anyMatch(iri -> iri.getLocalName().matches("(?i).*(id|key|code).*"));
+        return fragment.filter(subject, null, null).predicates().stream().anyMatch(this.schemaServices::isPotentialCharacteristicProperty);
     }
 
     private boolean hasClassifierType(Resource subject, Model fragment) {
-        return StreamSupport.stream(fragment.getStatements(subject, RDF.TYPE, null).spliterator(), true)
+        return StreamSupport.stream(fragment.getStatements(subject, RDF.TYPE, null).spliterator(), false)
                 .map(Statement::getObject)
                 .filter(Value::isIRI)
                 .map(value -> (IRI) value)
@@ -139,7 +121,7 @@ public class AssignLocalTypes implements ModelPreprocessor {
     }
 
     private boolean hasTypeDefinition(Resource subject, Model fragment) {
-        return StreamSupport.stream(fragment.getStatements(subject, RDF.TYPE, null).spliterator(), true)
+        return StreamSupport.stream(fragment.getStatements(subject, RDF.TYPE, null).spliterator(), false)
                 .map(Statement::getObject)
                 .filter(Value::isIRI)
                 .map(value -> (IRI) value)
@@ -148,7 +130,7 @@ public class AssignLocalTypes implements ModelPreprocessor {
     }
 
     private boolean hasIndividualsType(Resource subject, Model fragment) {
-        return StreamSupport.stream(fragment.getStatements(subject, RDF.TYPE, null).spliterator(), true)
+        return StreamSupport.stream(fragment.getStatements(subject, RDF.TYPE, null).spliterator(), false)
                 .map(Statement::getObject)
                 .filter(Value::isIRI)
                 .map(value -> (IRI) value)
@@ -156,7 +138,7 @@ public class AssignLocalTypes implements ModelPreprocessor {
     }
 
     private boolean hasKnownCharacteristicProperty(Resource subject, Model fragment) {
-        return StreamSupport.stream(fragment.getStatements(subject, null, null).spliterator(), true)
+        return StreamSupport.stream(fragment.getStatements(subject, null, null).spliterator(), false)
                 .map(Statement::getPredicate)
                 .filter(Value::isIRI)
                 .anyMatch(this.schemaServices::isCharacteristicProperty);
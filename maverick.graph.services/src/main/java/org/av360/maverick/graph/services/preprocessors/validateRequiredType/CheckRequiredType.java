@@ -19,7 +19,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.av360.maverick.graph.model.context.Environment;
 import org.av360.maverick.graph.model.errors.runtime.MissingType;
 import org.av360.maverick.graph.model.vocabulary.meg.Local;
-import org.av360.maverick.graph.services.preprocessors.ModelPreprocessor;
+import org.av360.maverick.graph.services.preprocessors.SubjectPreprocessor;
 import org.eclipse.rdf4j.model.Model;
 import org.eclipse.rdf4j.model.Resource;
 import org.eclipse.rdf4j.model.Value;
@@ -34,7 +34,7 @@ import java.util.Set;
 @Slf4j(topic = "graph.srvc.validator.type")
 @Component
 @ConditionalOnProperty(name = "application.features.validators.checkRequiredType", havingValue = "true")
-public class CheckRequiredType implements ModelPreprocessor {
+public class CheckRequiredType implements SubjectPreprocessor {
 
 
     @Override
@@ -46,27 +46,33 @@ public class CheckRequiredType implements ModelPreprocessor {
     public Mono<? extends Model> handle(Model model, Map<String, String> parameters, Environment environment) {
         log.trace("Checking if type is defined");
 
-
-        for (Resource subj : model.subjects()) {
-            /* we only require type definitions for individuals and classifiers */
-            Set<Value> types = model.filter(subj, RDF.TYPE, null).objects();
-
-            if (types.size() == 0) {
-                log.warn("The fragment with subject [{}] is missing a type definition.", subj);
-                return Mono.error(new MissingType(subj));
+        try {
+            for (Resource subj : model.subjects()) {
+                this.handleSubject(subj, model, parameters, environment);
             }
+            return Mono.just(model);
+        } catch (MissingType e) {
+            return Mono.error(e);
+        }
+    }
 
-            if (types.contains(Local.Entities.TYPE_INDIVIDUAL) && types.size() < 2) {
-                log.warn("The individual with subject [{}] is missing a type definition.", subj);
-                return Mono.error(new MissingType(subj));
-            }
-            if (types.contains(Local.Entities.TYPE_CLASSIFIER) && types.size() < 2) {
-                log.warn("The individual with subject [{}] is missing a type definition.", subj);
-                return Mono.error(new MissingType(subj));
-            }
+    @Override
+    public void handleSubject(Resource subj, Model model, Map<String, String> parameters, Environment environment) throws MissingType {
+        /* we only require type definitions for individuals and classifiers */
+        Set<Value> types = model.filter(subj, RDF.TYPE, null).objects();
 
+        if (types.size() == 0) {
+            log.warn("The fragment with subject [{}] is missing a type definition.", subj);
+            throw new MissingType(subj);
+        }
 
+        if (types.contains(Local.Entities.TYPE_INDIVIDUAL) && types.size() < 2) {
+            log.warn("The individual with subject [{}] is missing a type definition.", subj);
+            throw new MissingType(subj);
+        }
+        if (types.contains(Local.Entities.TYPE_CLASSIFIER) && types.size() < 2) {
+            log.warn("The individual with subject [{}] is missing a type definition.", subj);
+            throw new MissingType(subj);
         }
-        return Mono.just(model);
     }
 }
@@ -0,0 +1,131 @@
+package org.av360.maverick.graph.services.aspects;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.av360.maverick.graph.model.annotations.OnRepositoryType;
+import org.av360.maverick.graph.model.annotations.RequiresPrivilege;
+import org.av360.maverick.graph.model.context.SessionContext;
+import org.av360.maverick.graph.model.enums.RepositoryType;
+import org.av360.maverick.graph.model.security.Authorities;
+import org.av360.maverick.graph.tests.config.TestSecurityConfig;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Measures the overhead per call of the service aspects, with the annotation metadata read by reflection on every call
+ * (as before) and resolved once per method.
+ */
+@Tag("benchmark")
+public class AspectOverheadBenchmark {
+
+    private static final int CALLS = 2_000_000;
+    private static final int ITERATIONS = 3;
+
+    @Test
+    public void compareAspects() {
+        SessionContext ctx = TestSecurityConfig.createTestContext();
+
+        AuthorizesRequiredPrivilege authorization = new AuthorizesRequiredPrivilege();
+        SetsRepositoryType repositoryType = new SetsRepositoryType();
+        Service plain = new Service();
+        Service reflective = proxy(new ReflectiveAuthorization(authorization), new ReflectiveRepositoryType(repositoryType));
+        Service cached = proxy(authorization, repositoryType);
+
+        System.out.printf("%-12s %14s %14s%n", "aspects", "ns/call", "overhead (ns)");
+        double baseline = this.measure(plain, ctx);
+        System.out.printf("%-12s %14.1f %14s%n", "none", baseline, "-");
+        double before = this.measure(reflective, ctx);
+        System.out.printf("%-12s %14.1f %14.1f%n", "reflective", before, before - baseline);
+        double after = this.measure(cached, ctx);
+        System.out.printf("%-12s %14.1f %14.1f%n", "cached", after, after - baseline);
+
+        assertEquals(RepositoryType.SCHEMA, ctx.getEnvironment().getRepositoryType());
+    }
+
+    @Test
+    public void keepsErrors() {
+        Service cached = proxy(new AuthorizesRequiredPrivilege(), new SetsRepositoryType());
+        assertThrows(IllegalArgumentException.class, () -> cached.read("key", null));
+        assertThrows(UnsupportedOperationException.class, () -> cached.read("key", new SessionContext()));
+    }
+
+    private double measure(Service service, SessionContext ctx) {
+        double best = Double.MAX_VALUE;
+        for (int i = 0; i < ITERATIONS; i++) {
+            long length = 0;
+            long start = System.nanoTime();
+            for (int call = 0; call < CALLS; call++) {
+                length += service.read("key", ctx).length();
+            }
+            best = Math.min(best, (System.nanoTime() - start) / (double) CALLS);
+            assertEquals(3L * CALLS, length);
+        }
+        return best;
+    }
+
+    private static Service proxy(Object... aspects) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(new Service());
+        factory.setProxyTargetClass(true);
+        for (Object aspect : aspects) factory.addAspect(aspect);
+        return factory.getProxy();
+    }
+
+    public static class Service {
+
+        @RequiresPrivilege(Authorities.READER_VALUE)
+        @OnRepositoryType(RepositoryType.SCHEMA)
+        public String read(String key, SessionContext ctx) {
+            return key;
+        }
+    }
+
+    /**
+     * Reads the annotation and searches the session context for every call, as the aspects did before.
+     */
+    @Aspect
+    public static class ReflectiveAuthorization {
+        private final AuthorizesRequiredPrivilege delegate;
+
+        ReflectiveAuthorization(AuthorizesRequiredPrivilege delegate) {
+            this.delegate = delegate;
+        }
+
+        @Around("@annotation(org.av360.maverick.graph.model.annotations.RequiresPrivilege)")
+        public Object authorize(ProceedingJoinPoint joinPoint) throws Throwable {
+            Optional<SessionContext> sessionContextOptional = Arrays.stream(joinPoint.getArgs()).filter(o -> o instanceof SessionContext).findFirst().map(obk -> (SessionContext) obk);
+            if (sessionContextOptional.isEmpty()) throw new IllegalArgumentException("Missing Session Context while running authorization");
+
+            MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+            this.delegate.authorize(sessionContextOptional.get(), signature.getMethod().getAnnotation(RequiresPrivilege.class).value());
+            return joinPoint.proceed();
+        }
+    }
+
+    @Aspect
+    public static class ReflectiveRepositoryType {
+        private final SetsRepositoryType delegate;
+
+        ReflectiveRepositoryType(SetsRepositoryType delegate) {
+            this.delegate = delegate;
+        }
+
+        @Around("@annotation(org.av360.maverick.graph.model.annotations.OnRepositoryType)")
+        public Object addRepositoryTypeToEnvironment(ProceedingJoinPoint joinPoint) throws Throwable {
+            Optional<SessionContext> sessionContextOptional = Arrays.stream(joinPoint.getArgs()).filter(o -> o instanceof SessionContext).findFirst().map(obk -> (SessionContext) obk);
+            if (sessionContextOptional.isEmpty()) throw new IllegalArgumentException("Missing Session Context while resolving environment");
+
+            MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+            this.delegate.setRepositoryType(sessionContextOptional.get(), signature.getMethod().getAnnotation(OnRepositoryType.class).value());
+            return joinPoint.proceed();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package org.av360.maverick.graph.services.impl;
+
+import org.av360.maverick.graph.model.vocabulary.SDO;
+import org.av360.maverick.graph.model.vocabulary.SKOS;
+import org.av360.maverick.graph.model.vocabulary.SKOSXL;
+import org.eclipse.rdf4j.model.util.Values;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VocabularyIndexTest {
+
+    private final VocabularyIndex index = VocabularyIndex.build();
+
+    @Test
+    void classifiesTerms() {
+        assertTrue(index.is(SDO.PERSON, VocabularyIndex.Classification.INDIVIDUAL_TYPE));
+        assertFalse(index.is(SDO.PERSON, VocabularyIndex.Classification.CLASSIFIER_TYPE));
+        assertTrue(index.is(SDO.DEFINED_TERM, VocabularyIndex.Classification.CLASSIFIER_TYPE));
+        assertTrue(index.is(SKOS.PREF_LABEL, VocabularyIndex.Classification.CHARACTERISTIC_PROPERTY));
+        assertTrue(index.is(Values.iri(SDO.NAMESPACE, "name"), VocabularyIndex.Classification.CHARACTERISTIC_PROPERTY));
+
+        // skos-xl only contributes classifier types
+        assertTrue(index.is(SKOSXL.LABEL, VocabularyIndex.Classification.CLASSIFIER_TYPE));
+        assertFalse(index.is(SKOSXL.PREF_LABEL, VocabularyIndex.Classification.CHARACTERISTIC_PROPERTY));
+
+        assertFalse(index.is(Values.iri("http://example.org/Unknown"), VocabularyIndex.Classification.INDIVIDUAL_TYPE));
+    }
+
+    @Test
+    void matchesNamingProperties() {
+        assertTrue(index.isNamingProperty(Values.iri("http://example.org/productCode")));
+        assertTrue(index.isNamingProperty(Values.iri("http://example.org/ID")));
+        assertTrue(index.isNamingProperty(SDO.IDENTIFIER));
+        assertFalse(index.isNamingProperty(Values.iri("http://example.org/description")));
+    }
+}
@@ -0,0 +1,130 @@
+package org.av360.maverick.graph.services.postprocessors;
+
+import org.av360.maverick.graph.model.entities.Transaction;
+import org.av360.maverick.graph.model.vocabulary.meg.Local;
+import org.av360.maverick.graph.model.vocabulary.meg.Metadata;
+import org.av360.maverick.graph.store.rdf.fragments.RdfTransaction;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.util.Statements;
+import org.eclipse.rdf4j.model.util.Values;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.sail.memory.MemoryStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Enriches transactions for new and existing entities, with the existing entities stored in an in-memory repository.
+ */
+class TransactionEnrichersTest {
+
+    private static final IRI ENTITY = Values.iri("urn:pwid:meg:e:entity");
+    private static final IRI ADDRESS = Values.iri("https://schema.org/address");
+    private static final IRI FIRST = Values.iri("urn:pwid:meg:e:first");
+    private static final IRI SECOND = Values.iri("urn:pwid:meg:e:second");
+
+    private SailRepository repository;
+    private RepositoryConnection connection;
+
+    @BeforeEach
+    void openRepository() {
+        this.repository = new SailRepository(new MemoryStore());
+        this.connection = this.repository.getConnection();
+    }
+
+    @AfterEach
+    void closeRepository() {
+        this.connection.close();
+        this.repository.shutDown();
+    }
+
+    @Test
+    void setsCreationDateOnce() {
+        Transaction trx = new RdfTransaction().inserts(List.of(
+                statement(ENTITY, RDF.TYPE, Local.Entities.TYPE_INDIVIDUAL),
+                statement(ENTITY, RDFS.LABEL, Values.literal("entity"))));
+
+        InjectCreationDate enricher = new InjectCreationDate();
+        enricher.enrich(trx, this.connection);
+        enricher.enrich(trx, this.connection);
+        assertEquals(1, trx.getInsertedStatements().filter(ENTITY, Metadata.CREATED, null).size());
+
+        // creating an entity again keeps its creation date
+        this.connection.add(trx.getInsertedStatements());
+        Transaction again = new RdfTransaction().inserts(statement(ENTITY, RDF.TYPE, Local.Entities.TYPE_INDIVIDUAL));
+        enricher.enrich(again, this.connection);
+        assertFalse(again.getInsertedStatements().contains(ENTITY, Metadata.CREATED, null));
+    }
+
+    @Test
+    void replacesModificationDateOfStoredEntities() {
+        Transaction created = new RdfTransaction().inserts(statement(ENTITY, RDF.TYPE, Local.Entities.TYPE_INDIVIDUAL));
+        new UpdateModifiedDate().enrich(created, this.connection);
+        assertFalse(created.getInsertedStatements().contains(ENTITY, Metadata.MODIFIED, null));
+
+        this.connection.add(created.getInsertedStatements());
+        Statement previous = statement(ENTITY, Metadata.MODIFIED, Values.literal("2020-01-01T00:00:00Z"));
+        this.connection.add(previous);
+
+        Transaction trx = new RdfTransaction().inserts(statement(ENTITY, RDFS.LABEL, Values.literal("entity")));
+        new UpdateModifiedDate().enrich(trx, this.connection);
+        new UpdateModifiedDate().enrich(trx, this.connection);
+        assertEquals(1, trx.getInsertedStatements().filter(ENTITY, Metadata.MODIFIED, null).size());
+        assertTrue(trx.getRemovedStatements().contains(previous));
+    }
+
+    @Test
+    void removesDuplicateEmbeddedObjects() {
+        this.connection.add(List.of(
+                statement(ENTITY, RDF.TYPE, Local.Entities.TYPE_INDIVIDUAL),
+                statement(ENTITY, ADDRESS, FIRST),
+                statement(FIRST, RDF.TYPE, Local.Entities.TYPE_EMBEDDED),
+                statement(FIRST, RDFS.LABEL, Values.literal("Street"))));
+
+        Transaction trx = new RdfTransaction()
+                .inserts(List.of(
+                        statement(SECOND, RDF.TYPE, Local.Entities.TYPE_EMBEDDED),
+                        statement(SECOND, RDFS.LABEL, Values.literal("Street"))))
+                .updates(List.of(statement(ENTITY, ADDRESS, SECOND)));
+
+        new MergeDuplicateEmbeddedObjects().enrich(trx, this.connection);
+
+        boolean firstRemoved = trx.getRemovedStatements().contains(ENTITY, ADDRESS, FIRST);
+        boolean secondDropped = !trx.getModel().contains(ENTITY, ADDRESS, SECOND) && !trx.getModel().contains(SECOND, null, null);
+        assertTrue(firstRemoved ^ secondDropped, "Exactly one of the addresses has to be removed");
+        if (firstRemoved) {
+            assertTrue(trx.getRemovedStatements().contains(FIRST, RDFS.LABEL, Values.literal("Street")));
+        }
+    }
+
+    @Test
+    void keepsDistinctEmbeddedObjects() {
+        this.connection.add(List.of(
+                statement(ENTITY, RDF.TYPE, Local.Entities.TYPE_INDIVIDUAL),
+                statement(ENTITY, ADDRESS, FIRST),
+                statement(FIRST, RDF.TYPE, Local.Entities.TYPE_EMBEDDED),
+                statement(FIRST, RDFS.LABEL, Values.literal("Street"))));
+
+        Transaction trx = new RdfTransaction()
+                .inserts(List.of(
+                        statement(SECOND, RDF.TYPE, Local.Entities.TYPE_EMBEDDED),
+                        statement(SECOND, RDFS.LABEL, Values.literal("Avenue")),
+                        statement(ENTITY, ADDRESS, SECOND)));
+        int size = trx.getModel().size();
+
+        new MergeDuplicateEmbeddedObjects().enrich(trx, this.connection);
+        assertEquals(size, trx.getModel().size());
+    }
+
+    private static Statement statement(org.eclipse.rdf4j.model.Resource subject, IRI predicate, org.eclipse.rdf4j.model.Value object) {
+        return Statements.statement(subject, predicate, object, null);
+    }
+}
@@ -0,0 +1,119 @@
+package org.av360.maverick.graph.services.preprocessors;
+
+import org.av360.maverick.graph.model.context.Environment;
+import org.av360.maverick.graph.model.context.SessionContext;
+import org.av360.maverick.graph.model.vocabulary.SDO;
+import org.av360.maverick.graph.services.IdentifierServices;
+import org.av360.maverick.graph.services.SchemaServices;
+import org.av360.maverick.graph.services.impl.DefaultIdentifierServices;
+import org.av360.maverick.graph.services.impl.SchemaServicesImpl;
+import org.av360.maverick.graph.services.preprocessors.mergeDuplicates.MergeDuplicates;
+import org.av360.maverick.graph.services.preprocessors.replaceIdentifiers.ReplaceAnonymousIdentifiers;
+import org.av360.maverick.graph.services.preprocessors.replaceIdentifiers.ReplaceExternalIdentifiers;
+import org.av360.maverick.graph.services.preprocessors.types.AssignLocalTypes;
+import org.av360.maverick.graph.services.preprocessors.validateRequiredType.CheckRequiredType;
+import org.eclipse.rdf4j.model.*;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.model.util.Values;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Preprocesses models with 1k, 10k and 100k statements (persons with embedded addresses, shared classifiers and links to
+ * each other) through the delegating preprocessor, and through the preprocessors called one after another. Both have to
+ * return the same statements in the same order.
+ */
+@Tag("benchmark")
+public class PreprocessorPipelineBenchmark {
+
+    private static final int[] SIZES = {1_000, 10_000, 100_000};
+    private static final int ITERATIONS = 3;
+
+    private static final IRI ADDRESS = Values.iri("https://schema.org/address");
+    private static final IRI POSTAL_ADDRESS = Values.iri("https://schema.org/PostalAddress");
+    private static final IRI STREET = Values.iri("https://schema.org/streetAddress");
+    private static final IRI EMAIL = Values.iri("https://schema.org/email");
+    private static final IRI KNOWS = Values.iri("https://schema.org/knows");
+    private static final IRI KEYWORDS = Values.iri("https://schema.org/keywords");
+
+    private final Environment environment = new SessionContext().getEnvironment();
+
+    @Test
+    public void comparePipelines() {
+        List<ModelPreprocessor> preprocessors = this.preprocessors();
+        DelegatingPreprocessor delegating = new DelegatingPreprocessor();
+        delegating.setRegisteredBeans(preprocessors);
+
+        System.out.printf("%-10s %14s %14s%n", "statements", "chained (ms)", "fused (ms)");
+        for (int size : SIZES) {
+            Model model = this.persons(size);
+
+            double chained = Double.MAX_VALUE;
+            double fused = Double.MAX_VALUE;
+            Model expected = null;
+            Model result = null;
+            for (int i = 0; i < ITERATIONS; i++) {
+                long start = System.nanoTime();
+                expected = this.chain(preprocessors, new LinkedHashModel(model));
+                chained = Math.min(chained, (System.nanoTime() - start) / 1_000_000d);
+
+                start = System.nanoTime();
+                result = delegating.handle(model, Map.of(), this.environment).block();
+                fused = Math.min(fused, (System.nanoTime() - start) / 1_000_000d);
+            }
+
+            assertEquals(new ArrayList<>(expected), new ArrayList<>(result));
+            System.out.printf("%-10d %14.1f %14.1f%n", model.size(), chained, fused);
+        }
+    }
+
+    private Model chain(List<ModelPreprocessor> preprocessors, Model model) {
+        for (ModelPreprocessor preprocessor : preprocessors) {
+            model = preprocessor.handle(model, Map.of(), this.environment).block();
+        }
+        return model;
+    }
+
+    private List<ModelPreprocessor> preprocessors() {
+        SchemaServices schemaServices = new SchemaServicesImpl(null);
+        IdentifierServices identifierServices = new DefaultIdentifierServices();
+
+        List<ModelPreprocessor> preprocessors = List.of(new AssignLocalTypes(), new CheckRequiredType(), new ReplaceAnonymousIdentifiers(), new ReplaceExternalIdentifiers(identifierServices), new MergeDuplicates());
+        preprocessors.forEach(preprocessor -> {
+            preprocessor.registerSchemaService(schemaServices);
+            preprocessor.registerIdentifierService(identifierServices);
+        });
+        return preprocessors;
+    }
+
+    /**
+     * Ten statements per person
+     */
+    private Model persons(int statements) {
+        Model model = new LinkedHashModel();
+        for (int i = 0; model.size() < statements; i++) {
+            IRI person = Values.iri("http://example.org/persons/" + i);
+            BNode address = Values.bnode("address" + i);
+            BNode keyword = Values.bnode("keyword" + i);
+
+            model.add(person, RDF.TYPE, SDO.PERSON);
+            model.add(person, SDO.NAME, Values.literal("Person " + i));
+            model.add(person, EMAIL, Values.literal("person" + i + "@example.org"));
+            model.add(person, KNOWS, Values.iri("http://example.org/persons/" + Math.max(0, i - 1)));
+            model.add(person, ADDRESS, address);
+            model.add(address, RDF.TYPE, POSTAL_ADDRESS);
+            model.add(address, STREET, Values.literal("Street " + i));
+            model.add(person, KEYWORDS, keyword);
+            model.add(keyword, RDF.TYPE, SDO.DEFINED_TERM);
+            model.add(keyword, SDO.TERM_CODE, Values.literal("keyword " + (i % 20)));
+        }
+        return model;
+    }
+}
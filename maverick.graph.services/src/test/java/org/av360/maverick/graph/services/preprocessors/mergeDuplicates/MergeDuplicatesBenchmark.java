@@ -0,0 +1,74 @@
+package org.av360.maverick.graph.services.preprocessors.mergeDuplicates;
+
+import org.eclipse.rdf4j.model.BNode;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.model.util.Values;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Merges models of 1k, 5k and 20k statements, where every second person links to an embedded address (a blank node)
+ * duplicating the address of the previous person. The previous implementation is only measured up to 5k statements.
+ */
+@Tag("benchmark")
+class MergeDuplicatesBenchmark {
+
+    private static final int[] SIZES = {1_000, 5_000, 20_000};
+    private static final int LEGACY_LIMIT = 5_000;
+
+    private static final IRI ADDRESS = Values.iri("https://schema.org/address");
+    private static final IRI POSTAL_ADDRESS = Values.iri("https://schema.org/PostalAddress");
+
+    @Test
+    void compareImplementations() {
+        MergeDuplicates mergeDuplicates = new MergeDuplicates();
+        LegacyMergeDuplicates legacy = new LegacyMergeDuplicates();
+
+        System.out.printf("%-10s %12s %14s %14s%n", "statements", "merged", "previous (ms)", "current (ms)");
+        for (int size : SIZES) {
+            Model model = this.persons(size);
+
+            long start = System.nanoTime();
+            Model result = mergeDuplicates.handle(new LinkedHashModel(model), Map.of(), null).block();
+            double current = (System.nanoTime() - start) / 1_000_000d;
+
+            String previous = "-";
+            if (size <= LEGACY_LIMIT) {
+                start = System.nanoTime();
+                Model expected = legacy.handle(new LinkedHashModel(model));
+                previous = "%.1f".formatted((System.nanoTime() - start) / 1_000_000d);
+                assertEquals(new ArrayList<>(expected), new ArrayList<>(result));
+            }
+
+            System.out.printf("%-10d %12d %14s %14.1f%n", model.size(), model.size() - result.size(), previous, current);
+        }
+    }
+
+    /**
+     * Six statements per person
+     */
+    private Model persons(int statements) {
+        Model model = new LinkedHashModel();
+        for (int i = 0; model.size() < statements; i++) {
+            IRI person = Values.iri("http://example.org/persons/" + i);
+            BNode address = Values.bnode("address" + i);
+
+            model.add(person, RDF.TYPE, Values.iri("https://schema.org/Person"));
+            model.add(person, RDFS.LABEL, Values.literal("Person " + i));
+            model.add(person, RDFS.COMMENT, Values.literal("Comment " + i));
+            model.add(person, ADDRESS, address);
+            model.add(address, RDF.TYPE, POSTAL_ADDRESS);
+            model.add(address, RDFS.LABEL, Values.literal("Street " + (i / 2)));
+        }
+        return model;
+    }
+}
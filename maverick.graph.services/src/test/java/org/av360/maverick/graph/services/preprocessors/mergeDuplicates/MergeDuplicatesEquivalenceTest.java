@@ -0,0 +1,78 @@
+package org.av360.maverick.graph.services.preprocessors.mergeDuplicates;
+
+import org.av360.maverick.graph.model.identifier.ChecksumIdentifier;
+import org.eclipse.rdf4j.model.*;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.model.util.Values;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Merges randomly generated models (with blank nodes, checksum identifiers and named resources sharing types and
+ * labels, linking to each other and to themselves) and compares the result with the previous implementation, including
+ * the order of the statements.
+ */
+class MergeDuplicatesEquivalenceTest {
+
+    private static final int MODELS = 500;
+
+    private final List<Resource> resources = new ArrayList<>();
+    private final List<IRI> types = List.of(Values.iri("urn:test:TypeA"), Values.iri("urn:test:TypeB"), Values.iri("urn:test:TypeC"));
+    private final List<Literal> labels = List.of(Values.literal("a"), Values.literal("b"), Values.literal("b", "en"));
+    private final List<IRI> predicates = List.of(RDF.TYPE, RDFS.LABEL, RDFS.LABEL, Values.iri("urn:test:linked"), Values.iri("urn:test:other"), RDFS.COMMENT);
+
+    MergeDuplicatesEquivalenceTest() {
+        for (int i = 0; i < 8; i++) resources.add(Values.bnode("node" + i));
+        for (int i = 0; i < 4; i++) resources.add(new ChecksumIdentifier("urn:pwid:meg:e:", "checksum" + i));
+        for (int i = 0; i < 4; i++) resources.add(Values.iri("http://example.org/named" + i));
+    }
+
+    @Test
+    void mergesLikePreviousImplementation() {
+        MergeDuplicates mergeDuplicates = new MergeDuplicates();
+        LegacyMergeDuplicates legacy = new LegacyMergeDuplicates();
+
+        int merged = 0;
+        for (int seed = 0; seed < MODELS; seed++) {
+            Model model = this.randomModel(new Random(seed));
+
+            Model expected = legacy.handle(new LinkedHashModel(model));
+            Model result = mergeDuplicates.handle(new LinkedHashModel(model), Map.of(), null).block();
+
+            assertEquals(new ArrayList<>(expected), new ArrayList<>(result), "Different result for model with seed " + seed);
+            if (result.size() < model.size()) merged++;
+        }
+        assertTrue(merged > MODELS / 10, "Only " + merged + " models with duplicates");
+    }
+
+    private Model randomModel(Random random) {
+        Model model = new LinkedHashModel();
+        for (Resource resource : resources) {
+            if (random.nextInt(5) > 0) model.add(resource, RDF.TYPE, types.get(random.nextInt(types.size())));
+        }
+
+        int size = model.size() + 5 + random.nextInt(60);
+        while (model.size() < size) {
+            Resource subject = resources.get(random.nextInt(resources.size()));
+            IRI predicate = predicates.get(random.nextInt(predicates.size()));
+
+            Value object;
+            if (predicate.equals(RDF.TYPE)) object = types.get(random.nextInt(types.size()));
+            else if (predicate.equals(RDFS.LABEL)) object = labels.get(random.nextInt(labels.size()));
+            else if (random.nextInt(4) == 0) object = Values.literal("value " + random.nextInt(5));
+            else object = resources.get(random.nextInt(resources.size()));
+
+            model.add(subject, predicate, object);
+        }
+        return model;
+    }
+}
@@ -0,0 +1,25 @@
+package org.av360.maverick.graph.store;
+
+import org.av360.maverick.graph.model.entities.Transaction;
+import org.av360.maverick.graph.model.enums.RepositoryType;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+
+/**
+ * Adds statements to (or removes them from) a transaction right before it is written, within the same RDF4J transaction.
+ * <p>
+ * Enrichers are called for every commit to a repository of a supported type, also when a failed group commit is
+ * replayed. They have to be idempotent: enriching the same transaction twice must not change it again.
+ */
+public interface TransactionEnricher {
+
+    default boolean supports(RepositoryType repositoryType) {
+        return repositoryType == RepositoryType.ENTITIES;
+    }
+
+    /**
+     * @param transaction the transaction to enrich
+     * @param connection  the connection the transaction is written with, reads see the state before the transaction
+     *                    (and the transactions written before it in the same group commit)
+     */
+    void enrich(Transaction transaction, RepositoryConnection connection);
+}
@@ -3,12 +3,15 @@ package org.av360.maverick.graph.store.behaviours;
 
 import org.av360.maverick.graph.model.context.Environment;
 import org.av360.maverick.graph.model.entities.Transaction;
+import org.av360.maverick.graph.model.vocabulary.meg.Local;
 import org.av360.maverick.graph.store.rdf.fragments.RdfFragment;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Resource;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import javax.annotation.Nullable;
+
 /**
  * Behaviour with all methods required to access and manipulate fragments. A fragment is the summary of all statements
  * which share the same subject.
@@ -20,7 +23,16 @@ public interface Fragmentable extends RepositoryBehaviour {
 
     Mono<RdfFragment> getFragment(Resource subject, int includeNeighborsLevel, boolean includeDetails, Environment environment);
 
-    Flux<RdfFragment> listFragments(IRI type, int limit, int offset, Environment environment);
+    /**
+     * Lists the fragments with the given type. A bounded listing returns a window of the fragments ordered by subject,
+     * which requires sorting all typed subjects. Without limit and offset, all fragments are streamed unordered and
+     * without holding the subjects in memory.
+     *
+     * @param type   the type of the fragments, or null for all typed fragments
+     * @param limit  maximum number of fragments, {@link Integer#MAX_VALUE} for all
+     * @param offset number of (ordered) fragments to skip
+     */
+    Flux<RdfFragment> listFragments(@Nullable IRI type, int limit, int offset, Environment environment);
 
     default Flux<RdfFragment> listFragments(Environment environment) {
         return this.listFragments(null, Integer.MAX_VALUE, 0, environment);
@@ -47,5 +59,19 @@ public interface Fragmentable extends RepositoryBehaviour {
      */
     Mono<Boolean> exists(Resource subj, Environment environment);
 
-    Mono<Long> countFragments(Environment environment);
+    /**
+     * @return the number of individuals
+     */
+    default Mono<Long> countFragments(Environment environment) {
+        return this.countFragments(Local.Entities.TYPE_INDIVIDUAL, environment);
+    }
+
+    /**
+     * Counts the fragments with the given type. The internal types (individual, classifier, embedded) are counted
+     * without scanning the repository.
+     *
+     * @param type the type of the fragments
+     * @return the number of fragments with the given type
+     */
+    Mono<Long> countFragments(IRI type, Environment environment);
 }
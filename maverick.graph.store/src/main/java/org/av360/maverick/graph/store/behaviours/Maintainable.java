@@ -14,7 +14,26 @@ public interface Maintainable extends Commitable {
 
     Mono<Void> purge(Environment environment);
 
-    Mono<Void> importStatements(Publisher<DataBuffer> bytesPublisher, String mimetype, Environment environment);
+    default Mono<Void> importStatements(Publisher<DataBuffer> bytesPublisher, String mimetype, Environment environment) {
+        return this.importStatements(bytesPublisher, mimetype, 0, environment);
+    }
+
+    /**
+     * Parses the content while it is read and commits the statements in chunks.
+     *
+     * @param bytesPublisher the rdf content
+     * @param mimetype       the format of the content
+     * @param resumeFrom     number of statements which have been committed by a previous (failed) import of the same content, these are skipped
+     */
+    Mono<Void> importStatements(Publisher<DataBuffer> bytesPublisher, String mimetype, long resumeFrom, Environment environment);
+
+    /**
+     * Converts the details (statements about statements) which are not stored in the configured form, e.g. reification
+     * nodes written before switching to the native storage of details.
+     *
+     * @return the number of converted details
+     */
+    Mono<Long> migrateDetails(Environment environment);
 
     default Mono<Void> importStatements(Collection<Statement> statements, Environment environment) {
         Transaction trx = new RdfTransaction().inserts(statements);
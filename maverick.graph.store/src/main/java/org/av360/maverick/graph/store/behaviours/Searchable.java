@@ -2,6 +2,7 @@ package org.av360.maverick.graph.store.behaviours;
 
 import org.av360.maverick.graph.model.context.Environment;
 import org.av360.maverick.graph.model.rdf.AnnotatedStatement;
+import org.av360.maverick.graph.store.rdf.helpers.QueryBindings;
 import org.eclipse.rdf4j.query.BindingSet;
 import org.eclipse.rdf4j.sparqlbuilder.core.query.ConstructQuery;
 import org.eclipse.rdf4j.sparqlbuilder.core.query.SelectQuery;
@@ -12,16 +13,36 @@ import reactor.core.publisher.Mono;
 public interface Searchable extends RepositoryBehaviour {
 
 
-    Flux<BindingSet> query(String q, Environment environment);
+    /**
+     * Runs a select query. The query is parsed only once, pass values for changing parts (like identifiers, limit or
+     * offset) as bindings instead of building a new query text.
+     */
+    Flux<BindingSet> query(String q, QueryBindings bindings, Environment environment);
 
-    Flux<AnnotatedStatement> construct(String q, Environment environment);
+    Flux<AnnotatedStatement> construct(String q, QueryBindings bindings, Environment environment);
 
-    Mono<Void> update(String query, Environment environment);
+    Mono<Void> update(String query, QueryBindings bindings, Environment environment);
+
+    default Flux<BindingSet> query(String q, Environment environment) {
+        return this.query(q, QueryBindings.NONE, environment);
+    }
+
+    default Flux<AnnotatedStatement> construct(String q, Environment environment) {
+        return this.construct(q, QueryBindings.NONE, environment);
+    }
+
+    default Mono<Void> update(String query, Environment environment) {
+        return this.update(query, QueryBindings.NONE, environment);
+    }
 
     default Flux<BindingSet> query(SelectQuery q, Environment environment) {
         return this.query(q.getQueryString(), environment);
     }
 
+    default Flux<BindingSet> query(SelectQuery q, QueryBindings bindings, Environment environment) {
+        return this.query(q.getQueryString(), bindings, environment);
+    }
+
     default Flux<AnnotatedStatement> query(ConstructQuery q, Environment environment) {
         return this.construct(q.getQueryString(), environment);
     }
@@ -0,0 +1,212 @@
+package org.av360.maverick.graph.store.rdf;
+
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.RepositoryException;
+
+import java.time.Duration;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * A bounded pool of connections, used as one lane (read-only or read-write) of a {@link LabeledRepository}.
+ * <p>
+ * Closing a connection handed out by the pool returns it to the pool. If all connections are in use, the caller waits up
+ * to the configured time for a connection to be returned and fails afterwards with a {@link PoolExhaustedException}
+ * (reported as temporarily unavailable to clients), the number of open connections never exceeds the capacity. We never
+ * block indefinitely, a caller holding a connection should reuse it for nested lookups instead of acquiring another one
+ * (e.g. loading fragments while streaming subjects). Acquiring a connection might block, it must not be called on an
+ * event loop.
+ * <p>
+ * Connections of a read-only pool reject all modifications.
+ */
+@Slf4j(topic = "graph.repo.pool")
+public class ConnectionPool {
+
+    private final String name;
+    private final Supplier<RepositoryConnection> factory;
+    private final int capacity;
+    private final Duration maxWait;
+    private final boolean readOnly;
+
+    private final Semaphore permits;
+    private final Deque<RepositoryConnection> idle;
+    private final AtomicInteger inUse;
+    private final AtomicLong acquisitions;
+    private final AtomicLong waitTime;
+    private final AtomicLong rejections;
+    private final Listener listener;
+
+    /**
+     * Notified whenever a connection is handed out or returned. Called on the hot path, implementations have to be cheap.
+     */
+    public interface Listener {
+        void acquired();
+
+        void released();
+
+        Listener NONE = new Listener() {
+            @Override
+            public void acquired() {
+            }
+
+            @Override
+            public void released() {
+            }
+        };
+    }
+
+    public ConnectionPool(String name, int capacity, Duration maxWait, Supplier<RepositoryConnection> factory) {
+        this(name, capacity, maxWait, false, factory, Listener.NONE);
+    }
+
+    public ConnectionPool(String name, int capacity, Duration maxWait, boolean readOnly, Supplier<RepositoryConnection> factory, Listener listener) {
+        this.name = name;
+        this.readOnly = readOnly;
+        this.listener = listener;
+        this.factory = factory;
+        this.capacity = capacity;
+        this.maxWait = maxWait;
+        this.permits = new Semaphore(capacity, true);
+        this.idle = new ConcurrentLinkedDeque<>();
+        this.inUse = new AtomicInteger();
+        this.acquisitions = new AtomicLong();
+        this.waitTime = new AtomicLong();
+        this.rejections = new AtomicLong();
+    }
+
+    /**
+     * @throws PoolExhaustedException if no connection has been returned to the pool within the configured time
+     */
+    RepositoryConnection acquire(Repository owner) throws RepositoryException {
+        long start = System.nanoTime();
+        boolean acquired = this.permits.tryAcquire() || this.tryAcquire();
+        this.waitTime.addAndGet(System.nanoTime() - start);
+        this.acquisitions.incrementAndGet();
+
+        if (!acquired) {
+            this.rejections.incrementAndGet();
+            throw new PoolExhaustedException("All %d connections of pool '%s' are in use, no connection has been returned within %s".formatted(this.capacity, this.name, this.maxWait));
+        }
+
+        try {
+            RepositoryConnection delegate = this.pollIdle();
+            if (delegate == null) delegate = this.factory.get();
+
+            this.inUse.incrementAndGet();
+            this.listener.acquired();
+            return new LabeledConnectionWrapper(owner, delegate, this.readOnly, this::release);
+        } catch (RuntimeException e) {
+            this.permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Closes all idle connections, e.g. if the repository is shut down. Connections in use are discarded when they are released.
+     */
+    void clear() {
+        RepositoryConnection connection;
+        while ((connection = this.idle.poll()) != null) {
+            this.closeQuietly(connection);
+        }
+    }
+
+    private boolean tryAcquire() {
+        try {
+            return this.permits.tryAcquire(this.maxWait.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private RepositoryConnection pollIdle() {
+        RepositoryConnection connection;
+        while ((connection = this.idle.poll()) != null) {
+            if (connection.isOpen()) return connection;
+        }
+        return null;
+    }
+
+    private void release(RepositoryConnection connection) {
+        this.inUse.decrementAndGet();
+        this.listener.released();
+        try {
+            if (connection.isOpen() && connection.isActive()) {
+                log.warn("Connection in pool '{}' has been released with an active transaction, rolling back.", this.name);
+                connection.rollback();
+            }
+
+            if (connection.isOpen()) {
+                this.idle.push(connection);
+            } else {
+                this.closeQuietly(connection);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to release connection in pool '{}', discarding it. Reason: {}", this.name, e.getMessage());
+            this.closeQuietly(connection);
+        } finally {
+            this.permits.release();
+        }
+    }
+
+    private void closeQuietly(RepositoryConnection connection) {
+        try {
+            if (connection.isOpen()) connection.close();
+        } catch (Exception e) {
+            log.trace("Failed to close connection in pool '{}'. Reason: {}", this.name, e.getMessage());
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getInUse() {
+        return this.inUse.get();
+    }
+
+    public int getIdle() {
+        return this.idle.size();
+    }
+
+    /**
+     * @return ratio of connections in use to the capacity of this pool
+     */
+    public double getSaturation() {
+        return (double) this.inUse.get() / this.capacity;
+    }
+
+    public long getAcquisitions() {
+        return this.acquisitions.get();
+    }
+
+    /**
+     * @return total time in nanoseconds callers have been waiting for a connection
+     */
+    public long getWaitTime() {
+        return this.waitTime.get();
+    }
+
+    /**
+     * @return number of callers which failed, since no connection has been returned to the pool in time
+     */
+    public long getRejections() {
+        return this.rejections.get();
+    }
+
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+}
@@ -1,13 +1,106 @@
 package org.av360.maverick.graph.store.rdf;
 
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.query.MalformedQueryException;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.Update;
 import org.eclipse.rdf4j.repository.Repository;
 import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.RepositoryException;
+import org.eclipse.rdf4j.repository.RepositoryReadOnlyException;
 import org.eclipse.rdf4j.repository.base.RepositoryConnectionWrapper;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Connection handed out by a {@link ConnectionPool}. Closing it hands the delegate back to the pool (exactly once).
+ * <p>
+ * A read-only connection rejects all modifications: adding and removing statements (also through parsing or clearing
+ * contexts, which end up in the same methods), updates and namespace changes.
+ */
 public class LabeledConnectionWrapper extends RepositoryConnectionWrapper {
 
+    private final Consumer<RepositoryConnection> onClose;
+    private final AtomicBoolean closed;
+    private final boolean readOnly;
 
     public LabeledConnectionWrapper(Repository repository, RepositoryConnection delegate) {
+        this(repository, delegate, false, RepositoryConnection::close);
+    }
+
+    public LabeledConnectionWrapper(Repository repository, RepositoryConnection delegate, boolean readOnly, Consumer<RepositoryConnection> onClose) {
         super(repository, delegate);
+        this.onClose = onClose;
+        this.readOnly = readOnly;
+        this.closed = new AtomicBoolean(false);
+    }
+
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    @Override
+    protected boolean isDelegatingAdd() throws RepositoryException {
+        return !this.readOnly && super.isDelegatingAdd();
+    }
+
+    @Override
+    protected boolean isDelegatingRemove() throws RepositoryException {
+        return !this.readOnly && super.isDelegatingRemove();
+    }
+
+    @Override
+    protected void addWithoutCommit(Resource subject, IRI predicate, Value object, Resource... contexts) throws RepositoryException {
+        this.assertWritable();
+        super.addWithoutCommit(subject, predicate, object, contexts);
+    }
+
+    @Override
+    protected void removeWithoutCommit(Resource subject, IRI predicate, Value object, Resource... contexts) throws RepositoryException {
+        this.assertWritable();
+        super.removeWithoutCommit(subject, predicate, object, contexts);
+    }
+
+    @Override
+    public Update prepareUpdate(QueryLanguage ql, String update, String baseURI) throws MalformedQueryException, RepositoryException {
+        this.assertWritable();
+        return super.prepareUpdate(ql, update, baseURI);
+    }
+
+    @Override
+    public void setNamespace(String prefix, String name) throws RepositoryException {
+        this.assertWritable();
+        super.setNamespace(prefix, name);
+    }
+
+    @Override
+    public void removeNamespace(String prefix) throws RepositoryException {
+        this.assertWritable();
+        super.removeNamespace(prefix);
+    }
+
+    @Override
+    public void clearNamespaces() throws RepositoryException {
+        this.assertWritable();
+        super.clearNamespaces();
+    }
+
+    private void assertWritable() throws RepositoryReadOnlyException {
+        if (this.readOnly) throw new RepositoryReadOnlyException("Connection to repository '%s' is read-only".formatted(this.getRepository()));
+    }
+
+    @Override
+    public boolean isOpen() throws RepositoryException {
+        return !this.closed.get() && super.isOpen();
+    }
+
+    @Override
+    public void close() throws RepositoryException {
+        if (this.closed.compareAndSet(false, true)) {
+            this.onClose.accept(getDelegate());
+        }
     }
 }
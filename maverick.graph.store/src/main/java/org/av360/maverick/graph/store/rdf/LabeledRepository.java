@@ -4,28 +4,90 @@ import lombok.extern.slf4j.Slf4j;
 import org.eclipse.rdf4j.repository.Repository;
 import org.eclipse.rdf4j.repository.RepositoryConnection;
 import org.eclipse.rdf4j.repository.RepositoryException;
-import org.eclipse.rdf4j.repository.base.RepositoryConnectionWrapper;
 import org.eclipse.rdf4j.repository.base.RepositoryWrapper;
 
-import java.util.Collections;
-import java.util.Set;
-import java.util.WeakHashMap;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * Required to override the toString() Method, to find out in the logs which repository has been used (to differentiate between the different applications)
+ * <p>
+ * Connections are pooled in two lanes, one for read-only operations and one for operations writing to the repository.
+ * An {@link ActivityListener} is notified when the first connection is opened and when the last connection is closed.
+ * <p>
+ * Opening a connection and shutting down an idle repository exclude each other: an idle repository is only shut down if
+ * no connection is being opened, and a connection requested after the shutdown opens the repository again.
  */
 @Slf4j
 public class LabeledRepository extends RepositoryWrapper {
 
+    public static final int DEFAULT_READ_CONNECTIONS = 16;
+    public static final int DEFAULT_WRITE_CONNECTIONS = 4;
+    public static final Duration DEFAULT_MAX_WAIT = Duration.ofMillis(250);
+
     private final String label;
 
-    private final Set<RepositoryConnection> connections;
+    private final ConnectionPool readPool;
+    private final ConnectionPool writePool;
+
+    private final AtomicInteger connections;
+    private final ReadWriteLock lifecycle;
+    private volatile ActivityListener activityListener;
+    private volatile boolean closed;
+    private final Object released = new Object();
+
+    public interface ActivityListener {
+        void onActive(LabeledRepository repository);
+
+        void onIdle(LabeledRepository repository);
+
+        /**
+         * Called when the repository has been opened again by a connection request, after it has been shut down while idle.
+         */
+        default void onReopened(LabeledRepository repository) {
+        }
+    }
 
 
     public LabeledRepository(String label, Repository repository) {
+        this(label, repository, DEFAULT_READ_CONNECTIONS, DEFAULT_WRITE_CONNECTIONS, DEFAULT_MAX_WAIT);
+    }
+
+    public LabeledRepository(String label, Repository repository, int readConnections, int writeConnections, Duration maxWait) {
         super(repository);
         this.label = label;
-        connections = Collections.newSetFromMap(new WeakHashMap<>());
+        this.connections = new AtomicInteger();
+        this.lifecycle = new ReentrantReadWriteLock();
+
+        ConnectionPool.Listener listener = new ConnectionPool.Listener() {
+            @Override
+            public void acquired() {
+                if (connections.incrementAndGet() == 1 && activityListener != null) activityListener.onActive(LabeledRepository.this);
+            }
+
+            @Override
+            public void released() {
+                if (connections.decrementAndGet() == 0) {
+                    synchronized (released) {
+                        released.notifyAll();
+                    }
+                    if (activityListener != null) activityListener.onIdle(LabeledRepository.this);
+                }
+            }
+        };
+        this.readPool = new ConnectionPool(label + "_read", readConnections, maxWait, true, () -> getDelegate().getConnection(), listener);
+        this.writePool = new ConnectionPool(label + "_write", writeConnections, maxWait, false, () -> getDelegate().getConnection(), listener);
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public void setActivityListener(ActivityListener activityListener) {
+        this.activityListener = activityListener;
     }
 
     @Override
@@ -33,16 +95,117 @@ public class LabeledRepository extends RepositoryWrapper {
         return this.label;
     }
 
+    /**
+     * @return a connection from the read-write lane
+     */
     @Override
     public RepositoryConnection getConnection() throws RepositoryException {
-        RepositoryConnectionWrapper connection = new RepositoryConnectionWrapper(this, super.getConnection());
-        this.connections.add(connection);
-        return connection;
+        return this.getConnection(false);
+    }
+
+    /**
+     * @param readOnly true for a connection from the read-only lane, which rejects all modifications
+     */
+    public RepositoryConnection getConnection(boolean readOnly) throws RepositoryException {
+        this.lifecycle.readLock().lock();
+        try {
+            if (this.closed) throw new RepositoryClosedException("Repository '%s' has been closed".formatted(this.label));
+            if (!this.isInitialized()) this.reopen();
+            return readOnly ? this.readPool.acquire(this) : this.writePool.acquire(this);
+        } finally {
+            this.lifecycle.readLock().unlock();
+        }
+    }
+
+    /**
+     * Shuts down the repository, if no connection is in use or being opened.
+     *
+     * @return true, if the repository has been shut down
+     */
+    public boolean shutDownIfIdle() throws RepositoryException {
+        if (!this.lifecycle.writeLock().tryLock()) return false;
+        try {
+            if (this.connections.get() > 0 || !this.isInitialized()) return false;
+            this.shutDown();
+            return true;
+        } finally {
+            this.lifecycle.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Shuts down the repository for good (e.g. after it has been purged), if no connection is in use or being opened.
+     * Afterwards, connections are rejected instead of opening the repository again.
+     *
+     * @return true, if the repository has been closed
+     */
+    public boolean closeIfIdle() throws RepositoryException {
+        if (!this.lifecycle.writeLock().tryLock()) return false;
+        try {
+            if (this.connections.get() > 0) return false;
+            this.closed = true;
+            if (this.isInitialized()) this.shutDown();
+            return true;
+        } finally {
+            this.lifecycle.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Waits up to the given time for the open connections to be closed, and closes the repository for good (see
+     * {@link #closeIfIdle()}).
+     *
+     * @return true, if the repository has been closed
+     */
+    public boolean closeWhenIdle(Duration timeout) throws RepositoryException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (this.released) {
+            while (!this.closeIfIdle()) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) return false;
+                try {
+                    // polled as well, a connection which is just being opened holds no connection yet
+                    this.released.wait(Math.max(1, Math.min(50, TimeUnit.NANOSECONDS.toMillis(remaining))));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    private synchronized void reopen() {
+        if (this.isInitialized()) return;
+
+        log.debug("Opening repository '{}' again, it has been shut down while we handed it out", this.label);
+        this.init();
+        if (this.activityListener != null) this.activityListener.onReopened(this);
+    }
+
+    @Override
+    public void shutDown() throws RepositoryException {
+        this.readPool.clear();
+        this.writePool.clear();
+        super.shutDown();
+    }
+
+    public ConnectionPool getReadPool() {
+        return readPool;
+    }
+
+    public ConnectionPool getWritePool() {
+        return writePool;
     }
 
+    /**
+     * @return number of connections currently in use (idle pooled connections are not counted)
+     */
     public long getConnectionsCount() {
-        long countAll = this.connections.stream().count();
-        // long count = this.connections.stream().filter(RepositoryConnection::isOpen).count(); // is always zero
-        return countAll;
+        return this.connections.get();
     }
 }
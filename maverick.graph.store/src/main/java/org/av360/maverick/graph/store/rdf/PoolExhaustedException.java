@@ -0,0 +1,14 @@
+package org.av360.maverick.graph.store.rdf;
+
+import org.eclipse.rdf4j.repository.RepositoryException;
+
+/**
+ * Thrown if no connection of a {@link ConnectionPool} has been returned within the configured time. The store is busy,
+ * the operation can be retried later.
+ */
+public class PoolExhaustedException extends RepositoryException {
+
+    public PoolExhaustedException(String msg) {
+        super(msg);
+    }
+}
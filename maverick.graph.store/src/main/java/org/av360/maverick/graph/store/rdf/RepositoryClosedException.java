@@ -0,0 +1,14 @@
+package org.av360.maverick.graph.store.rdf;
+
+import org.eclipse.rdf4j.repository.RepositoryException;
+
+/**
+ * Thrown if a connection is requested from a {@link LabeledRepository} which has been closed for good (e.g. after it
+ * has been purged). The repository has to be resolved again, which builds a new one.
+ */
+public class RepositoryClosedException extends RepositoryException {
+
+    public RepositoryClosedException(String msg) {
+        super(msg);
+    }
+}
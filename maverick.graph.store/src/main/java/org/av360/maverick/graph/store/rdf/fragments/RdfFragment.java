@@ -8,6 +8,8 @@ import org.eclipse.rdf4j.model.Statement;
 import org.eclipse.rdf4j.model.vocabulary.RDF;
 import org.eclipse.rdf4j.repository.RepositoryResult;
 
+import java.util.Collection;
+
 /**
  * Represents a named graph of one particular entity.
  * <p>
@@ -37,6 +39,11 @@ public class RdfFragment extends TripleModel implements Fragment {
         return this;
     }
 
+    public RdfFragment withStatements(Collection<Statement> statements) {
+        statements.forEach(statement -> this.getBuilder().add(statement.getSubject(), statement.getPredicate(), statement.getObject()));
+        return this;
+    }
+
     public RdfFragment withModel(Model statements) {
         this.getBuilder().add(statements);
         return this;
@@ -31,6 +31,7 @@ import java.util.*;
 @Slf4j
 public class RdfTransaction extends TripleModel implements Transaction {
     private final IRI transactionIdentifier;
+    private boolean enrichable = true;
 
 
     public RdfTransaction() {
@@ -59,6 +60,19 @@ public class RdfTransaction extends TripleModel implements Transaction {
         return this.transactionIdentifier;
     }
 
+    /**
+     * Excludes the transaction from the transaction enrichers (e.g. for maintenance jobs, which should not change the
+     * modification dates of the entities).
+     */
+    public RdfTransaction withoutEnrichment() {
+        this.enrichable = false;
+        return this;
+    }
+
+    public boolean isEnrichable() {
+        return this.enrichable;
+    }
+
     private RdfTransaction remove(Collection<Statement> statements, Activity activity) {
         super.getBuilder().add(statements, Transactions.GRAPH_DELETED);
 
@@ -0,0 +1,166 @@
+package org.av360.maverick.graph.store.rdf.helpers;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Reads the data buffers of a publisher (e.g. a request body or an uploaded file) as input stream.
+ * <p>
+ * Buffers are requested from the publisher only as fast as the stream is consumed (at most the given number of buffers
+ * is prefetched), and every buffer is released once it has been read. Reading blocks the calling thread if no buffer is
+ * available yet, the stream has to be consumed on a thread which allows blocking (e.g. bounded elastic). Closing the
+ * stream cancels the subscription.
+ * <p>
+ * Except for {@link #cancel()}, the stream is used by the reading thread only.
+ */
+public class DataBufferInputStream extends InputStream implements Subscriber<DataBuffer> {
+    private static final Object COMPLETE = new Object();
+
+    private final BlockingQueue<Object> signals;
+    private final int prefetch;
+    private volatile Subscription subscription;
+    private volatile boolean closed;
+    private DataBuffer current;
+    private boolean completed;
+    private long bytesRead;
+
+    public DataBufferInputStream(Publisher<DataBuffer> publisher, int prefetch) {
+        this.prefetch = prefetch;
+        // bounded by the demand
+        this.signals = new LinkedBlockingQueue<>();
+        publisher.subscribe(this);
+    }
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(this.prefetch);
+    }
+
+    @Override
+    public void onNext(DataBuffer buffer) {
+        this.signals.offer(buffer);
+        if (this.closed) this.releaseSignals();
+    }
+
+    @Override
+    public void onError(Throwable error) {
+        this.signals.offer(error);
+    }
+
+    @Override
+    public void onComplete() {
+        this.signals.offer(COMPLETE);
+    }
+
+    @Override
+    public int read() throws IOException {
+        DataBuffer buffer = this.current();
+        if (buffer == null) return -1;
+
+        this.bytesRead++;
+        return buffer.read() & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] bytes, int off, int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, bytes.length);
+        if (len == 0) return 0;
+
+        DataBuffer buffer = this.current();
+        if (buffer == null) return -1;
+
+        int count = Math.min(len, buffer.readableByteCount());
+        buffer.read(bytes, off, count);
+        this.bytesRead += count;
+        return count;
+    }
+
+    @Override
+    public int available() {
+        return this.current == null ? 0 : this.current.readableByteCount();
+    }
+
+    /**
+     * @return the number of bytes consumed so far
+     */
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    @Override
+    public void close() {
+        if (this.closed) return;
+
+        this.closed = true;
+        if (this.subscription != null) this.subscription.cancel();
+        this.releaseAll();
+    }
+
+    /**
+     * Cancels the subscription from another thread, the reading thread fails with an exception (and has to close the
+     * stream).
+     */
+    public void cancel() {
+        if (this.subscription != null) this.subscription.cancel();
+        this.signals.offer(new CancellationException("Reading the data buffers has been cancelled"));
+    }
+
+    /**
+     * @return the buffer with the next bytes to read, null at the end of the body
+     */
+    private DataBuffer current() throws IOException {
+        while (this.current == null || this.current.readableByteCount() == 0) {
+            if (this.closed) throw new IOException("Stream closed");
+
+            if (this.current != null) {
+                DataBufferUtils.release(this.current);
+                this.current = null;
+                this.subscription.request(1);
+            }
+            if (this.completed) return null;
+
+            Object signal;
+            try {
+                signal = this.signals.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for data buffers");
+            }
+
+            if (signal == COMPLETE) {
+                this.completed = true;
+                return null;
+            } else if (signal instanceof Throwable error) {
+                this.completed = true;
+                throw new IOException("Failed to read data buffers", error);
+            }
+            this.current = (DataBuffer) signal;
+        }
+        return this.current;
+    }
+
+    private void releaseAll() {
+        if (this.current != null) DataBufferUtils.release(this.current);
+        this.current = null;
+        this.releaseSignals();
+    }
+
+    private void releaseSignals() {
+        Object signal;
+        while ((signal = this.signals.poll()) != null) {
+            if (signal instanceof DataBuffer buffer) DataBufferUtils.release(buffer);
+        }
+    }
+}
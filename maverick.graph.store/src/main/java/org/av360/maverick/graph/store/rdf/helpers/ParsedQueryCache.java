@@ -0,0 +1,128 @@
+package org.av360.maverick.graph.store.rdf.helpers;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.rdf4j.query.MalformedQueryException;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.algebra.Slice;
+import org.eclipse.rdf4j.query.algebra.TupleExpr;
+import org.eclipse.rdf4j.query.algebra.UpdateExpr;
+import org.eclipse.rdf4j.query.algebra.helpers.AbstractSimpleQueryModelVisitor;
+import org.eclipse.rdf4j.query.parser.*;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the parsed algebra of recently used SPARQL queries and updates, keyed by the query text (with leading and
+ * trailing whitespace removed).
+ * <p>
+ * The markers <code>LIMIT $limit</code> and <code>OFFSET $offset</code> are parsed as (otherwise unused) sentinel
+ * values, the slices carrying them are bound in the copy handed out to the caller (see {@link QueryBindings}).
+ * <p>
+ * The cached operations are never handed out for evaluation, since the query engine is free to modify the algebra.
+ * Callers get a copy with a cloned algebra, which is still much cheaper than parsing the query again.
+ */
+@Component
+@Slf4j(topic = "graph.repo.queries.cache")
+public class ParsedQueryCache {
+
+    private static final long LIMIT_MARKER = Long.MAX_VALUE - 1;
+    private static final long OFFSET_MARKER = Long.MAX_VALUE - 2;
+
+    private final Cache<String, ParsedOperation> cache;
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+
+    public ParsedQueryCache(@Value("${application.storage.queries.cacheSize:1024}") int maximumSize) {
+        this.cache = Caffeine.newBuilder().maximumSize(maximumSize).build();
+        this.hits = new AtomicLong();
+        this.misses = new AtomicLong();
+    }
+
+    /**
+     * @return the parsed query or update, shared with other callers: it must not be modified or evaluated
+     * @throws MalformedQueryException if the query cannot be parsed (failures are not cached)
+     */
+    public ParsedOperation parse(String query) throws MalformedQueryException {
+        String key = query.strip();
+        ParsedOperation operation = this.cache.getIfPresent(key);
+        if (operation != null) {
+            this.hits.incrementAndGet();
+            return operation;
+        }
+
+        this.misses.incrementAndGet();
+        operation = QueryParserUtil.parseOperation(QueryLanguage.SPARQL, QueryBindings.expand(key, LIMIT_MARKER, OFFSET_MARKER), null);
+        this.cache.put(key, operation);
+        return operation;
+    }
+
+    public ParsedTupleQuery parseTupleQuery(String query, QueryBindings bindings) throws MalformedQueryException {
+        if (this.parse(query) instanceof ParsedTupleQuery parsed) {
+            ParsedTupleQuery copy = new ParsedTupleQuery(parsed.getSourceString(), this.copy(parsed.getTupleExpr(), bindings));
+            copy.setDataset(parsed.getDataset());
+            return copy;
+        }
+        throw new MalformedQueryException("Not a tuple query: " + query);
+    }
+
+    public ParsedGraphQuery parseGraphQuery(String query, QueryBindings bindings) throws MalformedQueryException {
+        if (this.parse(query) instanceof ParsedGraphQuery parsed) {
+            ParsedGraphQuery copy = new ParsedGraphQuery(parsed.getSourceString(), this.copy(parsed.getTupleExpr(), bindings), parsed.getQueryNamespaces());
+            copy.setDataset(parsed.getDataset());
+            return copy;
+        }
+        throw new MalformedQueryException("Not a graph query: " + query);
+    }
+
+    public ParsedUpdate parseUpdate(String query) throws MalformedQueryException {
+        if (this.parse(query) instanceof ParsedUpdate parsed) {
+            ParsedUpdate copy = new ParsedUpdate(parsed.getSourceString(), parsed.getNamespaces());
+            for (UpdateExpr expr : parsed.getUpdateExprs()) {
+                UpdateExpr clone = expr.clone();
+                copy.addUpdateExpr(clone);
+                copy.map(clone, parsed.getDatasetMapping().get(expr));
+            }
+            return copy;
+        }
+        throw new MalformedQueryException("Not an update: " + query);
+    }
+
+    private TupleExpr copy(TupleExpr tupleExpr, QueryBindings bindings) {
+        TupleExpr clone = tupleExpr.clone();
+        boolean[] markers = new boolean[2];
+        clone.visit(new AbstractSimpleQueryModelVisitor<RuntimeException>() {
+            @Override
+            public void meet(Slice node) {
+                if (node.getLimit() == LIMIT_MARKER) {
+                    node.setLimit(bindings.limit());
+                    markers[0] = true;
+                }
+                if (node.getOffset() == OFFSET_MARKER) {
+                    node.setOffset(Math.max(bindings.offset(), 0));
+                    markers[1] = true;
+                }
+                super.meet(node);
+            }
+        });
+
+        if (bindings.limit() >= 0 && !markers[0]) throw new IllegalArgumentException("Limit is bound for a query without 'LIMIT $limit' clause");
+        if (bindings.offset() >= 0 && !markers[1]) throw new IllegalArgumentException("Offset is bound for a query without 'OFFSET $offset' clause");
+        return clone;
+    }
+
+    public long getHits() {
+        return this.hits.get();
+    }
+
+    public long getMisses() {
+        return this.misses.get();
+    }
+
+    public long getSize() {
+        return this.cache.estimatedSize();
+    }
+}
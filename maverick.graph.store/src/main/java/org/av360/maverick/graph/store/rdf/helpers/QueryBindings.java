@@ -0,0 +1,85 @@
+package org.av360.maverick.graph.store.rdf.helpers;
+
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.sparqlbuilder.core.Variable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Values for the variables of a query, and the limit and offset of its result. Used to run the same query text with
+ * different parameters, without building a new query string (which would have to be parsed again).
+ * <p>
+ * The limit and offset are bound to the (sub)query with the clauses <code>LIMIT $limit</code> and
+ * <code>OFFSET $offset</code>. A marker without bound value is removed, the query is not limited.
+ *
+ * @param values values for variables in the query, by variable name
+ * @param limit  replaces the <code>$limit</code> marker, negative if not bound
+ * @param offset replaces the <code>$offset</code> marker, negative if not bound
+ */
+public record QueryBindings(Map<String, Value> values, long limit, long offset) {
+
+    public static final QueryBindings NONE = new QueryBindings(Map.of(), -1, -1);
+
+    private static final Pattern LIMIT_MARKER = Pattern.compile("(?i)\\bLIMIT\\s+\\$limit\\b");
+    private static final Pattern OFFSET_MARKER = Pattern.compile("(?i)\\bOFFSET\\s+\\$offset\\b");
+
+    public static QueryBindings of(Variable variable, Value value) {
+        return NONE.bind(variable, value);
+    }
+
+    public static QueryBindings of(String name, Value value) {
+        return NONE.bind(name, value);
+    }
+
+    public static QueryBindings slice(long limit, long offset) {
+        return new QueryBindings(Map.of(), limit, offset);
+    }
+
+    /**
+     * Binds the limit and offset only if the query has the marker for it (used for custom queries, which may leave
+     * out the markers).
+     */
+    public static QueryBindings slice(String query, long limit, long offset) {
+        return slice(LIMIT_MARKER.matcher(query).find() ? limit : -1, OFFSET_MARKER.matcher(query).find() ? offset : -1);
+    }
+
+    /**
+     * @return the query with the markers replaced by the given values, a negative value removes the clause
+     */
+    public static String expand(String query, long limit, long offset) {
+        String expanded = LIMIT_MARKER.matcher(query).replaceAll(limit >= 0 ? "LIMIT " + limit : "");
+        return OFFSET_MARKER.matcher(expanded).replaceAll(offset >= 0 ? "OFFSET " + offset : "");
+    }
+
+    /**
+     * @return the query with the markers replaced by the bound limit and offset (the variable values are not
+     * part of the query text)
+     */
+    public String expand(String query) {
+        return expand(query, this.limit, this.offset);
+    }
+
+    public QueryBindings bind(Variable variable, Value value) {
+        return this.bind(variable.getVarName(), value);
+    }
+
+    public QueryBindings bind(String name, Value value) {
+        Map<String, Value> values = new HashMap<>(this.values);
+        values.put(name, value);
+        return new QueryBindings(Map.copyOf(values), this.limit, this.offset);
+    }
+
+    public QueryBindings withSlice(long limit, long offset) {
+        return new QueryBindings(this.values, limit, offset);
+    }
+
+    public boolean hasSlice() {
+        return this.limit >= 0 || this.offset >= 0;
+    }
+
+    public boolean isEmpty() {
+        return this.values.isEmpty() && !this.hasSlice();
+    }
+}
@@ -0,0 +1,98 @@
+package trials;
+
+import org.av360.maverick.graph.store.rdf.helpers.DataBufferInputStream;
+import org.av360.maverick.graph.store.rdf4j.repository.util.ChunkedImporter;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.RDFParseException;
+import org.eclipse.rdf4j.rio.RDFParser;
+import org.eclipse.rdf4j.rio.Rio;
+import org.eclipse.rdf4j.sail.memory.MemoryStore;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Imports N-Triples from a stream of small data buffers in chunks, fails in the middle and resumes the import.
+ */
+public class ChunkedImportTest {
+
+    private static final int STATEMENTS = 10500;
+    private static final int CHUNK_SIZE = 1000;
+
+    @Test
+    public void importInChunks() throws Exception {
+        Repository repository = new SailRepository(new MemoryStore());
+        AtomicInteger chunks = new AtomicInteger();
+
+        try (RepositoryConnection connection = repository.getConnection();
+             DataBufferInputStream stream = new DataBufferInputStream(this.content(-1), 4)) {
+            ChunkedImporter importer = new ChunkedImporter(connection, CHUNK_SIZE, 0, progress -> chunks.incrementAndGet());
+            this.parser(importer).parse(stream);
+
+            assertEquals(STATEMENTS, importer.getCommitted());
+            assertEquals(STATEMENTS, connection.size());
+            assertEquals(11, chunks.get());
+            assertTrue(stream.getBytesRead() > 0);
+        }
+        repository.shutDown();
+    }
+
+    @Test
+    public void resumeAfterFailure() throws Exception {
+        Repository repository = new SailRepository(new MemoryStore());
+
+        try (RepositoryConnection connection = repository.getConnection()) {
+            ChunkedImporter failing = new ChunkedImporter(connection, CHUNK_SIZE, 0, progress -> {});
+            try (DataBufferInputStream stream = new DataBufferInputStream(this.content(5500), 4)) {
+                assertThrows(RDFParseException.class, () -> this.parser(failing).parse(stream));
+            }
+            assertEquals(5000, failing.getCommitted());
+            assertEquals(5000, connection.size());
+
+            ChunkedImporter resumed = new ChunkedImporter(connection, CHUNK_SIZE, failing.getCommitted(), progress -> {});
+            try (DataBufferInputStream stream = new DataBufferInputStream(this.content(-1), 4)) {
+                this.parser(resumed).parse(stream);
+            }
+            assertEquals(STATEMENTS, resumed.getCommitted());
+            assertEquals(STATEMENTS, connection.size());
+        }
+        repository.shutDown();
+    }
+
+    private RDFParser parser(ChunkedImporter importer) {
+        RDFParser parser = Rio.createParser(RDFFormat.NTRIPLES);
+        parser.setRDFHandler(importer);
+        return parser;
+    }
+
+    /**
+     * @param malformed the line which is broken, or -1
+     */
+    private Flux<DataBuffer> content(int malformed) {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < STATEMENTS; i++) {
+            if (i == malformed) content.append("<urn:test:broken \n");
+            else content.append("<urn:test:s").append(i / 10).append("> <urn:test:p> \"value ").append(i).append("\" .\n");
+        }
+
+        byte[] bytes = content.toString().getBytes(StandardCharsets.UTF_8);
+        List<DataBuffer> buffers = new ArrayList<>();
+        for (int offset = 0; offset < bytes.length; offset += 512) {
+            byte[] slice = new byte[Math.min(512, bytes.length - offset)];
+            System.arraycopy(bytes, offset, slice, 0, slice.length);
+            buffers.add(DefaultDataBufferFactory.sharedInstance.wrap(slice));
+        }
+        return Flux.fromIterable(buffers);
+    }
+}
@@ -0,0 +1,125 @@
+package trials;
+
+import org.av360.maverick.graph.model.vocabulary.meg.Local;
+import org.av360.maverick.graph.store.rdf.fragments.RdfFragment;
+import org.av360.maverick.graph.store.rdf4j.repository.util.DetailsStorage;
+import org.av360.maverick.graph.store.rdf4j.repository.util.FragmentLoader;
+import org.eclipse.rdf4j.model.*;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.model.util.Values;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.rio.helpers.RDFStarUtil;
+import org.eclipse.rdf4j.sail.lmdb.LmdbStore;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Writes, reads and removes the details of entities with 10, 100 and 500 values (each with two details), stored as
+ * reification nodes and as triple terms in a LMDB repository. Both forms have to return the same fragment, and migrating
+ * the reification nodes has to return it as well.
+ */
+@Tag("benchmark")
+public class DetailsStorageBenchmark {
+
+    private static final int[] SIZES = {10, 100, 500};
+    private static final int ITERATIONS = 20;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void compareStorage() {
+        System.out.printf("%-8s %-12s %12s %12s %12s %12s%n", "values", "storage", "statements", "write (ms)", "read (us)", "remove (ms)");
+
+        for (int size : SIZES) {
+            IRI id = Values.iri("urn:benchmark:entity:" + size);
+            Model model = this.entity(id, size);
+            RdfFragment expected = null;
+
+            for (DetailsStorage storage : DetailsStorage.values()) {
+                Repository repository = new SailRepository(new LmdbStore(this.directory.resolve(storage + "-" + size).toFile()));
+                repository.init();
+
+                try (RepositoryConnection connection = repository.getConnection()) {
+                    long start = System.nanoTime();
+                    connection.begin();
+                    connection.add(storage.encode(connection.getValueFactory(), model));
+                    connection.commit();
+                    double write = (System.nanoTime() - start) / 1_000_000d;
+                    long statements = connection.size();
+
+                    RdfFragment fragment = new FragmentLoader(connection, storage).load(id, 0, true);
+                    if (expected == null) expected = fragment;
+                    assertEquals(expected.getModel(), fragment.getModel());
+
+                    start = System.nanoTime();
+                    for (int i = 0; i < ITERATIONS; i++) new FragmentLoader(connection, storage).load(id, 0, true);
+                    double read = (System.nanoTime() - start) / 1000d / ITERATIONS;
+
+                    // remove the details of every second value, like removing the values would
+                    Model details = new LinkedHashModel();
+                    List<Statement> values = fragment.getModel().filter(id, RDFS.COMMENT, null).stream().toList();
+                    for (int i = 0; i < values.size(); i += 2) {
+                        details.addAll(storage.details(connection, Values.triple(values.get(i))));
+                    }
+                    start = System.nanoTime();
+                    connection.begin();
+                    connection.remove(storage.encodeRemovals(connection, details));
+                    connection.commit();
+                    double remove = (System.nanoTime() - start) / 1_000_000d;
+
+                    RdfFragment remaining = new FragmentLoader(connection, storage).load(id, 0, true);
+                    assertEquals(expected.getModel().size() - details.size(), remaining.getModel().size());
+
+                    System.out.printf("%-8d %-12s %12d %12.1f %12.1f %12.1f%n", size, storage, statements, write, read, remove);
+                }
+                repository.shutDown();
+            }
+
+            this.verifyMigration(id, model, expected);
+        }
+    }
+
+    private void verifyMigration(IRI id, Model model, RdfFragment expected) {
+        Repository repository = new SailRepository(new LmdbStore(this.directory.resolve("migration-" + model.size()).toFile()));
+        repository.init();
+
+        try (RepositoryConnection connection = repository.getConnection()) {
+            connection.add(DetailsStorage.REIFICATION.encode(connection.getValueFactory(), model));
+            long migrated = DetailsStorage.NATIVE.migrate(connection, 100);
+
+            assertTrue(migrated > 0);
+            assertTrue(connection.getStatements(null, RDF.TYPE, RDF.STATEMENT).stream().findAny().isEmpty());
+            assertEquals(expected.getModel(), new FragmentLoader(connection, DetailsStorage.NATIVE).load(id, 0, true).getModel());
+
+            // and back, the batches are committed while the statements are read
+            assertTrue(DetailsStorage.REIFICATION.migrate(connection, 100) > 0);
+            assertTrue(connection.getStatements(null, null, null).stream().noneMatch(statement -> RDFStarUtil.isEncodedTriple(statement.getSubject())));
+            assertEquals(expected.getModel(), new FragmentLoader(connection, DetailsStorage.REIFICATION).load(id, 0, true).getModel());
+        }
+        repository.shutDown();
+    }
+
+    private Model entity(IRI id, int size) {
+        Model model = new LinkedHashModel();
+        model.add(id, RDF.TYPE, Local.Entities.TYPE_INDIVIDUAL);
+        for (int i = 0; i < size; i++) {
+            Triple value = Values.triple(id, RDFS.COMMENT, Values.literal("value " + i));
+            model.add(value.getSubject(), value.getPredicate(), value.getObject());
+            model.add(value, RDFS.COMMENT, Values.literal("detail " + i));
+            model.add(value, RDFS.SEEALSO, Values.iri("urn:benchmark:source:" + (i % 10)));
+        }
+        return model;
+    }
+}
@@ -0,0 +1,115 @@
+package trials;
+
+import org.av360.maverick.graph.store.rdf.fragments.RdfFragment;
+import org.av360.maverick.graph.store.rdf.fragments.RdfTransaction;
+import org.av360.maverick.graph.store.rdf4j.repository.util.FragmentCache;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.util.Statements;
+import org.eclipse.rdf4j.model.util.Values;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Invalidation of cached fragments by the resources they have been loaded from.
+ */
+public class FragmentCacheTest {
+
+    private static final IRI ENTITY = Values.iri("urn:test:entity");
+    private static final IRI LINKED = Values.iri("urn:test:linked");
+    private static final IRI OTHER = Values.iri("urn:test:other");
+
+    private final FragmentCache cache = new FragmentCache(1000, 100, Duration.ofMinutes(1), null);
+
+    @Test
+    public void returnsCopies() {
+        FragmentCache.Key key = this.cache(ENTITY);
+
+        RdfFragment cached = this.cache.get(key);
+        assertNotNull(cached);
+        cached.getModel().add(ENTITY, RDFS.COMMENT, Values.literal("modified"));
+        assertEquals(2, this.cache.get(key).getModel().size());
+        assertEquals(2, this.cache.getHits());
+    }
+
+    @Test
+    public void invalidatesBySubjectAndLinkedResource() {
+        FragmentCache.Key key = this.cache(ENTITY);
+        this.cache.invalidate(List.of(OTHER));
+        assertNotNull(this.cache.get(key));
+
+        this.cache.invalidate(List.of(LINKED));
+        assertNull(this.cache.get(key));
+
+        key = this.cache(ENTITY);
+        this.cache.invalidate(new RdfTransaction().inserts(List.of(Statements.statement(ENTITY, RDFS.COMMENT, Values.literal("new"), null))));
+        assertNull(this.cache.get(key));
+    }
+
+    @Test
+    public void invalidatesByDetail() {
+        FragmentCache.Key key = this.cache(ENTITY);
+        Statement detail = Statements.statement(Values.triple(ENTITY, RDFS.LABEL, Values.literal("label")), RDFS.COMMENT, Values.literal("detail"), null);
+        this.cache.invalidate(new RdfTransaction().inserts(List.of(detail)));
+        assertNull(this.cache.get(key));
+    }
+
+    @Test
+    public void dropsFragmentInvalidatedWhileLoading() {
+        FragmentCache.Key key = new FragmentCache.Key("test", ENTITY, 0, false);
+        long[] snapshot = this.cache.snapshot("test");
+        this.cache.invalidate(List.of(ENTITY));
+        this.cache.put(key, this.fragment(), snapshot);
+        assertNull(this.cache.get(key));
+    }
+
+    @Test
+    public void invalidatesRepository() {
+        FragmentCache.Key key = this.cache(ENTITY);
+        this.cache.invalidate("other");
+        assertNotNull(this.cache.get(key));
+        this.cache.invalidate("test");
+        assertNull(this.cache.get(key));
+    }
+
+    @Test
+    public void dropsFragmentOnlyIfItsRepositoryIsInvalidatedWhileLoading() {
+        FragmentCache.Key key = new FragmentCache.Key("test", ENTITY, 0, false);
+        long[] snapshot = this.cache.snapshot("test");
+        this.cache.invalidate("other");
+        this.cache.put(key, this.fragment(), snapshot);
+        assertNotNull(this.cache.get(key));
+
+        snapshot = this.cache.snapshot("test");
+        this.cache.invalidate("test");
+        this.cache.put(key, this.fragment(), snapshot);
+        assertNull(this.cache.get(key));
+    }
+
+    @Test
+    public void skipsLargeFragments() {
+        FragmentCache.Key key = new FragmentCache.Key("test", ENTITY, 0, false);
+        RdfFragment fragment = this.fragment();
+        for (int i = 0; i < 100; i++) fragment.getModel().add(ENTITY, RDFS.COMMENT, Values.literal("value " + i));
+        this.cache.put(key, fragment, this.cache.snapshot("test"));
+        assertNull(this.cache.get(key));
+    }
+
+    private FragmentCache.Key cache(IRI id) {
+        FragmentCache.Key key = new FragmentCache.Key("test", id, 0, false);
+        this.cache.put(key, this.fragment(), this.cache.snapshot("test"));
+        return key;
+    }
+
+    private RdfFragment fragment() {
+        RdfFragment fragment = new RdfFragment(ENTITY);
+        fragment.getModel().add(ENTITY, RDFS.LABEL, Values.literal("label"));
+        fragment.getModel().add(ENTITY, RDFS.SEEALSO, LINKED);
+        return fragment;
+    }
+}
@@ -0,0 +1,91 @@
+package trials;
+
+import org.av360.maverick.graph.model.vocabulary.meg.Local;
+import org.av360.maverick.graph.store.rdf.LabeledRepository;
+import org.av360.maverick.graph.store.rdf4j.repository.util.FragmentCounters;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.util.ModelBuilder;
+import org.eclipse.rdf4j.model.util.Values;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.sail.memory.MemoryStore;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Reconciles the counters while entities are committed, every commit has to be counted exactly once.
+ */
+public class FragmentCountersTest {
+
+    private static final int THREADS = 4;
+    private static final int COMMITS = 250;
+
+    @Test
+    public void countsCommitsDuringReconcileOnce() throws Exception {
+        LabeledRepository repository = new LabeledRepository("test_fragment_counters", new SailRepository(new MemoryStore()));
+        repository.init();
+        FragmentCounters counters = new FragmentCounters(repository);
+        counters.reconcile();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS + 1);
+        AtomicInteger committed = new AtomicInteger();
+        // stops halfway, a later scan would hide the commits counted twice
+        Future<?> reconciling = executor.submit(() -> {
+            while (committed.get() < THREADS * COMMITS / 2) counters.reconcile();
+        });
+
+        Future<?>[] writers = new Future<?>[THREADS];
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            writers[t] = executor.submit(() -> {
+                for (int i = 0; i < COMMITS; i++) {
+                    this.commit(repository, counters, "urn:test:%d:%d".formatted(thread, i));
+                    committed.incrementAndGet();
+                }
+            });
+        }
+        for (Future<?> writer : writers) writer.get(60, TimeUnit.SECONDS);
+        reconciling.get(60, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        assertEquals(THREADS * COMMITS, counters.peek(Local.Entities.TYPE_INDIVIDUAL));
+        counters.reconcile();
+        assertEquals(THREADS * COMMITS, counters.peek(Local.Entities.TYPE_INDIVIDUAL));
+        repository.shutDown();
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void commit(LabeledRepository repository, FragmentCounters counters, String subject) {
+        IRI entity = Values.iri(subject);
+        Model model = new ModelBuilder().add(entity, RDF.TYPE, Local.Entities.TYPE_INDIVIDUAL).build();
+
+        counters.committing(() -> {
+            try (RepositoryConnection connection = repository.getConnection()) {
+                connection.begin();
+                Map<IRI, Long> added = FragmentCounters.added(connection, model);
+                connection.add(model);
+                connection.commit();
+                // the changes are visible before they are applied, a scan in between would count them twice
+                this.pause();
+                counters.apply(added, Map.of());
+            }
+        });
+    }
+}
@@ -0,0 +1,148 @@
+package trials;
+
+import org.av360.maverick.graph.model.vocabulary.meg.Local;
+import org.av360.maverick.graph.store.rdf.fragments.RdfFragment;
+import org.av360.maverick.graph.store.rdf4j.repository.util.FragmentLoader;
+import org.eclipse.rdf4j.model.*;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.model.util.ModelCollector;
+import org.eclipse.rdf4j.model.util.Models;
+import org.eclipse.rdf4j.model.util.Values;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.RepositoryResult;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.sail.memory.MemoryStore;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the fragment loader against the previous implementation (one lookup per statement and object) for fragments
+ * of 10, 100 and 1000 statements. Both loaders have to return the same fragment.
+ */
+@Tag("benchmark")
+public class FragmentLoaderBenchmark {
+
+    private static final int[] SIZES = {10, 100, 1000};
+    private static final ValueFactory vf = Values.getValueFactory();
+
+    @Test
+    public void compareLoaders() {
+        System.out.printf("%-10s %-10s %-8s %14s %14s%n", "statements", "neighbours", "details", "previous (us)", "loader (us)");
+
+        for (int size : SIZES) {
+            Repository repository = new SailRepository(new MemoryStore());
+            IRI id = this.populate(repository, size);
+
+            try (RepositoryConnection connection = repository.getConnection()) {
+                for (int neighbours : new int[]{0, 1}) {
+                    for (boolean details : new boolean[]{false, true}) {
+                        RdfFragment expected = this.loadPrevious(connection, id, neighbours, details);
+                        RdfFragment actual = new FragmentLoader(connection).load(id, neighbours, details);
+                        assertEquals(expected.getModel(), actual.getModel());
+
+                        int iterations = Math.max(5, 2000 / size);
+                        double previous = this.measure(c -> this.loadPrevious(c, id, neighbours, details), connection, iterations);
+                        double loader = this.measure(c -> new FragmentLoader(c).load(id, neighbours, details), connection, iterations);
+                        System.out.printf("%-10d %-10d %-8s %14.1f %14.1f%n", expected.getModel().size(), neighbours, details, previous, loader);
+                    }
+                }
+            }
+            repository.shutDown();
+        }
+    }
+
+    private double measure(Function<RepositoryConnection, RdfFragment> loader, RepositoryConnection connection, int iterations) {
+        loader.apply(connection);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) loader.apply(connection);
+        return (System.nanoTime() - start) / 1000d / iterations;
+    }
+
+    /**
+     * One quarter links to other entities, one eighth embedded objects, the rest are literals (of which every second has a detail).
+     */
+    private IRI populate(Repository repository, int size) {
+        IRI id = Values.iri("urn:benchmark:entity");
+        Model model = new LinkedHashModel();
+        model.add(id, RDF.TYPE, Local.Entities.TYPE_INDIVIDUAL);
+
+        for (int i = 1; i < size; i++) {
+            if (i % 4 == 0) {
+                IRI linked = Values.iri("urn:benchmark:linked:" + i);
+                model.add(id, RDFS.SEEALSO, linked);
+                model.add(linked, RDF.TYPE, Local.Entities.TYPE_INDIVIDUAL);
+                model.add(linked, RDFS.LABEL, Values.literal("linked " + i));
+            } else if (i % 8 == 1) {
+                IRI embedded = Values.iri("urn:benchmark:embedded:" + i);
+                model.add(id, RDFS.MEMBER, embedded);
+                model.add(embedded, RDF.TYPE, Local.Entities.TYPE_EMBEDDED);
+                model.add(embedded, RDFS.LABEL, Values.literal("embedded " + i));
+            } else {
+                Literal value = Values.literal("value " + i);
+                model.add(id, RDFS.COMMENT, value);
+                if (i % 2 == 0) {
+                    model.add(vf.createTriple(id, RDFS.COMMENT, value), RDFS.COMMENT, Values.literal("detail " + i));
+                }
+            }
+        }
+
+        try (RepositoryConnection connection = repository.getConnection()) {
+            connection.add(Models.convertRDFStarToReification(vf, model));
+        }
+        return id;
+    }
+
+
+    /* the loader as implemented before */
+
+    private RdfFragment loadPrevious(RepositoryConnection connection, IRI id, int includeNeighborsLevel, boolean includeDetails) {
+        try (RepositoryResult<Statement> statements = connection.getStatements(id, null, null)) {
+            RdfFragment entity = new RdfFragment(id).withResult(statements);
+            entity.getModel().addAll(this.loadEmbeds(connection, entity));
+            if (includeDetails) entity.getModel().addAll(this.loadDetailsWithReification(connection, entity));
+            if (includeNeighborsLevel == 1) entity.getModel().addAll(this.loadNeighbours(connection, entity));
+            return entity;
+        }
+    }
+
+    private Model loadDetailsWithReification(RepositoryConnection connection, RdfFragment triples) {
+        Model md = triples.getModel().stream()
+                .filter(statement -> (statement.getObject().isLiteral() || statement.getObject().isIRI()) && statement.getSubject().isIRI())
+                .flatMap(statement -> connection.getStatements(null, RDF.SUBJECT, statement.getSubject()).stream())
+                .flatMap(reification_subject_statement -> connection.getStatements(reification_subject_statement.getSubject(), null, null).stream())
+                .collect(new ModelCollector());
+        return Models.convertReificationToRDFStar(md);
+    }
+
+    private Model loadEmbeds(RepositoryConnection connection, RdfFragment entity) {
+        HashSet<Value> objects = new HashSet<>(entity.getModel().objects());
+        Set<Resource> embedsSubjects = objects.stream()
+                .filter(Value::isIRI)
+                .flatMap(value -> connection.getStatements((IRI) value, RDF.TYPE, Local.Entities.TYPE_EMBEDDED).stream())
+                .map(Statement::getSubject)
+                .collect(Collectors.toSet());
+        return embedsSubjects.stream()
+                .flatMap(resource -> connection.getStatements(resource, null, null).stream())
+                .collect(new ModelCollector());
+    }
+
+    private Model loadNeighbours(RepositoryConnection connection, RdfFragment entity) {
+        HashSet<Value> objects = new HashSet<>(entity.getModel().objects());
+        return objects.stream()
+                .filter(Value::isIRI)
+                .flatMap(value -> connection.getStatements((IRI) value, null, null).stream())
+                .filter(sts -> (sts.getObject().isLiteral() && sts.getObject().stringValue().length() < 128) || sts.getPredicate().equals(RDF.TYPE))
+                .collect(new ModelCollector());
+    }
+}
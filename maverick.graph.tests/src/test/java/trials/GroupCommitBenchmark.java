@@ -0,0 +1,108 @@
+package trials;
+
+import org.av360.maverick.graph.model.entities.Transaction;
+import org.av360.maverick.graph.model.vocabulary.meg.Transactions;
+import org.av360.maverick.graph.store.rdf.LabeledRepository;
+import org.av360.maverick.graph.store.rdf.fragments.RdfTransaction;
+import org.av360.maverick.graph.store.rdf4j.repository.util.GroupCommitter;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.util.Values;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.sail.lmdb.LmdbStore;
+import org.eclipse.rdf4j.sail.lmdb.config.LmdbStoreConfig;
+import org.eclipse.rdf4j.sail.memory.MemoryStore;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.publisher.Flux;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Measures commit throughput (commits/sec and statements/sec) of the group commit for different batch sizes. A batch size
+ * of one corresponds to the previous behaviour with one RDF4J transaction per commit.
+ */
+@Tag("benchmark")
+public class GroupCommitBenchmark {
+
+    private static final int COMMITS = 500;
+    private static final int STATEMENTS_PER_COMMIT = 10;
+    private static final int[] BATCH_SIZES = {1, 10, 50, 250};
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void memoryStore() {
+        this.run("memory", () -> new LabeledRepository("benchmark_memory", new SailRepository(new MemoryStore())));
+    }
+
+    @Test
+    public void lmdbStore() {
+        this.run("lmdb", () -> {
+            // same configuration as in DefaultRdfRepositoryBuilder
+            LmdbStoreConfig config = new LmdbStoreConfig();
+            config.setTripleIndexes("spoc,ospc,psoc");
+            config.setForceSync(false);
+            return new LabeledRepository("benchmark_lmdb", new SailRepository(new LmdbStore(this.directory.resolve("lmdb-" + System.nanoTime()).toFile(), config)));
+        });
+    }
+
+    private void run(String store, Supplier<LabeledRepository> repositorySupplier) {
+        System.out.printf("%-8s %10s %14s %16s%n", "store", "batch size", "commits/sec", "statements/sec");
+
+        for (int batchSize : BATCH_SIZES) {
+            LabeledRepository repository = repositorySupplier.get();
+            repository.init();
+
+            List<Transaction> transactions = new ArrayList<>();
+            for (int i = 0; i < COMMITS; i++) {
+                transactions.add(new RdfTransaction().inserts(this.entity(i)));
+            }
+            long statementsPerCommit = transactions.get(0).getModel().size();
+
+            GroupCommitter committer = new GroupCommitter(repository, Duration.ofMillis(10), (int) (batchSize * statementsPerCommit),
+                    (connection, trx) -> {
+                        connection.add(trx.getModel(Transactions.GRAPH_CREATED));
+                        return () -> {};
+                    });
+
+            long start = System.nanoTime();
+            Long completed = Flux.fromIterable(transactions)
+                    .flatMap(trx -> committer.submit(List.of(trx)), 256)
+                    .filter(Transaction::isCompleted)
+                    .count()
+                    .block();
+            double seconds = (System.nanoTime() - start) / 1_000_000_000d;
+
+            assertEquals(COMMITS, completed);
+            try (var connection = repository.getConnection()) {
+                assertEquals(COMMITS * STATEMENTS_PER_COMMIT, connection.size());
+            }
+
+            System.out.printf("%-8s %10d %14.0f %16.0f%n", store, batchSize, COMMITS / seconds, COMMITS * STATEMENTS_PER_COMMIT / seconds);
+
+            committer.shutdown();
+            repository.shutDown();
+        }
+    }
+
+    private List<Statement> entity(int index) {
+        IRI subject = Values.iri("urn:benchmark:entity:" + index);
+        List<Statement> statements = new ArrayList<>();
+        statements.add(Values.getValueFactory().createStatement(subject, RDF.TYPE, Values.iri("urn:benchmark:Type")));
+        for (int i = 1; i < STATEMENTS_PER_COMMIT; i++) {
+            statements.add(Values.getValueFactory().createStatement(subject, RDFS.LABEL, Values.literal("value " + i)));
+        }
+        return statements;
+    }
+}
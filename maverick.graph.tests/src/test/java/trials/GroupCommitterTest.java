@@ -0,0 +1,56 @@
+package trials;
+
+import org.av360.maverick.graph.model.entities.Transaction;
+import org.av360.maverick.graph.model.vocabulary.meg.Transactions;
+import org.av360.maverick.graph.store.rdf.LabeledRepository;
+import org.av360.maverick.graph.store.rdf.fragments.RdfTransaction;
+import org.av360.maverick.graph.store.rdf4j.repository.util.GroupCommitter;
+import org.eclipse.rdf4j.model.util.Statements;
+import org.eclipse.rdf4j.model.util.Values;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.sail.memory.MemoryStore;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Shuts down the group commit while commits are pending, and commits after the shutdown.
+ */
+public class GroupCommitterTest {
+
+    @Test
+    public void completesPendingCommitsAndRejectsNewOnesOnShutdown() throws Exception {
+        LabeledRepository repository = new LabeledRepository("test_group_commit", new SailRepository(new MemoryStore()));
+        repository.init();
+
+        // the window never ends, the commit is only written by the shutdown
+        GroupCommitter committer = new GroupCommitter(repository, Duration.ofHours(1), Integer.MAX_VALUE, (connection, trx) -> {
+            connection.add(trx.getModel(Transactions.GRAPH_CREATED));
+            return () -> {};
+        });
+
+        CompletableFuture<List<Transaction>> pending = committer.submit(List.of(this.transaction("pending"))).collectList().toFuture();
+        assertFalse(pending.isDone());
+
+        committer.shutdown();
+        List<Transaction> committed = pending.get(5, TimeUnit.SECONDS);
+        assertTrue(committed.get(0).isCompleted());
+        try (RepositoryConnection connection = repository.getConnection()) {
+            assertEquals(1, connection.size());
+        }
+
+        assertThrows(IllegalStateException.class, () -> committer.submit(List.of(this.transaction("rejected"))).blockLast(Duration.ofSeconds(5)));
+        repository.shutDown();
+    }
+
+    private Transaction transaction(String label) {
+        return new RdfTransaction().inserts(Statements.statement(Values.iri("urn:test:" + label), RDFS.LABEL, Values.literal(label), null));
+    }
+}
@@ -0,0 +1,92 @@
+package trials;
+
+import com.google.common.hash.Hashing;
+import org.av360.maverick.graph.model.identifier.ChecksumGenerator;
+import org.av360.maverick.graph.model.identifier.LocalIdentifier;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.Stack;
+import java.util.zip.CRC32C;
+import java.util.zip.Checksum;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Counts the collisions of checksum identifiers for 10M distinct inputs, with the default and a wider length. The
+ * identifiers are compared by a 64 bit fingerprint, which keeps the memory bounded (collisions of the fingerprints
+ * themselves are negligible at this size).
+ */
+public class IdentifierCollisionTest {
+
+    private static final int IDENTIFIERS = 10_000_000;
+
+    @Test
+    public void keepsDefaultIdentifiers() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            String input = "https://schema.org/VideoObject#" + Long.toString(random.nextLong(), 36) + (i % 7 == 0 ? "ä€" : "");
+            for (int length : new int[]{4, 6, LocalIdentifier.LENGTH}) {
+                assertEquals(legacyChecksum(input, length, LocalIdentifier.PADDING_CHAR), ChecksumGenerator.generateChecksum(input, length, LocalIdentifier.PADDING_CHAR));
+            }
+        }
+    }
+
+    @Test
+    @Tag("benchmark")
+    public void countCollisions() {
+        System.out.printf("%-8s %12s %12s%n", "length", "identifiers", "collisions");
+
+        long collisions = this.collisions(LocalIdentifier.LENGTH);
+        System.out.printf("%-8d %12d %12d%n", LocalIdentifier.LENGTH, IDENTIFIERS, collisions);
+
+        collisions = this.collisions(16);
+        System.out.printf("%-8d %12d %12d%n", 16, IDENTIFIERS, collisions);
+        assertEquals(0, collisions);
+    }
+
+    private long collisions(int length) {
+        long[] fingerprints = IntStream.range(0, IDENTIFIERS).parallel()
+                .mapToObj(i -> ChecksumGenerator.generateChecksum("https://example.org/entities/" + i, length, LocalIdentifier.PADDING_CHAR))
+                .mapToLong(id -> Hashing.murmur3_128().hashUnencodedChars(id).asLong())
+                .toArray();
+        Arrays.parallelSort(fingerprints);
+
+        long collisions = 0;
+        for (int i = 1; i < fingerprints.length; i++) {
+            if (fingerprints[i] == fingerprints[i - 1]) collisions++;
+        }
+        return collisions;
+    }
+
+    /**
+     * The previous implementation of the checksum generator.
+     */
+    private static String legacyChecksum(String val, int length, char paddingChar) {
+        Checksum checksum = new CRC32C();
+        checksum.update(val.getBytes(), 0, val.length());
+
+        char[] alphabet = "abcdefghijklmnopqrstuvwyz0123456789_".toCharArray();
+        BigInteger number = BigInteger.valueOf(checksum.getValue());
+        Stack<Integer> stack = new Stack<>();
+        do {
+            BigInteger[] divisionResultAndReminder = number.divideAndRemainder(BigInteger.valueOf(alphabet.length));
+            stack.push(divisionResultAndReminder[1].intValue());
+            number = divisionResultAndReminder[0];
+        } while (!number.equals(BigInteger.ZERO));
+
+        StringBuilder result = new StringBuilder();
+        while (!stack.empty()) {
+            result.append(alphabet[stack.pop()]);
+        }
+        String ser = result.toString();
+        if (ser.length() > length) return ser.substring(0, length - 1);
+        StringBuilder padded = new StringBuilder(ser);
+        while (padded.length() < length) padded.append(paddingChar);
+        return padded.toString();
+    }
+}
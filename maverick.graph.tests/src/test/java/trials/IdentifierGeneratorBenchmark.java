@@ -0,0 +1,71 @@
+package trials;
+
+import org.av360.maverick.graph.model.identifier.ChecksumGenerator;
+import org.av360.maverick.graph.model.identifier.LocalIdentifier;
+import org.av360.maverick.graph.model.identifier.RandomIdentifier;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Measures the generated identifiers per second with 1 to 32 threads, for checksum identifiers (default and wider
+ * length) and random identifiers.
+ */
+@Tag("benchmark")
+public class IdentifierGeneratorBenchmark {
+
+    private static final int IDENTIFIERS_PER_THREAD = 200_000;
+    private static final int[] THREADS = {1, 2, 4, 8, 16, 32};
+
+    @Test
+    public void generateIdentifiers() throws Exception {
+        System.out.printf("%-12s %8s %14s%n", "generator", "threads", "ids/sec");
+
+        for (int threads : THREADS) {
+            this.run("checksum-8", threads, i -> ChecksumGenerator.generateChecksum("https://example.org/entities/" + i, LocalIdentifier.LENGTH, LocalIdentifier.PADDING_CHAR));
+            this.run("checksum-16", threads, i -> ChecksumGenerator.generateChecksum("https://example.org/entities/" + i, 16, LocalIdentifier.PADDING_CHAR));
+            this.run("random-8", threads, i -> RandomIdentifier.generateRandomKey(LocalIdentifier.LENGTH));
+        }
+    }
+
+    private void run(String generator, int threads, IntFunction<String> generate) throws Exception {
+        // warm up
+        for (int i = 0; i < IDENTIFIERS_PER_THREAD; i++) generate.apply(i);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            Future<?>[] futures = new Future[threads];
+            long[] lengths = new long[threads];
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures[t] = executor.submit(() -> {
+                    start.await();
+                    long length = 0;
+                    for (int i = 0; i < IDENTIFIERS_PER_THREAD; i++) {
+                        length += generate.apply(thread * IDENTIFIERS_PER_THREAD + i).length();
+                    }
+                    lengths[thread] = length;
+                    return null;
+                });
+            }
+
+            long begin = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) future.get();
+            double seconds = (System.nanoTime() - begin) / 1_000_000_000d;
+
+            for (long length : lengths) assertEquals(IDENTIFIERS_PER_THREAD * (long) generate.apply(0).length(), length);
+            System.out.printf("%-12s %8d %14.0f%n", generator, threads, threads * IDENTIFIERS_PER_THREAD / seconds);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package trials;
+
+import org.av360.maverick.graph.store.rdf.LabeledRepository;
+import org.av360.maverick.graph.store.rdf.PoolExhaustedException;
+import org.eclipse.rdf4j.model.util.Values;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.RepositoryException;
+import org.eclipse.rdf4j.repository.RepositoryReadOnlyException;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.sail.memory.MemoryStore;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * An idle repository is only shut down without connections, and opened again by the next connection request. The
+ * connection pools are bounded, connections of the read lane reject modifications. A closed repository rejects
+ * connections.
+ */
+public class LabeledRepositoryTest {
+
+    @Test
+    public void reopensRepositoryShutDownWhileIdle() {
+        LabeledRepository repository = new LabeledRepository("test_idle_shutdown", new SailRepository(new MemoryStore()));
+        repository.init();
+
+        try (RepositoryConnection connection = repository.getConnection()) {
+            assertFalse(repository.shutDownIfIdle());
+            connection.add(Values.iri("urn:test:a"), RDFS.LABEL, Values.literal("a"));
+        }
+
+        assertTrue(repository.shutDownIfIdle());
+        assertFalse(repository.isInitialized());
+
+        try (RepositoryConnection connection = repository.getConnection(true)) {
+            assertTrue(repository.isInitialized());
+            assertTrue(connection.isOpen());
+        }
+        repository.shutDown();
+    }
+
+    @Test
+    public void rejectsModificationsInReadLane() {
+        LabeledRepository repository = new LabeledRepository("test_read_lane", new SailRepository(new MemoryStore()));
+        repository.init();
+
+        try (RepositoryConnection connection = repository.getConnection(true)) {
+            assertThrows(RepositoryReadOnlyException.class, () -> connection.add(Values.iri("urn:test:a"), RDFS.LABEL, Values.literal("a")));
+            assertThrows(RepositoryReadOnlyException.class, () -> connection.remove(Values.iri("urn:test:a"), null, null));
+            assertThrows(RepositoryReadOnlyException.class, () -> connection.prepareUpdate(QueryLanguage.SPARQL, "CLEAR ALL"));
+            assertEquals(0, connection.size());
+        }
+        repository.shutDown();
+    }
+
+    @Test
+    public void failsIfAllConnectionsAreInUse() {
+        LabeledRepository repository = new LabeledRepository("test_bounded_pool", new SailRepository(new MemoryStore()), 1, 1, Duration.ofMillis(10));
+        repository.init();
+
+        try (RepositoryConnection connection = repository.getConnection(true)) {
+            assertThrows(PoolExhaustedException.class, () -> repository.getConnection(true));
+            assertEquals(1, repository.getReadPool().getRejections());
+            assertEquals(1, repository.getConnectionsCount());
+        }
+
+        try (RepositoryConnection connection = repository.getConnection(true)) {
+            assertTrue(connection.isOpen());
+        }
+        repository.shutDown();
+    }
+
+    @Test
+    public void closesRepositoryOnlyWithoutConnections() {
+        LabeledRepository repository = new LabeledRepository("test_close", new SailRepository(new MemoryStore()));
+        repository.init();
+
+        try (RepositoryConnection connection = repository.getConnection()) {
+            assertFalse(repository.closeIfIdle());
+            assertTrue(connection.isOpen());
+        }
+
+        assertTrue(repository.closeIfIdle());
+        assertFalse(repository.isInitialized());
+        assertThrows(RepositoryException.class, () -> repository.getConnection(true));
+    }
+
+    @Test
+    public void waitsForConnectionsBeforeClosing() {
+        LabeledRepository repository = new LabeledRepository("test_close_when_idle", new SailRepository(new MemoryStore()));
+        repository.init();
+
+        RepositoryConnection connection = repository.getConnection();
+        assertFalse(repository.closeWhenIdle(Duration.ofMillis(20)));
+
+        CompletableFuture.runAsync(connection::close, CompletableFuture.delayedExecutor(100, TimeUnit.MILLISECONDS));
+        assertTrue(repository.closeWhenIdle(Duration.ofSeconds(5)));
+        assertTrue(repository.isClosed());
+    }
+}
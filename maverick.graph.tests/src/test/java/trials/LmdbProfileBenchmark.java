@@ -0,0 +1,98 @@
+package trials;
+
+import org.av360.maverick.graph.model.enums.RepositoryType;
+import org.av360.maverick.graph.store.rdf4j.config.LmdbProfile;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.model.util.Values;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.sail.lmdb.LmdbStore;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Writes and reads the same data with the default storage profile of each repository type. Reads are lookups by
+ * subject, by object (incoming links, for every fourth subject) and by type. Without an index starting with the object,
+ * the lookups by object scan the repository.
+ */
+@Tag("benchmark")
+public class LmdbProfileBenchmark {
+
+    private static final int SUBJECTS = 2000;
+    private static final int STATEMENTS_PER_SUBJECT = 10;
+    private static final int BATCH_SIZE = 100;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void compareProfiles() {
+        System.out.printf("%-14s %-16s %12s %14s %14s %12s%n", "profile", "indexes", "write (ms)", "subject (ms)", "object (ms)", "type (ms)");
+
+        for (RepositoryType type : new RepositoryType[]{RepositoryType.ENTITIES, RepositoryType.TRANSACTIONS, RepositoryType.SCHEMA, RepositoryType.APPLICATION}) {
+            LmdbProfile profile = LmdbProfile.defaults(type);
+            Repository repository = new SailRepository(new LmdbStore(this.directory.resolve(type.toString()).toFile(), profile.toConfig()));
+            repository.init();
+
+            try (RepositoryConnection connection = repository.getConnection()) {
+                double write = this.measure(connection, this::write);
+                assertEquals((long) SUBJECTS * STATEMENTS_PER_SUBJECT, connection.size());
+
+                double bySubject = this.measure(connection, c -> {
+                    for (int i = 0; i < SUBJECTS; i++) c.getStatements(subject(i), null, null).stream().count();
+                });
+                double byObject = this.measure(connection, c -> {
+                    for (int i = 0; i < SUBJECTS; i += 4) c.getStatements(null, null, subject(i)).stream().count();
+                });
+                double byType = this.measure(connection, c -> {
+                    for (int i = 0; i < 10; i++) c.getStatements(null, RDF.TYPE, type(i)).stream().count();
+                });
+
+                System.out.printf("%-14s %-16s %12.1f %14.1f %14.1f %12.1f%n", type, profile.tripleIndexes(), write, bySubject, byObject, byType);
+            }
+            repository.shutDown();
+        }
+    }
+
+    private void write(RepositoryConnection connection) {
+        for (int batch = 0; batch < SUBJECTS; batch += BATCH_SIZE) {
+            Model model = new LinkedHashModel();
+            for (int i = batch; i < batch + BATCH_SIZE; i++) {
+                IRI subject = subject(i);
+                model.add(subject, RDF.TYPE, type(i % 10));
+                model.add(subject, RDFS.SEEALSO, subject((i + 1) % SUBJECTS));
+                for (int v = 2; v < STATEMENTS_PER_SUBJECT; v++) {
+                    model.add(subject, RDFS.COMMENT, Values.literal("value " + i + " " + v));
+                }
+            }
+            connection.begin();
+            connection.add(model);
+            connection.commit();
+        }
+    }
+
+    private double measure(RepositoryConnection connection, Consumer<RepositoryConnection> operation) {
+        long start = System.nanoTime();
+        operation.accept(connection);
+        return (System.nanoTime() - start) / 1_000_000d;
+    }
+
+    private static IRI subject(int i) {
+        return Values.iri("urn:benchmark:entity:" + i);
+    }
+
+    private static IRI type(int i) {
+        return Values.iri("urn:benchmark:type:" + i);
+    }
+}
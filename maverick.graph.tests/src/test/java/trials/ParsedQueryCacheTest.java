@@ -0,0 +1,99 @@
+package trials;
+
+import org.av360.maverick.graph.store.rdf.helpers.ParsedQueryCache;
+import org.av360.maverick.graph.store.rdf.helpers.QueryBindings;
+import org.eclipse.rdf4j.model.util.Values;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.TupleQuery;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.repository.sail.SailRepositoryConnection;
+import org.eclipse.rdf4j.repository.sail.SailTupleQuery;
+import org.eclipse.rdf4j.sail.memory.MemoryStore;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Runs the same query text with different bindings from the parsed query cache, and compares the time with parsing the
+ * query for every call.
+ */
+public class ParsedQueryCacheTest {
+
+    private static final String QUERY = """
+            SELECT * WHERE {
+              ?s a ?type .
+              ?s <http://www.w3.org/2000/01/rdf-schema#label> ?label .
+            }
+            ORDER BY ?s
+            LIMIT $limit
+            OFFSET $offset
+            """;
+
+    @Test
+    public void bindingsAndSlices() {
+        SailRepository repository = new SailRepository(new MemoryStore());
+        ParsedQueryCache cache = new ParsedQueryCache(16);
+
+        try (SailRepositoryConnection connection = repository.getConnection()) {
+            for (int i = 0; i < 100; i++) {
+                connection.add(Values.iri("urn:test:" + String.format("%03d", i)), RDF.TYPE, Values.iri("urn:type:" + i % 2));
+                connection.add(Values.iri("urn:test:" + String.format("%03d", i)), RDFS.LABEL, Values.literal("label " + i));
+            }
+
+            List<BindingSet> page = this.run(connection, cache, QueryBindings.of("type", Values.iri("urn:type:1")).withSlice(5, 10));
+            assertEquals(5, page.size());
+            assertEquals("urn:test:021", page.get(0).getValue("s").stringValue());
+            // bound variables are part of the result
+            assertEquals("urn:type:1", page.get(0).getValue("type").stringValue());
+
+            // the cached algebra is not modified by running the query, without bound slice the query is not limited
+            assertEquals(100, this.run(connection, cache, QueryBindings.NONE).size());
+            assertEquals(5, this.run(connection, cache, QueryBindings.slice(10, 95)).size());
+            assertEquals(1, cache.getMisses());
+            assertEquals(2, cache.getHits());
+
+            // only the slices with markers are bound, other limits are kept
+            String nested = "SELECT ?s WHERE { { SELECT ?s WHERE { ?s a ?type } ORDER BY ?s LIMIT $limit } } ORDER BY DESC(?s) LIMIT 2";
+            List<BindingSet> last = this.run(connection, cache, nested, QueryBindings.slice(4, -1));
+            assertEquals(List.of("urn:test:003", "urn:test:002"), last.stream().map(b -> b.getValue("s").stringValue()).toList());
+
+            // the same query text for repositories which parse the query themselves
+            assertEquals(5, connection.prepareTupleQuery(QueryBindings.slice(5, 10).expand(QUERY)).evaluate().stream().count());
+            assertEquals(100, connection.prepareTupleQuery(QueryBindings.NONE.expand(QUERY)).evaluate().stream().count());
+
+            // a slice can only be bound to a query with markers, unless only the markers in the query are bound
+            assertThrows(IllegalArgumentException.class, () -> cache.parseTupleQuery("SELECT * WHERE { ?s ?p ?o } LIMIT 10", QueryBindings.NONE.withSlice(5, 0)));
+            assertEquals(200, this.run(connection, cache, "SELECT * WHERE { ?s ?p ?o }", QueryBindings.slice("SELECT * WHERE { ?s ?p ?o }", 5, 0)).size());
+
+            int runs = 200;
+            long start = System.nanoTime();
+            String expanded = QueryBindings.slice(10, 0).expand(QUERY);
+            for (int i = 0; i < runs; i++) connection.prepareTupleQuery(expanded).evaluate().close();
+            double parsed = (System.nanoTime() - start) / 1_000_000d;
+
+            start = System.nanoTime();
+            for (int i = 0; i < runs; i++) new SailTupleQuery(cache.parseTupleQuery(QUERY, QueryBindings.slice(10, 0)), connection).evaluate().close();
+            double cached = (System.nanoTime() - start) / 1_000_000d;
+
+            System.out.printf("%d queries: %.1f ms parsed, %.1f ms from cache%n", runs, parsed, cached);
+        }
+        repository.shutDown();
+    }
+
+    private List<BindingSet> run(SailRepositoryConnection connection, ParsedQueryCache cache, QueryBindings bindings) {
+        return this.run(connection, cache, QUERY, bindings);
+    }
+
+    private List<BindingSet> run(SailRepositoryConnection connection, ParsedQueryCache cache, String text, QueryBindings bindings) {
+        TupleQuery query = new SailTupleQuery(cache.parseTupleQuery(text, bindings), connection);
+        bindings.values().forEach(query::setBinding);
+        try (var result = query.evaluate()) {
+            return result.stream().toList();
+        }
+    }
+}